@@ -0,0 +1,88 @@
+package atomic_seat_booking.benchmarks;
+
+import atomic_seat_booking.entity.Booking;
+import atomic_seat_booking.service.IdempotencyPayloadCodec;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodings of the bookings cached and stored against an idempotency key: the fixed-layout
+ * {@link IdempotencyPayloadCodec} in use, against Jackson JSON and Jackson Smile.
+ * Payload sizes are printed during setup, since they matter as much for Redis and the table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdempotencyCodecBenchmark {
+
+    private static final TypeReference<List<Booking>> BOOKINGS = new TypeReference<>() {
+    };
+
+    // 1 is a single /confirm, 10 a full cart checkout
+    @Param({ "1", "10" })
+    public int bookingCount;
+
+    private final ObjectMapper json = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final ObjectMapper smile = new SmileMapper().registerModule(new JavaTimeModule());
+
+    private List<Booking> bookings;
+    private byte[] codecPayload;
+    private byte[] jsonPayload;
+    private byte[] smilePayload;
+
+    @Setup
+    public void setUp() throws IOException {
+        bookings = new ArrayList<>(bookingCount);
+        Instant bookedAt = Instant.now();
+        for (int i = 0; i < bookingCount; i++) {
+            bookings.add(new Booking(1_000_000L + i, "event-1", 64L * i + 3, "user-7f3c9a2e", bookedAt));
+        }
+        codecPayload = IdempotencyPayloadCodec.encode(bookings);
+        jsonPayload = json.writeValueAsBytes(bookings);
+        smilePayload = smile.writeValueAsBytes(bookings);
+        System.out.printf("%nPayload bytes for %d booking(s): codec=%d, json=%d, smile=%d%n", bookingCount,
+                codecPayload.length, jsonPayload.length, smilePayload.length);
+    }
+
+    @Benchmark
+    public byte[] codecEncode() {
+        return IdempotencyPayloadCodec.encode(bookings);
+    }
+
+    @Benchmark
+    public List<Booking> codecDecode() {
+        return IdempotencyPayloadCodec.decodeAll(codecPayload);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() throws IOException {
+        return json.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public List<Booking> jsonDecode() throws IOException {
+        return json.readValue(jsonPayload, BOOKINGS);
+    }
+
+    @Benchmark
+    public byte[] smileEncode() throws IOException {
+        return smile.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public List<Booking> smileDecode() throws IOException {
+        return smile.readValue(smilePayload, BOOKINGS);
+    }
+}
@@ -0,0 +1,95 @@
+package atomic_seat_booking.benchmarks;
+
+import atomic_seat_booking.service.RateLimiterService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The three bucket checks a /hold makes, spread over many users and seats, at 1 to 64 threads.
+ * Capacities are high enough that no check is ever rejected, so only lookup and consume are measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final int UNLIMITED = Integer.MAX_VALUE;
+
+    @Param({ "1000", "100000" })
+    public int keys;
+
+    @Param({ "10" })
+    public int events;
+
+    private RateLimiterService rateLimiterService;
+    private String[] userIds;
+    private Long[] seatIds;
+    private String[] eventIds;
+
+    @Setup
+    public void setUp() {
+        rateLimiterService = new RateLimiterService();
+        for (String limit : new String[] { "user", "seat", "event" }) {
+            ReflectionTestUtils.setField(rateLimiterService, limit + "Capacity", UNLIMITED);
+            ReflectionTestUtils.setField(rateLimiterService, limit + "Refill", UNLIMITED);
+        }
+
+        userIds = new String[keys];
+        seatIds = new Long[keys];
+        for (int i = 0; i < keys; i++) {
+            userIds[i] = "user-" + i;
+            seatIds[i] = (long) i;
+        }
+        eventIds = new String[events];
+        for (int i = 0; i < events; i++) {
+            eventIds[i] = "event-" + i;
+        }
+
+        // Buckets exist before measurement starts, as they would mid on-sale
+        for (int i = 0; i < keys; i++) {
+            rateLimiterService.checkUserLimit(userIds[i]);
+            rateLimiterService.checkSeatLimit(seatIds[i]);
+        }
+        for (String eventId : eventIds) {
+            rateLimiterService.checkEventLimit(eventId);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void holdChecks1Thread() {
+        holdChecks();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void holdChecks8Threads() {
+        holdChecks();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void holdChecks64Threads() {
+        holdChecks();
+    }
+
+    // Every thread hits the same event bucket: the contention of a single popular on-sale
+    @Benchmark
+    @Threads(64)
+    public void hotEventCheck64Threads() {
+        rateLimiterService.checkEventLimit(eventIds[0]);
+    }
+
+    private void holdChecks() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        rateLimiterService.checkUserLimit(userIds[random.nextInt(keys)]);
+        rateLimiterService.checkSeatLimit(seatIds[random.nextInt(keys)]);
+        rateLimiterService.checkEventLimit(eventIds[random.nextInt(events)]);
+    }
+}
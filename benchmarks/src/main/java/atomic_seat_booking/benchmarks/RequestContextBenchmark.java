@@ -0,0 +1,83 @@
+package atomic_seat_booking.benchmarks;
+
+import atomic_seat_booking.config.UserContext;
+import atomic_seat_booking.tracing.CorrelationIds;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request context overhead: the user thread-local set by the auth interceptor, the
+ * correlation id RequestCorrelationFilter generates and binds to the MDC (against the random
+ * UUID it used to generate), and the MDC copy made when a confirm is handed to the async worker pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestContextBenchmark {
+
+    private static final String MDC_KEY = "requestId";
+
+    private final String userId = "user-7f3c9a2e";
+    private final String requestId = UUID.randomUUID().toString();
+
+    @Benchmark
+    public String userContext() {
+        UserContext.setUserId(userId);
+        try {
+            return UserContext.getUserId();
+        } finally {
+            UserContext.clear();
+        }
+    }
+
+    @Benchmark
+    public String correlationIdGenerated() {
+        String generated = CorrelationIds.next();
+        MDC.put(MDC_KEY, generated);
+        try {
+            return MDC.get(MDC_KEY);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    @Benchmark
+    public String correlationIdRandomUuid() {
+        String generated = UUID.randomUUID().toString();
+        MDC.put(MDC_KEY, generated);
+        try {
+            return MDC.get(MDC_KEY);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    @Benchmark
+    public String correlationIdFromHeader() {
+        MDC.put(MDC_KEY, requestId);
+        try {
+            return MDC.get(MDC_KEY);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> mdcHandOff() {
+        MDC.put(MDC_KEY, requestId);
+        try {
+            Map<String, String> copy = MDC.getCopyOfContextMap();
+            MDC.setContextMap(copy);
+            return copy;
+        } finally {
+            MDC.clear();
+        }
+    }
+}
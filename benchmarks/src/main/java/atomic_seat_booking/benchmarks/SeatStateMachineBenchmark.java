@@ -0,0 +1,96 @@
+package atomic_seat_booking.benchmarks;
+
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.entity.SeatStatus;
+import atomic_seat_booking.exception.SeatAlreadyHeldException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@link Seat} transitions run inside every hold, confirm and expiry sweep, including
+ * the rejected hold, which throws a preallocated stackless exception, against the fresh exception
+ * with a stack trace it used to build.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SeatStateMachineBenchmark {
+
+    private static final String USER = "user-1";
+
+    private Seat seat;
+    private Instant now;
+    private Instant expiresAt;
+    private Instant expired;
+
+    @Setup
+    public void setUp() {
+        seat = new Seat();
+        seat.setId(42L);
+        seat.setEventId("event-1");
+        seat.setSeatNumber("A-1-1");
+        now = Instant.now();
+        expiresAt = now.plusSeconds(300);
+        expired = now.minusSeconds(1);
+    }
+
+    @Benchmark
+    public Seat hold() {
+        reset(SeatStatus.AVAILABLE, null, null);
+        seat.hold(USER, expiresAt);
+        return seat;
+    }
+
+    @Benchmark
+    public Seat book() {
+        reset(SeatStatus.HELD, USER, expiresAt);
+        seat.book(USER, now);
+        return seat;
+    }
+
+    @Benchmark
+    public boolean releaseIfExpired() {
+        reset(SeatStatus.HELD, USER, expired);
+        return seat.releaseIfExpired(now);
+    }
+
+    @Benchmark
+    public boolean releaseIfExpiredStillHeld() {
+        reset(SeatStatus.HELD, USER, expiresAt);
+        return seat.releaseIfExpired(now);
+    }
+
+    @Benchmark
+    public void holdRejected(Blackhole blackhole) {
+        reset(SeatStatus.HELD, "user-2", expiresAt);
+        try {
+            seat.hold(USER, expiresAt);
+        } catch (SeatAlreadyHeldException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void holdRejectedWithStackTrace(Blackhole blackhole) {
+        reset(SeatStatus.HELD, "user-2", expiresAt);
+        try {
+            if (seat.getStatus() == SeatStatus.HELD) {
+                throw new IllegalStateException("Seat is already held by another user");
+            }
+        } catch (IllegalStateException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    private void reset(SeatStatus status, String heldBy, Instant holdExpiresAt) {
+        seat.setStatus(status);
+        seat.setHeldByUserId(heldBy);
+        seat.setHoldExpiresAt(holdExpiresAt);
+    }
+}
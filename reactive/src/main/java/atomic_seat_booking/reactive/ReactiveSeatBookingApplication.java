@@ -0,0 +1,20 @@
+package atomic_seat_booking.reactive;
+
+import atomic_seat_booking.exception.GlobalExceptionHandler;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+/**
+ * The seat API (read, hold, confirm) on WebFlux, R2DBC and reactive Redis. Serves the same
+ * contracts as the servlet application against the same database and soft-hold keys, so the
+ * two can run side by side. The servlet application's exception handler is reused as-is.
+ */
+@SpringBootApplication
+@Import(GlobalExceptionHandler.class)
+public class ReactiveSeatBookingApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveSeatBookingApplication.class, args);
+    }
+}
@@ -0,0 +1,57 @@
+package atomic_seat_booking.reactive.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reactive counterpart of AuthenticationInterceptor: the X-User-Id header must name an existing
+ * user. The user id is written to the Reactor context for everything downstream.
+ */
+@Component
+public class AuthenticationWebFilter implements WebFilter {
+
+    private static final PathPattern SEAT_API = PathPatternParser.defaultInstance.parse("/api/seats/**");
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!SEAT_API.matches(exchange.getRequest().getPath().pathWithinApplication())) {
+            return chain.filter(exchange);
+        }
+
+        String userId = exchange.getRequest().getHeaders().getFirst("X-User-Id");
+        if (userId == null || userId.isEmpty()) {
+            return reject(exchange, "Missing X-User-Id header");
+        }
+
+        return databaseClient.sql("SELECT 1 FROM users WHERE id = :id")
+                .bind("id", userId)
+                .fetch()
+                .first()
+                .hasElement()
+                .flatMap(exists -> exists
+                        ? chain.filter(exchange).contextWrite(ReactiveUserContext.withUserId(userId))
+                        : reject(exchange, "User does not exist: " + userId));
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        DataBuffer body = response.bufferFactory().wrap(message.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(body));
+    }
+}
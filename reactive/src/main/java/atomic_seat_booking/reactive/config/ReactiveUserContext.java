@@ -0,0 +1,26 @@
+package atomic_seat_booking.reactive.config;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * The authenticated user of a reactive request. Carried in the Reactor context rather than a
+ * ThreadLocal (as UserContext does), since a request hops between event-loop threads.
+ */
+public final class ReactiveUserContext {
+
+    private static final String USER_ID = ReactiveUserContext.class.getName() + ".userId";
+
+    private ReactiveUserContext() {
+    }
+
+    public static Context withUserId(String userId) {
+        return Context.of(USER_ID, userId);
+    }
+
+    public static Mono<String> userId() {
+        return Mono.deferContextual(context -> context.<String>getOrEmpty(USER_ID)
+                .map(Mono::just)
+                .orElseGet(() -> Mono.error(new IllegalStateException("No authenticated user in context"))));
+    }
+}
@@ -0,0 +1,67 @@
+package atomic_seat_booking.reactive.controller;
+
+import atomic_seat_booking.dto.BookingResponse;
+import atomic_seat_booking.dto.HoldSeatResponse;
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.entity.SeatStatus;
+import atomic_seat_booking.reactive.repository.ReactiveSeatRepository;
+import atomic_seat_booking.reactive.service.ReactiveBookingService;
+import atomic_seat_booking.reactive.service.ReactiveSeatHoldService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The read, hold and confirm endpoints of SeatController, with the same paths, headers,
+ * response bodies and error mapping.
+ */
+@RestController
+@RequestMapping("/api/seats")
+public class ReactiveSeatController {
+
+    @Autowired
+    private ReactiveSeatRepository seatRepository;
+
+    @Autowired
+    private ReactiveSeatHoldService seatHoldService;
+
+    @Autowired
+    private ReactiveBookingService bookingService;
+
+    @GetMapping
+    public Flux<Seat> getAllSeats() {
+        return seatRepository.findAll();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Seat>> getSeatById(@PathVariable Long id) {
+        return seatRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{seatId}/hold")
+    public Mono<ResponseEntity<HoldSeatResponse>> holdSeat(@PathVariable Long seatId) {
+        return seatHoldService.holdSeat(seatId)
+                .map(seat -> ResponseEntity.ok(HoldSeatResponse.builder()
+                        .seatId(seat.getId())
+                        .status(seat.getStatus())
+                        .holdExpiresAt(seat.getHoldExpiresAt())
+                        .build()));
+    }
+
+    @PostMapping("/{seatId}/confirm")
+    public Mono<ResponseEntity<BookingResponse>> confirmSeat(
+            @PathVariable Long seatId,
+            @RequestHeader(value = "X-Idempotency-Key") String idempotencyKey) {
+
+        return bookingService.confirmSeat(seatId, idempotencyKey)
+                .map(booking -> ResponseEntity.ok(BookingResponse.builder()
+                        .bookingId(booking.getId())
+                        .seatId(booking.getSeatId())
+                        .status(SeatStatus.BOOKED)
+                        .build()));
+    }
+}
@@ -0,0 +1,64 @@
+package atomic_seat_booking.reactive.repository;
+
+import atomic_seat_booking.entity.Booking;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+/**
+ * Bookings and the idempotency keys stored against them, in the servlet application's tables
+ * and payload format, so either stack can replay the other's confirms.
+ */
+@Repository
+public class ReactiveBookingRepository {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<Booking> insert(Booking booking) {
+        return databaseClient.sql("INSERT INTO bookings (event_id, seat_id, user_id, booked_at) "
+                        + "VALUES (:eventId, :seatId, :userId, :bookedAt) RETURNING id")
+                .bind("eventId", booking.getEventId())
+                .bind("seatId", booking.getSeatId())
+                .bind("userId", booking.getUserId())
+                .bind("bookedAt", booking.getBookedAt().atOffset(ZoneOffset.UTC))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    booking.setId(id);
+                    return booking;
+                });
+    }
+
+    public Mono<byte[]> findIdempotencyPayload(String userId, String key, Instant cutoff) {
+        return databaseClient.sql("SELECT response_payload FROM idempotency_keys "
+                        + "WHERE user_id = :userId AND key = :key "
+                        + "AND created_day >= (:cutoff AT TIME ZONE 'UTC')::date AND created_at > :cutoff LIMIT 1")
+                .bind("userId", userId)
+                .bind("key", key)
+                .bind("cutoff", cutoff.atOffset(ZoneOffset.UTC))
+                .map(row -> toBytes(row.get("response_payload", ByteBuffer.class)))
+                .one();
+    }
+
+    public Mono<Void> insertIdempotencyKey(String userId, String key, byte[] payload) {
+        return databaseClient.sql("INSERT INTO idempotency_keys "
+                        + "(user_id, key, response_payload, created_at, created_day) "
+                        + "VALUES (:userId, :key, :payload, now(), (now() AT TIME ZONE 'UTC')::date)")
+                .bind("userId", userId)
+                .bind("key", key)
+                .bind("payload", ByteBuffer.wrap(payload))
+                .then();
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,35 @@
+package atomic_seat_booking.reactive.repository;
+
+import atomic_seat_booking.entity.OutboxEventType;
+import atomic_seat_booking.entity.Seat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+/**
+ * Writes seat events to the outbox table in the caller's transaction. The servlet
+ * application's relay publishes them; this stack runs no relay of its own.
+ */
+@Repository
+public class ReactiveOutboxRepository {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<Void> insert(OutboxEventType type, Seat seat, String userId, Long bookingId) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("INSERT INTO outbox_events "
+                        + "(type, seat_id, event_id, user_id, booking_id, occurred_at) "
+                        + "VALUES (:type, :seatId, :eventId, :userId, :bookingId, :occurredAt)")
+                .bind("type", type.name())
+                .bind("seatId", seat.getId())
+                .bind("eventId", seat.getEventId())
+                .bind("userId", userId)
+                .bind("occurredAt", Instant.now().atOffset(ZoneOffset.UTC));
+        spec = bookingId == null ? spec.bindNull("bookingId", Long.class) : spec.bind("bookingId", bookingId);
+        return spec.then();
+    }
+}
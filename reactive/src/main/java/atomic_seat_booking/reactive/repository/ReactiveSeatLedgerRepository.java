@@ -0,0 +1,37 @@
+package atomic_seat_booking.reactive.repository;
+
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.ledger.LedgerEntryType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Appends seat transitions to the {@code seat_events} ledger in the caller's transaction, under
+ * the seat's row lock, as the servlet application's SeatLedger does. Entries are stamped with the
+ * database clock, like the servlet nodes', so the settled ledger head means the same for both.
+ */
+@Repository
+public class ReactiveSeatLedgerRepository {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<Void> append(LedgerEntryType type, Seat seat, String userId, Long bookingId) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("INSERT INTO seat_events "
+                        + "(event_id, seat_id, type, user_id, hold_expires_at, booking_id, recorded_at) "
+                        + "VALUES (:eventId, :seatId, :type, :userId, :holdExpiresAt, :bookingId, clock_timestamp())")
+                .bind("eventId", seat.getEventId())
+                .bind("seatId", seat.getId())
+                .bind("type", type.name())
+                .bind("userId", userId);
+        spec = seat.getHoldExpiresAt() == null ? spec.bindNull("holdExpiresAt", OffsetDateTime.class)
+                : spec.bind("holdExpiresAt", seat.getHoldExpiresAt().atOffset(ZoneOffset.UTC));
+        spec = bookingId == null ? spec.bindNull("bookingId", Long.class) : spec.bind("bookingId", bookingId);
+        return spec.then();
+    }
+}
@@ -0,0 +1,101 @@
+package atomic_seat_booking.reactive.repository;
+
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.entity.SeatStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Seat queries as SeatRepository runs them, over R2DBC. Row locks must be taken inside a
+ * transaction (see TransactionalOperator in the services).
+ */
+@Repository
+public class ReactiveSeatRepository {
+
+    private static final String COLUMNS = "id, event_id, seat_number, status, held_by_user_id, hold_expires_at";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Value("${seating.lock.timeout.millis:2000}")
+    private long lockTimeoutMillis;
+
+    // A seat never changes event, so its route is cached for as long as it is in use
+    private final Cache<Long, String> seatEvents = Caffeine.newBuilder()
+            .maximumSize(200_000)
+            .build();
+
+    public Flux<Seat> findAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM seats")
+                .map(ReactiveSeatRepository::toSeat)
+                .all();
+    }
+
+    public Mono<Seat> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM seats WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveSeatRepository::toSeat)
+                .one();
+    }
+
+    /**
+     * The seat's event, which prunes every later query to the event's partition.
+     */
+    public Mono<String> eventIdOf(Long seatId) {
+        String cached = seatEvents.getIfPresent(seatId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return databaseClient.sql("SELECT event_id FROM seats WHERE id = :id")
+                .bind("id", seatId)
+                .map(row -> row.get("event_id", String.class))
+                .one()
+                .doOnNext(eventId -> seatEvents.put(seatId, eventId));
+    }
+
+    public Mono<Seat> findByIdForUpdate(Long id, String eventId) {
+        return databaseClient.sql("SET LOCAL lock_timeout = '" + lockTimeoutMillis + "ms'")
+                .then()
+                .then(databaseClient.sql("SELECT " + COLUMNS + " FROM seats WHERE id = :id AND event_id = :eventId "
+                                + "FOR UPDATE")
+                        .bind("id", id)
+                        .bind("eventId", eventId)
+                        .map(ReactiveSeatRepository::toSeat)
+                        .one());
+    }
+
+    public Mono<Void> update(Seat seat) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("UPDATE seats SET status = :status, "
+                        + "held_by_user_id = :heldBy, hold_expires_at = :expiresAt "
+                        + "WHERE id = :id AND event_id = :eventId")
+                .bind("status", seat.getStatus().getCode())
+                .bind("id", seat.getId())
+                .bind("eventId", seat.getEventId());
+        spec = seat.getHeldByUserId() == null ? spec.bindNull("heldBy", String.class)
+                : spec.bind("heldBy", seat.getHeldByUserId());
+        spec = seat.getHoldExpiresAt() == null ? spec.bindNull("expiresAt", OffsetDateTime.class)
+                : spec.bind("expiresAt", seat.getHoldExpiresAt().atOffset(ZoneOffset.UTC));
+        return spec.then();
+    }
+
+    private static Seat toSeat(Readable row) {
+        OffsetDateTime holdExpiresAt = row.get("hold_expires_at", OffsetDateTime.class);
+        return new Seat(
+                row.get("id", Long.class),
+                row.get("event_id", String.class),
+                row.get("seat_number", String.class),
+                SeatStatus.fromCode(row.get("status", Short.class)),
+                row.get("held_by_user_id", String.class),
+                holdExpiresAt == null ? null : holdExpiresAt.toInstant());
+    }
+}
@@ -0,0 +1,133 @@
+package atomic_seat_booking.reactive.service;
+
+import atomic_seat_booking.entity.Booking;
+import atomic_seat_booking.entity.OutboxEventType;
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.exception.IdempotencyConflictException;
+import atomic_seat_booking.ledger.LedgerEntryType;
+import atomic_seat_booking.reactive.config.ReactiveUserContext;
+import atomic_seat_booking.reactive.repository.ReactiveBookingRepository;
+import atomic_seat_booking.reactive.repository.ReactiveOutboxRepository;
+import atomic_seat_booking.reactive.repository.ReactiveSeatLedgerRepository;
+import atomic_seat_booking.reactive.repository.ReactiveSeatRepository;
+import atomic_seat_booking.service.IdempotencyPayloadCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * BookingService.confirmSeat without blocking, behind the same rate limits. Replays come from the
+ * idempotency table only (the servlet nodes' local and Redis replay caches are not consulted). A
+ * duplicate that was waiting on the row lock while the original committed finds the seat booked
+ * and is answered with the original booking, so concurrent duplicates are serialized by the row
+ * lock rather than coalesced in memory. As on the servlet nodes the payment is taken under the
+ * row lock, which here keeps an R2DBC connection out of the pool for the whole call.
+ */
+@Service
+@Slf4j
+public class ReactiveBookingService {
+
+    @Autowired
+    private ReactiveSeatRepository seatRepository;
+
+    @Autowired
+    private ReactiveBookingRepository bookingRepository;
+
+    @Autowired
+    private ReactiveOutboxRepository outboxRepository;
+
+    @Autowired
+    private ReactiveSeatLedgerRepository seatLedgerRepository;
+
+    @Autowired
+    private ReactivePaymentClient paymentClient;
+
+    @Autowired
+    private ReactiveRateLimiterService rateLimiterService;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private Clock clock;
+
+    @Value("${booking.seat.price:100}")
+    private long seatPrice;
+
+    @Value("${idempotency.retention.days:7}")
+    private long retentionDays;
+
+    public Mono<Booking> confirmSeat(Long seatId, String idempotencyKey) {
+        return ReactiveUserContext.userId().flatMap(userId -> Mono.fromRunnable(() -> {
+                    rateLimiterService.checkUserLimit(userId);
+                    rateLimiterService.checkSeatLimit(seatId);
+                })
+                .then(findReplay(userId, idempotencyKey, seatId))
+                .switchIfEmpty(Mono.defer(() -> transactionalOperator.transactional(
+                        lockAndBook(seatId, userId, idempotencyKey)))));
+    }
+
+    private Mono<Booking> lockAndBook(Long seatId, String userId, String idempotencyKey) {
+        return seatRepository.eventIdOf(seatId)
+                .flatMap(eventId -> seatRepository.findByIdForUpdate(seatId, eventId))
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Seat not found with ID: " + seatId)))
+                .flatMap(seat -> {
+                    rateLimiterService.checkEventLimit(seat.getEventId());
+                    Instant now = Instant.now(clock);
+                    if (!seat.isAvailableForBooking(userId, now)) {
+                        log.info("Validation failed for seat booking. seatId={}, userId={}, status={}", seatId,
+                                userId, seat.getStatus());
+                        return findReplay(userId, idempotencyKey, seatId)
+                                .switchIfEmpty(Mono.fromRunnable(() -> seat.checkBookable(userId, now)) // Throws
+                                        .then(Mono.error(() -> new IllegalStateException(
+                                                "Seat is not bookable: " + seat.getStatus()))));
+                    }
+                    return paymentClient.charge(userId, seatPrice, idempotencyKey)
+                            .then(Mono.defer(() -> book(seat, userId, idempotencyKey, now)));
+                });
+    }
+
+    private Mono<Booking> book(Seat seat, String userId, String idempotencyKey, Instant now) {
+        seat.book(userId, now);
+
+        Booking booking = new Booking();
+        booking.setEventId(seat.getEventId());
+        booking.setSeatId(seat.getId());
+        booking.setUserId(userId);
+        booking.setBookedAt(now);
+
+        return bookingRepository.insert(booking)
+                .flatMap(saved -> seatRepository.update(seat)
+                        .then(outboxRepository.insert(OutboxEventType.SEAT_BOOKED, seat, userId, saved.getId()))
+                        .then(seatLedgerRepository.append(LedgerEntryType.BOOKED, seat, userId, saved.getId()))
+                        .then(bookingRepository.insertIdempotencyKey(userId, idempotencyKey,
+                                IdempotencyPayloadCodec.encode(saved)))
+                        .then(Mono.fromSupplier(() -> {
+                            log.info("Booking confirmed successfully. seatId={}, bookingId={}, userId={}",
+                                    seat.getId(), saved.getId(), userId);
+                            return saved;
+                        })));
+    }
+
+    private Mono<Booking> findReplay(String userId, String idempotencyKey, Long seatId) {
+        return bookingRepository.findIdempotencyPayload(userId, idempotencyKey,
+                        Instant.now(clock).minus(retentionDays, ChronoUnit.DAYS))
+                .map(payload -> {
+                    List<Booking> stored = IdempotencyPayloadCodec.decodeAll(payload);
+                    if (stored.size() != 1 || !stored.get(0).getSeatId().equals(seatId)) {
+                        throw new IdempotencyConflictException(
+                                "Idempotency key already used for a different seat booking");
+                    }
+                    log.info("Idempotency hit detected. idempotencyKey={}", idempotencyKey);
+                    return stored.get(0);
+                });
+    }
+}
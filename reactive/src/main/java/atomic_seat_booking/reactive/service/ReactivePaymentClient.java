@@ -0,0 +1,130 @@
+package atomic_seat_booking.reactive.service;
+
+import atomic_seat_booking.exception.PaymentDeclinedException;
+import atomic_seat_booking.exception.PaymentUnavailableException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Charges through the same {@code POST {payment.gateway.url}/charges} contract as
+ * HttpPaymentGateway, without holding a thread while waiting. Attempts are timed out, transient
+ * failures retried with backoff, and the whole charge bounded by payment.deadline.millis.
+ * Hedging and the circuit breaker of ResilientPaymentClient are not reproduced here.
+ */
+@Component
+@Slf4j
+public class ReactivePaymentClient {
+
+    @Value("${payment.gateway.url:}")
+    private String gatewayUrl;
+
+    @Value("${payment.simulated.error-percent:10}")
+    private int simulatedErrorPercent;
+
+    @Value("${payment.simulated.decline-percent:20}")
+    private int simulatedDeclinePercent;
+
+    @Value("${payment.deadline.millis:5000}")
+    private long deadlineMillis;
+
+    @Value("${payment.attempt.timeout.millis:2500}")
+    private long attemptTimeoutMillis;
+
+    @Value("${payment.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${payment.retry.backoff.millis:100}")
+    private long backoffMillis;
+
+    private WebClient webClient;
+
+    @PostConstruct
+    void init() {
+        if (!gatewayUrl.isBlank()) {
+            webClient = WebClient.builder().baseUrl(gatewayUrl.replaceAll("/+$", "")).build();
+            log.info("Payment gateway configured. url={}", gatewayUrl);
+        } else {
+            log.info("No payment gateway URL configured, using the simulated gateway");
+        }
+    }
+
+    /**
+     * Client keys are only unique per user, so the gateway is given a key derived from both, the
+     * same one PaymentService sends.
+     */
+    public Mono<Void> charge(String userId, long amount, String idempotencyKey) {
+        String gatewayKey = gatewayKey(userId, idempotencyKey);
+        Mono<Void> attempt = Mono.defer(() -> webClient == null ? simulatedCharge(userId, idempotencyKey)
+                : httpCharge(userId, amount, gatewayKey))
+                .timeout(Duration.ofMillis(attemptTimeoutMillis));
+
+        return attempt
+                .retryWhen(Retry.backoff(maxAttempts - 1, Duration.ofMillis(backoffMillis))
+                        .filter(e -> !(e instanceof PaymentDeclinedException))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .timeout(Duration.ofMillis(deadlineMillis))
+                .onErrorMap(e -> !(e instanceof PaymentDeclinedException || e instanceof PaymentUnavailableException),
+                        e -> new PaymentUnavailableException("Payment gateway error: " + e.getMessage()));
+    }
+
+    private Mono<Void> httpCharge(String userId, long amount, String idempotencyKey) {
+        return webClient.post()
+                .uri("/charges")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", idempotencyKey)
+                .bodyValue(Map.of("userId", userId, "amount", amount))
+                .exchangeToMono(response -> response.releaseBody().then(outcome(response.statusCode())));
+    }
+
+    // 2xx is success, 4xx (except 408/429) a definitive decline, anything else transient
+    private static Mono<Void> outcome(HttpStatusCode status) {
+        if (status.is2xxSuccessful()) {
+            return Mono.empty();
+        }
+        if (status.is4xxClientError() && status.value() != 408 && status.value() != 429) {
+            return Mono.error(new PaymentDeclinedException("Payment declined by gateway. status=" + status.value()));
+        }
+        return Mono.error(new PaymentUnavailableException("Payment gateway error. status=" + status.value()));
+    }
+
+    // Same odds as SimulatedPaymentGateway: delayed by 2 s then transient, or declined
+    private Mono<Void> simulatedCharge(String userId, String idempotencyKey) {
+        int outcome = ThreadLocalRandom.current().nextInt(100);
+        if (outcome < simulatedErrorPercent) {
+            return Mono.delay(Duration.ofSeconds(2))
+                    .then(Mono.error(() -> new PaymentUnavailableException("Simulated payment gateway error")));
+        }
+        if (outcome < simulatedErrorPercent + simulatedDeclinePercent) {
+            return Mono.error(() -> {
+                log.warn("Payment declined simulation. userId={}, idempotencyKey={}", userId, idempotencyKey);
+                return new PaymentDeclinedException("Payment declined: insufficient funds");
+            });
+        }
+        return Mono.empty();
+    }
+
+    private static String gatewayKey(String userId, String idempotencyKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((userId + ':' + idempotencyKey).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package atomic_seat_booking.reactive.service;
+
+import atomic_seat_booking.exception.RateLimitExceededException;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RateLimiterService's per-user, per-seat and per-event buckets with the same {@code ratelimit.*}
+ * settings. Buckets are per node, as they are on the servlet nodes. Taking a token never blocks,
+ * so the checks run inline on the event loop.
+ */
+@Service
+@Slf4j
+public class ReactiveRateLimiterService {
+
+    private final Map<String, Bucket> userBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> seatBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> eventBuckets = new ConcurrentHashMap<>();
+
+    @Value("${ratelimit.user.capacity:5}")
+    private int userCapacity;
+    @Value("${ratelimit.user.refill:5}")
+    private int userRefill;
+
+    @Value("${ratelimit.seat.capacity:10}")
+    private int seatCapacity;
+    @Value("${ratelimit.seat.refill:10}")
+    private int seatRefill;
+
+    @Value("${ratelimit.event.capacity:100}")
+    private int eventCapacity;
+    @Value("${ratelimit.event.refill:100}")
+    private int eventRefill;
+
+    public void checkUserLimit(String userId) {
+        Bucket bucket = userBuckets.computeIfAbsent(userId, k -> createNewBucket(userCapacity, userRefill));
+        if (!bucket.tryConsume(1)) {
+            log.warn("Rate limit exceeded for user: {}", userId);
+            throw new RateLimitExceededException("Too many requests for user: " + userId);
+        }
+    }
+
+    public void checkSeatLimit(Long seatId) {
+        Bucket bucket = seatBuckets.computeIfAbsent(String.valueOf(seatId),
+                k -> createNewBucket(seatCapacity, seatRefill));
+        if (!bucket.tryConsume(1)) {
+            log.warn("Rate limit exceeded for seat: {}", seatId);
+            throw new RateLimitExceededException("Too many requests for seat: " + seatId);
+        }
+    }
+
+    public void checkEventLimit(String eventId) {
+        Bucket bucket = eventBuckets.computeIfAbsent(eventId, k -> createNewBucket(eventCapacity, eventRefill));
+        if (!bucket.tryConsume(1)) {
+            log.warn("Rate limit exceeded for event: {}", eventId);
+            throw new RateLimitExceededException("Too many requests for event: " + eventId);
+        }
+    }
+
+    private Bucket createNewBucket(int capacity, int refillAmount) {
+        return Bucket.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(capacity)
+                        .refillGreedy(refillAmount, Duration.ofMinutes(1))
+                        .build())
+                .build();
+    }
+}
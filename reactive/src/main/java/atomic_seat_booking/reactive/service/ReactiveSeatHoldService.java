@@ -0,0 +1,122 @@
+package atomic_seat_booking.reactive.service;
+
+import atomic_seat_booking.entity.OutboxEventType;
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.entity.SeatStatus;
+import atomic_seat_booking.exception.SeatAlreadyHeldException;
+import atomic_seat_booking.ledger.LedgerEntryType;
+import atomic_seat_booking.reactive.config.ReactiveUserContext;
+import atomic_seat_booking.reactive.repository.ReactiveOutboxRepository;
+import atomic_seat_booking.reactive.repository.ReactiveSeatLedgerRepository;
+import atomic_seat_booking.reactive.repository.ReactiveSeatRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * SeatHoldService's flow without blocking: rate limits, soft hold, then the seat row lock, then
+ * {@link Seat#hold}. A lapsed hold the sweep has not reached yet is released here and offered to
+ * the seat's waitlist first, as on the servlet nodes; losing it to a waitlisted user still commits
+ * the release and the offer.
+ */
+@Service
+@Slf4j
+public class ReactiveSeatHoldService {
+
+    @Autowired
+    private ReactiveSeatRepository seatRepository;
+
+    @Autowired
+    private ReactiveOutboxRepository outboxRepository;
+
+    @Autowired
+    private ReactiveSeatLedgerRepository seatLedgerRepository;
+
+    @Autowired
+    private ReactiveSoftHoldService softHoldService;
+
+    @Autowired
+    private ReactiveRateLimiterService rateLimiterService;
+
+    @Autowired
+    private ReactiveWaitlistService waitlistService;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private Clock clock;
+
+    public Mono<Seat> holdSeat(Long seatId) {
+        return ReactiveUserContext.userId().flatMap(userId -> Mono.fromRunnable(() -> {
+                    rateLimiterService.checkUserLimit(userId);
+                    rateLimiterService.checkSeatLimit(seatId);
+                })
+                .then(softHoldService.hasSoftHold(seatId, userId))
+                .flatMap(owned -> owned ? Mono.just(true) : softHoldService.createSoftHold(seatId, "SYSTEM_CHECK"))
+                .flatMap(allowed -> {
+                    if (!allowed) {
+                        log.info("Soft hold exists for another user. seatId={}, userId={}", seatId, userId);
+                        return Mono.error(SeatAlreadyHeldException.SOFT_HELD);
+                    }
+                    return transactionalOperator.transactional(lockAndHold(seatId, userId));
+                })
+                .flatMap(seat -> {
+                    // Checked after commit, so the release and the offer to the waitlisted user stand
+                    if (!userId.equals(seat.getHeldByUserId())) {
+                        log.info("Seat hold failed: offered to waitlist. seatId={}, userId={}, offeredTo={}", seatId,
+                                userId, seat.getHeldByUserId());
+                        return Mono.error(SeatAlreadyHeldException.OFFERED_TO_WAITLIST);
+                    }
+                    return softHoldService.removeSoftHold(seatId).thenReturn(seat);
+                }));
+    }
+
+    private Mono<Seat> lockAndHold(Long seatId, String userId) {
+        return seatRepository.eventIdOf(seatId)
+                .flatMap(eventId -> seatRepository.findByIdForUpdate(seatId, eventId))
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Seat not found with ID: " + seatId)))
+                .flatMap(seat -> {
+                    rateLimiterService.checkEventLimit(seat.getEventId());
+                    Instant now = Instant.now(clock);
+                    if (seat.getStatus() == SeatStatus.HELD && seat.isHoldExpired(now)) {
+                        return releaseLapsed(seat, now)
+                                .flatMap(offeredTo -> seatRepository.update(seat).thenReturn(seat))
+                                .switchIfEmpty(Mono.defer(() -> hold(seat, userId, now)));
+                    }
+                    return hold(seat, userId, now);
+                });
+    }
+
+    /**
+     * Releases an expired hold and offers the seat to its waitlist. Completes with the user it was
+     * offered to, who now holds it, or empty if the seat is available.
+     */
+    private Mono<String> releaseLapsed(Seat seat, Instant now) {
+        String previousHolder = seat.getHeldByUserId();
+        log.info("Seat hold expired, releasing for reuse. seatId={}, heldByUserId={}", seat.getId(), previousHolder);
+        seat.release();
+        return outboxRepository.insert(OutboxEventType.SEAT_RELEASED, seat, previousHolder, null)
+                .then(seatLedgerRepository.append(LedgerEntryType.RELEASED, seat, previousHolder, null))
+                .then(Mono.defer(() -> waitlistService.offerToNext(seat, previousHolder, now)));
+    }
+
+    private Mono<Seat> hold(Seat seat, String userId, Instant now) {
+        Instant expiresAt = now.plus(15, ChronoUnit.MINUTES);
+        seat.hold(userId, expiresAt); // Throws the domain exception if held or booked
+        return seatRepository.update(seat)
+                .then(outboxRepository.insert(OutboxEventType.SEAT_HELD, seat, userId, null))
+                .then(seatLedgerRepository.append(LedgerEntryType.HELD, seat, userId, null))
+                .then(Mono.fromSupplier(() -> {
+                    log.info("Seat hold successful. seatId={}, userId={}, expiresAt={}", seat.getId(), userId,
+                            expiresAt);
+                    return seat;
+                }));
+    }
+}
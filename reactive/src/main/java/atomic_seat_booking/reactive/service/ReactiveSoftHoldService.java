@@ -0,0 +1,63 @@
+package atomic_seat_booking.reactive.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * SoftHoldService on Lettuce's reactive API, sharing its keys. Falls back the same way: if Redis
+ * is slow or down the request goes on to the database lock.
+ */
+@Service
+@Slf4j
+public class ReactiveSoftHoldService {
+
+    private static final String KEY_PREFIX = "soft_hold:seat:";
+
+    @Autowired
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Value("${softhold.ttl.seconds:15}")
+    private int softHoldTtl;
+
+    @Value("${softhold.redis.timeout.millis:200}")
+    private long redisTimeoutMillis;
+
+    public Mono<Boolean> createSoftHold(Long seatId, String userId) {
+        return redisTemplate.opsForValue()
+                .setIfAbsent(KEY_PREFIX + seatId, userId, Duration.ofSeconds(softHoldTtl))
+                .timeout(Duration.ofMillis(redisTimeoutMillis))
+                .onErrorResume(e -> {
+                    log.warn("Redis error during soft hold creation. seatId={}, userId={}, error={}", seatId, userId,
+                            e.getMessage());
+                    return Mono.just(true);
+                });
+    }
+
+    public Mono<Boolean> hasSoftHold(Long seatId, String userId) {
+        return redisTemplate.opsForValue()
+                .get(KEY_PREFIX + seatId)
+                .map(userId::equals)
+                .defaultIfEmpty(false)
+                .timeout(Duration.ofMillis(redisTimeoutMillis))
+                .onErrorResume(e -> {
+                    log.warn("Redis error during soft hold verification. seatId={}, userId={}", seatId, userId);
+                    return Mono.just(true);
+                });
+    }
+
+    public Mono<Void> removeSoftHold(Long seatId) {
+        return redisTemplate.delete(KEY_PREFIX + seatId)
+                .timeout(Duration.ofMillis(redisTimeoutMillis))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to remove soft hold from Redis. seatId={}", seatId);
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,154 @@
+package atomic_seat_booking.reactive.service;
+
+import atomic_seat_booking.dto.WaitlistScope;
+import atomic_seat_booking.entity.OutboxEventType;
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.ledger.LedgerEntryType;
+import atomic_seat_booking.reactive.repository.ReactiveOutboxRepository;
+import atomic_seat_booking.reactive.repository.ReactiveSeatLedgerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The offer half of WaitlistService, on the same Redis sorted sets and offer markers: a seat whose
+ * lapsed hold is released here goes to the first user waiting on it, or else on its event, passing
+ * over users with an outstanding offer. Joining and leaving stay on the servlet nodes. Entries and
+ * offers those nodes kept in memory while Redis was down are not visible here, and with Redis down
+ * no offer is made.
+ */
+@Service
+@Slf4j
+public class ReactiveWaitlistService {
+
+    private static final String OFFER_KEY_PREFIX = "waitlist:offer:";
+
+    @Autowired
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ReactiveOutboxRepository outboxRepository;
+
+    @Autowired
+    private ReactiveSeatLedgerRepository seatLedgerRepository;
+
+    @Value("${waitlist.offer.hold.seconds:120}")
+    private long offerHoldSeconds;
+
+    private record Next(String key, String userId, Double score) {
+    }
+
+    /**
+     * Holds a just-released seat for the next waiting user and records the offer in the outbox
+     * and ledger. Must run in the transaction that released the seat; if it rolls back, the user
+     * is put back at their old place. Users passed over keep their place. Completes empty if
+     * nobody is waiting.
+     *
+     * @param skippedUserId the user whose hold was just released, who is never offered it back
+     */
+    public Mono<String> offerToNext(Seat seat, String skippedUserId, Instant now) {
+        return Flux.just(WaitlistScope.SEAT.getKeyPrefix() + seat.getId(),
+                        WaitlistScope.EVENT.getKeyPrefix() + seat.getEventId())
+                .concatMap(key -> {
+                    List<Next> passedOver = new ArrayList<>();
+                    return popNext(key, skippedUserId, passedOver)
+                            .flatMap(next -> requeue(passedOver).thenReturn(next))
+                            .switchIfEmpty(Mono.defer(() -> requeue(passedOver).then(Mono.empty())));
+                })
+                .next()
+                .flatMap(next -> {
+                    seat.hold(next.userId(), now.plusSeconds(offerHoldSeconds));
+                    return outboxRepository.insert(OutboxEventType.SEAT_OFFERED, seat, next.userId(), null)
+                            .then(seatLedgerRepository.append(LedgerEntryType.HELD, seat, next.userId(), null))
+                            .then(settleOfferOnCompletion(next, seat.getId()))
+                            .then(Mono.fromSupplier(() -> {
+                                log.info("Released seat offered to waitlisted user. seatId={}, eventId={}, userId={}, "
+                                        + "holdExpiresAt={}", seat.getId(), seat.getEventId(), next.userId(),
+                                        seat.getHoldExpiresAt());
+                                return next.userId();
+                            }));
+                });
+    }
+
+    private Mono<Next> popNext(String key, String skippedUserId, List<Next> passedOver) {
+        return redisTemplate.opsForZSet().popMin(key)
+                .onErrorResume(e -> {
+                    log.warn("Redis error on waitlist, skipping offer. key={}, error={}", key, e.getMessage());
+                    return Mono.empty();
+                })
+                .flatMap(popped -> {
+                    if (popped.getValue() == null) {
+                        return popNext(key, skippedUserId, passedOver);
+                    }
+                    Next next = new Next(key, popped.getValue(), popped.getScore());
+                    Mono<Boolean> passOver = next.userId().equals(skippedUserId) ? Mono.just(true)
+                            : hasOutstandingOffer(next.userId());
+                    return passOver.flatMap(skip -> {
+                        if (!skip) {
+                            return Mono.just(next);
+                        }
+                        passedOver.add(next);
+                        return popNext(key, skippedUserId, passedOver);
+                    });
+                });
+    }
+
+    private Mono<Boolean> hasOutstandingOffer(String userId) {
+        return redisTemplate.hasKey(OFFER_KEY_PREFIX + userId)
+                .onErrorResume(e -> {
+                    log.warn("Redis error reading waitlist offer. userId={}, error={}", userId, e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    private Mono<Void> requeue(List<Next> entries) {
+        return Flux.fromIterable(entries)
+                .concatMap(this::requeue)
+                .then();
+    }
+
+    private Mono<Void> requeue(Next next) {
+        double original = next.score() == null ? System.currentTimeMillis() : next.score();
+        return redisTemplate.opsForZSet().add(next.key(), next.userId(), original)
+                .onErrorResume(e -> {
+                    log.warn("Failed to return user to waitlist. key={}, userId={}, error={}", next.key(),
+                            next.userId(), e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Void> settleOfferOnCompletion(Next next, Long seatId) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .doOnNext(manager -> manager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public Mono<Void> afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) {
+                            return redisTemplate.opsForValue()
+                                    .set(OFFER_KEY_PREFIX + next.userId(), String.valueOf(seatId),
+                                            Duration.ofSeconds(offerHoldSeconds))
+                                    .onErrorResume(e -> {
+                                        log.warn("Failed to record waitlist offer. userId={}, error={}",
+                                                next.userId(), e.getMessage());
+                                        return Mono.empty();
+                                    })
+                                    .then();
+                        }
+                        return requeue(next).doOnSuccess(ignored -> log.info("Offer rolled back, user returned "
+                                + "to waitlist. key={}, userId={}", next.key(), next.userId()));
+                    }
+                }))
+                .then();
+    }
+}
@@ -1,13 +1,16 @@
 package atomic_seat_booking;
 
 import atomic_seat_booking.entity.User;
+import atomic_seat_booking.entity.UserRole;
 import atomic_seat_booking.repository.UserRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AtomicSeatBookingApplication {
 
 	public static void main(String[] args) {
@@ -21,7 +24,8 @@ public class AtomicSeatBookingApplication {
 				userRepository.save(new User("user-1", "Alice", "alice@example.com"));
 				userRepository.save(new User("user-2", "Bob", "bob@example.com"));
 				userRepository.save(new User("user-3", "Charlie", "charlie@example.com"));
-				System.out.println("✅ Seeded initial users: Alice (user-1), Bob (user-2), Charlie (user-3)");
+				userRepository.save(new User("admin-1", "Admin", "admin@example.com", UserRole.ADMIN));
+				System.out.println("✅ Seeded initial users: Alice (user-1), Bob (user-2), Charlie (user-3), Admin (admin-1)");
 			}
 		};
 	}
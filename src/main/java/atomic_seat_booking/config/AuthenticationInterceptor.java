@@ -1,12 +1,20 @@
 package atomic_seat_booking.config;
 
+import atomic_seat_booking.entity.UserRole;
 import atomic_seat_booking.repository.UserRepository;
+import atomic_seat_booking.tracing.SpanKind;
+import atomic_seat_booking.tracing.TraceContext;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import java.util.Arrays;
+import java.util.Optional;
+
 @Component
 public class AuthenticationInterceptor implements HandlerInterceptor {
 
@@ -28,16 +36,36 @@ public class AuthenticationInterceptor implements HandlerInterceptor {
         }
 
         // Check if user exists
-        if (!userRepository.existsById(userId)) {
+        long span = TraceContext.startSpan();
+        Optional<UserRole> role = userRepository.findRoleById(userId);
+        TraceContext.endSpan(SpanKind.AUTH, span);
+        if (role.isEmpty()) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("User does not exist: " + userId);
             return false;
         }
 
+        RequiresRole required = requiredRole(handler);
+        if (required != null && Arrays.stream(required.value()).noneMatch(role.get()::equals)) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            response.getWriter().write("Requires role " + Arrays.toString(required.value()) + ": " + userId);
+            return false;
+        }
+
         UserContext.setUserId(userId);
         return true;
     }
 
+    // A method-level @RequiresRole overrides the controller's
+    private static RequiresRole requiredRole(Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return null;
+        }
+        RequiresRole onMethod = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), RequiresRole.class);
+        return onMethod != null ? onMethod
+                : AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), RequiresRole.class);
+    }
+
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex)
             throws Exception {
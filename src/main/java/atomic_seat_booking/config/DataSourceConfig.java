@@ -0,0 +1,78 @@
+package atomic_seat_booking.config;
+
+import atomic_seat_booking.sharding.ShardMap;
+import atomic_seat_booking.sharding.ShardSchema;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Replaces the single auto-configured pool with one pool per shard and {@link WorkloadClass}.
+ * Shards are listed in db.shards, each with db.shard.&lt;name&gt;.url, .username, .password and
+ * .slot; without db.shards the spring.datasource settings form a single shard "main" in slot 0.
+ * Events can be pinned to a shard with db.event-shard.&lt;eventId&gt;=&lt;shard&gt;.
+ * Pools are sized by db.pool.&lt;workload&gt;.size, .timeout.millis and .queue on every shard.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final String DEFAULT_SHARD = "main";
+
+    @Bean
+    public ShardMap shardMap(Environment environment) {
+        List<String> names = List.of(environment.getProperty("db.shards", String[].class,
+                new String[] { DEFAULT_SHARD }));
+        List<ShardMap.Shard> shards = new ArrayList<>();
+        for (String name : names) {
+            String prefix = "db.shard." + name.trim();
+            shards.add(new ShardMap.Shard(name.trim(),
+                    environment.getProperty(prefix + ".slot", Integer.class, shards.isEmpty() ? 0 : -1),
+                    environment.getProperty(prefix + ".url", environment.getRequiredProperty("spring.datasource.url")),
+                    environment.getProperty(prefix + ".username",
+                            environment.getProperty("spring.datasource.username")),
+                    environment.getProperty(prefix + ".password",
+                            environment.getProperty("spring.datasource.password"))));
+        }
+        Map<String, String> pins = Binder.get(environment)
+                .bind("db.event-shard", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+        return new ShardMap(shards, pins);
+    }
+
+    @Bean(destroyMethod = "close")
+    public WorkloadPools workloadPools(ShardMap shardMap, Environment environment) {
+        return new WorkloadPools(shardMap, workload -> {
+            String prefix = "db.pool." + workload.name().toLowerCase(Locale.ROOT);
+            return new WorkloadPools.Settings(
+                    environment.getProperty(prefix + ".size", Integer.class, workload.getDefaultSize()),
+                    environment.getProperty(prefix + ".timeout.millis", Long.class,
+                            workload.getDefaultTimeoutMillis()),
+                    environment.getProperty(prefix + ".queue", Integer.class, workload.getDefaultQueue()));
+        });
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(WorkloadPools workloadPools) {
+        return workloadPools.routingDataSource();
+    }
+
+    /**
+     * Flyway only knows the primary DataSource; this migrates every shard with the same
+     * configuration before JPA validates the schema.
+     */
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(ShardMap shardMap, WorkloadPools workloadPools) {
+        return flyway -> new ShardSchema(shardMap, workloadPools).migrate(flyway.getConfiguration());
+    }
+}
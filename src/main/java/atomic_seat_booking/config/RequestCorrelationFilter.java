@@ -1,12 +1,16 @@
 package atomic_seat_booking.config;
 
+import atomic_seat_booking.tracing.CorrelationIds;
+import atomic_seat_booking.tracing.FlightRecorder;
+import atomic_seat_booking.tracing.RequestTrace;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.UUID;
 
 @Component
 public class RequestCorrelationFilter implements Filter {
@@ -14,6 +18,9 @@ public class RequestCorrelationFilter implements Filter {
     private static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
     private static final String MDC_KEY = "requestId";
 
+    @Autowired
+    private FlightRecorder flightRecorder;
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
@@ -22,14 +29,17 @@ public class RequestCorrelationFilter implements Filter {
         String requestId = httpRequest.getHeader(CORRELATION_ID_HEADER);
 
         if (requestId == null || requestId.isEmpty()) {
-            requestId = UUID.randomUUID().toString();
+            requestId = CorrelationIds.next();
         }
 
+        RequestTrace trace = flightRecorder.start(requestId,
+                httpRequest.getMethod() + " " + httpRequest.getRequestURI());
         try {
             MDC.put(MDC_KEY, requestId);
             chain.doFilter(request, response);
         } finally {
             MDC.remove(MDC_KEY);
+            flightRecorder.finish(trace, ((HttpServletResponse) response).getStatus());
         }
     }
 }
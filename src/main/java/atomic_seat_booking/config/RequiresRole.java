@@ -0,0 +1,18 @@
+package atomic_seat_booking.config;
+
+import atomic_seat_booking.entity.UserRole;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Restricts a handler method, or every handler of a controller, to authenticated users holding
+ * one of the given roles. Checked by AuthenticationInterceptor; other users get 403.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresRole {
+    UserRole[] value();
+}
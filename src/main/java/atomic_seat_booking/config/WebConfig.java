@@ -14,7 +14,7 @@ public class WebConfig implements WebMvcConfigurer {
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(authenticationInterceptor)
-                .addPathPatterns("/api/seats/**")
-                .excludePathPatterns("/api/seats/seed", "/api/seats/health"); // Optional exclusions
+                .addPathPatterns("/api/seats/**", "/api/bookings/**", "/api/events/**", "/api/admin/**")
+                .excludePathPatterns("/api/seats/health"); // Optional exclusions
     }
 }
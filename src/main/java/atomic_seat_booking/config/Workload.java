@@ -0,0 +1,17 @@
+package atomic_seat_booking.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Routes the database work of the annotated method (and everything it calls) to the pool of
+ * the given workload class, behind that pool's bulkhead. Applied outside @Transactional, so
+ * the transaction's connection already comes from the right pool.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Workload {
+    WorkloadClass value();
+}
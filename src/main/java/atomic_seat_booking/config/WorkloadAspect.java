@@ -0,0 +1,49 @@
+package atomic_seat_booking.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link Workload}. Ordered after the shard aspect and ahead of the transaction
+ * interceptor so the workload is set before a transaction borrows its connection. Nested calls
+ * within the same workload share the outer bulkhead permit; ShardRouter takes another one when
+ * such a call moves to a different shard.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class WorkloadAspect {
+
+    @Autowired
+    private WorkloadPools workloadPools;
+
+    // Runs before ExposeInvocationInterceptor, so the annotation is read rather than bound
+    @Around("@annotation(atomic_seat_booking.config.Workload)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        WorkloadClass previous = WorkloadContext.getWorkload();
+        WorkloadClass requested = ((MethodSignature) joinPoint.getSignature()).getMethod()
+                .getAnnotation(Workload.class).value();
+        if (requested == previous) {
+            return joinPoint.proceed();
+        }
+
+        String shard = workloadPools.acquire(requested);
+        WorkloadContext.setWorkload(requested);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (previous == null) {
+                WorkloadContext.clear();
+            } else {
+                WorkloadContext.setWorkload(previous);
+            }
+            workloadPools.release(shard, requested);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package atomic_seat_booking.config;
+
+/**
+ * Workload classes that get their own connection pool, so a storm in one (e.g. confirms
+ * blocked on payment) cannot starve the others. Defaults: pool size, connection wait, and how
+ * many callers may queue for the pool before new ones are rejected.
+ */
+public enum WorkloadClass {
+    // Auth lookups, seat-map and other short reads; also the default for unannotated code
+    READ(6, 2000, 100),
+    // Lock-holding hold transactions
+    HOLD(4, 2000, 50),
+    // Confirms and checkouts, which keep their connection while the payment call runs
+    CONFIRM(6, 3000, 50),
+    // Relays, partition maintenance, seeding and exports
+    BACKGROUND(2, 10000, 10);
+
+    private final int defaultSize;
+    private final long defaultTimeoutMillis;
+    private final int defaultQueue;
+
+    WorkloadClass(int defaultSize, long defaultTimeoutMillis, int defaultQueue) {
+        this.defaultSize = defaultSize;
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+        this.defaultQueue = defaultQueue;
+    }
+
+    public int getDefaultSize() {
+        return defaultSize;
+    }
+
+    public long getDefaultTimeoutMillis() {
+        return defaultTimeoutMillis;
+    }
+
+    public int getDefaultQueue() {
+        return defaultQueue;
+    }
+}
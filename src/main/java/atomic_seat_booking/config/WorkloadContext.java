@@ -0,0 +1,17 @@
+package atomic_seat_booking.config;
+
+public class WorkloadContext {
+    private static final ThreadLocal<WorkloadClass> currentWorkload = new ThreadLocal<>();
+
+    public static void setWorkload(WorkloadClass workload) {
+        currentWorkload.set(workload);
+    }
+
+    public static WorkloadClass getWorkload() {
+        return currentWorkload.get();
+    }
+
+    public static void clear() {
+        currentWorkload.remove();
+    }
+}
@@ -0,0 +1,193 @@
+package atomic_seat_booking.config;
+
+import atomic_seat_booking.dto.PoolStatsResponse;
+import atomic_seat_booking.exception.WorkloadSaturatedException;
+import atomic_seat_booking.sharding.ShardContext;
+import atomic_seat_booking.sharding.ShardMap;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * One Hikari pool per shard and {@link WorkloadClass}, each behind a bulkhead that admits at
+ * most pool size + queue concurrent callers. Callers beyond that are rejected at once instead
+ * of piling up on Hikari's connection timeout.
+ * As a {@link MeterBinder} it exports each pool's Hikari metrics (pool tag db-&lt;shard&gt;-&lt;workload&gt;)
+ * and its bulkhead occupancy and rejections, all read lazily at scrape time.
+ */
+@Slf4j
+public class WorkloadPools implements AutoCloseable, MeterBinder {
+
+    public record Settings(int size, long timeoutMillis, int queue) {
+    }
+
+    private record Pool(HikariDataSource dataSource, Semaphore permits, int maxPermits, AtomicLong rejected) {
+    }
+
+    private final String primaryShard;
+    private final Map<String, Map<WorkloadClass, Pool>> pools = new LinkedHashMap<>();
+
+    public WorkloadPools(ShardMap shardMap, Function<WorkloadClass, Settings> settings) {
+        this.primaryShard = shardMap.primary().name();
+        for (ShardMap.Shard shard : shardMap.shards()) {
+            Map<WorkloadClass, Pool> shardPools = new EnumMap<>(WorkloadClass.class);
+            for (WorkloadClass workload : WorkloadClass.values()) {
+                Settings poolSettings = settings.apply(workload);
+                HikariConfig config = new HikariConfig();
+                config.setPoolName("db-" + shard.name() + "-" + workload.name().toLowerCase(Locale.ROOT));
+                config.setJdbcUrl(shard.url());
+                config.setUsername(shard.username());
+                config.setPassword(shard.password());
+                config.setMaximumPoolSize(poolSettings.size());
+                config.setConnectionTimeout(poolSettings.timeoutMillis());
+                config.setInitializationFailTimeout(1);
+                config.setRegisterMbeans(false);
+
+                int maxPermits = poolSettings.size() + poolSettings.queue();
+                shardPools.put(workload, new Pool(new HikariDataSource(config), new Semaphore(maxPermits),
+                        maxPermits, new AtomicLong()));
+                log.info("Workload pool created. shard={}, workload={}, size={}, timeoutMs={}, queue={}",
+                        shard.name(), workload, poolSettings.size(), poolSettings.timeoutMillis(),
+                        poolSettings.queue());
+            }
+            pools.put(shard.name(), shardPools);
+        }
+    }
+
+    /**
+     * DataSource that hands out connections from the pool of the calling thread's shard and
+     * workload, defaulting to the primary shard and {@link WorkloadClass#READ}.
+     */
+    public DataSource routingDataSource() {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return lookupKey(currentShard(), currentWorkload());
+            }
+        };
+        Map<Object, Object> targets = new HashMap<>();
+        pools.forEach((shard, shardPools) -> shardPools.forEach(
+                (workload, pool) -> targets.put(lookupKey(shard, workload), pool.dataSource())));
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(dataSource(primaryShard, WorkloadClass.READ));
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    /**
+     * The pool itself, for work that must reach one shard regardless of the calling thread's
+     * routing (migrations, the shard directory).
+     */
+    public DataSource dataSource(String shard, WorkloadClass workload) {
+        return pool(shard, workload).dataSource();
+    }
+
+    /**
+     * Takes a permit from the bulkhead of the workload's pool on the calling thread's shard.
+     *
+     * @return the shard the permit was taken on, to release it on
+     */
+    public String acquire(WorkloadClass workload) {
+        String shard = currentShard();
+        acquire(shard, workload);
+        return shard;
+    }
+
+    public void acquire(String shard, WorkloadClass workload) {
+        Pool pool = pool(shard, workload);
+        if (!pool.permits().tryAcquire()) {
+            pool.rejected().incrementAndGet();
+            throw new WorkloadSaturatedException("Too many concurrent " + workload.name().toLowerCase(Locale.ROOT)
+                    + " requests, please retry shortly");
+        }
+    }
+
+    public void release(String shard, WorkloadClass workload) {
+        pool(shard, workload).permits().release();
+    }
+
+    public List<PoolStatsResponse> stats() {
+        List<PoolStatsResponse> stats = new ArrayList<>();
+        pools.forEach((shard, shardPools) -> shardPools.forEach((workload, pool) -> {
+            HikariPoolMXBean mxBean = pool.dataSource().getHikariPoolMXBean();
+            stats.add(PoolStatsResponse.builder()
+                    .shard(shard)
+                    .workload(workload)
+                    .maxConnections(pool.dataSource().getMaximumPoolSize())
+                    .activeConnections(mxBean == null ? 0 : mxBean.getActiveConnections())
+                    .idleConnections(mxBean == null ? 0 : mxBean.getIdleConnections())
+                    .threadsAwaitingConnection(mxBean == null ? 0 : mxBean.getThreadsAwaitingConnection())
+                    .inFlightCalls(pool.maxPermits() - pool.permits().availablePermits())
+                    .maxInFlightCalls(pool.maxPermits())
+                    .rejectedCalls(pool.rejected().get())
+                    .build());
+        }));
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        pools.forEach((shard, shardPools) -> shardPools.forEach((workload, pool) -> {
+            pool.dataSource().setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            String workloadTag = workload.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("db.bulkhead.in.flight", pool, p -> p.maxPermits() - p.permits().availablePermits())
+                    .description("Calls holding a bulkhead permit (using or waiting for a connection)")
+                    .tags("shard", shard, "workload", workloadTag)
+                    .register(registry);
+            Gauge.builder("db.bulkhead.limit", pool, Pool::maxPermits)
+                    .description("Bulkhead permits: pool size plus queue")
+                    .tags("shard", shard, "workload", workloadTag)
+                    .register(registry);
+            FunctionCounter.builder("db.bulkhead.rejections", pool, p -> p.rejected().get())
+                    .description("Calls rejected because the bulkhead was full")
+                    .tags("shard", shard, "workload", workloadTag)
+                    .register(registry);
+        }));
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(shardPools -> shardPools.values().forEach(pool -> pool.dataSource().close()));
+    }
+
+    private Pool pool(String shard, WorkloadClass workload) {
+        Map<WorkloadClass, Pool> shardPools = pools.get(shard);
+        if (shardPools == null) {
+            throw new IllegalStateException("Unknown shard: " + shard);
+        }
+        return shardPools.get(workload);
+    }
+
+    private String currentShard() {
+        String shard = ShardContext.getShard();
+        return shard == null ? primaryShard : shard;
+    }
+
+    private static WorkloadClass currentWorkload() {
+        WorkloadClass workload = WorkloadContext.getWorkload();
+        return workload == null ? WorkloadClass.READ : workload;
+    }
+
+    private static String lookupKey(String shard, WorkloadClass workload) {
+        return shard + ":" + workload.name(); // Also the health contributor name, which must not contain "/"
+    }
+}
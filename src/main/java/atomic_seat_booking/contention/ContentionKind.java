@@ -0,0 +1,15 @@
+package atomic_seat_booking.contention;
+
+/**
+ * Why a request lost a seat to someone else.
+ */
+public enum ContentionKind {
+    /** The seat was already held by (or offered to) another user. */
+    HELD,
+    /** The seat was already booked. */
+    BOOKED,
+    /** Another user's Redis soft hold turned the request away before the database. */
+    SOFT_HOLD,
+    /** The seat's row lock could not be acquired in time. */
+    LOCK_TIMEOUT
+}
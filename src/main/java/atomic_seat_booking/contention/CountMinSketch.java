@@ -0,0 +1,60 @@
+package atomic_seat_booking.contention;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch over seat ids: a fixed depth x width grid of counters whose smallest
+ * counter for an id overestimates its true count by at most total / width with high
+ * probability. Not thread-safe; callers synchronise.
+ */
+class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final int[] counters;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     */
+    CountMinSketch(int depth, int width) {
+        int roundedWidth = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.depth = depth;
+        this.mask = roundedWidth - 1;
+        this.counters = new int[depth * roundedWidth];
+    }
+
+    void add(long id) {
+        long hash = mix(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int row = 0; row < depth; row++) {
+            int index = row * (mask + 1) + ((h1 + row * h2) & mask);
+            if (counters[index] != Integer.MAX_VALUE) {
+                counters[index]++;
+            }
+        }
+    }
+
+    long estimate(long id) {
+        long hash = mix(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * (mask + 1) + ((h1 + row * h2) & mask)]);
+        }
+        return min;
+    }
+
+    void clear() {
+        Arrays.fill(counters, 0);
+    }
+
+    // SplitMix64 finaliser: sequential seat ids must not land in neighbouring counters
+    private static long mix(long id) {
+        long z = id + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
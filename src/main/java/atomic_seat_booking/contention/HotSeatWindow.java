@@ -0,0 +1,110 @@
+package atomic_seat_booking.contention;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One event's contention over a sliding window made of {@code buckets} slices. Each slice has
+ * its own sketch and top-K and is cleared when the window slides past it, so a query covers the
+ * last window length give or take one slice. Recording takes the window's lock for a handful of
+ * counter updates.
+ */
+class HotSeatWindow {
+
+    record HotSeat(long seatId, long conflicts, Map<ContentionKind, Long> byKind) {
+    }
+
+    record Snapshot(long totalConflicts, List<HotSeat> seats) {
+    }
+
+    private static final class Slice {
+        long epoch = -1;
+        long total;
+        CountMinSketch sketch;
+        SpaceSavingTopK topK;
+    }
+
+    private final long sliceMillis;
+    private final int sketchDepth;
+    private final int sketchWidth;
+    private final int topK;
+    private final Slice[] slices;
+
+    HotSeatWindow(long windowMillis, int buckets, int sketchDepth, int sketchWidth, int topK) {
+        this.sliceMillis = Math.max(1, windowMillis / buckets);
+        this.sketchDepth = sketchDepth;
+        this.sketchWidth = sketchWidth;
+        this.topK = topK;
+        this.slices = new Slice[buckets];
+        for (int i = 0; i < buckets; i++) {
+            slices[i] = new Slice();
+        }
+    }
+
+    synchronized void record(long seatId, ContentionKind kind, long nowMillis) {
+        long epoch = nowMillis / sliceMillis;
+        Slice slice = slices[(int) (epoch % slices.length)];
+        if (slice.epoch != epoch) {
+            if (slice.sketch == null) {
+                // Allocated on first use: most events never see contention
+                slice.sketch = new CountMinSketch(sketchDepth, sketchWidth);
+                slice.topK = new SpaceSavingTopK(topK);
+            } else {
+                slice.sketch.clear();
+                slice.topK.clear();
+            }
+            slice.epoch = epoch;
+            slice.total = 0;
+        }
+        slice.total++;
+        slice.sketch.add(seatId);
+        slice.topK.add(seatId, kind);
+    }
+
+    /**
+     * The seats with the most conflicts in the window. Counts are sketch estimates summed over
+     * the live slices (never under the true count); per-kind counts only cover the slices in
+     * which the seat was a heavy hitter, so they may add up to less.
+     */
+    synchronized Snapshot snapshot(long nowMillis, int limit) {
+        long oldestEpoch = nowMillis / sliceMillis - slices.length + 1;
+        List<Slice> live = new ArrayList<>(slices.length);
+        long total = 0;
+        for (Slice slice : slices) {
+            if (slice.sketch != null && slice.epoch >= oldestEpoch) {
+                live.add(slice);
+                total += slice.total;
+            }
+        }
+
+        Map<Long, long[]> candidates = new HashMap<>();
+        for (Slice slice : live) {
+            for (SpaceSavingTopK.Entry entry : slice.topK.entries()) {
+                long[] byKind = candidates.computeIfAbsent(entry.seatId, id -> new long[entry.byKind.length]);
+                for (int i = 0; i < byKind.length; i++) {
+                    byKind[i] += entry.byKind[i];
+                }
+            }
+        }
+
+        List<HotSeat> seats = new ArrayList<>(candidates.size());
+        candidates.forEach((seatId, byKind) -> {
+            long conflicts = 0;
+            for (Slice slice : live) {
+                conflicts += slice.sketch.estimate(seatId);
+            }
+            Map<ContentionKind, Long> kinds = new EnumMap<>(ContentionKind.class);
+            for (ContentionKind kind : ContentionKind.values()) {
+                if (byKind[kind.ordinal()] > 0) {
+                    kinds.put(kind, byKind[kind.ordinal()]);
+                }
+            }
+            seats.add(new HotSeat(seatId, conflicts, kinds));
+        });
+        seats.sort((a, b) -> Long.compare(b.conflicts(), a.conflicts()));
+        return new Snapshot(total, seats.subList(0, Math.min(limit, seats.size())));
+    }
+}
@@ -0,0 +1,99 @@
+package atomic_seat_booking.contention;
+
+import atomic_seat_booking.dto.HotSeatsResponse;
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.service.SeatPartitionService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Finds the seats that lose the most requests to other users: already held or booked, turned
+ * away by a soft hold, or stuck behind a row lock. Each event gets a count-min sketch and a
+ * space-saving top-K per slice of a sliding window, so memory per event is fixed however many
+ * seats it has. Counts are per node; idle events are dropped after two windows.
+ */
+@Component
+public class SeatContentionTracker {
+
+    @Autowired
+    private SeatPartitionService seatPartitionService;
+
+    @Autowired
+    private Clock clock;
+
+    @Value("${hotseats.window.seconds:60}")
+    private long windowSeconds;
+
+    @Value("${hotseats.window.buckets:6}")
+    private int buckets;
+
+    @Value("${hotseats.sketch.depth:4}")
+    private int sketchDepth;
+
+    @Value("${hotseats.sketch.width:1024}")
+    private int sketchWidth;
+
+    @Value("${hotseats.top-k:50}")
+    private int topK;
+
+    @Value("${hotseats.max-events:200}")
+    private long maxEvents;
+
+    private Cache<String, HotSeatWindow> windows;
+
+    @PostConstruct
+    void initWindows() {
+        windows = Caffeine.newBuilder()
+                .maximumSize(maxEvents)
+                .expireAfterAccess(Duration.ofSeconds(windowSeconds * 2))
+                .build();
+    }
+
+    public void record(Seat seat, ContentionKind kind) {
+        record(seat.getEventId(), seat.getId(), kind);
+    }
+
+    /**
+     * Records a conflict for a seat whose entity isn't at hand. The event comes from the route
+     * cache only: a conflict is never worth a database round trip, and seats under contention
+     * are routed (and so cached) already.
+     */
+    public void record(Long seatId, ContentionKind kind) {
+        seatPartitionService.cachedEventIdOf(seatId).ifPresent(eventId -> record(eventId, seatId, kind));
+    }
+
+    public HotSeatsResponse hotSeats(String eventId, int limit) {
+        HotSeatWindow window = windows.getIfPresent(eventId);
+        HotSeatWindow.Snapshot snapshot = window == null
+                ? new HotSeatWindow.Snapshot(0, List.of())
+                : window.snapshot(clock.millis(), Math.min(limit, topK));
+        return HotSeatsResponse.builder()
+                .eventId(eventId)
+                .windowSeconds(windowSeconds)
+                .totalConflicts(snapshot.totalConflicts())
+                .seats(snapshot.seats().stream()
+                        .map(seat -> HotSeatsResponse.HotSeat.builder()
+                                .seatId(seat.seatId())
+                                .conflicts(seat.conflicts())
+                                .byKind(seat.byKind())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private void record(String eventId, Long seatId, ContentionKind kind) {
+        if (eventId == null || seatId == null) {
+            return;
+        }
+        windows.get(eventId, id -> new HotSeatWindow(windowSeconds * 1000, buckets, sketchDepth, sketchWidth, topK))
+                .record(seatId, kind, clock.millis());
+    }
+}
@@ -0,0 +1,69 @@
+package atomic_seat_booking.contention;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Space-saving heavy hitters: tracks at most {@code capacity} seats. An untracked seat replaces
+ * the tracked seat with the smallest count and inherits that count as its error, so every seat
+ * seen more than total / capacity times is guaranteed to be tracked. Not thread-safe; callers
+ * synchronise.
+ */
+class SpaceSavingTopK {
+
+    static final class Entry {
+        final long seatId;
+        long count;
+        long error;
+        final long[] byKind = new long[ContentionKind.values().length];
+
+        private Entry(long seatId, long count, long error) {
+            this.seatId = seatId;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private final int capacity;
+    private final Map<Long, Entry> entries;
+
+    SpaceSavingTopK(int capacity) {
+        this.capacity = capacity;
+        this.entries = new HashMap<>(capacity * 2);
+    }
+
+    void add(long seatId, ContentionKind kind) {
+        Entry entry = entries.get(seatId);
+        if (entry == null) {
+            if (entries.size() < capacity) {
+                entry = new Entry(seatId, 0, 0);
+            } else {
+                // Capacity is small (tens of seats), so a scan beats maintaining a heap
+                Entry smallest = null;
+                for (Entry candidate : entries.values()) {
+                    if (smallest == null || candidate.count < smallest.count) {
+                        smallest = candidate;
+                    }
+                }
+                entries.remove(smallest.seatId);
+                entry = new Entry(seatId, smallest.count, smallest.count);
+            }
+            entries.put(seatId, entry);
+        }
+        entry.count++;
+        entry.byKind[kind.ordinal()]++;
+    }
+
+    Entry get(long seatId) {
+        return entries.get(seatId);
+    }
+
+    Collection<Entry> entries() {
+        return entries.values();
+    }
+
+    void clear() {
+        entries.clear();
+    }
+}
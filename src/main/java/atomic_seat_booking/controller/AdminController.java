@@ -0,0 +1,159 @@
+package atomic_seat_booking.controller;
+
+import atomic_seat_booking.config.RequiresRole;
+import atomic_seat_booking.config.WorkloadPools;
+import atomic_seat_booking.contention.SeatContentionTracker;
+import atomic_seat_booking.dto.HotSeatsResponse;
+import atomic_seat_booking.dto.LedgerSnapshotResponse;
+import atomic_seat_booking.dto.OnSaleRequest;
+import atomic_seat_booking.dto.PoolStatsResponse;
+import atomic_seat_booking.dto.SeatHistoryResponse;
+import atomic_seat_booking.dto.TraceResponse;
+import atomic_seat_booking.dto.WarmupStatusResponse;
+import atomic_seat_booking.entity.UserRole;
+import atomic_seat_booking.ledger.SeatLedgerService;
+import atomic_seat_booking.seatmap.SeatMapService;
+import atomic_seat_booking.service.PreSaleWarmupService;
+import atomic_seat_booking.service.SeatPartitionService;
+import atomic_seat_booking.tracing.FlightRecorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * REST Controller for operational tasks: whole-event maintenance, on-sale warm-up, pool, contention and request-trace
+ * monitoring, and seat ledger history. Restricted to admins.
+ */
+@RestController
+@RequiresRole(UserRole.ADMIN)
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    @Autowired
+    private SeatPartitionService seatPartitionService;
+
+    @Autowired
+    private WorkloadPools workloadPools;
+
+    @Autowired
+    private PreSaleWarmupService preSaleWarmupService;
+
+    @Autowired
+    private SeatContentionTracker contentionTracker;
+
+    @Autowired
+    private FlightRecorder flightRecorder;
+
+    @Autowired
+    private SeatLedgerService seatLedgerService;
+
+    @Autowired
+    private SeatMapService seatMapService;
+
+    /**
+     * Detaches a finished event's seat and booking partitions into the archive schema.
+     */
+    @PostMapping("/events/{eventId}/archive")
+    public ResponseEntity<Void> archiveEvent(@PathVariable String eventId) {
+        seatPartitionService.archiveEvent(eventId);
+        seatMapService.evict(eventId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Schedules (or reschedules) an event's on-sale; every node warms up ahead of it.
+     */
+    @PutMapping("/events/{eventId}/on-sale")
+    public WarmupStatusResponse scheduleOnSale(@PathVariable String eventId, @RequestBody OnSaleRequest request) {
+        return preSaleWarmupService.schedule(eventId, request.getOnSaleAt());
+    }
+
+    /**
+     * Starts this node's warm-up for the event now, without waiting for the schedule.
+     */
+    @PostMapping("/events/{eventId}/warmup")
+    public ResponseEntity<WarmupStatusResponse> startWarmup(@PathVariable String eventId) {
+        return ResponseEntity.accepted().body(preSaleWarmupService.submit(eventId, null));
+    }
+
+    /**
+     * This node's warm-up progress for the event.
+     */
+    @GetMapping("/events/{eventId}/warmup")
+    public ResponseEntity<WarmupStatusResponse> getWarmupStatus(@PathVariable String eventId) {
+        return preSaleWarmupService.status(eventId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * The event's most contended seats on this node over the last window, for tuning per-seat
+     * limits and steering traffic away from them.
+     */
+    @GetMapping("/events/{eventId}/hot-seats")
+    public HotSeatsResponse getHotSeats(@PathVariable String eventId,
+            @RequestParam(defaultValue = "10") int limit) {
+        requirePositiveLimit(limit);
+        return contentionTracker.hotSeats(eventId, limit);
+    }
+
+    /**
+     * Saturation of each workload's connection pool and bulkhead, for sizing them.
+     */
+    @GetMapping("/pools")
+    public List<PoolStatsResponse> getPoolStats() {
+        return workloadPools.stats();
+    }
+
+    /**
+     * This node's most recent request traces, newest first, optionally only those taking at least minMillis.
+     */
+    @GetMapping("/traces")
+    public List<TraceResponse> getTraces(@RequestParam(defaultValue = "0") long minMillis,
+            @RequestParam(defaultValue = "50") int limit) {
+        requirePositiveLimit(limit);
+        return flightRecorder.recent(minMillis, limit);
+    }
+
+    /**
+     * This node's most recent requests over the slow threshold, newest first.
+     */
+    @GetMapping("/traces/slow")
+    public List<TraceResponse> getSlowTraces(@RequestParam(defaultValue = "50") int limit) {
+        requirePositiveLimit(limit);
+        return flightRecorder.slow(limit);
+    }
+
+    /**
+     * A seat's ledger history up to {@code at} (now by default) and the state it was in then,
+     * for disputes.
+     */
+    @GetMapping("/seats/{seatId}/history")
+    public ResponseEntity<SeatHistoryResponse> getSeatHistory(@PathVariable Long seatId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        return seatLedgerService.history(seatId, at)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Snapshots the event's seat ledger now instead of waiting for enough new entries.
+     */
+    @PostMapping("/events/{eventId}/ledger/snapshot")
+    public ResponseEntity<LedgerSnapshotResponse> snapshotLedger(@PathVariable String eventId) {
+        return seatLedgerService.snapshot(eventId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.noContent().build());
+    }
+
+    // A bad limit is the caller's mistake (400), not a missing resource
+    private static void requirePositiveLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalStateException("limit must be at least 1, was " + limit);
+        }
+    }
+}
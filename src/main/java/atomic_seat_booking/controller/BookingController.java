@@ -0,0 +1,71 @@
+package atomic_seat_booking.controller;
+
+import atomic_seat_booking.config.UserContext;
+import atomic_seat_booking.dto.BookingRequestResponse;
+import atomic_seat_booking.dto.BookingResponse;
+import atomic_seat_booking.dto.CheckoutRequest;
+import atomic_seat_booking.dto.CheckoutResponse;
+import atomic_seat_booking.entity.Booking;
+import atomic_seat_booking.entity.SeatStatus;
+import atomic_seat_booking.service.BookingRequestService;
+import atomic_seat_booking.service.BookingService;
+import atomic_seat_booking.service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for multi-seat booking operations.
+ */
+@RestController
+@RequestMapping("/api/bookings")
+public class BookingController {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private BookingRequestService bookingRequestService;
+
+    /**
+     * Books all seats currently held by the caller in one payment and one transaction.
+     * The X-Idempotency-Key covers the whole cart.
+     */
+    @PostMapping("/checkout")
+    public ResponseEntity<CheckoutResponse> checkout(
+            @RequestBody CheckoutRequest request,
+            @RequestHeader(value = "X-Idempotency-Key") String idempotencyKey) {
+
+        List<Long> seatIds = request.getSeatIds() == null ? List.of() : request.getSeatIds();
+        List<Booking> bookings = idempotencyService.executeOnce(UserContext.getUserId(), idempotencyKey, seatIds,
+                () -> bookingService.checkout(seatIds, idempotencyKey));
+
+        List<BookingResponse> responses = bookings.stream()
+                .map(booking -> BookingResponse.builder()
+                        .bookingId(booking.getId())
+                        .seatId(booking.getSeatId())
+                        .status(SeatStatus.BOOKED)
+                        .build())
+                .toList();
+
+        return ResponseEntity.ok(CheckoutResponse.builder()
+                .bookings(responses)
+                .seatCount(responses.size())
+                .build());
+    }
+
+    /**
+     * Status of an asynchronous confirm, keyed by the X-Idempotency-Key it was submitted with.
+     */
+    @GetMapping("/requests/{requestId}")
+    public ResponseEntity<BookingRequestResponse> getBookingRequest(@PathVariable String requestId) {
+        return bookingRequestService.status(requestId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,93 @@
+package atomic_seat_booking.controller;
+
+import atomic_seat_booking.config.RequiresRole;
+import atomic_seat_booking.config.UserContext;
+import atomic_seat_booking.dto.ExportFormat;
+import atomic_seat_booking.dto.SeatMapResponse;
+import atomic_seat_booking.dto.WaitlistResponse;
+import atomic_seat_booking.dto.WaitlistScope;
+import atomic_seat_booking.entity.UserRole;
+import atomic_seat_booking.seatmap.SeatMapService;
+import atomic_seat_booking.service.BookingExportService;
+import atomic_seat_booking.service.WaitlistService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * REST Controller for event-level operations: seat maps, reporting and waitlists.
+ */
+@RestController
+@RequestMapping("/api/events")
+public class EventController {
+
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private SeatMapService seatMapService;
+
+    /**
+     * Every seat of the event with its status, served from this node's seat map, which may lag
+     * the database by up to seatmap.max-staleness.millis. Holds and confirms always check the
+     * seat row itself.
+     */
+    @GetMapping("/{eventId}/seat-map")
+    public ResponseEntity<SeatMapResponse> getSeatMap(@PathVariable String eventId) {
+        return seatMapService.seatMap(eventId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Joins the waitlist for any seat of the event; a seat of the event that is released with
+     * no one waiting for it specifically goes to the first user here.
+     */
+    @PostMapping("/{eventId}/waitlist")
+    public WaitlistResponse joinWaitlist(@PathVariable String eventId) {
+        return waitlistService.join(WaitlistScope.EVENT, eventId, UserContext.getUserId());
+    }
+
+    @DeleteMapping("/{eventId}/waitlist")
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable String eventId) {
+        waitlistService.leave(WaitlistScope.EVENT, eventId, UserContext.getUserId());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Streams all bookings of an event for settlement as NDJSON (default) or CSV, optionally
+     * gzip-compressed. Rows are written as they are read, so the download starts immediately.
+     * Holds every buyer's id, so only admins and finance can download it.
+     */
+    @RequiresRole({ UserRole.ADMIN, UserRole.FINANCE })
+    @GetMapping("/{eventId}/bookings/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @PathVariable String eventId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        ExportFormat exportFormat = Arrays.stream(ExportFormat.values())
+                .filter(candidate -> candidate.name().equals(format.toUpperCase(Locale.ROOT)))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unsupported export format: " + format));
+
+        String filename = "bookings-" + eventId + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> bookingExportService.export(eventId, exportFormat, gzip, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -1,11 +1,20 @@
 package atomic_seat_booking.controller;
 
+import atomic_seat_booking.service.PreSaleWarmupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import java.util.List;
+
 @Controller
 public class HomeController {
+
+    @Autowired
+    private PreSaleWarmupService preSaleWarmupService;
     
     @GetMapping("/")
     public String home() {
@@ -17,4 +26,17 @@ public class HomeController {
     public String health() {
         return "Application is healthy and running!";
     }
-}
\ No newline at end of file
+
+    /**
+     * Readiness for the load balancer: 503 while an imminent on-sale is still warming up on this node.
+     */
+    @GetMapping("/health/ready")
+    @ResponseBody
+    public ResponseEntity<String> ready() {
+        List<String> warming = preSaleWarmupService.eventsNotReady();
+        if (!warming.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Warming up for on-sale: " + warming);
+        }
+        return ResponseEntity.ok("Ready");
+    }
+}
@@ -1,18 +1,28 @@
 package atomic_seat_booking.controller;
 
+import atomic_seat_booking.config.RequiresRole;
 import atomic_seat_booking.config.UserContext;
 import atomic_seat_booking.dto.*;
 import atomic_seat_booking.entity.Booking;
 import atomic_seat_booking.entity.Seat;
 import atomic_seat_booking.entity.SeatStatus;
+import atomic_seat_booking.entity.UserRole;
 import atomic_seat_booking.repository.SeatRepository;
+import atomic_seat_booking.service.BookingRequestService;
 import atomic_seat_booking.service.BookingService;
+import atomic_seat_booking.service.IdempotencyService;
 import atomic_seat_booking.service.SeatHoldService;
+import atomic_seat_booking.service.SeatSeedingService;
 import atomic_seat_booking.service.SoftHoldService;
+import atomic_seat_booking.service.WaitlistService;
+import atomic_seat_booking.sharding.ShardRouter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriUtils;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,25 +46,59 @@ public class SeatController {
     @Autowired
     private SoftHoldService softHoldService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private BookingRequestService bookingRequestService;
+
+    @Autowired
+    private SeatSeedingService seatSeedingService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
     @GetMapping
     public List<Seat> getAllSeats() {
-        return seatRepository.findAll();
+        return shardRouter.collectFromEach(seatRepository::findAll);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Seat> getSeatById(@PathVariable Long id) {
-        Optional<Seat> seat = seatRepository.findById(id);
+        Optional<Seat> seat = shardRouter.callOn(shardRouter.shardForSeat(id), () -> seatRepository.findById(id));
         return seat.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     /**
-     * Creates a new seat for an event.
+     * Creates a new seat for an event, on the event's shard.
      */
     @PostMapping
     public Seat createSeat(@RequestBody Seat seat) {
         // Ensure new seats start as AVAILABLE
         seat.setStatus(SeatStatus.AVAILABLE);
-        return seatRepository.save(seat);
+        return shardRouter.callOn(shardRouter.assignShard(seat.getEventId()), () -> seatRepository.save(seat));
+    }
+
+    /**
+     * Bulk-creates an event's seats from a section/row layout in a single COPY stream.
+     * Rejects events that already have seats. Admins only.
+     */
+    @RequiresRole(UserRole.ADMIN)
+    @PostMapping("/seed")
+    public ResponseEntity<SeedEventResponse> seedEvent(@RequestBody SeedEventRequest request) {
+        long start = System.nanoTime();
+        long created = seatSeedingService.seedEvent(request);
+
+        SeedEventResponse response = SeedEventResponse.builder()
+                .eventId(request.getEventId())
+                .seatsCreated(created)
+                .durationMillis((System.nanoTime() - start) / 1_000_000)
+                .build();
+
+        return ResponseEntity.status(201).body(response);
     }
 
     /**
@@ -89,16 +133,34 @@ public class SeatController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Joins the seat's waitlist instead of retrying /hold. When the seat is released, the first
+     * waiter is given a short hold on it and a SEAT_OFFERED event is published for them.
+     */
+    @PostMapping("/{seatId}/waitlist")
+    public WaitlistResponse joinWaitlist(@PathVariable Long seatId) {
+        return waitlistService.join(WaitlistScope.SEAT, String.valueOf(seatId), UserContext.getUserId());
+    }
+
+    @DeleteMapping("/{seatId}/waitlist")
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable Long seatId) {
+        waitlistService.leave(WaitlistScope.SEAT, String.valueOf(seatId), UserContext.getUserId());
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Finalizes booking by processing payment and updating seat state to BOOKED.
      * Uses X-Idempotency-Key to ensure safe retries without double charging.
+     * Cached replays are answered before rate limiting or any DB connection is taken, and
+     * concurrent duplicates of the same key attach to the request already in flight.
      */
     @PostMapping("/{seatId}/confirm")
     public ResponseEntity<BookingResponse> confirmSeat(
             @PathVariable Long seatId,
             @RequestHeader(value = "X-Idempotency-Key") String idempotencyKey) {
 
-        Booking booking = bookingService.confirmSeat(seatId, idempotencyKey);
+        Booking booking = idempotencyService.executeOnce(UserContext.getUserId(), idempotencyKey, seatId,
+                () -> bookingService.confirmSeat(seatId, idempotencyKey));
 
         BookingResponse response = BookingResponse.builder()
                 .bookingId(booking.getId())
@@ -108,4 +170,20 @@ public class SeatController {
 
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Asynchronous confirm: validates the hold, queues the booking and returns 202 immediately.
+     * Poll GET /api/bookings/requests/{X-Idempotency-Key} for the outcome.
+     */
+    @PostMapping(value = "/{seatId}/confirm", params = "async=true")
+    public ResponseEntity<BookingRequestResponse> confirmSeatAsync(
+            @PathVariable Long seatId,
+            @RequestHeader(value = "X-Idempotency-Key") String idempotencyKey) {
+
+        BookingRequestResponse response = bookingRequestService.submit(seatId, idempotencyKey);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/bookings/requests/" + UriUtils.encodePathSegment(idempotencyKey,
+                        StandardCharsets.UTF_8)))
+                .body(response);
+    }
+}
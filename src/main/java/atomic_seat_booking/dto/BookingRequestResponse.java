@@ -0,0 +1,15 @@
+package atomic_seat_booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BookingRequestResponse {
+    private String requestId;
+    private Long seatId;
+    private BookingRequestStatus status;
+    private Long bookingId;
+    private String error;
+    private String exception;
+}
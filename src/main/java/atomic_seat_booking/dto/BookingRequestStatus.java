@@ -0,0 +1,7 @@
+package atomic_seat_booking.dto;
+
+public enum BookingRequestStatus {
+    PENDING,
+    CONFIRMED,
+    FAILED
+}
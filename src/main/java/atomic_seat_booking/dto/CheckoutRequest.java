@@ -0,0 +1,10 @@
+package atomic_seat_booking.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CheckoutRequest {
+    private List<Long> seatIds;
+}
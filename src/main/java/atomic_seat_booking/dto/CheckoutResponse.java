@@ -0,0 +1,13 @@
+package atomic_seat_booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CheckoutResponse {
+    private List<BookingResponse> bookings;
+    private int seatCount;
+}
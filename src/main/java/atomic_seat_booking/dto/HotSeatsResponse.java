@@ -0,0 +1,25 @@
+package atomic_seat_booking.dto;
+
+import atomic_seat_booking.contention.ContentionKind;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class HotSeatsResponse {
+    private String eventId;
+    private long windowSeconds;
+    private long totalConflicts;
+    private List<HotSeat> seats;
+
+    @Data
+    @Builder
+    public static class HotSeat {
+        private Long seatId;
+        private long conflicts;
+        private Map<ContentionKind, Long> byKind;
+    }
+}
@@ -0,0 +1,15 @@
+package atomic_seat_booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class LedgerSnapshotResponse {
+    private String eventId;
+    private long throughSequence;
+    private int seats;
+    private Instant takenAt;
+}
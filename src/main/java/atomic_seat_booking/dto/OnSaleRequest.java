@@ -0,0 +1,10 @@
+package atomic_seat_booking.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class OnSaleRequest {
+    private Instant onSaleAt;
+}
@@ -0,0 +1,19 @@
+package atomic_seat_booking.dto;
+
+import atomic_seat_booking.config.WorkloadClass;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PoolStatsResponse {
+    private String shard;
+    private WorkloadClass workload;
+    private int maxConnections;
+    private int activeConnections;
+    private int idleConnections;
+    private int threadsAwaitingConnection;
+    private int inFlightCalls;
+    private int maxInFlightCalls;
+    private long rejectedCalls;
+}
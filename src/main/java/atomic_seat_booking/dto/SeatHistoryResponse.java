@@ -0,0 +1,34 @@
+package atomic_seat_booking.dto;
+
+import atomic_seat_booking.entity.SeatStatus;
+import atomic_seat_booking.ledger.LedgerEntryType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+public class SeatHistoryResponse {
+    private Long seatId;
+    private String eventId;
+    private Instant at;
+    // State as of at; a HELD seat whose hold had lapsed by then was still awaiting release
+    private SeatStatus status;
+    private String userId;
+    private Instant holdExpiresAt;
+    private Long bookingId;
+    private List<Entry> entries;
+
+    @Data
+    @Builder
+    public static class Entry {
+        private long sequence;
+        private LedgerEntryType type;
+        private String userId;
+        private Instant holdExpiresAt;
+        private Long bookingId;
+        private Instant recordedAt;
+    }
+}
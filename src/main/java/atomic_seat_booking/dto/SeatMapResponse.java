@@ -0,0 +1,27 @@
+package atomic_seat_booking.dto;
+
+import atomic_seat_booking.entity.SeatStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+public class SeatMapResponse {
+    private String eventId;
+    // Seat ledger sequence the map is complete up to; some later entries may already be applied
+    private long ledgerSequence;
+    private Instant builtAt;
+    private List<Seat> seats;
+
+    @Data
+    @Builder
+    public static class Seat {
+        private Long seatId;
+        private String seatNumber;
+        private SeatStatus status;
+        private Instant holdExpiresAt;
+    }
+}
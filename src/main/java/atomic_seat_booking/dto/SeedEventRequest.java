@@ -0,0 +1,18 @@
+package atomic_seat_booking.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class SeedEventRequest {
+    private String eventId;
+    private List<Section> sections;
+
+    @Data
+    public static class Section {
+        private String name;
+        private int rows;
+        private int seatsPerRow;
+    }
+}
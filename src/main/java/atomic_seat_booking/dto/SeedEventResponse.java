@@ -0,0 +1,12 @@
+package atomic_seat_booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SeedEventResponse {
+    private String eventId;
+    private long seatsCreated;
+    private long durationMillis;
+}
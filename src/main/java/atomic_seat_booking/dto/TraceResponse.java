@@ -0,0 +1,28 @@
+package atomic_seat_booking.dto;
+
+import atomic_seat_booking.tracing.SpanKind;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+public class TraceResponse {
+    private String correlationId;
+    private String request;
+    private String thread;
+    private int status;
+    private Instant startedAt;
+    private double totalMillis;
+    private List<Span> spans;
+
+    @Data
+    @Builder
+    public static class Span {
+        private SpanKind kind;
+        private double millis;
+        private int count;
+    }
+}
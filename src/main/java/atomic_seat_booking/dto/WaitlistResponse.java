@@ -0,0 +1,13 @@
+package atomic_seat_booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class WaitlistResponse {
+    private WaitlistScope scope;
+    private String target;
+    private long position;
+    private long waiting;
+}
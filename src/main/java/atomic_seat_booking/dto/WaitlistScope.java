@@ -0,0 +1,16 @@
+package atomic_seat_booking.dto;
+
+public enum WaitlistScope {
+    SEAT("waitlist:seat:"),
+    EVENT("waitlist:event:");
+
+    private final String keyPrefix;
+
+    WaitlistScope(String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+    }
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+}
@@ -0,0 +1,8 @@
+package atomic_seat_booking.dto;
+
+public enum WarmupState {
+    SCHEDULED,
+    WARMING,
+    READY,
+    FAILED
+}
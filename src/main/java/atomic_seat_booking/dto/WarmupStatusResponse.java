@@ -0,0 +1,21 @@
+package atomic_seat_booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class WarmupStatusResponse {
+    private String eventId;
+    private Instant onSaleAt;
+    private WarmupState state;
+    private Instant startedAt;
+    private Instant completedAt;
+    private long seatsPreloaded;
+    private boolean redisConnected;
+    private int syntheticRounds;
+    private long jitCompileMillis;
+    private String error;
+}
@@ -2,13 +2,16 @@ package atomic_seat_booking.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.PartitionKey;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import java.time.Instant;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_booking_event_seat", columnNames = { "eventId", "seatId" })
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,7 +21,11 @@ public class Booking {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    @PartitionKey
+    @Column(nullable = false)
+    private String eventId;
+
+    @Column(nullable = false)
     private Long seatId;
 
     @Column(nullable = false)
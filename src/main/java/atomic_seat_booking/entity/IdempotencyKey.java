@@ -6,10 +6,14 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 
 @Entity
+// Daily range partitions on createdDay are maintained by IdempotencyRetentionService; Postgres requires
+// the partition key in the unique constraint, so a key is unique per UTC day.
 @Table(name = "idempotency_keys", uniqueConstraints = {
-        @UniqueConstraint(name = "uk_user_idempotency_key", columnNames = { "userId", "key" })
+        @UniqueConstraint(name = "uk_user_idempotency_key", columnNames = { "userId", "key", "createdDay" })
 })
 @Data
 @NoArgsConstructor
@@ -26,16 +30,27 @@ public class IdempotencyKey {
     @Column(nullable = false)
     private String key;
 
-    @Column(columnDefinition = "TEXT")
-    private String responsePayload;
+    // Compact IdempotencyPayloadCodec encoding of the original response
+    @Column(columnDefinition = "BYTEA")
+    private byte[] responsePayload;
 
+    // Stamped by IdempotencyService from the application Clock
     @Column(nullable = false)
-    private Instant createdAt = Instant.now();
+    private Instant createdAt;
 
-    public IdempotencyKey(String userId, String key, String responsePayload) {
+    // UTC day of createdAt: the partition key
+    @Column(nullable = false)
+    private LocalDate createdDay;
+
+    public IdempotencyKey(String userId, String key, byte[] responsePayload, Instant createdAt) {
         this.userId = userId;
         this.key = key;
         this.responsePayload = responsePayload;
-        this.createdAt = Instant.now();
+        this.createdAt = createdAt;
+    }
+
+    @PrePersist
+    void assignCreatedDay() {
+        createdDay = LocalDate.ofInstant(createdAt, ZoneOffset.UTC);
     }
 }
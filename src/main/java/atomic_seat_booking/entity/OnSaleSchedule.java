@@ -0,0 +1,32 @@
+package atomic_seat_booking.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "on_sale_schedules")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OnSaleSchedule {
+
+    @Id
+    @Column(nullable = false)
+    private String eventId;
+
+    @Column(nullable = false)
+    private Instant onSaleAt;
+
+    @Column(nullable = false)
+    private Instant createdAt = Instant.now();
+
+    public OnSaleSchedule(String eventId, Instant onSaleAt) {
+        this.eventId = eventId;
+        this.onSaleAt = onSaleAt;
+        this.createdAt = Instant.now();
+    }
+}
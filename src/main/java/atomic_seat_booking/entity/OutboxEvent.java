@@ -0,0 +1,42 @@
+package atomic_seat_booking.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "outbox_events", indexes = {
+        // Supports the per-seat head-of-queue check in OutboxEventRepository.lockNextBatch
+        @Index(name = "idx_outbox_seat_id", columnList = "seatId, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxEventType type;
+
+    @Column(nullable = false)
+    private Long seatId;
+
+    @Column(nullable = false)
+    private String eventId;
+
+    @Column
+    private String userId;
+
+    @Column
+    private Long bookingId;
+
+    @Column(nullable = false)
+    private Instant occurredAt = Instant.now();
+}
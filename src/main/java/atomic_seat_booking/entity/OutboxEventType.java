@@ -0,0 +1,8 @@
+package atomic_seat_booking.entity;
+
+public enum OutboxEventType {
+    SEAT_HELD,
+    SEAT_RELEASED,
+    SEAT_BOOKED,
+    SEAT_OFFERED
+}
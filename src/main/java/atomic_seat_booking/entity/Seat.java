@@ -3,13 +3,16 @@ package atomic_seat_booking.entity;
 import atomic_seat_booking.exception.*;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.PartitionKey;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import java.time.Instant;
 
 @Entity
-@Table(name = "seats")
+@Table(name = "seats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_seat_event_number", columnNames = { "eventId", "seatNumber" })
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,13 +22,15 @@ public class Seat {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Table is list-partitioned on this column; Hibernate adds it to UPDATE/DELETE predicates
+    @PartitionKey
     @Column(nullable = false)
     private String eventId;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String seatNumber;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = SeatStatusConverter.class)
     @Column(nullable = false)
     private SeatStatus status = SeatStatus.AVAILABLE;
 
@@ -38,10 +43,10 @@ public class Seat {
     // Helper method to hold a seat
     public void hold(String userId, Instant expiresAt) {
         if (this.status == SeatStatus.HELD) {
-            throw new SeatAlreadyHeldException("Seat is already held by another user");
+            throw SeatAlreadyHeldException.HELD;
         }
         if (this.status == SeatStatus.BOOKED) {
-            throw new SeatAlreadyBookedException("Seat is already booked");
+            throw SeatAlreadyBookedException.BOOKED;
         }
         if (this.status != SeatStatus.AVAILABLE) {
             throw new IllegalStateException("Seat must be AVAILABLE to be held. Current status: " + this.status);
@@ -69,23 +74,28 @@ public class Seat {
 
     // Helper method to book a seat
     public void book(String userId, Instant now) {
+        checkBookable(userId, now);
+
+        this.status = SeatStatus.BOOKED;
+        this.holdExpiresAt = null; // Clear expiration since it's now booked
+    }
+
+    // Helper method to verify a booking would succeed, throwing the same exceptions as book()
+    public void checkBookable(String userId, Instant now) {
         if (this.status == SeatStatus.AVAILABLE) {
             throw new IllegalStateException("Seat must be HELD to be booked. Current status: " + this.status);
         }
         if (this.status == SeatStatus.BOOKED) {
-            throw new SeatAlreadyBookedException("Seat is already booked");
+            throw SeatAlreadyBookedException.BOOKED;
         }
 
         if (!userId.equals(this.heldByUserId)) {
-            throw new UnauthorizedSeatAccessException("Seat is held by another user");
+            throw UnauthorizedSeatAccessException.HELD_BY_OTHER;
         }
 
         if (this.holdExpiresAt != null && now.isAfter(this.holdExpiresAt)) {
-            throw new SeatHoldExpiredException("Seat hold has expired");
+            throw SeatHoldExpiredException.EXPIRED;
         }
-
-        this.status = SeatStatus.BOOKED;
-        this.holdExpiresAt = null; // Clear expiration since it's now booked
     }
 
     // Helper method to release a booked or held seat
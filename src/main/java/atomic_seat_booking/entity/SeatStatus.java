@@ -1,7 +1,30 @@
 package atomic_seat_booking.entity;
 
+/**
+ * Seat lifecycle states. Each state is stored as a fixed SMALLINT code; codes are part of the
+ * schema and must never be renumbered or reused.
+ */
 public enum SeatStatus {
-    AVAILABLE,
-    HELD,
-    BOOKED
-}
\ No newline at end of file
+    AVAILABLE(0),
+    HELD(1),
+    BOOKED(2);
+
+    private final short code;
+
+    SeatStatus(int code) {
+        this.code = (short) code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public static SeatStatus fromCode(short code) {
+        for (SeatStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown seat status code: " + code);
+    }
+}
@@ -0,0 +1,18 @@
+package atomic_seat_booking.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class SeatStatusConverter implements AttributeConverter<SeatStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(SeatStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public SeatStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : SeatStatus.fromCode(code);
+    }
+}
@@ -27,10 +27,19 @@ public class User {
     @Column(nullable = false)
     private Instant createdAt = Instant.now();
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private UserRole role = UserRole.USER;
+
     public User(String id, String name, String email) {
+        this(id, name, email, UserRole.USER);
+    }
+
+    public User(String id, String name, String email, UserRole role) {
         this.id = id;
         this.name = name;
         this.email = email;
+        this.role = role;
         this.createdAt = Instant.now();
     }
 }
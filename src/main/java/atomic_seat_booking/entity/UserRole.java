@@ -0,0 +1,7 @@
+package atomic_seat_booking.entity;
+
+public enum UserRole {
+    USER,
+    ADMIN,
+    FINANCE
+}
@@ -0,0 +1,7 @@
+package atomic_seat_booking.exception;
+
+public class BookingQueueFullException extends RuntimeException {
+    public BookingQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package atomic_seat_booking.exception;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.time.Instant;
 
 @RestControllerAdvice
+@Slf4j
 public class GlobalExceptionHandler {
 
     @Data
@@ -46,11 +48,41 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(e.getMessage(), HttpStatus.CONFLICT, "IdempotencyConflictException");
     }
 
+    @ExceptionHandler(IdempotencyInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyInProgress(IdempotencyInProgressException e) {
+        return buildErrorResponse(e.getMessage(), HttpStatus.CONFLICT, "IdempotencyInProgressException");
+    }
+
+    @ExceptionHandler(BookingQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleBookingQueueFull(BookingQueueFullException e) {
+        return buildErrorResponse(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, "BookingQueueFullException");
+    }
+
+    @ExceptionHandler(WaitlistFullException.class)
+    public ResponseEntity<ErrorResponse> handleWaitlistFull(WaitlistFullException e) {
+        return buildErrorResponse(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, "WaitlistFullException");
+    }
+
+    @ExceptionHandler(WorkloadSaturatedException.class)
+    public ResponseEntity<ErrorResponse> handleWorkloadSaturated(WorkloadSaturatedException e) {
+        return buildErrorResponse(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, "WorkloadSaturatedException");
+    }
+
     @ExceptionHandler(RateLimitExceededException.class)
     public ResponseEntity<ErrorResponse> handleRateLimitExceeded(RateLimitExceededException e) {
         return buildErrorResponse(e.getMessage(), HttpStatus.TOO_MANY_REQUESTS, "RateLimitExceededException");
     }
 
+    @ExceptionHandler(PaymentDeclinedException.class)
+    public ResponseEntity<ErrorResponse> handlePaymentDeclined(PaymentDeclinedException e) {
+        return buildErrorResponse(e.getMessage(), HttpStatus.PAYMENT_REQUIRED, "PaymentDeclinedException");
+    }
+
+    @ExceptionHandler(PaymentUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handlePaymentUnavailable(PaymentUnavailableException e) {
+        return buildErrorResponse(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, "PaymentUnavailableException");
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException e) {
         return buildErrorResponse(e.getMessage(), HttpStatus.NOT_FOUND, "IllegalArgumentException");
@@ -63,6 +95,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleUnexpected(Exception e) {
+        log.error("Unexpected error handling request. error={}", e.getMessage(), e);
         return buildErrorResponse("An unexpected error occurred. Please try again later.",
                 HttpStatus.INTERNAL_SERVER_ERROR, "UnexpectedException");
     }
@@ -0,0 +1,7 @@
+package atomic_seat_booking.exception;
+
+public class IdempotencyInProgressException extends RuntimeException {
+    public IdempotencyInProgressException(String message) {
+        super(message);
+    }
+}
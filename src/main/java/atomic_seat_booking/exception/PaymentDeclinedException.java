@@ -0,0 +1,7 @@
+package atomic_seat_booking.exception;
+
+public class PaymentDeclinedException extends RuntimeException {
+    public PaymentDeclinedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package atomic_seat_booking.exception;
+
+public class PaymentUnavailableException extends RuntimeException {
+    public PaymentUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,8 @@
 package atomic_seat_booking.exception;
 
-public class SeatAlreadyBookedException extends RuntimeException {
+public class SeatAlreadyBookedException extends StacklessException {
+    public static final SeatAlreadyBookedException BOOKED = new SeatAlreadyBookedException("Seat is already booked");
+
     public SeatAlreadyBookedException(String message) {
         super(message);
     }
@@ -1,6 +1,13 @@
 package atomic_seat_booking.exception;
 
-public class SeatAlreadyHeldException extends RuntimeException {
+public class SeatAlreadyHeldException extends StacklessException {
+    public static final SeatAlreadyHeldException HELD =
+            new SeatAlreadyHeldException("Seat is already held by another user");
+    public static final SeatAlreadyHeldException SOFT_HELD =
+            new SeatAlreadyHeldException("Seat is currently being considered by another user");
+    public static final SeatAlreadyHeldException OFFERED_TO_WAITLIST =
+            new SeatAlreadyHeldException("Seat was offered to the next user on its waitlist");
+
     public SeatAlreadyHeldException(String message) {
         super(message);
     }
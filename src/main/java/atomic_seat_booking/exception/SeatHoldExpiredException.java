@@ -1,6 +1,8 @@
 package atomic_seat_booking.exception;
 
-public class SeatHoldExpiredException extends RuntimeException {
+public class SeatHoldExpiredException extends StacklessException {
+    public static final SeatHoldExpiredException EXPIRED = new SeatHoldExpiredException("Seat hold has expired");
+
     public SeatHoldExpiredException(String message) {
         super(message);
     }
@@ -0,0 +1,13 @@
+package atomic_seat_booking.exception;
+
+/**
+ * An expected outcome rather than a fault: a lost seat, a rejected request, an expired hold.
+ * Under an on-sale herd most requests end in one, so these skip the stack walk that dominates
+ * the cost of a throw, and the common ones are preallocated. GlobalExceptionHandler maps them
+ * to a status without logging; only unexpected exceptions are logged with a stack trace.
+ */
+public abstract class StacklessException extends RuntimeException {
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,6 +1,9 @@
 package atomic_seat_booking.exception;
 
-public class UnauthorizedSeatAccessException extends RuntimeException {
+public class UnauthorizedSeatAccessException extends StacklessException {
+    public static final UnauthorizedSeatAccessException HELD_BY_OTHER =
+            new UnauthorizedSeatAccessException("Seat is held by another user");
+
     public UnauthorizedSeatAccessException(String message) {
         super(message);
     }
@@ -0,0 +1,7 @@
+package atomic_seat_booking.exception;
+
+public class WaitlistFullException extends RuntimeException {
+    public WaitlistFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package atomic_seat_booking.exception;
+
+public class WorkloadSaturatedException extends RuntimeException {
+    public WorkloadSaturatedException(String message) {
+        super(message);
+    }
+}
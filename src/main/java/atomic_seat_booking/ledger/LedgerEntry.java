@@ -0,0 +1,11 @@
+package atomic_seat_booking.ledger;
+
+import java.time.Instant;
+
+/**
+ * One seat transition as stored in {@code seat_events}. The user is the holder for HELD, the
+ * previous holder for RELEASED and the buyer for BOOKED.
+ */
+public record LedgerEntry(long sequence, String eventId, Long seatId, LedgerEntryType type, String userId,
+        Instant holdExpiresAt, Long bookingId, Instant recordedAt) {
+}
@@ -0,0 +1,25 @@
+package atomic_seat_booking.ledger;
+
+import atomic_seat_booking.entity.SeatStatus;
+
+/**
+ * Seat transitions recorded in the ledger. An offer to a waitlisted user is recorded as HELD.
+ */
+public enum LedgerEntryType {
+    HELD(SeatStatus.HELD),
+    RELEASED(SeatStatus.AVAILABLE),
+    BOOKED(SeatStatus.BOOKED);
+
+    private final SeatStatus status;
+
+    LedgerEntryType(SeatStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * The seat's status once this transition has happened.
+     */
+    public SeatStatus getStatus() {
+        return status;
+    }
+}
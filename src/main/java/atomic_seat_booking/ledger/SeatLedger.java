@@ -0,0 +1,137 @@
+package atomic_seat_booking.ledger;
+
+import atomic_seat_booking.entity.Booking;
+import atomic_seat_booking.entity.Seat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Appends seat transitions to the {@code seat_events} ledger. Must be called inside the
+ * transaction that performs the transition, while it holds the seat's row lock, so the entry
+ * exists if and only if the transition commits and a seat's entries are sequenced in the order
+ * its transitions happened. Entries are buffered per transaction and written as one JDBC batch
+ * just before commit, stamped by the database clock so every node agrees on when they settle.
+ */
+@Component
+public class SeatLedger {
+
+    private static final String INSERT = "INSERT INTO seat_events "
+            + "(event_id, seat_id, type, user_id, hold_expires_at, booking_id, recorded_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, clock_timestamp())";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Entries committed by this node per event since its last snapshot here, to decide when to take one
+    private final Map<String, Long> committedSinceSnapshot = new ConcurrentHashMap<>();
+
+    private record Pending(String eventId, Long seatId, LedgerEntryType type, String userId,
+            Instant holdExpiresAt, Long bookingId) {
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void seatHeld(Seat seat) {
+        append(new Pending(seat.getEventId(), seat.getId(), LedgerEntryType.HELD, seat.getHeldByUserId(),
+                seat.getHoldExpiresAt(), null));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void seatReleased(Seat seat, String previousHolder) {
+        append(new Pending(seat.getEventId(), seat.getId(), LedgerEntryType.RELEASED, previousHolder, null, null));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void seatsBooked(List<Seat> seats, List<Booking> bookings) {
+        for (int i = 0; i < seats.size(); i++) {
+            Seat seat = seats.get(i);
+            Booking booking = bookings.get(i);
+            append(new Pending(seat.getEventId(), seat.getId(), LedgerEntryType.BOOKED, booking.getUserId(), null,
+                    booking.getId()));
+        }
+    }
+
+    /**
+     * Events with at least {@code entries} committed by this node since they were last returned
+     * here; their counts start again from zero.
+     */
+    public List<String> takeEventsWithAtLeast(long entries) {
+        List<String> due = new ArrayList<>();
+        for (String eventId : committedSinceSnapshot.keySet()) {
+            committedSinceSnapshot.computeIfPresent(eventId, (id, count) -> {
+                if (count < entries) {
+                    return count;
+                }
+                due.add(id);
+                return null;
+            });
+        }
+        return due;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void append(Pending entry) {
+        List<Pending> buffer = (List<Pending>) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new Flush(buffer));
+        }
+        buffer.add(entry);
+    }
+
+    /**
+     * Writes a transaction's buffered entries just before it commits, in append order, and
+     * keeps the buffer bound only to its own transaction across suspensions.
+     */
+    private final class Flush implements TransactionSynchronization {
+
+        private final List<Pending> buffer;
+
+        private Flush(List<Pending> buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(SeatLedger.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(SeatLedger.this, buffer);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            jdbcTemplate.batchUpdate(INSERT, buffer, buffer.size(), (ps, entry) -> {
+                ps.setString(1, entry.eventId());
+                ps.setLong(2, entry.seatId());
+                ps.setString(3, entry.type().name());
+                ps.setString(4, entry.userId());
+                ps.setTimestamp(5, entry.holdExpiresAt() == null ? null : Timestamp.from(entry.holdExpiresAt()));
+                ps.setObject(6, entry.bookingId(), Types.BIGINT);
+            });
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(SeatLedger.this);
+            if (status == STATUS_COMMITTED) {
+                buffer.forEach(entry -> committedSinceSnapshot.merge(entry.eventId(), 1L, Long::sum));
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package atomic_seat_booking.ledger;
+
+import atomic_seat_booking.config.Workload;
+import atomic_seat_booking.config.WorkloadClass;
+import atomic_seat_booking.dto.LedgerSnapshotResponse;
+import atomic_seat_booking.dto.SeatHistoryResponse;
+import atomic_seat_booking.entity.SeatStatus;
+import atomic_seat_booking.service.SeatPartitionService;
+import atomic_seat_booking.sharding.ShardKey;
+import atomic_seat_booking.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the seat ledger: a seat's history and its state at any instant, and an event's seat
+ * states projected from its newest snapshot plus the entries after it. Snapshots are taken per
+ * event once enough entries have been committed since the last one, so a replay reads a
+ * bounded tail instead of the event's whole ledger.
+ * <p>
+ * A snapshot or the settled head only passes entries recorded at least the settle interval ago.
+ * Entries are recorded and sequenced as their transaction flushes, just before it commits, so
+ * a lower sequence can still become visible for a moment; the interval must comfortably exceed
+ * twice the time from an entry's flush to its commit. Entries are stamped with the database's
+ * clock_timestamp() and compared against its now(), so application clock skew between nodes
+ * cannot pass an entry early.
+ */
+@Service
+@Slf4j
+public class SeatLedgerService {
+
+    private static final String SEAT_COLUMNS =
+            "seat_id, sequence, type, user_id, hold_expires_at, booking_id, recorded_at";
+    private static final String ENTRY_COLUMNS = "event_id, " + SEAT_COLUMNS;
+
+    // The last entry of each seat: the base snapshot's rows, overlaid with the ledger after it
+    private static final String LATEST_PER_SEAT = "SELECT DISTINCT ON (seat_id) " + ENTRY_COLUMNS + " FROM ("
+            + "SELECT " + ENTRY_COLUMNS + " FROM seat_ledger_snapshot_seats "
+            + "WHERE event_id = ? AND through_sequence = ? "
+            + "UNION ALL SELECT " + ENTRY_COLUMNS + " FROM seat_events "
+            + "WHERE event_id = ? AND sequence > ? AND sequence <= ?) latest "
+            + "ORDER BY seat_id, sequence DESC";
+
+    private static final RowMapper<LedgerEntry> ENTRY_MAPPER = (rs, rowNum) -> new LedgerEntry(
+            rs.getLong("sequence"),
+            rs.getString("event_id"),
+            rs.getLong("seat_id"),
+            LedgerEntryType.valueOf(rs.getString("type")),
+            rs.getString("user_id"),
+            toInstant(rs.getTimestamp("hold_expires_at")),
+            rs.getObject("booking_id", Long.class),
+            toInstant(rs.getTimestamp("recorded_at")));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SeatLedger seatLedger;
+
+    @Autowired
+    private SeatPartitionService seatPartitionService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private Clock clock;
+
+    @Value("${ledger.snapshot.enabled:true}")
+    private boolean snapshotsEnabled;
+
+    @Value("${ledger.snapshot.min-entries:1000}")
+    private long snapshotMinEntries;
+
+    @Value("${ledger.snapshot.settle.millis:30000}")
+    private long settleMillis;
+
+    @Value("${ledger.snapshot.retain:2}")
+    private int snapshotsRetained;
+
+    /**
+     * A seat's ledger entries recorded up to {@code at} (all of them when null), oldest first,
+     * and the state they leave it in. Empty when the seat does not exist.
+     */
+    @Workload(WorkloadClass.READ)
+    public Optional<SeatHistoryResponse> history(@ShardKey Long seatId, Instant at) {
+        return seatPartitionService.eventIdOf(seatId).map(eventId -> {
+            Instant asOf = at != null ? at : Instant.now(clock);
+            List<LedgerEntry> entries = jdbcTemplate.query("SELECT " + ENTRY_COLUMNS + " FROM seat_events "
+                    + "WHERE event_id = ? AND seat_id = ? AND recorded_at <= ? ORDER BY sequence",
+                    ENTRY_MAPPER, eventId, seatId, Timestamp.from(asOf));
+            return toHistory(seatId, eventId, asOf, entries);
+        });
+    }
+
+    /**
+     * The last ledger entry of every seat of the event that has one, ordered by seat id: the
+     * newest snapshot replayed forward to the end of the ledger.
+     */
+    @Workload(WorkloadClass.READ)
+    public List<LedgerEntry> project(@ShardKey String eventId) {
+        long base = latestSnapshot(eventId);
+        return jdbcTemplate.query(LATEST_PER_SEAT, ENTRY_MAPPER, eventId, base, eventId, base, Long.MAX_VALUE);
+    }
+
+    /**
+     * At most {@code limit} of the event's entries after {@code afterSequence} and up to
+     * {@code throughSequence}, oldest first, for catching a derived view up a page at a time.
+     */
+    @Workload(WorkloadClass.READ)
+    public List<LedgerEntry> tail(@ShardKey String eventId, long afterSequence, long throughSequence, int limit) {
+        return jdbcTemplate.query("SELECT " + ENTRY_COLUMNS + " FROM seat_events "
+                + "WHERE event_id = ? AND sequence > ? AND sequence <= ? ORDER BY sequence LIMIT ?", ENTRY_MAPPER,
+                eventId, afterSequence, throughSequence, limit);
+    }
+
+    /**
+     * The event's newest entry recorded at least the settle interval ago, or 0 when it has none.
+     * Every entry up to it has settled, so a state read from the seat rows after this call is
+     * complete up to it.
+     */
+    @Workload(WorkloadClass.READ)
+    public long settledHead(@ShardKey String eventId) {
+        Long head = jdbcTemplate.queryForObject("SELECT max(sequence) FROM seat_events "
+                + "WHERE event_id = ? AND recorded_at < now() - ? * interval '1 millisecond'", Long.class,
+                eventId, settleMillis);
+        return head == null ? 0 : head;
+    }
+
+    /**
+     * Snapshots the event now, whatever has accumulated since its last snapshot.
+     *
+     * @return the new snapshot, or empty when no settled entries were added since the last one
+     */
+    @Workload(WorkloadClass.BACKGROUND)
+    public Optional<LedgerSnapshotResponse> snapshot(@ShardKey String eventId) {
+        return takeSnapshot(eventId);
+    }
+
+    @Workload(WorkloadClass.BACKGROUND)
+    @Scheduled(fixedDelayString = "${ledger.snapshot.interval.millis:60000}")
+    public void scheduledSnapshots() {
+        if (!snapshotsEnabled) {
+            return;
+        }
+        for (String eventId : seatLedger.takeEventsWithAtLeast(snapshotMinEntries)) {
+            try {
+                shardRouter.runOn(shardRouter.shardForEvent(eventId), () -> takeSnapshot(eventId));
+            } catch (Exception e) {
+                log.warn("Ledger snapshot failed, will retry after more entries. eventId={}, error={}", eventId,
+                        e.getMessage());
+            }
+        }
+    }
+
+    private Optional<LedgerSnapshotResponse> takeSnapshot(String eventId) {
+        Instant now = Instant.now(clock);
+        return Optional.ofNullable(transactionTemplate.execute(status -> {
+            // Serialises snapshots of one event across nodes; appends are not blocked
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(hashtext('seat_ledger_snapshot:' || ?))",
+                    Object.class, eventId);
+            long base = latestSnapshot(eventId);
+            Long through = jdbcTemplate.queryForObject("SELECT max(sequence) FROM seat_events "
+                    + "WHERE event_id = ? AND sequence > ? AND recorded_at < now() - ? * interval '1 millisecond'",
+                    Long.class, eventId, base, settleMillis);
+            if (through == null) {
+                return null;
+            }
+
+            jdbcTemplate.update("INSERT INTO seat_ledger_snapshots (event_id, through_sequence, seats, taken_at) "
+                    + "VALUES (?, ?, 0, ?)", eventId, through, Timestamp.from(now));
+            int seats = jdbcTemplate.update("INSERT INTO seat_ledger_snapshot_seats (event_id, through_sequence, "
+                    + SEAT_COLUMNS + ") SELECT ?, ?, " + SEAT_COLUMNS + " FROM (" + LATEST_PER_SEAT + ") snapshot",
+                    eventId, through, eventId, base, eventId, base, through);
+            jdbcTemplate.update("UPDATE seat_ledger_snapshots SET seats = ? "
+                    + "WHERE event_id = ? AND through_sequence = ?", seats, eventId, through);
+            int pruned = jdbcTemplate.update("DELETE FROM seat_ledger_snapshots WHERE event_id = ? "
+                    + "AND through_sequence < (SELECT min(through_sequence) FROM (SELECT through_sequence "
+                    + "FROM seat_ledger_snapshots WHERE event_id = ? ORDER BY through_sequence DESC LIMIT ?) kept)",
+                    eventId, eventId, snapshotsRetained);
+
+            log.info("Ledger snapshot taken. eventId={}, throughSequence={}, seats={}, pruned={}", eventId, through,
+                    seats, pruned);
+            return LedgerSnapshotResponse.builder()
+                    .eventId(eventId)
+                    .throughSequence(through)
+                    .seats(seats)
+                    .takenAt(now)
+                    .build();
+        }));
+    }
+
+    // Watermark of the event's newest snapshot, or 0 when it has none
+    private long latestSnapshot(String eventId) {
+        Long through = jdbcTemplate.queryForObject(
+                "SELECT max(through_sequence) FROM seat_ledger_snapshots WHERE event_id = ?", Long.class, eventId);
+        return through == null ? 0 : through;
+    }
+
+    private static SeatHistoryResponse toHistory(Long seatId, String eventId, Instant at, List<LedgerEntry> entries) {
+        SeatHistoryResponse.SeatHistoryResponseBuilder history = SeatHistoryResponse.builder()
+                .seatId(seatId)
+                .eventId(eventId)
+                .at(at)
+                .status(SeatStatus.AVAILABLE)
+                .entries(entries.stream()
+                        .map(entry -> SeatHistoryResponse.Entry.builder()
+                                .sequence(entry.sequence())
+                                .type(entry.type())
+                                .userId(entry.userId())
+                                .holdExpiresAt(entry.holdExpiresAt())
+                                .bookingId(entry.bookingId())
+                                .recordedAt(entry.recordedAt())
+                                .build())
+                        .toList());
+        if (!entries.isEmpty()) {
+            LedgerEntry last = entries.get(entries.size() - 1);
+            history.status(last.type().getStatus());
+            if (last.type() != LedgerEntryType.RELEASED) {
+                history.userId(last.userId())
+                        .holdExpiresAt(last.holdExpiresAt())
+                        .bookingId(last.bookingId());
+            }
+        }
+        return history.build();
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
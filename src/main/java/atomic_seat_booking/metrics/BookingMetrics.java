@@ -0,0 +1,146 @@
+package atomic_seat_booking.metrics;
+
+import atomic_seat_booking.exception.PaymentDeclinedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the booking hot path. Every meter is registered up front (or once per new tag
+ * value), so recording is a lookup-free increment that is safe to leave on at peak.
+ * Timers keep count, total and max only; payment latency is the one percentile histogram.
+ */
+@Component
+public class BookingMetrics {
+
+    public enum LockQuery {
+        SINGLE, BATCH
+    }
+
+    public enum SoftHoldCall {
+        CHECK, CREATE
+    }
+
+    public enum SoftHoldResult {
+        HIT, MISS, FALLBACK
+    }
+
+    public enum RateLimitDimension {
+        USER, SEAT, EVENT
+    }
+
+    public enum IdempotencyTier {
+        LOCAL, REDIS, TABLE
+    }
+
+    private final MeterRegistry registry;
+    private final Map<LockQuery, Timer> lockWaits = new EnumMap<>(LockQuery.class);
+    private final Map<LockQuery, Counter> lockTimeouts = new EnumMap<>(LockQuery.class);
+    private final Map<SoftHoldCall, Map<SoftHoldResult, Counter>> softHolds = new EnumMap<>(SoftHoldCall.class);
+    private final Map<RateLimitDimension, Counter> rateLimitRejections = new EnumMap<>(RateLimitDimension.class);
+    private final Map<IdempotencyTier, Counter> idempotencyHits = new EnumMap<>(IdempotencyTier.class);
+    private final Map<IdempotencyTier, Counter> idempotencyMisses = new EnumMap<>(IdempotencyTier.class);
+    private final Timer paymentSuccess;
+    private final Timer paymentDeclined;
+    private final Timer paymentUnavailable;
+
+    public BookingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (LockQuery query : LockQuery.values()) {
+            lockWaits.put(query, Timer.builder("seat.lock.wait")
+                    .description("Time to acquire seat row locks (SELECT ... FOR UPDATE)")
+                    .tag("query", tagValue(query))
+                    .register(registry));
+            lockTimeouts.put(query, Counter.builder("seat.lock.timeouts")
+                    .description("Seat row lock attempts that timed out or lost a deadlock")
+                    .tag("query", tagValue(query))
+                    .register(registry));
+        }
+        for (SoftHoldCall call : SoftHoldCall.values()) {
+            Map<SoftHoldResult, Counter> results = new EnumMap<>(SoftHoldResult.class);
+            for (SoftHoldResult result : SoftHoldResult.values()) {
+                results.put(result, Counter.builder("softhold.requests")
+                        .description("Redis soft-hold calls: hit, miss, or fallback when Redis is unavailable")
+                        .tag("call", tagValue(call))
+                        .tag("result", tagValue(result))
+                        .register(registry));
+            }
+            softHolds.put(call, results);
+        }
+        for (RateLimitDimension dimension : RateLimitDimension.values()) {
+            rateLimitRejections.put(dimension, Counter.builder("ratelimit.rejections")
+                    .description("Requests rejected by a rate limit")
+                    .tag("dimension", tagValue(dimension))
+                    .register(registry));
+        }
+        for (IdempotencyTier tier : IdempotencyTier.values()) {
+            idempotencyHits.put(tier, idempotencyCounter(tier, "hit"));
+            idempotencyMisses.put(tier, idempotencyCounter(tier, "miss"));
+        }
+        paymentSuccess = paymentTimer("success");
+        paymentDeclined = paymentTimer("declined");
+        paymentUnavailable = paymentTimer("unavailable");
+    }
+
+    public MeterRegistry registry() {
+        return registry;
+    }
+
+    public void lockAcquired(LockQuery query, long nanos) {
+        lockWaits.get(query).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void lockTimedOut(LockQuery query, long nanos) {
+        lockWaits.get(query).record(nanos, TimeUnit.NANOSECONDS);
+        lockTimeouts.get(query).increment();
+    }
+
+    public void softHold(SoftHoldCall call, SoftHoldResult result) {
+        softHolds.get(call).get(result).increment();
+    }
+
+    public void rateLimitRejected(RateLimitDimension dimension) {
+        rateLimitRejections.get(dimension).increment();
+    }
+
+    public void idempotencyLookup(IdempotencyTier tier, boolean hit) {
+        (hit ? idempotencyHits : idempotencyMisses).get(tier).increment();
+    }
+
+    public void paymentCompleted(long nanos, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        Timer timer = cause == null ? paymentSuccess
+                : cause instanceof PaymentDeclinedException ? paymentDeclined : paymentUnavailable;
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Counter idempotencyCounter(IdempotencyTier tier, String result) {
+        return Counter.builder("idempotency.lookups")
+                .description("Idempotency key lookups per tier; hit ratio = hit / (hit + miss)")
+                .tag("tier", tagValue(tier))
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Timer paymentTimer(String outcome) {
+        return Timer.builder("payment.latency")
+                .description("Payment charge latency, including retries and hedges, up to the deadline")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,17 @@
+package atomic_seat_booking.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Times the annotated method as booking.operations{operation=value}, tagged with its outcome:
+ * "success" or the simple name of the exception it threw. Applied inside @Workload, so calls
+ * the bulkhead rejects are counted by the pool metrics instead.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Measured {
+    String value();
+}
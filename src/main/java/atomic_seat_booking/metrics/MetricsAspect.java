@@ -0,0 +1,109 @@
+package atomic_seat_booking.metrics;
+
+import atomic_seat_booking.contention.ContentionKind;
+import atomic_seat_booking.contention.SeatContentionTracker;
+import atomic_seat_booking.tracing.SpanKind;
+import atomic_seat_booking.tracing.TraceContext;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.LockTimeoutException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@link Measured} and times the seat row-lock queries, reporting the seats of a lock
+ * timeout to the contention tracker. Ordered after the shard and workload aspects and ahead of
+ * the transaction interceptor, so commit failures count as outcomes.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class MetricsAspect {
+
+    private static final String SUCCESS = "success";
+
+    private record OperationTimers(String operation, Timer success, Map<Class<?>, Timer> failures) {
+    }
+
+    @Autowired
+    private BookingMetrics bookingMetrics;
+
+    @Autowired
+    private SeatContentionTracker contentionTracker;
+
+    private final Map<Method, OperationTimers> operations = new ConcurrentHashMap<>();
+
+    @Around("@annotation(atomic_seat_booking.metrics.Measured)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        OperationTimers timers = operations.computeIfAbsent(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), this::timersFor);
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            timers.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            timers.failures().computeIfAbsent(e.getClass(), type -> timer(timers.operation(), type.getSimpleName()))
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    @Around("execution(* atomic_seat_booking.repository.SeatRepository.findByIdForUpdate(..))")
+    public Object timeSingleLock(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timeLock(joinPoint, BookingMetrics.LockQuery.SINGLE);
+    }
+
+    @Around("execution(* atomic_seat_booking.repository.SeatRepository.findAllByIdForUpdate(..))")
+    public Object timeBatchLock(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timeLock(joinPoint, BookingMetrics.LockQuery.BATCH);
+    }
+
+    private Object timeLock(ProceedingJoinPoint joinPoint, BookingMetrics.LockQuery query) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            long waited = System.nanoTime() - start;
+            bookingMetrics.lockAcquired(query, waited);
+            TraceContext.addSpan(SpanKind.LOCK_WAIT, waited);
+            return result;
+        } catch (PessimisticLockingFailureException | QueryTimeoutException | LockTimeoutException e) {
+            long waited = System.nanoTime() - start;
+            bookingMetrics.lockTimedOut(query, waited);
+            TraceContext.addSpan(SpanKind.LOCK_WAIT, waited);
+            Object seatIds = joinPoint.getArgs()[0];
+            if (seatIds instanceof Long seatId) {
+                contentionTracker.record(seatId, ContentionKind.LOCK_TIMEOUT);
+            } else if (seatIds instanceof Collection<?> ids) {
+                ids.forEach(id -> contentionTracker.record((Long) id, ContentionKind.LOCK_TIMEOUT));
+            }
+            throw e;
+        }
+    }
+
+    private OperationTimers timersFor(Method method) {
+        String operation = method.getAnnotation(Measured.class).value();
+        return new OperationTimers(operation, timer(operation, SUCCESS), new ConcurrentHashMap<>());
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder("booking.operations")
+                .description("Hold, confirm and checkout calls by outcome")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(bookingMetrics.registry());
+    }
+}
@@ -0,0 +1,24 @@
+package atomic_seat_booking.outbox;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes outbox events as Spring application events for in-process listeners.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "event-bus", matchIfMissing = true)
+public class EventBusOutboxPublisher implements OutboxPublisher {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(List<SeatEventMessage> batch) {
+        batch.forEach(eventPublisher::publishEvent);
+    }
+}
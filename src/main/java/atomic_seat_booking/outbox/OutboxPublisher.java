@@ -0,0 +1,12 @@
+package atomic_seat_booking.outbox;
+
+import java.util.List;
+
+/**
+ * Destination for relayed outbox events. Called inside the relay transaction; throwing rolls the
+ * batch back so it is retried (at-least-once delivery).
+ */
+public interface OutboxPublisher {
+
+    void publish(List<SeatEventMessage> batch);
+}
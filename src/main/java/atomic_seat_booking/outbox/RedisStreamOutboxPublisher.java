@@ -0,0 +1,54 @@
+package atomic_seat_booking.outbox;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends outbox events to a Redis Stream in one pipelined round trip per batch.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "redis-stream")
+public class RedisStreamOutboxPublisher implements OutboxPublisher {
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${outbox.redis.stream:seat-events}")
+    private String stream;
+
+    @Override
+    public void publish(List<SeatEventMessage> batch) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection strings = (StringRedisConnection) connection;
+            for (SeatEventMessage message : batch) {
+                strings.xAdd(stream, toFields(message));
+            }
+            return null;
+        });
+    }
+
+    private static Map<String, String> toFields(SeatEventMessage message) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("outboxId", String.valueOf(message.outboxId()));
+        fields.put("type", message.type().name());
+        fields.put("seatId", String.valueOf(message.seatId()));
+        fields.put("eventId", message.eventId());
+        fields.put("occurredAt", message.occurredAt().toString());
+        if (message.userId() != null) {
+            fields.put("userId", message.userId());
+        }
+        if (message.bookingId() != null) {
+            fields.put("bookingId", String.valueOf(message.bookingId()));
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,25 @@
+package atomic_seat_booking.outbox;
+
+import atomic_seat_booking.entity.OutboxEvent;
+import atomic_seat_booking.entity.OutboxEventType;
+
+import java.time.Instant;
+
+/**
+ * Published form of an {@link OutboxEvent}. {@code outboxId} is monotonically increasing per seat
+ * and lets consumers discard redeliveries.
+ */
+public record SeatEventMessage(
+        Long outboxId,
+        OutboxEventType type,
+        Long seatId,
+        String eventId,
+        String userId,
+        Long bookingId,
+        Instant occurredAt) {
+
+    public static SeatEventMessage from(OutboxEvent event) {
+        return new SeatEventMessage(event.getId(), event.getType(), event.getSeatId(), event.getEventId(),
+                event.getUserId(), event.getBookingId(), event.getOccurredAt());
+    }
+}
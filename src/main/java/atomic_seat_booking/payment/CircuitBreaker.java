@@ -0,0 +1,57 @@
+package atomic_seat_booking.payment;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row the
+ * circuit opens for {@code openMillis}; afterwards a single trial call is let through and its
+ * outcome closes or re-opens the circuit.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong(-1);
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    public boolean tryAcquire() {
+        State state = state();
+        if (state == State.CLOSED) {
+            return true;
+        }
+        return state == State.HALF_OPEN && trialInFlight.compareAndSet(false, true);
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        openedAt.set(-1);
+        trialInFlight.set(false);
+    }
+
+    public void recordFailure() {
+        if (trialInFlight.getAndSet(false) || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt.set(System.currentTimeMillis());
+        }
+    }
+
+    public State state() {
+        long opened = openedAt.get();
+        if (opened < 0) {
+            return State.CLOSED;
+        }
+        return System.currentTimeMillis() - opened < openMillis ? State.OPEN : State.HALF_OPEN;
+    }
+}
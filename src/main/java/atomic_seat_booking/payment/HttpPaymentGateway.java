@@ -0,0 +1,70 @@
+package atomic_seat_booking.payment;
+
+import atomic_seat_booking.exception.PaymentDeclinedException;
+import atomic_seat_booking.exception.PaymentUnavailableException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Calls an HTTP payment provider (or the test stub) at {@code POST {baseUrl}/charges}.
+ * 2xx is success, 4xx (except 408/429) a definitive decline, anything else transient.
+ */
+public class HttpPaymentGateway implements PaymentGateway {
+
+    private final HttpClient httpClient;
+    private final URI chargesUri;
+    private final Duration requestTimeout;
+    private final ObjectMapper objectMapper;
+
+    public HttpPaymentGateway(String baseUrl, Duration requestTimeout, ObjectMapper objectMapper) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(requestTimeout)
+                .build();
+        this.chargesUri = URI.create(baseUrl.replaceAll("/+$", "") + "/charges");
+        this.requestTimeout = requestTimeout;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void charge(String userId, long amount, String idempotencyKey) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(Map.of("userId", userId, "amount", amount));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise charge request", e);
+        }
+        HttpRequest request = HttpRequest.newBuilder(chargesUri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", idempotencyKey)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new PaymentUnavailableException("Payment gateway I/O error: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentUnavailableException("Payment gateway call interrupted");
+        }
+
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            return;
+        }
+        if (status >= 400 && status < 500 && status != 408 && status != 429) {
+            throw new PaymentDeclinedException("Payment declined by gateway. status=" + status);
+        }
+        throw new PaymentUnavailableException("Payment gateway error. status=" + status);
+    }
+}
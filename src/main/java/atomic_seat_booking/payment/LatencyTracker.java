@@ -0,0 +1,46 @@
+package atomic_seat_booking.payment;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size window of recent call latencies. The p95 is recomputed every
+ * {@value #RECOMPUTE_EVERY} samples so readers never sort on the request path.
+ */
+public class LatencyTracker {
+
+    private static final int WINDOW = 256;
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+    private final AtomicInteger count = new AtomicInteger();
+    private final long defaultMillis;
+    private volatile long p95Millis;
+
+    public LatencyTracker(long defaultMillis) {
+        this.defaultMillis = defaultMillis;
+        this.p95Millis = defaultMillis;
+    }
+
+    public void record(long millis) {
+        int n = count.getAndIncrement();
+        samples.set(n % WINDOW, millis);
+        if ((n + 1) % RECOMPUTE_EVERY == 0) {
+            recompute(Math.min(n + 1, WINDOW));
+        }
+    }
+
+    public long p95Millis() {
+        return p95Millis;
+    }
+
+    private void recompute(int filled) {
+        long[] copy = new long[filled];
+        for (int i = 0; i < filled; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        p95Millis = filled == 0 ? defaultMillis : copy[(int) Math.ceil(filled * 0.95) - 1];
+    }
+}
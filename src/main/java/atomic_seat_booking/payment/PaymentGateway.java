@@ -0,0 +1,13 @@
+package atomic_seat_booking.payment;
+
+/**
+ * A single blocking charge call against a payment provider. Implementations must be idempotent
+ * on {@code idempotencyKey} so the client can safely retry and hedge. PaymentService passes a
+ * key derived from the user and their request key, so keys never collide across users.
+ * Throw {@link atomic_seat_booking.exception.PaymentDeclinedException} for definitive declines;
+ * any other exception is treated as transient.
+ */
+public interface PaymentGateway {
+
+    void charge(String userId, long amount, String idempotencyKey);
+}
@@ -0,0 +1,207 @@
+package atomic_seat_booking.payment;
+
+import atomic_seat_booking.exception.PaymentDeclinedException;
+import atomic_seat_booking.exception.PaymentUnavailableException;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Asynchronous wrapper around a {@link PaymentGateway} that adds, in order of application:
+ * a circuit breaker, an overall per-call deadline, retries with exponential backoff (safe
+ * because every attempt reuses the idempotency key), optional hedging after the observed p95,
+ * a per-attempt timeout, and a bounded executor acting as a bulkhead.
+ */
+@Slf4j
+public class ResilientPaymentClient implements AutoCloseable {
+
+    @Builder
+    public record Settings(
+            long deadlineMillis,
+            long attemptTimeoutMillis,
+            int maxAttempts,
+            long backoffMillis,
+            int bulkheadThreads,
+            int bulkheadQueue,
+            boolean hedgeEnabled,
+            long hedgeMinDelayMillis,
+            int circuitFailureThreshold,
+            long circuitOpenMillis) {
+    }
+
+    private final PaymentGateway gateway;
+    private final Settings settings;
+    private final ThreadPoolExecutor bulkhead;
+    private final ScheduledExecutorService scheduler;
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyTracker latencyTracker;
+
+    public ResilientPaymentClient(PaymentGateway gateway, Settings settings) {
+        this.gateway = gateway;
+        this.settings = settings;
+        AtomicInteger threadIds = new AtomicInteger();
+        this.bulkhead = new ThreadPoolExecutor(settings.bulkheadThreads(), settings.bulkheadThreads(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(settings.bulkheadQueue()), runnable -> {
+                    Thread thread = new Thread(runnable, "payment-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payment-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.circuitBreaker = new CircuitBreaker(settings.circuitFailureThreshold(), settings.circuitOpenMillis());
+        // Until enough samples exist, hedge at a quarter of the attempt timeout
+        this.latencyTracker = new LatencyTracker(settings.attemptTimeoutMillis() / 4);
+    }
+
+    public CompletableFuture<Void> charge(String userId, long amount, String idempotencyKey) {
+        if (!circuitBreaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new PaymentUnavailableException("Payment circuit is open"));
+        }
+
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.deadlineMillis());
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        attempt(userId, amount, idempotencyKey, 1, deadlineNanos, result);
+
+        return result
+                .orTimeout(settings.deadlineMillis(), TimeUnit.MILLISECONDS)
+                .handle((ignored, error) -> {
+                    Throwable cause = unwrap(error);
+                    if (cause == null || cause instanceof PaymentDeclinedException) {
+                        circuitBreaker.recordSuccess(); // A decline is a healthy gateway answer
+                    } else {
+                        circuitBreaker.recordFailure();
+                    }
+                    if (cause instanceof TimeoutException) {
+                        throw new CompletionException(new PaymentUnavailableException(
+                                "Payment did not complete within " + settings.deadlineMillis() + " ms"));
+                    }
+                    if (cause != null) {
+                        throw cause instanceof RuntimeException runtime
+                                ? new CompletionException(runtime)
+                                : new CompletionException(new PaymentUnavailableException(cause.getMessage()));
+                    }
+                    return null;
+                });
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    private void attempt(String userId, long amount, String key, int attemptNo, long deadlineNanos,
+            CompletableFuture<Void> result) {
+        if (result.isDone()) {
+            return;
+        }
+
+        hedgedCall(userId, amount, key).whenComplete((ignored, error) -> {
+            if (error == null) {
+                result.complete(null);
+                return;
+            }
+
+            Throwable cause = unwrap(error);
+            long backoff = settings.backoffMillis() << (attemptNo - 1);
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+            if (!(cause instanceof PaymentDeclinedException) && attemptNo < settings.maxAttempts()
+                    && remainingMillis > backoff) {
+                log.warn("Payment attempt failed, retrying. idempotencyKey={}, attempt={}, error={}", key, attemptNo,
+                        cause.getMessage());
+                scheduler.schedule(() -> attempt(userId, amount, key, attemptNo + 1, deadlineNanos, result),
+                        backoff, TimeUnit.MILLISECONDS);
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    /**
+     * Issues the call and, if hedging is on and no answer has arrived after the observed p95,
+     * a second identical call. The first success wins; the attempt fails only once every
+     * issued call has failed.
+     */
+    private CompletableFuture<Void> hedgedCall(String userId, long amount, String key) {
+        CompletableFuture<Void> primary = submit(userId, amount, key);
+        if (!settings.hedgeEnabled()) {
+            return primary;
+        }
+
+        CompletableFuture<Void> winner = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        BiConsumer<Void, Throwable> onDone = (ignored, error) -> {
+            if (error == null) {
+                winner.complete(null);
+            } else if (outstanding.decrementAndGet() == 0) {
+                winner.completeExceptionally(error);
+            }
+        };
+        primary.whenComplete(onDone);
+
+        long hedgeDelay = Math.max(settings.hedgeMinDelayMillis(), latencyTracker.p95Millis());
+        ScheduledFuture<?> hedge = scheduler.schedule(() -> {
+            if (!winner.isDone()) {
+                log.info("Hedging slow payment call. idempotencyKey={}, delayMs={}", key, hedgeDelay);
+                outstanding.incrementAndGet();
+                submit(userId, amount, key).whenComplete(onDone);
+            }
+        }, hedgeDelay, TimeUnit.MILLISECONDS);
+        winner.whenComplete((ignored, error) -> hedge.cancel(false));
+        return winner;
+    }
+
+    private CompletableFuture<Void> submit(String userId, long amount, String key) {
+        CompletableFuture<Void> call = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = bulkhead.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    gateway.charge(userId, amount, key);
+                    latencyTracker.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    call.complete(null);
+                } catch (Throwable e) {
+                    call.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new PaymentUnavailableException("Payment bulkhead is full"));
+        }
+        // Interrupt a timed-out charge so it hands its bulkhead thread back instead of holding it
+        call.orTimeout(settings.attemptTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        task.cancel(true);
+                    }
+                });
+        return call;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        bulkhead.shutdownNow();
+    }
+}
@@ -0,0 +1,64 @@
+package atomic_seat_booking.payment;
+
+import atomic_seat_booking.exception.PaymentDeclinedException;
+import atomic_seat_booking.exception.PaymentUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process gateway used when no provider URL is configured.
+ * A new key randomly delays then fails transiently (default 10%), is declined (default 20%),
+ * or succeeds.
+ * Like a real provider, it remembers charges and declines per idempotency key, so retries and
+ * hedged duplicates get the first answer; a transient failure is not remembered.
+ */
+@Slf4j
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    // true = charged, false = declined
+    private final Cache<String, Boolean> outcomes = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    private final int errorPercent;
+    private final int declinePercent;
+
+    public SimulatedPaymentGateway(int errorPercent, int declinePercent) {
+        this.errorPercent = errorPercent;
+        this.declinePercent = declinePercent;
+    }
+
+    @Override
+    public void charge(String userId, long amount, String idempotencyKey) {
+        Boolean charged = outcomes.getIfPresent(idempotencyKey);
+        if (charged == null) {
+            int outcome = ThreadLocalRandom.current().nextInt(100);
+
+            if (outcome < errorPercent) { // Delay, then a retryable failure
+                log.info("Simulating payment delay. idempotencyKey={}", idempotencyKey);
+                try {
+                    TimeUnit.SECONDS.sleep(2);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new PaymentUnavailableException("Simulated payment gateway error");
+            }
+
+            // A concurrent duplicate of the same key may have answered first
+            boolean approved = outcome >= errorPercent + declinePercent;
+            Boolean first = outcomes.asMap().putIfAbsent(idempotencyKey, approved);
+            charged = first != null ? first : approved;
+        }
+
+        if (!charged) { // Definitive decline
+            log.warn("Payment declined simulation. userId={}, idempotencyKey={}", userId, idempotencyKey);
+            throw new PaymentDeclinedException("Payment declined: insufficient funds");
+        }
+    }
+}
@@ -4,9 +4,13 @@ import atomic_seat_booking.entity.IdempotencyKey;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Optional;
 
 @Repository
 public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
-    Optional<IdempotencyKey> findByUserIdAndKey(String userId, String key);
+    // Bounded by created_day so Postgres prunes old partitions, and by created_at so expired keys are ignored
+    Optional<IdempotencyKey> findFirstByUserIdAndKeyAndCreatedDayGreaterThanEqualAndCreatedAtAfter(String userId,
+            String key, LocalDate cutoffDay, Instant cutoff);
 }
@@ -0,0 +1,14 @@
+package atomic_seat_booking.repository;
+
+import atomic_seat_booking.entity.OnSaleSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OnSaleScheduleRepository extends JpaRepository<OnSaleSchedule, String> {
+
+    List<OnSaleSchedule> findByOnSaleAtBetween(Instant from, Instant to);
+}
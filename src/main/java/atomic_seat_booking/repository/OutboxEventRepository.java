@@ -0,0 +1,25 @@
+package atomic_seat_booking.repository;
+
+import atomic_seat_booking.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Only the oldest pending event of each seat is eligible, so concurrent relays using
+    // SKIP LOCKED can never publish a seat's events out of order.
+    @Query(value = "SELECT * FROM outbox_events o WHERE NOT EXISTS ("
+            + "SELECT 1 FROM outbox_events p WHERE p.seat_id = o.seat_id AND p.id < o.id) "
+            + "ORDER BY o.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+}
@@ -11,6 +11,7 @@ import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,13 +20,32 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @QueryHints({ @QueryHint(name = "jakarta.persistence.lock.timeout", value = "2000") })
-    @Query("SELECT s FROM Seat s WHERE s.id = :id")
-    Optional<Seat> findByIdForUpdate(@Param("id") Long id);
+    @Query("SELECT s FROM Seat s WHERE s.id = :id AND s.eventId = :eventId")
+    Optional<Seat> findByIdForUpdate(@Param("id") Long id, @Param("eventId") String eventId);
+
+    // Rows are locked in id order so overlapping multi-seat checkouts cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints({ @QueryHint(name = "jakarta.persistence.lock.timeout", value = "2000") })
+    @Query("SELECT s FROM Seat s WHERE s.id IN :ids AND s.eventId IN :eventIds ORDER BY s.id")
+    List<Seat> findAllByIdForUpdate(@Param("ids") List<Long> ids, @Param("eventIds") List<String> eventIds);
+
+    Optional<Seat> findByIdAndEventId(Long id, String eventId);
+
+    // Unpruned: scans every partition's key index, so callers cache the result
+    @Query("SELECT s.eventId FROM Seat s WHERE s.id = :id")
+    Optional<String> findEventIdById(@Param("id") Long id);
+
+    // Literal status so the partial index on HELD seats' expiry always applies
+    @Query(value = "SELECT * FROM seats WHERE status = 1 AND hold_expires_at < :now "
+            + "ORDER BY hold_expires_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Seat> lockExpiredHolds(@Param("now") Instant now, @Param("limit") int limit);
 
     Optional<Seat> findBySeatNumber(String seatNumber);
 
     List<Seat> findByEventId(String eventId);
 
+    boolean existsByEventId(String eventId);
+
     List<Seat> findByStatus(SeatStatus status);
 
     List<Seat> findByEventIdAndStatus(String eventId, SeatStatus status);
@@ -1,9 +1,18 @@
 package atomic_seat_booking.repository;
 
 import atomic_seat_booking.entity.User;
+import atomic_seat_booking.entity.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
+
+    // Authenticates and authorizes in one primary-key lookup, without loading the whole user
+    @Query("SELECT u.role FROM User u WHERE u.id = :id")
+    Optional<UserRole> findRoleById(@Param("id") String id);
 }
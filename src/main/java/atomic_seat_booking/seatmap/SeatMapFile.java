@@ -0,0 +1,246 @@
+package atomic_seat_booking.seatmap;
+
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.entity.SeatStatus;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One event's seat states in a memory-mapped file: a header with the event id and the ledger
+ * watermark the states are complete up to, then one fixed-width record per seat, sorted by
+ * seat id so an update finds its record by binary search. Records hold the sequence of the
+ * ledger entry they reflect, so replaying an entry twice is harmless.
+ * <p>
+ * Updates are written to the mapping and forced to disk before the watermark moves past them;
+ * after a crash the file is at worst behind its records, and catching up again fixes that.
+ * Not thread-safe: the owning {@link SeatMapService} serialises access per event.
+ */
+final class SeatMapFile implements AutoCloseable {
+
+    static final int MAGIC = 0x53454154; // "SEAT"
+    static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_RECORD_COUNT = 8;
+    private static final int HEADER_RECORD_BYTES = 12;
+    private static final int HEADER_RECORDS_OFFSET = 16;
+    private static final int HEADER_EVENT_ID_LENGTH = 20;
+    private static final int HEADER_WATERMARK = 24;
+    private static final int HEADER_BUILT_AT = 32;
+    private static final int HEADER_EVENT_ID = 40;
+
+    private static final int RECORD_SEAT_ID = 0;
+    private static final int RECORD_SEQUENCE = 8;
+    private static final int RECORD_HOLD_EXPIRES_AT = 16;
+    private static final int RECORD_STATUS = 24;
+    private static final int RECORD_SEAT_NUMBER_LENGTH = 26;
+    private static final int RECORD_SEAT_NUMBER = 28;
+    private static final long NO_EXPIRY = Long.MIN_VALUE;
+
+    record SeatState(long seatId, String seatNumber, SeatStatus status, Instant holdExpiresAt) {
+    }
+
+    enum Applied {
+        UPDATED, ALREADY_APPLIED, UNKNOWN_SEAT
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final String eventId;
+    private final int recordCount;
+    private final int recordBytes;
+    private final int recordsOffset;
+
+    private SeatMapFile(Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(HEADER_MAGIC) != MAGIC || buffer.getInt(HEADER_VERSION) != FORMAT_VERSION) {
+            throw new IllegalStateException("Not a seat map of format " + FORMAT_VERSION + ": " + path);
+        }
+        this.recordCount = buffer.getInt(HEADER_RECORD_COUNT);
+        this.recordBytes = buffer.getInt(HEADER_RECORD_BYTES);
+        this.recordsOffset = buffer.getInt(HEADER_RECORDS_OFFSET);
+        if ((long) recordsOffset + (long) recordCount * recordBytes != buffer.capacity()) {
+            throw new IllegalStateException("Seat map size does not match its header: " + path);
+        }
+        byte[] eventIdBytes = new byte[buffer.getShort(HEADER_EVENT_ID_LENGTH) & 0xFFFF];
+        buffer.get(HEADER_EVENT_ID, eventIdBytes);
+        this.eventId = new String(eventIdBytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a new map for the event's seats, whose rows were read after the ledger reached
+     * {@code watermark}, and maps it. The file is written aside and moved into place, so a
+     * crash never leaves a half-written map under the final name.
+     */
+    static SeatMapFile create(Path path, String eventId, long watermark, List<Seat> seats) throws IOException {
+        List<Seat> sorted = new ArrayList<>(seats);
+        sorted.sort(Comparator.comparing(Seat::getId));
+        int seatNumberBytes = sorted.stream()
+                .mapToInt(seat -> seat.getSeatNumber().getBytes(StandardCharsets.UTF_8).length)
+                .max()
+                .orElse(0);
+        int recordBytes = align8(RECORD_SEAT_NUMBER + seatNumberBytes);
+        byte[] eventIdBytes = eventId.getBytes(StandardCharsets.UTF_8);
+        int recordsOffset = align8(HEADER_EVENT_ID + eventIdBytes.length);
+        long size = (long) recordsOffset + (long) sorted.size() * recordBytes;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Seat map too large for event " + eventId + ": " + size + " bytes");
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(HEADER_MAGIC, MAGIC);
+            buffer.putInt(HEADER_VERSION, FORMAT_VERSION);
+            buffer.putInt(HEADER_RECORD_COUNT, sorted.size());
+            buffer.putInt(HEADER_RECORD_BYTES, recordBytes);
+            buffer.putInt(HEADER_RECORDS_OFFSET, recordsOffset);
+            buffer.putShort(HEADER_EVENT_ID_LENGTH, (short) eventIdBytes.length);
+            buffer.putLong(HEADER_WATERMARK, watermark);
+            buffer.putLong(HEADER_BUILT_AT, System.currentTimeMillis());
+            buffer.put(HEADER_EVENT_ID, eventIdBytes);
+            for (int i = 0; i < sorted.size(); i++) {
+                Seat seat = sorted.get(i);
+                int offset = recordsOffset + i * recordBytes;
+                byte[] seatNumber = seat.getSeatNumber().getBytes(StandardCharsets.UTF_8);
+                buffer.putLong(offset + RECORD_SEAT_ID, seat.getId());
+                buffer.putLong(offset + RECORD_SEQUENCE, 0);
+                buffer.putShort(offset + RECORD_SEAT_NUMBER_LENGTH, (short) seatNumber.length);
+                buffer.put(offset + RECORD_SEAT_NUMBER, seatNumber);
+                writeState(buffer, offset, seat.getStatus(), seat.getHoldExpiresAt());
+            }
+            buffer.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return open(path);
+    }
+
+    /**
+     * Maps an existing file; fails if it is not a complete map of the current format.
+     */
+    static SeatMapFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new SeatMapFile(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    String eventId() {
+        return eventId;
+    }
+
+    int seatCount() {
+        return recordCount;
+    }
+
+    long watermark() {
+        return buffer.getLong(HEADER_WATERMARK);
+    }
+
+    Instant builtAt() {
+        return Instant.ofEpochMilli(buffer.getLong(HEADER_BUILT_AT));
+    }
+
+    /**
+     * Applies a seat's ledger entry unless its record already reflects that entry or a later
+     * one. A seat with no record was added after the map was built, so the map must be rebuilt.
+     */
+    Applied apply(long seatId, long sequence, SeatStatus status, Instant holdExpiresAt) {
+        int index = indexOf(seatId);
+        if (index < 0) {
+            return Applied.UNKNOWN_SEAT;
+        }
+        int offset = recordsOffset + index * recordBytes;
+        if (buffer.getLong(offset + RECORD_SEQUENCE) >= sequence) {
+            return Applied.ALREADY_APPLIED;
+        }
+        writeState(buffer, offset, status, holdExpiresAt);
+        buffer.putLong(offset + RECORD_SEQUENCE, sequence);
+        return Applied.UPDATED;
+    }
+
+    /**
+     * Forces the applied records to disk, then moves the watermark; the header itself is
+     * flushed with the next force or by the OS.
+     */
+    void advanceWatermark(long watermark) {
+        if (watermark != watermark()) {
+            buffer.force();
+            buffer.putLong(HEADER_WATERMARK, watermark);
+        }
+    }
+
+    List<SeatState> seats() {
+        List<SeatState> seats = new ArrayList<>(recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            int offset = recordsOffset + i * recordBytes;
+            byte[] seatNumber = new byte[buffer.getShort(offset + RECORD_SEAT_NUMBER_LENGTH)];
+            buffer.get(offset + RECORD_SEAT_NUMBER, seatNumber);
+            long holdExpiresAt = buffer.getLong(offset + RECORD_HOLD_EXPIRES_AT);
+            seats.add(new SeatState(buffer.getLong(offset + RECORD_SEAT_ID),
+                    new String(seatNumber, StandardCharsets.UTF_8),
+                    SeatStatus.fromCode(buffer.getShort(offset + RECORD_STATUS)),
+                    holdExpiresAt == NO_EXPIRY ? null : Instant.ofEpochMilli(holdExpiresAt)));
+        }
+        return seats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private int indexOf(long seatId) {
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midSeatId = buffer.getLong(recordsOffset + mid * recordBytes + RECORD_SEAT_ID);
+            if (midSeatId < seatId) {
+                low = mid + 1;
+            } else if (midSeatId > seatId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static void writeState(MappedByteBuffer buffer, int offset, SeatStatus status, Instant holdExpiresAt) {
+        buffer.putShort(offset + RECORD_STATUS, status.getCode());
+        buffer.putLong(offset + RECORD_HOLD_EXPIRES_AT,
+                holdExpiresAt == null ? NO_EXPIRY : holdExpiresAt.toEpochMilli());
+    }
+
+    private static int align8(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+}
@@ -0,0 +1,413 @@
+package atomic_seat_booking.seatmap;
+
+import atomic_seat_booking.config.Workload;
+import atomic_seat_booking.config.WorkloadClass;
+import atomic_seat_booking.dto.SeatMapResponse;
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.ledger.LedgerEntry;
+import atomic_seat_booking.ledger.SeatLedgerService;
+import atomic_seat_booking.repository.SeatRepository;
+import atomic_seat_booking.sharding.ShardRouter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves seat maps from per-node memory-mapped snapshots ({@link SeatMapFile}) in
+ * {@code seatmap.dir}. An event's map is built from its seat rows the first time it is asked
+ * for, then kept current from the seat ledger's tail, so serving it never reads the seats table.
+ * Each refresh reads, a page at a time, only the entries after the newest one it applied. Every
+ * {@code seatmap.settle.interval.millis} the file's watermark moves up to the settled ledger
+ * head, re-reading the entries up to it that became visible late, and the seat count is checked,
+ * so seats added without any transition still force a rebuild.
+ * <p>
+ * On startup every file is mapped again, checked against the database and caught up from its
+ * watermark, so a restarted node does not re-read every live event with findByEventId at once.
+ * A file whose seat count no longer matches, or whose watermark is ahead of the ledger (the
+ * database was restored), is deleted and rebuilt on demand.
+ */
+@Service
+@Slf4j
+public class SeatMapService {
+
+    private static final String FILE_SUFFIX = ".seatmap";
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private SeatLedgerService seatLedgerService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${seatmap.dir:data/seat-maps}")
+    private Path directory;
+
+    @Value("${seatmap.max-staleness.millis:1000}")
+    private long maxStalenessMillis;
+
+    @Value("${seatmap.tail.page-size:5000}")
+    private int tailPageSize;
+
+    @Value("${seatmap.settle.interval.millis:30000}")
+    private long settleIntervalMillis;
+
+    private final Map<String, EventSeatMap> maps = new ConcurrentHashMap<>();
+
+    /**
+     * One event's map. The lock serialises building and catching up; readers take the last
+     * rendered view without it. Entries up to the file's watermark are settled and on disk;
+     * those after it, up to appliedThrough, are applied but may be read again.
+     */
+    private static final class EventSeatMap {
+        final String eventId;
+        final ReentrantLock lock = new ReentrantLock();
+        SeatMapFile file;
+        long appliedThrough;
+        long settledAtMillis;
+        volatile SeatMapResponse view;
+        volatile long refreshedAtMillis;
+
+        EventSeatMap(String eventId) {
+            this.eventId = eventId;
+        }
+    }
+
+    private enum CatchUp {
+        UNCHANGED, CHANGED, MISSING_SEAT
+    }
+
+    /**
+     * The event's seat map, at most {@code seatmap.max-staleness.millis} behind the ledger
+     * unless another request is refreshing it right now. Empty when the event has no seats.
+     */
+    public Optional<SeatMapResponse> seatMap(String eventId) {
+        EventSeatMap map = maps.computeIfAbsent(eventId, EventSeatMap::new);
+        SeatMapResponse view = map.view;
+        if (view != null && System.currentTimeMillis() - map.refreshedAtMillis < maxStalenessMillis) {
+            return Optional.of(view);
+        }
+        if (view != null && !map.lock.tryLock()) {
+            return Optional.of(view); // Being refreshed; serve the previous view rather than queue
+        }
+        if (view == null) {
+            map.lock.lock();
+        }
+        try {
+            if (!refresh(map)) {
+                maps.remove(eventId, map);
+                return Optional.empty();
+            }
+            return Optional.of(map.view);
+        } finally {
+            map.lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the event's map and its file, e.g. once the event is archived.
+     */
+    public void evict(String eventId) {
+        EventSeatMap map = maps.remove(eventId);
+        if (map == null) {
+            return;
+        }
+        map.lock.lock();
+        try {
+            discard(map);
+        } finally {
+            map.lock.unlock();
+        }
+    }
+
+    @Workload(WorkloadClass.BACKGROUND)
+    @Scheduled(fixedDelayString = "${seatmap.refresh.interval.millis:1000}")
+    public void refreshAll() {
+        for (EventSeatMap map : maps.values()) {
+            if (!map.lock.tryLock()) {
+                continue;
+            }
+            try {
+                if (map.file != null) {
+                    refresh(map);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Seat map refresh failed, will retry. eventId={}, error={}", map.eventId, e.getMessage());
+            } finally {
+                map.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Maps the files left by the previous run, keeping those that still match the database and
+     * catching them up from their watermark.
+     */
+    @Workload(WorkloadClass.BACKGROUND)
+    @EventListener(ApplicationReadyEvent.class)
+    public void openExisting() {
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX + "*")) {
+                for (Path path : files) {
+                    if (path.getFileName().toString().endsWith(FILE_SUFFIX)) {
+                        reopen(path);
+                    } else {
+                        Files.deleteIfExists(path); // Left by a build that did not finish
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read seat map directory " + directory, e);
+        }
+        log.info("Seat maps reopened. events={}, directory={}", maps.size(), directory);
+    }
+
+    /**
+     * Unmaps every file, leaving it on disk for the next start.
+     */
+    @PreDestroy
+    public void closeAll() {
+        for (EventSeatMap map : maps.values()) {
+            map.lock.lock();
+            try {
+                if (map.file != null) {
+                    map.file.close();
+                    map.file = null;
+                }
+            } catch (IOException e) {
+                log.warn("Seat map close failed. eventId={}, error={}", map.eventId, e.getMessage());
+            } finally {
+                map.lock.unlock();
+            }
+        }
+        maps.clear();
+    }
+
+    private void reopen(Path path) {
+        SeatMapFile file;
+        try {
+            file = SeatMapFile.open(path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unreadable seat map deleted. file={}, error={}", path, e.getMessage());
+            deleteQuietly(path);
+            return;
+        }
+        String eventId = file.eventId();
+        String invalid = shardRouter.callOn(shardRouter.shardForEvent(eventId), () -> validate(file));
+        if (invalid != null) {
+            log.info("Stale seat map deleted. eventId={}, reason={}", eventId, invalid);
+            closeQuietly(file);
+            deleteQuietly(path);
+            return;
+        }
+        EventSeatMap map = new EventSeatMap(eventId);
+        map.file = file;
+        map.appliedThrough = file.watermark();
+        maps.put(eventId, map);
+        map.lock.lock();
+        try {
+            refresh(map);
+        } catch (RuntimeException e) {
+            log.warn("Seat map catch-up failed, will retry. eventId={}, error={}", eventId, e.getMessage());
+        } finally {
+            map.lock.unlock();
+        }
+    }
+
+    // Why the file cannot be caught up from its watermark, or null when it can
+    private String validate(SeatMapFile file) {
+        long seats = countSeats(file.eventId());
+        if (seats != file.seatCount()) {
+            return "seat count " + file.seatCount() + " != " + seats;
+        }
+        Long ledgerHead = jdbcTemplate.queryForObject(
+                "SELECT coalesce(max(sequence), 0) FROM seat_events WHERE event_id = ?", Long.class, file.eventId());
+        if (ledgerHead == null || ledgerHead < file.watermark()) {
+            return "watermark " + file.watermark() + " ahead of ledger " + ledgerHead;
+        }
+        return null;
+    }
+
+    private long countSeats(String eventId) {
+        Long seats = jdbcTemplate.queryForObject("SELECT count(*) FROM seats WHERE event_id = ?", Long.class,
+                eventId);
+        return seats == null ? 0 : seats;
+    }
+
+    /**
+     * Builds the map if needed and catches it up. Must hold the map's lock.
+     *
+     * @return false when the event has no seats
+     */
+    private boolean refresh(EventSeatMap map) {
+        boolean built = false;
+        if (map.file == null) {
+            if (!build(map)) {
+                return false;
+            }
+            built = true;
+        }
+        long watermark = map.file.watermark();
+        CatchUp polled = catchUp(map, map.appliedThrough, Long.MAX_VALUE, built);
+        if (polled == CatchUp.MISSING_SEAT) {
+            return rebuild(map, "ledger names a seat the map lacks");
+        }
+        boolean changed = map.view == null || polled == CatchUp.CHANGED;
+
+        long now = System.currentTimeMillis();
+        if (now - map.settledAtMillis >= settleIntervalMillis) {
+            if (!built) {
+                long seats = shardRouter.callOn(shardRouter.shardForEvent(map.eventId),
+                        () -> countSeats(map.eventId));
+                if (seats != map.file.seatCount()) {
+                    return rebuild(map, "seat count " + map.file.seatCount() + " != " + seats);
+                }
+            }
+            // Entries the poll passed before they became visible are re-read up to the settled head
+            long settled = seatLedgerService.settledHead(map.eventId);
+            CatchUp late = catchUp(map, watermark, settled, built);
+            if (late == CatchUp.MISSING_SEAT) {
+                return rebuild(map, "ledger names a seat the map lacks");
+            }
+            changed |= late == CatchUp.CHANGED;
+            map.file.advanceWatermark(Math.max(watermark, settled));
+            map.settledAtMillis = now;
+        }
+        if (changed || map.file.watermark() != watermark) {
+            map.view = render(map.file);
+        }
+        map.refreshedAtMillis = System.currentTimeMillis();
+        return true;
+    }
+
+    /**
+     * Applies the event's entries in ({@code afterSequence}, {@code throughSequence}] a page at a
+     * time. A fresh map lacking an entry's seat means the seat was deleted, so only an older map
+     * reports it missing.
+     */
+    private CatchUp catchUp(EventSeatMap map, long afterSequence, long throughSequence, boolean built) {
+        boolean changed = false;
+        long after = afterSequence;
+        while (true) {
+            List<LedgerEntry> page = seatLedgerService.tail(map.eventId, after, throughSequence, tailPageSize);
+            for (LedgerEntry entry : page) {
+                SeatMapFile.Applied applied = map.file.apply(entry.seatId(), entry.sequence(),
+                        entry.type().getStatus(), entry.holdExpiresAt());
+                if (applied == SeatMapFile.Applied.UNKNOWN_SEAT && !built) {
+                    return CatchUp.MISSING_SEAT;
+                }
+                changed |= applied == SeatMapFile.Applied.UPDATED;
+                after = entry.sequence();
+            }
+            map.appliedThrough = Math.max(map.appliedThrough, after);
+            if (page.size() < tailPageSize) {
+                return changed ? CatchUp.CHANGED : CatchUp.UNCHANGED;
+            }
+        }
+    }
+
+    // Seats were added or deleted after the map was built
+    private boolean rebuild(EventSeatMap map, String reason) {
+        log.info("Seat map out of date, rebuilding. eventId={}, reason={}", map.eventId, reason);
+        discard(map);
+        return refresh(map);
+    }
+
+    private boolean build(EventSeatMap map) {
+        // Read before the rows, which then reflect at least every entry up to it
+        long watermark = seatLedgerService.settledHead(map.eventId);
+        List<Seat> seats = shardRouter.callOn(shardRouter.shardForEvent(map.eventId),
+                () -> seatRepository.findByEventId(map.eventId));
+        if (seats.isEmpty()) {
+            return false;
+        }
+        try {
+            Files.createDirectories(directory);
+            map.file = SeatMapFile.create(pathFor(map.eventId), map.eventId, watermark, seats);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write seat map for event " + map.eventId, e);
+        }
+        map.appliedThrough = watermark;
+        map.settledAtMillis = System.currentTimeMillis();
+        map.view = null;
+        log.info("Seat map built. eventId={}, seats={}, watermark={}", map.eventId, seats.size(), watermark);
+        return true;
+    }
+
+    private void discard(EventSeatMap map) {
+        if (map.file != null) {
+            closeQuietly(map.file);
+            deleteQuietly(map.file.path());
+            map.file = null;
+        }
+        map.view = null;
+    }
+
+    private static SeatMapResponse render(SeatMapFile file) {
+        return SeatMapResponse.builder()
+                .eventId(file.eventId())
+                .ledgerSequence(file.watermark())
+                .builtAt(file.builtAt())
+                .seats(file.seats().stream()
+                        .map(seat -> SeatMapResponse.Seat.builder()
+                                .seatId(seat.seatId())
+                                .seatNumber(seat.seatNumber())
+                                .status(seat.status())
+                                .holdExpiresAt(seat.holdExpiresAt())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    // Event ids may hold any character, so files are named by a hash; the id itself is in the header
+    private Path pathFor(String eventId) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(eventId.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest, 0, 16) + FILE_SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static void closeQuietly(SeatMapFile file) {
+        try {
+            file.close();
+        } catch (IOException e) {
+            log.warn("Seat map close failed. file={}, error={}", file.path(), e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Seat map delete failed. file={}, error={}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package atomic_seat_booking.service;
+
+import atomic_seat_booking.config.Workload;
+import atomic_seat_booking.config.WorkloadClass;
+import atomic_seat_booking.dto.ExportFormat;
+import atomic_seat_booking.entity.SeatStatus;
+import atomic_seat_booking.sharding.ShardKey;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams an event's bookings, with the current state of each booked seat, from a server-side
+ * cursor straight to the response. Only one fetch batch and one output buffer are held at a
+ * time, so memory is constant regardless of the number of rows.
+ */
+@Service
+@Slf4j
+public class BookingExportService {
+
+    private static final String EXPORT_SQL = "SELECT b.id, b.seat_id, s.seat_number, s.status, b.user_id, b.booked_at "
+            + "FROM bookings b JOIN seats s ON s.id = b.seat_id AND s.event_id = b.event_id "
+            + "WHERE b.event_id = ? ORDER BY b.id";
+
+    private static final String CSV_HEADER = "booking_id,seat_id,seat_number,seat_status,user_id,booked_at";
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${booking.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Runs in a read-only transaction because the Postgres driver only uses a cursor (rather than
+     * buffering the whole result) when autocommit is off and a fetch size is set.
+     *
+     * @return number of rows written
+     */
+    @Workload(WorkloadClass.BACKGROUND)
+    @Transactional(readOnly = true)
+    public long export(@ShardKey String eventId, ExportFormat format, boolean gzip, OutputStream out) {
+        long start = System.nanoTime();
+        try {
+            OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_BYTES) : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_BYTES);
+            RowWriter rowWriter = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+            long[] rows = { 0 };
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY,
+                        ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setString(1, eventId);
+                return statement;
+            }, resultSet -> {
+                try {
+                    rowWriter.write(resultSet);
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            rowWriter.finish();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            out.flush();
+            log.info("Booking export finished. eventId={}, format={}, gzip={}, rows={}, durationMs={}", eventId,
+                    format, gzip, rows[0], (System.nanoTime() - start) / 1_000_000);
+            return rows[0];
+        } catch (IOException e) {
+            // Typically the client hung up mid-download; the cursor is closed with the transaction
+            throw new UncheckedIOException("Booking export aborted for event " + eventId, e);
+        }
+    }
+
+    private interface RowWriter {
+        void write(ResultSet row) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("bookingId", row.getLong(1));
+            generator.writeNumberField("seatId", row.getLong(2));
+            generator.writeStringField("seatNumber", row.getString(3));
+            generator.writeStringField("seatStatus", SeatStatus.fromCode(row.getShort(4)).name());
+            generator.writeStringField("userId", row.getString(5));
+            generator.writeStringField("bookedAt", bookedAt(row));
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+            writer.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            writer.write(Long.toString(row.getLong(1)));
+            writer.write(',');
+            writer.write(Long.toString(row.getLong(2)));
+            writer.write(',');
+            writer.write(Csv.field(row.getString(3)));
+            writer.write(',');
+            writer.write(SeatStatus.fromCode(row.getShort(4)).name());
+            writer.write(',');
+            writer.write(Csv.field(row.getString(5)));
+            writer.write(',');
+            writer.write(bookedAt(row));
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static String bookedAt(ResultSet row) throws SQLException {
+        Timestamp bookedAt = row.getTimestamp(6);
+        return bookedAt.toInstant().toString();
+    }
+}
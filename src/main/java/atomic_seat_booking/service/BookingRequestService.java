@@ -0,0 +1,176 @@
+package atomic_seat_booking.service;
+
+import atomic_seat_booking.config.UserContext;
+import atomic_seat_booking.dto.BookingRequestResponse;
+import atomic_seat_booking.dto.BookingRequestStatus;
+import atomic_seat_booking.entity.Booking;
+import atomic_seat_booking.exception.BookingQueueFullException;
+import atomic_seat_booking.tracing.CorrelationIds;
+import atomic_seat_booking.tracing.FlightRecorder;
+import atomic_seat_booking.tracing.RequestTrace;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous confirms. The request thread only validates the hold and enqueues; a bounded
+ * worker pool runs the real confirm, which also caps the rate of payment calls. Requests are
+ * identified by the caller's X-Idempotency-Key, scoped to the user.
+ */
+@Service
+@Slf4j
+public class BookingRequestService {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private FlightRecorder flightRecorder;
+
+    @Value("${booking.async.workers:8}")
+    private int workers;
+
+    @Value("${booking.async.queue:200}")
+    private int queueCapacity;
+
+    @Value("${booking.async.status.ttl.seconds:900}")
+    private long statusTtl;
+
+    private ThreadPoolExecutor executor;
+
+    // Outcomes of requests accepted by this node; completed results are also in the idempotency tiers
+    private Cache<String, BookingRequestResponse> statuses;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadIds = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "booking-worker-" + threadIds.incrementAndGet()));
+        statuses = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(statusTtl))
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public BookingRequestResponse submit(Long seatId, String idempotencyKey) {
+        String userId = UserContext.getUserId();
+
+        Optional<Booking> replay = idempotencyService.findCachedReplay(userId, idempotencyKey, seatId);
+        if (replay.isPresent()) {
+            return confirmed(idempotencyKey, replay.get());
+        }
+
+        bookingService.validateHold(seatId);
+
+        String statusKey = statusKey(userId, idempotencyKey);
+        BookingRequestResponse pending = BookingRequestResponse.builder()
+                .requestId(idempotencyKey)
+                .seatId(seatId)
+                .status(BookingRequestStatus.PENDING)
+                .build();
+        BookingRequestResponse existing = statuses.asMap().putIfAbsent(statusKey, pending);
+        if (existing != null && existing.getStatus() == BookingRequestStatus.PENDING) {
+            return existing; // Already queued; don't enqueue a duplicate
+        }
+        statuses.put(statusKey, pending);
+
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        try {
+            executor.execute(() -> process(userId, seatId, idempotencyKey, mdc));
+        } catch (RejectedExecutionException e) {
+            statuses.invalidate(statusKey);
+            log.warn("Booking queue full, rejecting async confirm. seatId={}, userId={}", seatId, userId);
+            throw new BookingQueueFullException("Booking queue is full, please retry shortly");
+        }
+
+        log.info("Async confirm accepted. seatId={}, userId={}, idempotencyKey={}", seatId, userId, idempotencyKey);
+        return pending;
+    }
+
+    public Optional<BookingRequestResponse> status(String idempotencyKey) {
+        String userId = UserContext.getUserId();
+        BookingRequestResponse local = statuses.getIfPresent(statusKey(userId, idempotencyKey));
+        if (local != null) {
+            return Optional.of(local);
+        }
+
+        // Accepted on another node (or this node's status expired)
+        Optional<List<Booking>> stored = idempotencyService.findStored(userId, idempotencyKey);
+        if (stored.isPresent()) {
+            return Optional.of(confirmed(idempotencyKey, stored.get().get(0)));
+        }
+        if (idempotencyService.isInFlight(userId, idempotencyKey)) {
+            return Optional.of(BookingRequestResponse.builder()
+                    .requestId(idempotencyKey)
+                    .status(BookingRequestStatus.PENDING)
+                    .build());
+        }
+        return Optional.empty();
+    }
+
+    private void process(String userId, Long seatId, String idempotencyKey, Map<String, String> mdc) {
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        }
+        UserContext.setUserId(userId);
+        String statusKey = statusKey(userId, idempotencyKey);
+        // Traced under the submitting request's correlation id, with status 0 as it has no response
+        RequestTrace trace = flightRecorder.start(mdc == null ? CorrelationIds.next()
+                : mdc.getOrDefault("requestId", CorrelationIds.next()), "async-confirm seat=" + seatId);
+        try {
+            Booking booking = idempotencyService.executeOnce(userId, idempotencyKey, seatId,
+                    () -> bookingService.confirmSeat(seatId, idempotencyKey));
+            statuses.put(statusKey, confirmed(idempotencyKey, booking));
+        } catch (RuntimeException e) {
+            log.warn("Async confirm failed. seatId={}, userId={}, error={}", seatId, userId, e.getMessage());
+            statuses.put(statusKey, BookingRequestResponse.builder()
+                    .requestId(idempotencyKey)
+                    .seatId(seatId)
+                    .status(BookingRequestStatus.FAILED)
+                    .error(e.getMessage())
+                    .exception(e.getClass().getSimpleName())
+                    .build());
+        } finally {
+            flightRecorder.finish(trace, 0);
+            UserContext.clear();
+            MDC.clear();
+        }
+    }
+
+    private static BookingRequestResponse confirmed(String idempotencyKey, Booking booking) {
+        return BookingRequestResponse.builder()
+                .requestId(idempotencyKey)
+                .seatId(booking.getSeatId())
+                .status(BookingRequestStatus.CONFIRMED)
+                .bookingId(booking.getId())
+                .build();
+    }
+
+    private static String statusKey(String userId, String idempotencyKey) {
+        return userId + ":" + idempotencyKey;
+    }
+}
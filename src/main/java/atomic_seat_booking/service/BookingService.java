@@ -1,21 +1,30 @@
 package atomic_seat_booking.service;
 
+import atomic_seat_booking.config.Workload;
+import atomic_seat_booking.config.WorkloadClass;
+import atomic_seat_booking.contention.ContentionKind;
+import atomic_seat_booking.contention.SeatContentionTracker;
 import atomic_seat_booking.entity.Booking;
-import atomic_seat_booking.entity.IdempotencyKey;
 import atomic_seat_booking.entity.Seat;
-import atomic_seat_booking.exception.IdempotencyConflictException;
+import atomic_seat_booking.entity.SeatStatus;
+import atomic_seat_booking.ledger.SeatLedger;
+import atomic_seat_booking.metrics.Measured;
 import atomic_seat_booking.repository.BookingRepository;
-import atomic_seat_booking.repository.IdempotencyKeyRepository;
 import atomic_seat_booking.repository.SeatRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import atomic_seat_booking.sharding.ShardKey;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import atomic_seat_booking.config.UserContext;
 
@@ -30,7 +39,7 @@ public class BookingService {
     private BookingRepository bookingRepository;
 
     @Autowired
-    private IdempotencyKeyRepository idempotencyKeyRepository;
+    private IdempotencyService idempotencyService;
 
     @Autowired
     private PaymentService paymentService;
@@ -39,10 +48,45 @@ public class BookingService {
     private RateLimiterService rateLimiterService;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private OutboxService outboxService;
 
+    @Autowired
+    private SeatLedger seatLedger;
+
+    @Autowired
+    private SeatPartitionService seatPartitionService;
+
+    @Autowired
+    private SeatContentionTracker contentionTracker;
+
+    @Autowired
+    private Clock clock;
+
+    @Value("${booking.seat.price:100}")
+    private long seatPrice;
+
+    @Value("${booking.checkout.max-seats:10}")
+    private int maxCheckoutSeats;
+
+    /**
+     * Cheap, lock-free pre-check used by asynchronous confirms before the request is queued.
+     * Throws the same domain exceptions the real booking would; confirmSeat re-validates under lock.
+     */
+    @Workload(WorkloadClass.READ)
+    @Transactional(readOnly = true)
+    public Seat validateHold(@ShardKey Long seatId) {
+        String userId = UserContext.getUserId();
+        Seat seat = seatPartitionService.eventIdOf(seatId)
+                .flatMap(eventId -> seatRepository.findByIdAndEventId(seatId, eventId))
+                .orElseThrow(() -> new IllegalArgumentException("Seat not found with ID: " + seatId));
+        seat.checkBookable(userId, Instant.now(clock));
+        return seat;
+    }
+
+    @Workload(WorkloadClass.CONFIRM)
+    @Measured("confirm")
     @Transactional
-    public Booking confirmSeat(Long seatId, String idempotencyKey) {
+    public Booking confirmSeat(@ShardKey Long seatId, String idempotencyKey) {
         String userId = UserContext.getUserId();
         log.info("Attempting to confirm booking. seatId={}, userId={}, idempotencyKey={}", seatId, userId,
                 idempotencyKey);
@@ -51,27 +95,20 @@ public class BookingService {
         rateLimiterService.checkUserLimit(userId);
         rateLimiterService.checkSeatLimit(seatId);
 
-        // 1. Check idempotency table first
-        Optional<IdempotencyKey> existingKey = idempotencyKeyRepository.findByUserIdAndKey(userId, idempotencyKey);
-        if (existingKey.isPresent()) {
-            log.info("Idempotency hit detected. userId={}, idempotencyKey={}", userId, idempotencyKey);
-            try {
-                Booking storedBooking = objectMapper.readValue(existingKey.get().getResponsePayload(), Booking.class);
-                if (!storedBooking.getSeatId().equals(seatId)) {
-                    log.error(
-                            "Idempotency conflict: key used for different seat. key={}, existingSeatId={}, requestedSeatId={}",
-                            idempotencyKey, storedBooking.getSeatId(), seatId);
-                    throw new IdempotencyConflictException("Idempotency key already used for a different seat booking");
-                }
-                return storedBooking;
-            } catch (JsonProcessingException e) {
-                log.error("Failed to parse stored idempotency payload. key={}", idempotencyKey, e);
-                throw new RuntimeException("Failed to parse stored idempotency response", e);
-            }
+        // 1. Check idempotency cache tiers, then the table
+        Optional<Booking> replay = idempotencyService.findReplay(userId, idempotencyKey, seatId);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+        // Waits out a concurrent duplicate (another node, or Redis down) and replays what it committed
+        replay = idempotencyService.claim(userId, idempotencyKey, seatId);
+        if (replay.isPresent()) {
+            return replay.get();
         }
 
-        // 2. Fetch seat FOR UPDATE
-        Seat seat = seatRepository.findByIdForUpdate(seatId)
+        // 2. Fetch seat FOR UPDATE, pruned to its event's partition
+        Seat seat = seatPartitionService.eventIdOf(seatId)
+                .flatMap(eventId -> seatRepository.findByIdForUpdate(seatId, eventId))
                 .orElseThrow(() -> {
                     log.warn("Seat not found for booking. seatId={}", seatId);
                     return new IllegalArgumentException("Seat not found with ID: " + seatId);
@@ -84,16 +121,17 @@ public class BookingService {
         rateLimiterService.checkEventLimit(seat.getEventId());
 
         // 3. Preliminary validation
-        Instant now = Instant.now();
+        Instant now = Instant.now(clock);
         if (!seat.isAvailableForBooking(userId, now)) {
             log.warn("Validation failed for seat booking. seatId={}, userId={}, status={}", seatId, userId,
                     seat.getStatus());
+            recordContention(seat, userId);
             seat.book(userId, now); // Throws specific domain exception
         }
 
         // 4. External Side Effect: Payment
-        log.info("Processing payment. userId={}, amount=100, idempotencyKey={}", userId, idempotencyKey);
-        paymentService.processPayment(userId, 100L, idempotencyKey);
+        log.info("Processing payment. userId={}, amount={}, idempotencyKey={}", userId, seatPrice, idempotencyKey);
+        paymentService.processPayment(userId, seatPrice, idempotencyKey);
         log.info("Payment successful. userId={}, idempotencyKey={}", userId, idempotencyKey);
 
         // 5. Atomic State Transition: Mark seat BOOKED
@@ -101,24 +139,112 @@ public class BookingService {
 
         // 6. Create booking record
         Booking booking = new Booking();
+        booking.setEventId(seat.getEventId());
         booking.setSeatId(seatId);
         booking.setUserId(userId);
         booking.setBookedAt(now);
         booking = bookingRepository.save(booking);
 
-        // 7. Explicitly save seat state
+        // 7. Explicitly save seat state, its outbox event and ledger entry
         seatRepository.save(seat);
+        outboxService.seatsBooked(List.of(seat), List.of(booking));
+        seatLedger.seatsBooked(List.of(seat), List.of(booking));
 
         // 8. Store idempotency response
-        try {
-            String payload = objectMapper.writeValueAsString(booking);
-            idempotencyKeyRepository.save(new IdempotencyKey(userId, idempotencyKey, payload));
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize booking for idempotency. key={}", idempotencyKey, e);
-            throw new RuntimeException("Serialization error", e);
-        }
+        idempotencyService.record(userId, idempotencyKey, booking);
 
         log.info("Booking confirmed successfully. seatId={}, bookingId={}, userId={}", seatId, booking.getId(), userId);
         return booking;
     }
+
+    /**
+     * Books every seat in a cart with a single payment and a single transaction.
+     * Seats are locked in id order; any invalid hold rolls the whole cart back.
+     */
+    @Workload(WorkloadClass.CONFIRM)
+    @Measured("checkout")
+    @Transactional
+    public List<Booking> checkout(@ShardKey List<Long> seatIds, String idempotencyKey) {
+        String userId = UserContext.getUserId();
+        log.info("Attempting checkout. seatIds={}, userId={}, idempotencyKey={}", seatIds, userId, idempotencyKey);
+
+        if (seatIds == null || seatIds.isEmpty() || seatIds.size() > maxCheckoutSeats) {
+            throw new IllegalStateException("Checkout must contain between 1 and " + maxCheckoutSeats + " seats");
+        }
+        List<Long> orderedSeatIds = seatIds.stream().distinct().sorted().toList();
+        if (orderedSeatIds.size() != seatIds.size()) {
+            throw new IllegalStateException("Checkout contains duplicate seats");
+        }
+
+        // Rate Limit Checks
+        rateLimiterService.checkUserLimit(userId);
+        orderedSeatIds.forEach(rateLimiterService::checkSeatLimit);
+
+        // 1. Check idempotency cache tiers, then the table
+        Optional<List<Booking>> replay = idempotencyService.findReplay(userId, idempotencyKey, orderedSeatIds);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+        replay = idempotencyService.claim(userId, idempotencyKey, orderedSeatIds);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+
+        // 2. Fetch all seats FOR UPDATE, in id order, from the partitions of their events
+        List<String> eventIds = seatPartitionService.eventIdsOf(orderedSeatIds);
+        List<Seat> seats = eventIds.isEmpty() ? List.of()
+                : seatRepository.findAllByIdForUpdate(orderedSeatIds, eventIds);
+        if (seats.size() != orderedSeatIds.size()) {
+            Set<Long> found = seats.stream().map(Seat::getId).collect(Collectors.toSet());
+            Long missing = orderedSeatIds.stream().filter(id -> !found.contains(id)).findFirst().orElseThrow();
+            log.warn("Seat not found for checkout. seatId={}", missing);
+            throw new IllegalArgumentException("Seat not found with ID: " + missing);
+        }
+
+        // Event level limit check
+        seats.stream().map(Seat::getEventId).distinct().forEach(rateLimiterService::checkEventLimit);
+
+        // 3. Validate every hold before charging anything
+        Instant now = Instant.now(clock);
+        for (Seat seat : seats) {
+            if (!seat.isAvailableForBooking(userId, now)) {
+                log.warn("Validation failed for checkout. seatId={}, userId={}, status={}", seat.getId(), userId,
+                        seat.getStatus());
+                recordContention(seat, userId);
+                seat.book(userId, now); // Throws specific domain exception
+            }
+        }
+
+        // 4. External Side Effect: one payment for the whole cart
+        long amount = seatPrice * seats.size();
+        log.info("Processing payment. userId={}, amount={}, idempotencyKey={}", userId, amount, idempotencyKey);
+        paymentService.processPayment(userId, amount, idempotencyKey);
+        log.info("Payment successful. userId={}, idempotencyKey={}", userId, idempotencyKey);
+
+        // 5. Atomic State Transitions and booking records (seat updates flush as one JDBC batch)
+        List<Booking> bookings = new ArrayList<>(seats.size());
+        for (Seat seat : seats) {
+            seat.book(userId, now);
+            bookings.add(new Booking(null, seat.getEventId(), seat.getId(), userId, now));
+        }
+        bookings = bookingRepository.saveAll(bookings);
+        seatRepository.saveAll(seats);
+        outboxService.seatsBooked(seats, bookings);
+        seatLedger.seatsBooked(seats, bookings);
+
+        // 6. Store one idempotency response for the cart
+        idempotencyService.record(userId, idempotencyKey, bookings);
+
+        log.info("Checkout confirmed successfully. seatIds={}, userId={}", orderedSeatIds, userId);
+        return bookings;
+    }
+
+    // Only losing the seat to another user counts; the user's own lapsed or missing hold does not
+    private void recordContention(Seat seat, String userId) {
+        if (seat.getStatus() == SeatStatus.BOOKED) {
+            contentionTracker.record(seat, ContentionKind.BOOKED);
+        } else if (seat.getStatus() == SeatStatus.HELD && !userId.equals(seat.getHeldByUserId())) {
+            contentionTracker.record(seat, ContentionKind.HELD);
+        }
+    }
 }
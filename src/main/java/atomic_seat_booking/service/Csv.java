@@ -0,0 +1,20 @@
+package atomic_seat_booking.service;
+
+/**
+ * RFC 4180 field quoting shared by the CSV the services write: booking exports, and the rows
+ * seeding streams into Postgres COPY.
+ */
+final class Csv {
+
+    private Csv() {
+    }
+
+    // Quotes a field only when it contains characters that would break the row
+    static String field(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
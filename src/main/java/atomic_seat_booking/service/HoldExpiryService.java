@@ -0,0 +1,119 @@
+package atomic_seat_booking.service;
+
+import atomic_seat_booking.config.Workload;
+import atomic_seat_booking.config.WorkloadClass;
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.ledger.SeatLedger;
+import atomic_seat_booking.repository.SeatRepository;
+import atomic_seat_booking.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Releases expired holds as they lapse instead of waiting for the next /hold on the seat, and
+ * hands each released seat to the head of its waitlist. Batches are locked with SKIP LOCKED,
+ * so a concurrent /hold on the same seat simply wins, and several nodes can sweep at once.
+ */
+@Service
+@Slf4j
+public class HoldExpiryService {
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private SeatLedger seatLedger;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private Clock clock;
+
+    // When false this node never sweeps on its own schedule; releaseExpiredHolds() still works
+    @Value("${seating.hold-expiry.enabled:true}")
+    private boolean sweepEnabled;
+
+    @Value("${seating.hold-expiry.batch-size:100}")
+    private int batchSize;
+
+    @Value("${seating.hold-expiry.max-batches:20}")
+    private int maxBatchesPerTick;
+
+    @Workload(WorkloadClass.BACKGROUND)
+    @Scheduled(fixedDelayString = "${seating.hold-expiry.interval.millis:1000}")
+    public void scheduledRelease() {
+        if (sweepEnabled) {
+            releaseExpiredHolds();
+        }
+    }
+
+    /**
+     * Releases expired holds on every shard, up to the per-tick batch limit on each.
+     *
+     * @return the number of holds released
+     */
+    @Workload(WorkloadClass.BACKGROUND)
+    public int releaseExpiredHolds() {
+        AtomicInteger released = new AtomicInteger();
+        shardRouter.runOnEach(() -> released.addAndGet(releaseOnShard()));
+        return released.get();
+    }
+
+    private int releaseOnShard() {
+        int released = 0;
+        for (int i = 0; i < maxBatchesPerTick; i++) {
+            Integer batch;
+            try {
+                batch = transactionTemplate.execute(status -> releaseBatch());
+            } catch (Exception e) {
+                log.warn("Hold expiry batch failed, will retry. error={}", e.getMessage());
+                break;
+            }
+            released += batch == null ? 0 : batch;
+            if (batch == null || batch < batchSize) {
+                break;
+            }
+        }
+        return released;
+    }
+
+    private int releaseBatch() {
+        Instant now = Instant.now(clock);
+        List<Seat> expired = seatRepository.lockExpiredHolds(now, batchSize);
+        int offered = 0;
+        for (Seat seat : expired) {
+            String previousHolder = seat.getHeldByUserId();
+            if (!seat.releaseIfExpired(now)) {
+                continue;
+            }
+            outboxService.seatReleased(seat, previousHolder);
+            seatLedger.seatReleased(seat, previousHolder);
+            if (waitlistService.offerToNext(seat, previousHolder, now).isPresent()) {
+                offered++;
+            }
+        }
+        if (!expired.isEmpty()) {
+            log.info("Released expired holds. released={}, offeredToWaitlist={}", expired.size(), offered);
+        }
+        return expired.size();
+    }
+}
@@ -0,0 +1,85 @@
+package atomic_seat_booking.service;
+
+import atomic_seat_booking.entity.Booking;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-layout binary encoding of the bookings stored against an idempotency key.
+ * Layout: version(1) | count(2) | count x [id(8) | seatId(8) | bookedAt seconds(8) | bookedAt nanos(4)
+ * | userId length(2) | userId UTF-8].
+ */
+public final class IdempotencyPayloadCodec {
+
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 1 + 2;
+    private static final int FIXED_RECORD_LENGTH = 8 + 8 + 8 + 4 + 2;
+
+    private IdempotencyPayloadCodec() {
+    }
+
+    public static byte[] encode(Booking booking) {
+        return encode(List.of(booking));
+    }
+
+    public static byte[] encode(List<Booking> bookings) {
+        if (bookings.isEmpty() || bookings.size() > 0xFFFF) {
+            throw new IllegalArgumentException("Cannot encode " + bookings.size() + " bookings");
+        }
+
+        List<byte[]> userIds = new ArrayList<>(bookings.size());
+        int length = HEADER_LENGTH;
+        for (Booking booking : bookings) {
+            byte[] userId = booking.getUserId().getBytes(StandardCharsets.UTF_8);
+            if (userId.length > 0xFFFF) {
+                throw new IllegalArgumentException("userId too long to encode: " + userId.length + " bytes");
+            }
+            userIds.add(userId);
+            length += FIXED_RECORD_LENGTH + userId.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.put(VERSION);
+        buffer.putShort((short) bookings.size());
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            buffer.putLong(booking.getId());
+            buffer.putLong(booking.getSeatId());
+            buffer.putLong(booking.getBookedAt().getEpochSecond());
+            buffer.putInt(booking.getBookedAt().getNano());
+            buffer.putShort((short) userIds.get(i).length);
+            buffer.put(userIds.get(i));
+        }
+        return buffer.array();
+    }
+
+    public static Booking decode(byte[] payload) {
+        return decodeAll(payload).get(0);
+    }
+
+    public static List<Booking> decodeAll(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported idempotency payload version: " + version);
+        }
+
+        int count = Short.toUnsignedInt(buffer.getShort());
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Booking booking = new Booking();
+            booking.setId(buffer.getLong());
+            booking.setSeatId(buffer.getLong());
+            booking.setBookedAt(Instant.ofEpochSecond(buffer.getLong(), buffer.getInt()));
+            byte[] userId = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(userId);
+            booking.setUserId(new String(userId, StandardCharsets.UTF_8));
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+}
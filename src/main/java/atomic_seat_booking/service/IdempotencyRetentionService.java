@@ -0,0 +1,108 @@
+package atomic_seat_booking.service;
+
+import atomic_seat_booking.config.Workload;
+import atomic_seat_booking.config.WorkloadClass;
+import atomic_seat_booking.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Maintains the daily range partitions of {@code idempotency_keys} on {@code created_day}.
+ * Expiry drops whole partitions once they fall outside the retention window, so old keys cost
+ * no row-level DELETEs, vacuum, or index maintenance on the hot confirm path. Every shard keeps
+ * its own keys and is maintained in turn.
+ */
+@Service
+@Slf4j
+public class IdempotencyRetentionService {
+
+    private static final String TABLE = "idempotency_keys";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${idempotency.retention.days:7}")
+    private int retentionDays;
+
+    @Value("${idempotency.retention.precreate.days:3}")
+    private int precreateDays;
+
+    /**
+     * Keys created before this instant are treated as expired by lookups, even if their
+     * partition has not been dropped yet.
+     */
+    public Instant retentionCutoff() {
+        return Instant.now().minus(retentionDays, ChronoUnit.DAYS);
+    }
+
+    /**
+     * The partition day holding {@link #retentionCutoff()}; lookups bound {@code created_day} by
+     * it so older partitions are pruned.
+     */
+    public LocalDate retentionCutoffDay() {
+        return LocalDate.ofInstant(retentionCutoff(), ZoneOffset.UTC);
+    }
+
+    @Workload(WorkloadClass.BACKGROUND)
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializePartitions() {
+        maintainPartitions();
+    }
+
+    @Workload(WorkloadClass.BACKGROUND)
+    @Scheduled(cron = "${idempotency.retention.cron:0 5 * * * *}")
+    public void maintainPartitions() {
+        shardRouter.runOnEach(this::maintainShardPartitions);
+    }
+
+    private void maintainShardPartitions() {
+        // Covers the whole retention window as well, so a fresh or long-idle database is complete
+        LocalDate oldestRetained = retentionCutoffDay();
+        LocalDate lastDay = LocalDate.now(ZoneOffset.UTC).plusDays(precreateDays);
+        for (LocalDate day = oldestRetained; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            createPartition(day);
+        }
+
+        for (String partition : listPartitions()) {
+            LocalDate day = LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+            if (day.isBefore(oldestRetained)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                log.info("Dropped expired idempotency partition. partition={}", partition);
+            }
+        }
+    }
+
+    private void createPartition(LocalDate day) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(day) + " PARTITION OF " + TABLE
+                + " FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = to_regclass(?) AND c.relname LIKE ? ORDER BY c.relname",
+                String.class, TABLE, PARTITION_PREFIX + "%");
+    }
+
+    public static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(PARTITION_SUFFIX);
+    }
+}
@@ -0,0 +1,417 @@
+package atomic_seat_booking.service;
+
+import atomic_seat_booking.entity.Booking;
+import atomic_seat_booking.entity.IdempotencyKey;
+import atomic_seat_booking.exception.IdempotencyConflictException;
+import atomic_seat_booking.exception.IdempotencyInProgressException;
+import atomic_seat_booking.metrics.BookingMetrics;
+import atomic_seat_booking.metrics.BookingMetrics.IdempotencyTier;
+import atomic_seat_booking.repository.IdempotencyKeyRepository;
+import atomic_seat_booking.sharding.ShardRouter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Two-tier cache (local Caffeine + Redis) in front of the idempotency table, plus coalescing of
+ * concurrent duplicates of a request that is still in flight.
+ * Entries are stored as {@link IdempotencyPayloadCodec} bytes and only populated after the owning
+ * transaction commits, so a cached replay always refers to a durable booking.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String LEASE_PREFIX = "idempotency:inflight:";
+    private static final long LEASE_POLL_MILLIS = 50;
+
+    // Held without a Redis lease (Redis absent or unreachable): nothing to release
+    private static final String LOCAL_LEASE = "";
+
+    // Deletes the lease only while it still carries the releasing owner's token
+    private static final RedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private IdempotencyRetentionService retentionService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private BookingMetrics bookingMetrics;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Clock clock;
+
+    @Autowired(required = false)
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${idempotency.cache.max-entries:10000}")
+    private long localMaxEntries;
+
+    @Value("${idempotency.cache.ttl.seconds:600}")
+    private long localTtl;
+
+    @Value("${idempotency.redis.ttl.seconds:3600}")
+    private long redisTtl;
+
+    @Value("${idempotency.inflight.lease.seconds:30}")
+    private long leaseTtl;
+
+    @Value("${idempotency.inflight.wait.millis:5000}")
+    private long inFlightWait;
+
+    private Cache<String, byte[]> localCache;
+
+    // Requests currently executing on this node, keyed like the cache
+    private final Map<String, CompletableFuture<List<Booking>>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void initCache() {
+        localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxEntries)
+                .expireAfterWrite(Duration.ofSeconds(localTtl))
+                .build();
+    }
+
+    /**
+     * Looks the key up in the local and Redis tiers only. Safe to call before rate limiting
+     * and outside any transaction, since it never touches the database.
+     */
+    public Optional<Booking> findCachedReplay(String userId, String key, Long seatId) {
+        return findCachedReplay(userId, key, List.of(seatId)).map(bookings -> bookings.get(0));
+    }
+
+    public Optional<List<Booking>> findCachedReplay(String userId, String key, List<Long> seatIds) {
+        return Optional.ofNullable(cachedPayload(cacheKey(userId, key))).map(p -> toReplay(p, key, seatIds));
+    }
+
+    /**
+     * Returns whatever response is stored for the key, without checking which seats it covers.
+     * Used to report the outcome of asynchronous requests. The key does not say which event it
+     * was for, so a cache miss asks every shard.
+     */
+    public Optional<List<Booking>> findStored(String userId, String key) {
+        String cacheKey = cacheKey(userId, key);
+        byte[] payload = cachedPayload(cacheKey);
+        if (payload == null) {
+            payload = shardRouter.findOnAny(() -> findStoredPayload(userId, key)).orElse(null);
+            bookingMetrics.idempotencyLookup(IdempotencyTier.TABLE, payload != null);
+            if (payload != null) {
+                populate(cacheKey, payload);
+            }
+        }
+        return Optional.ofNullable(payload).map(IdempotencyPayloadCodec::decodeAll);
+    }
+
+    /**
+     * True while a request for the key is executing on this node or holds the Redis lease.
+     */
+    public boolean isInFlight(String userId, String key) {
+        String cacheKey = cacheKey(userId, key);
+        return inFlight.containsKey(cacheKey) || (redisTemplate != null && leaseHeld(cacheKey));
+    }
+
+    private byte[] cachedPayload(String cacheKey) {
+        byte[] payload = localCache.getIfPresent(cacheKey);
+        bookingMetrics.idempotencyLookup(IdempotencyTier.LOCAL, payload != null);
+        if (payload == null && redisTemplate != null) {
+            payload = readFromRedis(cacheKey);
+            bookingMetrics.idempotencyLookup(IdempotencyTier.REDIS, payload != null);
+            if (payload != null) {
+                localCache.put(cacheKey, payload);
+            }
+        }
+        return payload;
+    }
+
+    /**
+     * Runs {@code action} at most once per (userId, key) across concurrent duplicates.
+     * Local duplicates attach to the first request's future; duplicates on other nodes see the
+     * Redis "processing" lease and wait for the result to appear in the cache tiers.
+     */
+    public Booking executeOnce(String userId, String key, Long seatId, Supplier<Booking> action) {
+        return executeOnce(userId, key, List.of(seatId), () -> List.of(action.get())).get(0);
+    }
+
+    public List<Booking> executeOnce(String userId, String key, List<Long> seatIds,
+            Supplier<List<Booking>> action) {
+        Optional<List<Booking>> cached = findCachedReplay(userId, key, seatIds);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        String cacheKey = cacheKey(userId, key);
+        CompletableFuture<List<Booking>> pending = new CompletableFuture<>();
+        CompletableFuture<List<Booking>> existing = inFlight.putIfAbsent(cacheKey, pending);
+        if (existing != null) {
+            log.info("Attaching to in-flight request. userId={}, idempotencyKey={}", userId, key);
+            return checkSeats(awaitLocal(existing), key, seatIds);
+        }
+
+        try {
+            String lease = acquireLease(cacheKey);
+            List<Booking> bookings = lease != null
+                    ? runUnderLease(cacheKey, lease, action)
+                    : awaitRemote(userId, key, seatIds, action);
+            pending.complete(bookings);
+            return bookings;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, pending);
+        }
+    }
+
+    /**
+     * Cache tiers first, then the idempotency table within the retention window. A table hit
+     * back-fills both cache tiers.
+     */
+    public Optional<Booking> findReplay(String userId, String key, Long seatId) {
+        return findReplay(userId, key, List.of(seatId)).map(bookings -> bookings.get(0));
+    }
+
+    public Optional<List<Booking>> findReplay(String userId, String key, List<Long> seatIds) {
+        Optional<List<Booking>> cached = findCachedReplay(userId, key, seatIds);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        Optional<byte[]> stored = findStoredPayload(userId, key);
+        bookingMetrics.idempotencyLookup(IdempotencyTier.TABLE, stored.isPresent());
+        return stored.map(payload -> toStoredReplay(userId, key, payload, seatIds));
+    }
+
+    /**
+     * Serialises the transactions that use a key, across nodes and whether or not Redis is up,
+     * until the caller's transaction ends; then returns the response a duplicate committed while
+     * this one waited. Must run inside the transaction that will {@link #record} the key, before
+     * any side effect. The unique key on {@code idempotency_keys} stays as the backstop.
+     */
+    public Optional<List<Booking>> claim(String userId, String key, List<Long> seatIds) {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(hashtext(?))", Object.class,
+                cacheKey(userId, key));
+        return findStoredPayload(userId, key).map(payload -> toStoredReplay(userId, key, payload, seatIds));
+    }
+
+    public Optional<Booking> claim(String userId, String key, Long seatId) {
+        return claim(userId, key, List.of(seatId)).map(bookings -> bookings.get(0));
+    }
+
+    /**
+     * Persists the response for a key within the caller's transaction and publishes it to the
+     * cache tiers once that transaction commits.
+     */
+    public void record(String userId, String key, Booking booking) {
+        record(userId, key, List.of(booking));
+    }
+
+    public void record(String userId, String key, List<Booking> bookings) {
+        byte[] payload = IdempotencyPayloadCodec.encode(bookings);
+        idempotencyKeyRepository.save(new IdempotencyKey(userId, key, payload, Instant.now(clock)));
+
+        String cacheKey = cacheKey(userId, key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    populate(cacheKey, payload);
+                }
+            });
+        } else {
+            populate(cacheKey, payload);
+        }
+    }
+
+    private Optional<byte[]> findStoredPayload(String userId, String key) {
+        return idempotencyKeyRepository
+                .findFirstByUserIdAndKeyAndCreatedDayGreaterThanEqualAndCreatedAtAfter(userId, key,
+                        retentionService.retentionCutoffDay(), retentionService.retentionCutoff())
+                .map(IdempotencyKey::getResponsePayload);
+    }
+
+    // A table hit back-fills both cache tiers
+    private List<Booking> toStoredReplay(String userId, String key, byte[] payload, List<Long> seatIds) {
+        populate(cacheKey(userId, key), payload);
+        return toReplay(payload, key, seatIds);
+    }
+
+    private List<Booking> runUnderLease(String cacheKey, String lease, Supplier<List<Booking>> action) {
+        try {
+            return action.get();
+        } finally {
+            releaseLease(cacheKey, lease);
+        }
+    }
+
+    private List<Booking> awaitLocal(CompletableFuture<List<Booking>> existing) {
+        try {
+            return existing.get(inFlightWait, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause; // The duplicate shares the original request's outcome
+            }
+            throw new IllegalStateException("In-flight request failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyInProgressException("Request with this idempotency key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyInProgressException("Interrupted while waiting for in-flight request");
+        }
+    }
+
+    private List<Booking> awaitRemote(String userId, String key, List<Long> seatIds,
+            Supplier<List<Booking>> action) {
+        log.info("Idempotency key is processing on another node. userId={}, idempotencyKey={}", userId, key);
+        String cacheKey = cacheKey(userId, key);
+        long deadline = System.currentTimeMillis() + inFlightWait;
+        while (System.currentTimeMillis() < deadline) {
+            Optional<List<Booking>> cached = findCachedReplay(userId, key, seatIds);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            if (!leaseHeld(cacheKey)) {
+                // Owner finished without publishing a result (failure) or the lease lapsed: take
+                // the lease over, so only one waiter runs, and let the table lookup decide
+                String lease = acquireLease(cacheKey);
+                if (lease != null) {
+                    return runUnderLease(cacheKey, lease, action);
+                }
+                // Another waiter took it first; keep waiting for its result
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(LEASE_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new IdempotencyInProgressException("Request with this idempotency key is still being processed");
+    }
+
+    /**
+     * @return the owner token of the acquired lease, {@link #LOCAL_LEASE} when Redis cannot
+     *         coordinate, or null when another owner holds it
+     */
+    private String acquireLease(String cacheKey) {
+        if (redisTemplate == null)
+            return LOCAL_LEASE;
+
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue()
+                    .setIfAbsent(LEASE_PREFIX + cacheKey, token, Duration.ofSeconds(leaseTtl));
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (Exception e) {
+            log.warn("Redis error during in-flight lease acquisition. key={}, error={}", cacheKey, e.getMessage());
+            return LOCAL_LEASE; // Graceful fallback: local coalescing and the unique constraint still apply
+        }
+    }
+
+    private boolean leaseHeld(String cacheKey) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(LEASE_PREFIX + cacheKey));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // Compare-and-delete: a lease that lapsed and was taken over belongs to its new owner
+    private void releaseLease(String cacheKey, String lease) {
+        if (redisTemplate == null || LOCAL_LEASE.equals(lease))
+            return;
+
+        try {
+            redisTemplate.execute(RELEASE_LEASE, List.of(LEASE_PREFIX + cacheKey), lease);
+        } catch (Exception e) {
+            log.warn("Failed to release in-flight lease. key={}", cacheKey);
+        }
+    }
+
+    private List<Booking> toReplay(byte[] payload, String key, List<Long> seatIds) {
+        return checkSeats(IdempotencyPayloadCodec.decodeAll(payload), key, seatIds);
+    }
+
+    private List<Booking> checkSeats(List<Booking> storedBookings, String key, List<Long> seatIds) {
+        Set<Long> storedSeatIds = storedBookings.stream().map(Booking::getSeatId).collect(Collectors.toSet());
+        if (!storedSeatIds.equals(Set.copyOf(seatIds))) {
+            log.error("Idempotency conflict: key used for different seats. key={}, existingSeatIds={}, "
+                    + "requestedSeatIds={}", key, storedSeatIds, seatIds);
+            throw new IdempotencyConflictException("Idempotency key already used for a different seat booking");
+        }
+        log.info("Idempotency hit detected. bookingCount={}, idempotencyKey={}", storedBookings.size(), key);
+        return storedBookings;
+    }
+
+    private void populate(String cacheKey, byte[] payload) {
+        localCache.put(cacheKey, payload);
+        if (redisTemplate == null)
+            return;
+
+        byte[] redisKey = cacheKey.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                    .set(redisKey, payload, Expiration.seconds(redisTtl), RedisStringCommands.SetOption.upsert()));
+        } catch (Exception e) {
+            log.warn("Failed to write idempotency entry to Redis. key={}, error={}", cacheKey, e.getMessage());
+        }
+    }
+
+    private byte[] readFromRedis(String cacheKey) {
+        if (redisTemplate == null)
+            return null;
+
+        byte[] redisKey = cacheKey.getBytes(StandardCharsets.UTF_8);
+        try {
+            return redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands()
+                    .get(redisKey));
+        } catch (Exception e) {
+            log.warn("Redis error during idempotency lookup. key={}, error={}", cacheKey, e.getMessage());
+            return null; // Graceful fallback: the table remains the source of truth
+        }
+    }
+
+    private static String cacheKey(String userId, String key) {
+        return KEY_PREFIX + userId + ":" + key;
+    }
+}
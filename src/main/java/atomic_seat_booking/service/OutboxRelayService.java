@@ -0,0 +1,92 @@
+package atomic_seat_booking.service;
+
+import atomic_seat_booking.config.Workload;
+import atomic_seat_booking.config.WorkloadClass;
+import atomic_seat_booking.entity.OutboxEvent;
+import atomic_seat_booking.outbox.OutboxPublisher;
+import atomic_seat_booking.outbox.SeatEventMessage;
+import atomic_seat_booking.repository.OutboxEventRepository;
+import atomic_seat_booking.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Drains the outbox in batches: lock with SKIP LOCKED, publish, then bulk delete, all in one
+ * transaction. A publish failure rolls back and the batch is retried on the next tick, so
+ * delivery is at-least-once; several relay nodes can run concurrently. Each shard has its own
+ * outbox, written in the same transaction as its seats, and is drained in turn.
+ */
+@Service
+@Slf4j
+public class OutboxRelayService {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    // When false this node never relays on its own schedule; relay() can still be invoked directly
+    @Value("${outbox.relay.enabled:true}")
+    private boolean relayEnabled;
+
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-batches:20}")
+    private int maxBatchesPerTick;
+
+    @Workload(WorkloadClass.BACKGROUND)
+    @Scheduled(fixedDelayString = "${outbox.relay.interval.millis:200}")
+    public void scheduledRelay() {
+        if (relayEnabled) {
+            relay();
+        }
+    }
+
+    /**
+     * Relays batches until each shard's outbox is empty or the per-tick batch limit is reached.
+     */
+    @Workload(WorkloadClass.BACKGROUND)
+    public void relay() {
+        shardRouter.runOnEach(this::relayShard);
+    }
+
+    private void relayShard() {
+        for (int i = 0; i < maxBatchesPerTick; i++) {
+            Integer relayed;
+            try {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } catch (Exception e) {
+                log.warn("Outbox relay batch failed, will retry. error={}", e.getMessage());
+                return;
+            }
+            if (relayed == null || relayed == 0) {
+                return;
+            }
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        outboxPublisher.publish(batch.stream().map(SeatEventMessage::from).toList());
+        outboxEventRepository.deleteByIdIn(batch.stream().map(OutboxEvent::getId).toList());
+        return batch.size();
+    }
+}
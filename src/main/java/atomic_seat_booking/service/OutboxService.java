@@ -0,0 +1,62 @@
+package atomic_seat_booking.service;
+
+import atomic_seat_booking.entity.Booking;
+import atomic_seat_booking.entity.OutboxEvent;
+import atomic_seat_booking.entity.OutboxEventType;
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Writes seat and booking events to the outbox table. Must be called inside the transaction
+ * that performs the state change, so the event exists if and only if the change commits.
+ */
+@Service
+public class OutboxService {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void seatHeld(Seat seat) {
+        save(new OutboxEvent(null, OutboxEventType.SEAT_HELD, seat.getId(), seat.getEventId(),
+                seat.getHeldByUserId(), null, Instant.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void seatReleased(Seat seat, String previousHolder) {
+        save(new OutboxEvent(null, OutboxEventType.SEAT_RELEASED, seat.getId(),
+                seat.getEventId(), previousHolder, null, Instant.now()));
+    }
+
+    /**
+     * The seat was released and is now held for the next user on its waitlist, who should be
+     * told to confirm before the hold expires.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void seatOffered(Seat seat) {
+        save(new OutboxEvent(null, OutboxEventType.SEAT_OFFERED, seat.getId(),
+                seat.getEventId(), seat.getHeldByUserId(), null, Instant.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void seatsBooked(List<Seat> seats, List<Booking> bookings) {
+        Instant now = Instant.now();
+        for (int i = 0; i < seats.size(); i++) {
+            Seat seat = seats.get(i);
+            Booking booking = bookings.get(i);
+            save(new OutboxEvent(null, OutboxEventType.SEAT_BOOKED, seat.getId(),
+                    seat.getEventId(), booking.getUserId(), booking.getId(), now));
+        }
+    }
+
+    private void save(OutboxEvent event) {
+        outboxEventRepository.save(event);
+    }
+}
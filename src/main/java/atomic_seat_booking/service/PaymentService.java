@@ -1,42 +1,156 @@
 package atomic_seat_booking.service;
 
+import atomic_seat_booking.exception.PaymentUnavailableException;
+import atomic_seat_booking.metrics.BookingMetrics;
+import atomic_seat_booking.payment.HttpPaymentGateway;
+import atomic_seat_booking.payment.PaymentGateway;
+import atomic_seat_booking.payment.ResilientPaymentClient;
+import atomic_seat_booking.payment.SimulatedPaymentGateway;
+import atomic_seat_booking.tracing.SpanKind;
+import atomic_seat_booking.tracing.TraceContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Random;
-import java.util.concurrent.TimeUnit;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 @Service
 @Slf4j
 public class PaymentService {
 
-    private final Random random = new Random();
+    @Autowired
+    private BookingMetrics bookingMetrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // A gateway bean, such as the stub warm-up traffic runs against, replaces the configured one
+    @Autowired(required = false)
+    private PaymentGateway gateway;
+
+    // Empty URL selects the in-process simulated gateway
+    @Value("${payment.gateway.url:}")
+    private String gatewayUrl;
+
+    @Value("${payment.simulated.error-percent:10}")
+    private int simulatedErrorPercent;
+
+    @Value("${payment.simulated.decline-percent:20}")
+    private int simulatedDeclinePercent;
+
+    @Value("${payment.deadline.millis:5000}")
+    private long deadlineMillis;
+
+    @Value("${payment.attempt.timeout.millis:2500}")
+    private long attemptTimeoutMillis;
+
+    @Value("${payment.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${payment.retry.backoff.millis:100}")
+    private long backoffMillis;
+
+    @Value("${payment.bulkhead.threads:16}")
+    private int bulkheadThreads;
+
+    @Value("${payment.bulkhead.queue:64}")
+    private int bulkheadQueue;
+
+    @Value("${payment.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${payment.hedge.min-delay.millis:50}")
+    private long hedgeMinDelayMillis;
+
+    @Value("${payment.circuit.failure-threshold:10}")
+    private int circuitFailureThreshold;
+
+    @Value("${payment.circuit.open.millis:10000}")
+    private long circuitOpenMillis;
+
+    private ResilientPaymentClient client;
+
+    @PostConstruct
+    void initClient() {
+        if (gateway == null) {
+            gateway = gatewayUrl.isBlank()
+                    ? new SimulatedPaymentGateway(simulatedErrorPercent, simulatedDeclinePercent)
+                    : new HttpPaymentGateway(gatewayUrl, Duration.ofMillis(attemptTimeoutMillis), objectMapper);
+        }
+        client = new ResilientPaymentClient(gateway, ResilientPaymentClient.Settings.builder()
+                .deadlineMillis(deadlineMillis)
+                .attemptTimeoutMillis(attemptTimeoutMillis)
+                .maxAttempts(maxAttempts)
+                .backoffMillis(backoffMillis)
+                .bulkheadThreads(bulkheadThreads)
+                .bulkheadQueue(bulkheadQueue)
+                .hedgeEnabled(hedgeEnabled)
+                .hedgeMinDelayMillis(hedgeMinDelayMillis)
+                .circuitFailureThreshold(circuitFailureThreshold)
+                .circuitOpenMillis(circuitOpenMillis)
+                .build());
+        log.info("Payment client initialised. gateway={}, deadlineMs={}, hedging={}",
+                gateway.getClass().getSimpleName(), deadlineMillis, hedgeEnabled);
+    }
+
+    @PreDestroy
+    void closeClient() {
+        client.close();
+    }
 
     /**
-     * Mocks a payment process.
-     * Randomly succeeds (70%), fails (20%), or delays (10%).
+     * Charges the user without blocking the caller. The future completes within the configured
+     * deadline, failing with PaymentDeclinedException or PaymentUnavailableException.
+     * Client keys are only unique per user, so the gateway is given a key derived from both.
      */
-    public void processPayment(String userId, Long amount, String idempotencyKey) {
+    public CompletableFuture<Void> processPaymentAsync(String userId, Long amount, String idempotencyKey) {
         log.info("Starting payment processing in PaymentService. userId={}, amount={}, idempotencyKey={}",
                 userId, amount, idempotencyKey);
+        long start = System.nanoTime();
+        return client.charge(userId, amount, gatewayKey(userId, idempotencyKey))
+                .whenComplete((ignored, error) -> bookingMetrics.paymentCompleted(System.nanoTime() - start, error));
+    }
 
-        int outcome = random.nextInt(100);
-
-        if (outcome < 10) { // 10% chance of delay
-            log.info("Simulating payment delay. idempotencyKey={}", idempotencyKey);
-            try {
-                TimeUnit.SECONDS.sleep(2);
-            } catch (InterruptedException e) {
-                log.error("Payment delay interrupted", e);
-                Thread.currentThread().interrupt();
+    /**
+     * Blocking variant used inside the confirm transaction; waits at most the configured deadline.
+     */
+    public void processPayment(String userId, Long amount, String idempotencyKey) {
+        long span = TraceContext.startSpan();
+        try {
+            processPaymentAsync(userId, amount, idempotencyKey).get();
+            log.info("Payment success. userId={}, idempotencyKey={}", userId, idempotencyKey);
+        } catch (ExecutionException e) {
+            log.warn("Payment failed. userId={}, idempotencyKey={}, error={}", userId, idempotencyKey,
+                    e.getCause().getMessage());
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw new PaymentUnavailableException(e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentUnavailableException("Interrupted while waiting for payment");
+        } finally {
+            TraceContext.endSpan(SpanKind.PAYMENT, span);
         }
+    }
 
-        if (outcome < 30) { // 20% + 10% (cumulative) chance of failure
-            log.warn("Payment failed simulation. userId={}, idempotencyKey={}", userId, idempotencyKey);
-            throw new RuntimeException("Payment gateway error or insufficient funds");
+    private static String gatewayKey(String userId, String idempotencyKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((userId + ':' + idempotencyKey).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
         }
-
-        log.info("Payment success simulation. userId={}, idempotencyKey={}", userId, idempotencyKey);
     }
 }
@@ -0,0 +1,343 @@
+package atomic_seat_booking.service;
+
+import atomic_seat_booking.config.UserContext;
+import atomic_seat_booking.config.Workload;
+import atomic_seat_booking.config.WorkloadClass;
+import atomic_seat_booking.dto.SeedEventRequest;
+import atomic_seat_booking.dto.WarmupState;
+import atomic_seat_booking.dto.WarmupStatusResponse;
+import atomic_seat_booking.entity.OnSaleSchedule;
+import atomic_seat_booking.entity.SeatStatus;
+import atomic_seat_booking.repository.OnSaleScheduleRepository;
+import atomic_seat_booking.seatmap.SeatMapService;
+import atomic_seat_booking.sharding.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Warms this node up shortly before each scheduled on-sale: the event's partitions are pulled
+ * into Postgres buffers and its seats into the route cache and seat map, its rate-limit buckets are created,
+ * the users table and the Redis connection are touched, and, once per node, synthetic
+ * hold/confirm traffic runs against a scratch event until JIT compilation settles. Each node
+ * seeds a scratch event of its own under a random id and drops it again afterwards.
+ * The node reports ready only while every on-sale in the warm-up window has finished warming.
+ */
+@Service
+@Slf4j
+public class PreSaleWarmupService {
+
+    static final String SCRATCH_EVENT_PREFIX = "warmup-scratch-";
+    private static final String SYNTHETIC_USER = "warmup-synthetic";
+
+    @Autowired
+    private OnSaleScheduleRepository onSaleScheduleRepository;
+
+    @Autowired
+    private SeatPartitionService seatPartitionService;
+
+    @Autowired
+    private RateLimiterService rateLimiterService;
+
+    @Autowired
+    private SeatMapService seatMapService;
+
+    @Autowired
+    private SeatSeedingService seatSeedingService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired(required = false)
+    private StringRedisTemplate redisTemplate;
+
+    // When false this node never warms up on its own schedule; warmUp() can still be invoked directly
+    @Value("${warmup.enabled:true}")
+    private boolean warmupEnabled;
+
+    @Value("${warmup.lead.seconds:300}")
+    private long leadSeconds;
+
+    @Value("${warmup.synthetic.seats:50}")
+    private int syntheticSeats;
+
+    @Value("${warmup.synthetic.min-rounds:3}")
+    private int minRounds;
+
+    @Value("${warmup.synthetic.max-rounds:40}")
+    private int maxRounds;
+
+    @Value("${warmup.jit.settle.millis:20}")
+    private long jitSettleMillis;
+
+    // Scratch events older than this were left behind by a node that died while warming up
+    @Value("${warmup.scratch.stale.seconds:3600}")
+    private long scratchStaleSeconds;
+
+    // Warm-up state is per node: each node has its own JIT, buckets and caches
+    private final Map<String, WarmupStatusResponse> statuses = new ConcurrentHashMap<>();
+
+    private volatile boolean jitWarm;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void initExecutor() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "presale-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    public WarmupStatusResponse schedule(String eventId, Instant onSaleAt) {
+        if (onSaleAt == null) {
+            throw new IllegalStateException("onSaleAt is required");
+        }
+        onSaleScheduleRepository.save(new OnSaleSchedule(eventId, onSaleAt));
+        WarmupStatusResponse status = WarmupStatusResponse.builder()
+                .eventId(eventId)
+                .onSaleAt(onSaleAt)
+                .state(WarmupState.SCHEDULED)
+                .build();
+        statuses.put(eventId, status);
+        log.info("On-sale scheduled. eventId={}, onSaleAt={}, warmupLeadSeconds={}", eventId, onSaleAt, leadSeconds);
+        return status;
+    }
+
+    public Optional<WarmupStatusResponse> status(String eventId) {
+        return Optional.ofNullable(statuses.get(eventId));
+    }
+
+    /**
+     * Starts warming up every on-sale that has entered its warm-up window and has not been
+     * warmed on this node yet (or whose warm-up failed).
+     */
+    @Workload(WorkloadClass.BACKGROUND)
+    @Scheduled(fixedDelayString = "${warmup.poll.interval.millis:10000}")
+    public void scheduledWarmup() {
+        if (!warmupEnabled) {
+            return;
+        }
+        for (OnSaleSchedule schedule : dueSchedules()) {
+            WarmupStatusResponse current = statuses.get(schedule.getEventId());
+            if (current == null || current.getState() == WarmupState.SCHEDULED
+                    || current.getState() == WarmupState.FAILED) {
+                submit(schedule.getEventId(), schedule.getOnSaleAt());
+            }
+        }
+    }
+
+    /**
+     * Queues a warm-up for the event right away, regardless of its schedule.
+     */
+    public WarmupStatusResponse submit(String eventId, Instant onSaleAt) {
+        WarmupStatusResponse status = WarmupStatusResponse.builder()
+                .eventId(eventId)
+                .onSaleAt(onSaleAt)
+                .state(WarmupState.WARMING)
+                .build();
+        statuses.put(eventId, status);
+        executor.execute(() -> warmUp(eventId, status));
+        return status;
+    }
+
+    /**
+     * Runs the whole warm-up for an event on the calling thread.
+     */
+    public WarmupStatusResponse warmUp(String eventId) {
+        WarmupStatusResponse status = WarmupStatusResponse.builder()
+                .eventId(eventId)
+                .onSaleAt(onSaleScheduleRepository.findById(eventId).map(OnSaleSchedule::getOnSaleAt).orElse(null))
+                .state(WarmupState.WARMING)
+                .build();
+        statuses.put(eventId, status);
+        warmUp(eventId, status);
+        return status;
+    }
+
+    /**
+     * Events going on sale within the warm-up window (or that went on sale within it) that are
+     * not ready on this node. Empty means the node can take on-sale traffic.
+     */
+    public List<String> eventsNotReady() {
+        return dueSchedules().stream()
+                .map(OnSaleSchedule::getEventId)
+                .filter(eventId -> status(eventId).map(s -> s.getState() != WarmupState.READY).orElse(true))
+                .toList();
+    }
+
+    private List<OnSaleSchedule> dueSchedules() {
+        Instant now = Instant.now();
+        return onSaleScheduleRepository.findByOnSaleAtBetween(now.minusSeconds(leadSeconds),
+                now.plusSeconds(leadSeconds));
+    }
+
+    private void warmUp(String eventId, WarmupStatusResponse status) {
+        status.setStartedAt(Instant.now());
+        log.info("Pre-sale warm-up started. eventId={}, onSaleAt={}", eventId, status.getOnSaleAt());
+        try {
+            List<Long> seatIds = seatPartitionService.preloadEvent(eventId);
+            status.setSeatsPreloaded(seatIds.size());
+            rateLimiterService.prewarm(eventId, seatIds);
+            seatMapService.seatMap(eventId);
+            jdbcTemplate.queryForObject("SELECT count(*) FROM users", Long.class);
+            status.setRedisConnected(pingRedis());
+            warmJit(status);
+
+            status.setCompletedAt(Instant.now());
+            status.setState(WarmupState.READY);
+            log.info("Pre-sale warm-up complete. eventId={}, seats={}, syntheticRounds={}, jitCompileMs={}", eventId,
+                    seatIds.size(), status.getSyntheticRounds(), status.getJitCompileMillis());
+        } catch (RuntimeException e) {
+            status.setError(e.getMessage());
+            status.setState(WarmupState.FAILED);
+            log.warn("Pre-sale warm-up failed, will retry. eventId={}, error={}", eventId, e.getMessage());
+        }
+    }
+
+    private boolean pingRedis() {
+        if (redisTemplate == null) {
+            return false;
+        }
+        try {
+            return "PONG".equalsIgnoreCase(redisTemplate.execute((RedisCallback<String>) RedisConnection::ping));
+        } catch (Exception e) {
+            log.warn("Redis unreachable during warm-up. error={}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Holds and confirms every scratch seat, round after round, until a round adds less than
+     * warmup.jit.settle.millis of JIT compile time. Runs once per node, through
+     * {@link SyntheticTrafficContext}, so nothing is charged, limited, published or recorded.
+     */
+    private synchronized void warmJit(WarmupStatusResponse status) {
+        if (jitWarm) {
+            return;
+        }
+        dropStaleScratchEvents();
+        String scratchEvent = SCRATCH_EVENT_PREFIX + UUID.randomUUID();
+        String shard = shardRouter.assignShard(scratchEvent);
+
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        boolean measurable = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        long start = measurable ? compiler.getTotalCompilationTime() : 0;
+        long previous = start;
+        int rounds = 0;
+
+        UserContext.setUserId(SYNTHETIC_USER);
+        try (AnnotationConfigApplicationContext synthetic = SyntheticTrafficContext.open(applicationContext)) {
+            SeatHoldService seatHoldService = synthetic.getBean(SeatHoldService.class);
+            BookingService bookingService = synthetic.getBean(BookingService.class);
+            List<Long> seatIds = seedScratchEvent(scratchEvent, shard);
+            while (rounds < maxRounds) {
+                for (Long seatId : seatIds) {
+                    try {
+                        seatHoldService.holdSeat(seatId);
+                        bookingService.confirmSeat(seatId, UUID.randomUUID().toString());
+                    } catch (RuntimeException e) {
+                        log.debug("Synthetic booking failed. seatId={}, error={}", seatId, e.getMessage());
+                    }
+                }
+                shardRouter.runOn(shard, () -> resetScratchSeats(scratchEvent));
+                rounds++;
+
+                long compiled = measurable ? compiler.getTotalCompilationTime() : 0;
+                if (rounds >= minRounds && (!measurable || compiled - previous <= jitSettleMillis)) {
+                    break;
+                }
+                previous = compiled;
+            }
+        } finally {
+            UserContext.clear();
+            dropScratchEvent(scratchEvent);
+        }
+
+        status.setSyntheticRounds(rounds);
+        status.setJitCompileMillis(measurable ? compiler.getTotalCompilationTime() - start : 0);
+        jitWarm = true;
+    }
+
+    private List<Long> seedScratchEvent(String scratchEvent, String shard) {
+        SeedEventRequest.Section section = new SeedEventRequest.Section();
+        section.setName("W");
+        section.setRows(1);
+        section.setSeatsPerRow(syntheticSeats);
+        SeedEventRequest request = new SeedEventRequest();
+        request.setEventId(scratchEvent);
+        request.setSections(List.of(section));
+        seatSeedingService.seedEvent(request);
+        return shardRouter.callOn(shard, () -> jdbcTemplate.queryForList(
+                "SELECT id FROM seats WHERE event_id = ? ORDER BY id", Long.class, scratchEvent));
+    }
+
+    // Only undoes synthetic holds and bookings; a seat someone else grabbed is left to them
+    private void resetScratchSeats(String scratchEvent) {
+        jdbcTemplate.update("DELETE FROM bookings WHERE event_id = ? AND user_id = ?", scratchEvent, SYNTHETIC_USER);
+        jdbcTemplate.update("UPDATE seats SET status = ?, held_by_user_id = NULL, hold_expires_at = NULL "
+                + "WHERE event_id = ? AND held_by_user_id = ?", SeatStatus.AVAILABLE.getCode(), scratchEvent,
+                SYNTHETIC_USER);
+    }
+
+    private void dropStaleScratchEvents() {
+        List<String> stale = shardRouter.callOn(shardRouter.primaryShard(), () -> jdbcTemplate.queryForList(
+                "SELECT event_id FROM event_shards WHERE event_id LIKE ? AND assigned_at < now() - make_interval("
+                        + "secs => ?)", String.class, SCRATCH_EVENT_PREFIX + "%", scratchStaleSeconds));
+        stale.forEach(this::dropScratchEvent);
+    }
+
+    /**
+     * Drops a scratch event's partitions on its shard, then its directory entry. The drops take
+     * the same brief lock on the parent tables that creating the partitions did.
+     */
+    private void dropScratchEvent(String scratchEvent) {
+        try {
+            shardRouter.runOn(shardRouter.shardForEvent(scratchEvent), () -> {
+                for (String table : List.of("seat_events", "bookings", "seats")) {
+                    jdbcTemplate.execute("DROP TABLE IF EXISTS "
+                            + SeatPartitionService.partitionName(table, scratchEvent));
+                }
+            });
+            shardRouter.runOn(shardRouter.primaryShard(), () -> jdbcTemplate.update(
+                    "DELETE FROM event_shards WHERE event_id = ?", scratchEvent));
+            log.info("Scratch event dropped. eventId={}", scratchEvent);
+        } catch (RuntimeException e) {
+            log.warn("Could not drop scratch event, a later warm-up will retry. eventId={}, error={}", scratchEvent,
+                    e.getMessage());
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package atomic_seat_booking.service;
 
 import atomic_seat_booking.exception.RateLimitExceededException;
+import atomic_seat_booking.metrics.BookingMetrics;
+import atomic_seat_booking.metrics.BookingMetrics.RateLimitDimension;
+import atomic_seat_booking.tracing.SpanKind;
+import atomic_seat_booking.tracing.TraceContext;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.Bandwidth;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -19,6 +25,9 @@ public class RateLimiterService {
     private final Map<String, Bucket> seatBuckets = new ConcurrentHashMap<>();
     private final Map<String, Bucket> eventBuckets = new ConcurrentHashMap<>();
 
+    @Autowired
+    private BookingMetrics bookingMetrics;
+
     @Value("${ratelimit.user.capacity:5}")
     private int userCapacity;
     @Value("${ratelimit.user.refill:5}")
@@ -35,30 +44,53 @@ public class RateLimiterService {
     private int eventRefill;
 
     public void checkUserLimit(String userId) {
+        long span = TraceContext.startSpan();
         Bucket bucket = userBuckets.computeIfAbsent(userId, k -> createNewBucket(userCapacity, userRefill));
-        if (!bucket.tryConsume(1)) {
+        if (!tryConsume(bucket, span)) {
             log.warn("Rate limit exceeded for user: {}", userId);
+            bookingMetrics.rateLimitRejected(RateLimitDimension.USER);
             throw new RateLimitExceededException("Too many requests for user: " + userId);
         }
     }
 
     public void checkSeatLimit(Long seatId) {
+        long span = TraceContext.startSpan();
         String key = String.valueOf(seatId);
         Bucket bucket = seatBuckets.computeIfAbsent(key, k -> createNewBucket(seatCapacity, seatRefill));
-        if (!bucket.tryConsume(1)) {
+        if (!tryConsume(bucket, span)) {
             log.warn("Rate limit exceeded for seat: {}", seatId);
+            bookingMetrics.rateLimitRejected(RateLimitDimension.SEAT);
             throw new RateLimitExceededException("Too many requests for seat: " + seatId);
         }
     }
 
     public void checkEventLimit(String eventId) {
+        long span = TraceContext.startSpan();
         Bucket bucket = eventBuckets.computeIfAbsent(eventId, k -> createNewBucket(eventCapacity, eventRefill));
-        if (!bucket.tryConsume(1)) {
+        if (!tryConsume(bucket, span)) {
             log.warn("Rate limit exceeded for event: {}", eventId);
+            bookingMetrics.rateLimitRejected(RateLimitDimension.EVENT);
             throw new RateLimitExceededException("Too many requests for event: " + eventId);
         }
     }
 
+    /**
+     * Creates an event's buckets ahead of its on-sale, so the first requests don't all race to
+     * build them inside computeIfAbsent.
+     */
+    public void prewarm(String eventId, Collection<Long> seatIds) {
+        eventBuckets.computeIfAbsent(eventId, k -> createNewBucket(eventCapacity, eventRefill));
+        for (Long seatId : seatIds) {
+            seatBuckets.computeIfAbsent(String.valueOf(seatId), k -> createNewBucket(seatCapacity, seatRefill));
+        }
+    }
+
+    private static boolean tryConsume(Bucket bucket, long span) {
+        boolean consumed = bucket.tryConsume(1);
+        TraceContext.endSpan(SpanKind.RATE_LIMIT, span);
+        return consumed;
+    }
+
     private Bucket createNewBucket(int capacity, int refillAmount) {
         // Updated to avoid deprecated methods if possible, but 8.x still supports
         // classic for now.
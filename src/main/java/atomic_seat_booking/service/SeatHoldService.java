@@ -1,19 +1,29 @@
 package atomic_seat_booking.service;
 
+import atomic_seat_booking.config.Workload;
+import atomic_seat_booking.config.WorkloadClass;
+import atomic_seat_booking.contention.ContentionKind;
+import atomic_seat_booking.contention.SeatContentionTracker;
 import atomic_seat_booking.entity.Seat;
 import atomic_seat_booking.entity.SeatStatus;
 import atomic_seat_booking.exception.SeatAlreadyBookedException;
 import atomic_seat_booking.exception.SeatAlreadyHeldException;
+import atomic_seat_booking.exception.StacklessException;
+import atomic_seat_booking.ledger.SeatLedger;
+import atomic_seat_booking.metrics.Measured;
 import atomic_seat_booking.repository.SeatRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Optional;
 
 import atomic_seat_booking.config.UserContext;
+import atomic_seat_booking.sharding.ShardKey;
 
 @Service
 @Slf4j
@@ -28,8 +38,29 @@ public class SeatHoldService {
     @Autowired
     private SoftHoldService softHoldService;
 
-    @Transactional
-    public Seat holdSeat(Long seatId) {
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private SeatLedger seatLedger;
+
+    @Autowired
+    private SeatPartitionService seatPartitionService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private SeatContentionTracker contentionTracker;
+
+    @Autowired
+    private Clock clock;
+
+    // Losing to a waitlisted user must still commit the release and the offer made to them
+    @Workload(WorkloadClass.HOLD)
+    @Measured("hold")
+    @Transactional(noRollbackFor = SeatAlreadyHeldException.class)
+    public Seat holdSeat(@ShardKey Long seatId) {
         String userId = UserContext.getUserId();
         log.info("Attempting to hold seat. seatId={}, userId={}", seatId, userId);
 
@@ -41,12 +72,14 @@ public class SeatHoldService {
         // If current user doesn't have the soft hold AND someone else has it, fail
         // early.
         if (!softHoldService.hasSoftHold(seatId, userId) && !softHoldService.createSoftHold(seatId, "SYSTEM_CHECK")) {
-            log.warn("Soft hold exists for another user. seatId={}, userId={}", seatId, userId);
-            throw new SeatAlreadyHeldException("Seat is currently being considered by another user");
+            log.info("Soft hold exists for another user. seatId={}, userId={}", seatId, userId);
+            contentionTracker.record(seatId, ContentionKind.SOFT_HOLD);
+            throw SeatAlreadyHeldException.SOFT_HELD;
         }
 
-        // 3. Fetch seat FOR UPDATE (Pessimistic Lock)
-        Seat seat = seatRepository.findByIdForUpdate(seatId)
+        // 3. Fetch seat FOR UPDATE (Pessimistic Lock), pruned to its event's partition
+        Seat seat = seatPartitionService.eventIdOf(seatId)
+                .flatMap(eventId -> seatRepository.findByIdForUpdate(seatId, eventId))
                 .orElseThrow(() -> {
                     log.warn("Seat not found for hold. seatId={}", seatId);
                     return new IllegalArgumentException("Seat not found with ID: " + seatId);
@@ -57,13 +90,27 @@ public class SeatHoldService {
         // 4. Event level limit check
         rateLimiterService.checkEventLimit(seat.getEventId());
 
-        Instant now = Instant.now();
+        Instant now = Instant.now(clock);
 
-        // 5. If HELD and expired → reset to AVAILABLE so it can be held again
+        // 5. If HELD and expired → reset to AVAILABLE so it can be held again; waitlisted users come first
         if (seat.getStatus() == SeatStatus.HELD && seat.isHoldExpired(now)) {
-            log.info("Seat hold expired, releasing for reuse. seatId={}, heldByUserId={}", seatId,
-                    seat.getHeldByUserId());
+            String previousHolder = seat.getHeldByUserId();
+            log.info("Seat hold expired, releasing for reuse. seatId={}, heldByUserId={}", seatId, previousHolder);
             seat.release();
+            outboxService.seatReleased(seat, previousHolder);
+            seatLedger.seatReleased(seat, previousHolder);
+
+            Optional<String> offeredTo = waitlistService.offerToNext(seat, previousHolder, now);
+            if (offeredTo.isPresent() && offeredTo.get().equals(userId)) {
+                softHoldService.removeSoftHold(seatId);
+                return seatRepository.save(seat);
+            }
+            if (offeredTo.isPresent()) {
+                log.info("Seat hold failed: offered to waitlist. seatId={}, userId={}, offeredTo={}", seatId, userId,
+                        offeredTo.get());
+                contentionTracker.record(seat, ContentionKind.HELD);
+                throw SeatAlreadyHeldException.OFFERED_TO_WAITLIST;
+            }
         }
 
         // 6. Logic for holding
@@ -72,6 +119,8 @@ public class SeatHoldService {
                 Instant expiresAt = now.plus(15, ChronoUnit.MINUTES);
                 seat.hold(userId, expiresAt);
                 Seat savedSeat = seatRepository.save(seat);
+                outboxService.seatHeld(savedSeat);
+                seatLedger.seatHeld(savedSeat);
 
                 // Finalize: Success! Remove soft hold as it's now a hard hold.
                 softHoldService.removeSoftHold(seatId);
@@ -79,15 +128,19 @@ public class SeatHoldService {
                 log.info("Seat hold successful. seatId={}, userId={}, expiresAt={}", seatId, userId, expiresAt);
                 return savedSeat;
             } else if (seat.getStatus() == SeatStatus.HELD) {
-                log.warn("Seat hold failed: already held. seatId={}, userId={}, currentHolder={}", seatId, userId,
+                log.info("Seat hold failed: already held. seatId={}, userId={}, currentHolder={}", seatId, userId,
                         seat.getHeldByUserId());
-                throw new SeatAlreadyHeldException("Seat is already held by another user");
+                contentionTracker.record(seat, ContentionKind.HELD);
+                throw SeatAlreadyHeldException.HELD;
             } else if (seat.getStatus() == SeatStatus.BOOKED) {
-                log.warn("Seat hold failed: already booked. seatId={}, userId={}", seatId, userId);
-                throw new SeatAlreadyBookedException("Seat is already booked");
+                log.info("Seat hold failed: already booked. seatId={}, userId={}", seatId, userId);
+                contentionTracker.record(seat, ContentionKind.BOOKED);
+                throw SeatAlreadyBookedException.BOOKED;
             }
-        } catch (Exception e) {
-            log.error("Error during seat hold. seatId={}, userId={}, error={}", seatId, userId, e.getMessage());
+        } catch (StacklessException e) {
+            throw e; // an expected outcome, already logged and counted above
+        } catch (RuntimeException e) {
+            log.error("Error during seat hold. seatId={}, userId={}", seatId, userId, e);
             throw e;
         }
 
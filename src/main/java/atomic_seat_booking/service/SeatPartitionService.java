@@ -0,0 +1,232 @@
+package atomic_seat_booking.service;
+
+import atomic_seat_booking.config.Workload;
+import atomic_seat_booking.config.WorkloadClass;
+import atomic_seat_booking.entity.SeatStatus;
+import atomic_seat_booking.repository.SeatRepository;
+import atomic_seat_booking.sharding.ShardKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Manages the per-event partitions of {@code seats}, {@code bookings} and the
+ * {@code seat_events} ledger, which the schema migrations create list-partitioned by
+ * {@code event_id} with a default partition for seats created ad hoc. Hot events then have
+ * their own heap, indexes and vacuum cycle, and finished events are detached into the
+ * {@code archive} schema instead of being deleted row by row.
+ * <p>
+ * Seat ids are global, so id-only lookups are first resolved to their event through a small
+ * cache; repository queries then carry {@code event_id} and the planner prunes to one partition.
+ */
+@Service
+@Slf4j
+public class SeatPartitionService {
+
+    private static final String SEATS = "seats";
+    private static final String BOOKINGS = "bookings";
+    private static final String SEAT_EVENTS = "seat_events";
+    private static final String ARCHIVE_SCHEMA = "archive";
+    private static final int MAX_EVENT_SLUG = 24;
+    private static final DateTimeFormatter ARCHIVE_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Value("${seating.partition.route-cache.max-entries:200000}")
+    private long routeCacheMaxEntries;
+
+    // A seat never moves between events, so entries never go stale while the seat exists
+    private Cache<Long, String> seatEvents;
+
+    @PostConstruct
+    void initCache() {
+        seatEvents = Caffeine.newBuilder()
+                .maximumSize(routeCacheMaxEntries)
+                .build();
+    }
+
+    /**
+     * Resolves the event that owns a seat, so callers can issue partition-pruned queries.
+     */
+    public Optional<String> eventIdOf(Long seatId) {
+        String cached = seatEvents.getIfPresent(seatId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<String> eventId = seatRepository.findEventIdById(seatId);
+        eventId.ifPresent(id -> seatEvents.put(seatId, id));
+        return eventId;
+    }
+
+    /**
+     * The seat's event if it is in the route cache, without going to the database.
+     */
+    public Optional<String> cachedEventIdOf(Long seatId) {
+        return Optional.ofNullable(seatEvents.getIfPresent(seatId));
+    }
+
+    /**
+     * Loads an event's seats into the route cache ahead of its on-sale.
+     */
+    public void primeRoutes(String eventId, Collection<Long> seatIds) {
+        seatIds.forEach(seatId -> seatEvents.put(seatId, eventId));
+    }
+
+    public List<String> eventIdsOf(List<Long> seatIds) {
+        return seatIds.stream()
+                .map(this::eventIdOf)
+                .flatMap(Optional::stream)
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Creates the event's seat, booking and ledger partitions in a short transaction of their own.
+     * Attaching a partition briefly locks the parent table, so this must not run inside the
+     * (long) transaction that loads the event's seats.
+     */
+    public void createEventPartitions(String eventId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            createPartition(SEATS, eventId);
+            createPartition(BOOKINGS, eventId);
+            createPartition(SEAT_EVENTS, eventId);
+        });
+        log.info("Event partitions ready. eventId={}", eventId);
+    }
+
+    /**
+     * Pulls an event's seat and booking partitions, heap and indexes, into shared buffers and its
+     * seats into the route cache ahead of its on-sale. Uses pg_prewarm when the extension is
+     * installed; otherwise reading the seat ids loads at least the seat heap.
+     *
+     * @return the event's seat ids
+     */
+    @Workload(WorkloadClass.BACKGROUND)
+    public List<Long> preloadEvent(@ShardKey String eventId) {
+        Boolean prewarm = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_prewarm')", Boolean.class);
+        if (Boolean.TRUE.equals(prewarm)) {
+            for (String table : List.of(SEATS, BOOKINGS)) {
+                String partition = partitionName(table, eventId);
+                List<String> relations = jdbcTemplate.queryForList(
+                        "SELECT c.oid::regclass::text FROM pg_class c WHERE c.oid = to_regclass(?) UNION ALL "
+                                + "SELECT i.indexrelid::regclass::text FROM pg_index i "
+                                + "WHERE i.indrelid = to_regclass(?)",
+                        String.class, partition, partition);
+                relations.forEach(relation -> jdbcTemplate.queryForObject("SELECT pg_prewarm(?::regclass)",
+                        Long.class, relation));
+            }
+        }
+
+        List<Long> seatIds = jdbcTemplate.queryForList("SELECT id FROM seats WHERE event_id = ?", Long.class,
+                eventId);
+        primeRoutes(eventId, seatIds);
+        log.info("Event preloaded. eventId={}, seats={}, pgPrewarm={}", eventId, seatIds.size(), prewarm);
+        return seatIds;
+    }
+
+    /**
+     * Detaches a finished event's partitions, ledger included, and moves them to the archive
+     * schema, where they can be dumped or dropped without touching live tables. Refuses while
+     * seats are still held.
+     */
+    @Workload(WorkloadClass.BACKGROUND)
+    public void archiveEvent(@ShardKey String eventId) {
+        String seatPartition = partitionName(SEATS, eventId);
+        String bookingPartition = partitionName(BOOKINGS, eventId);
+        String ledgerPartition = partitionName(SEAT_EVENTS, eventId);
+        if (!isPartitionOf(seatPartition, SEATS)) {
+            throw new IllegalStateException("Event has no dedicated partition: " + eventId);
+        }
+
+        String suffix = "_" + LocalDateTime.now(ZoneOffset.UTC).format(ARCHIVE_SUFFIX);
+        transactionTemplate.executeWithoutResult(status -> {
+            // Locks are taken in the order DETACH takes them, parent first, so a hold that starts
+            // after the check waits for the detach instead of landing in a partition being archived
+            jdbcTemplate.execute("LOCK TABLE ONLY " + SEATS + " IN ACCESS EXCLUSIVE MODE");
+            jdbcTemplate.execute("LOCK TABLE " + seatPartition + " IN ACCESS EXCLUSIVE MODE");
+            Boolean held = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + seatPartition
+                    + " WHERE status = ?)", Boolean.class, SeatStatus.HELD.getCode());
+            if (Boolean.TRUE.equals(held)) {
+                throw new IllegalStateException("Event still has held seats: " + eventId);
+            }
+
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + ARCHIVE_SCHEMA);
+            for (String[] partition : List.of(new String[] { SEATS, seatPartition },
+                    new String[] { BOOKINGS, bookingPartition }, new String[] { SEAT_EVENTS, ledgerPartition })) {
+                if (!isPartitionOf(partition[1], partition[0])) {
+                    continue;
+                }
+                jdbcTemplate.execute("ALTER TABLE " + partition[0] + " DETACH PARTITION " + partition[1]);
+                jdbcTemplate.execute("ALTER TABLE " + partition[1] + " RENAME TO " + partition[1] + suffix);
+                jdbcTemplate.execute("ALTER TABLE " + partition[1] + suffix + " SET SCHEMA " + ARCHIVE_SCHEMA);
+            }
+            // Snapshots only speed up replays of the live ledger; the archived one is complete
+            jdbcTemplate.update("DELETE FROM seat_ledger_snapshots WHERE event_id = ?", eventId);
+        });
+        seatEvents.asMap().values().removeIf(eventId::equals);
+        log.info("Archived event partitions. eventId={}, schema={}, suffix={}", eventId, ARCHIVE_SCHEMA, suffix);
+    }
+
+    private void createPartition(String table, String eventId) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(table, eventId) + " PARTITION OF "
+                + table + " FOR VALUES IN (" + quoteLiteral(eventId) + ")");
+    }
+
+    private boolean isPartitionOf(String partition, String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_inherits WHERE inhrelid = to_regclass(?) AND inhparent = to_regclass(?)",
+                Integer.class, partition, table);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Partition names keep a readable slug of the event id plus a hash, which keeps them unique,
+     * valid identifiers and within the 63-byte limit whatever the event id contains.
+     */
+    public static String partitionName(String table, String eventId) {
+        String slug = eventId.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "_");
+        if (slug.length() > MAX_EVENT_SLUG) {
+            slug = slug.substring(0, MAX_EVENT_SLUG);
+        }
+        return table + "_ev_" + slug + "_" + shortHash(eventId);
+    }
+
+    private static String shortHash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 4);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static String quoteLiteral(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+}
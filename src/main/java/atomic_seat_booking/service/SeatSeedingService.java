@@ -0,0 +1,153 @@
+package atomic_seat_booking.service;
+
+import atomic_seat_booking.config.Workload;
+import atomic_seat_booking.config.WorkloadClass;
+import atomic_seat_booking.dto.SeedEventRequest;
+import atomic_seat_booking.entity.SeatStatus;
+import atomic_seat_booking.repository.SeatRepository;
+import atomic_seat_booking.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Generates an event's seat inventory from a layout and streams it into Postgres with
+ * {@code COPY ... FROM STDIN}. Rows are produced and flushed in fixed-size chunks, so memory
+ * stays constant however large the venue is; the whole load commits or rolls back as one.
+ * The event is placed on a shard first, then its partitions are created there in their own
+ * short transaction.
+ */
+@Service
+@Slf4j
+public class SeatSeedingService {
+
+    private static final int CHUNK_BYTES = 64 * 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private SeatPartitionService seatPartitionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${seating.seed.max-seats:200000}")
+    private long maxSeats;
+
+    @Workload(WorkloadClass.BACKGROUND)
+    public long seedEvent(SeedEventRequest request) {
+        String eventId = request.getEventId();
+        validate(request);
+        String shard = shardRouter.assignShard(eventId);
+        return shardRouter.callOn(shard, () -> {
+            if (seatRepository.existsByEventId(eventId)) {
+                throw new IllegalStateException("Event already has seats: " + eventId);
+            }
+
+            seatPartitionService.createEventPartitions(eventId);
+
+            log.info("Seeding event seats. eventId={}, shard={}, sections={}", eventId, shard,
+                    request.getSections().size());
+            Long created = transactionTemplate.execute(status -> jdbcTemplate.execute(copySeats(request)));
+            log.info("Seeded event seats. eventId={}, shard={}, seatsCreated={}", eventId, shard, created);
+            return created;
+        });
+    }
+
+    private static ConnectionCallback<Long> copySeats(SeedEventRequest request) {
+        return connection -> {
+            CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY seats (event_id, seat_number, status) FROM STDIN WITH (FORMAT csv)");
+            try {
+                streamRows(copy, request);
+                return copy.endCopy();
+            } catch (SQLException | RuntimeException e) {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+                throw e;
+            }
+        };
+    }
+
+    private static void streamRows(CopyIn copy, SeedEventRequest request) throws SQLException {
+        String eventField = Csv.field(request.getEventId());
+        String statusField = String.valueOf(SeatStatus.AVAILABLE.getCode());
+        StringBuilder chunk = new StringBuilder(CHUNK_BYTES + 256);
+
+        for (SeedEventRequest.Section section : request.getSections()) {
+            for (int row = 1; row <= section.getRows(); row++) {
+                String rowPrefix = section.getName() + row + "-";
+                for (int seat = 1; seat <= section.getSeatsPerRow(); seat++) {
+                    String seatNumber = rowPrefix + (seat < 10 ? "0" : "") + seat;
+                    chunk.append(eventField).append(',')
+                            .append(Csv.field(seatNumber)).append(',')
+                            .append(statusField).append('\n');
+
+                    if (chunk.length() >= CHUNK_BYTES) {
+                        flush(copy, chunk);
+                    }
+                }
+            }
+        }
+        flush(copy, chunk);
+    }
+
+    private static void flush(CopyIn copy, StringBuilder chunk) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+
+    private void validate(SeedEventRequest request) {
+        if (request.getEventId() == null || request.getEventId().isBlank()) {
+            throw new IllegalStateException("eventId is required");
+        }
+        if (request.getSections() == null || request.getSections().isEmpty()) {
+            throw new IllegalStateException("At least one section is required");
+        }
+
+        long total = 0;
+        Set<String> names = new HashSet<>();
+        for (SeedEventRequest.Section section : request.getSections()) {
+            if (section.getName() == null || section.getName().isBlank()) {
+                throw new IllegalStateException("Section name is required");
+            }
+            // Seat numbers are name + row + "-" + seat, so "A1" row 1 and "A" row 11 would collide
+            if (Character.isDigit(section.getName().charAt(section.getName().length() - 1))) {
+                throw new IllegalStateException("Section name must not end in a digit: " + section.getName());
+            }
+            if (!names.add(section.getName())) {
+                throw new IllegalStateException("Duplicate section name: " + section.getName());
+            }
+            if (section.getRows() <= 0 || section.getSeatsPerRow() <= 0) {
+                throw new IllegalStateException("Section " + section.getName() + " must have rows and seats");
+            }
+            total += (long) section.getRows() * section.getSeatsPerRow();
+        }
+        if (total > maxSeats) {
+            throw new IllegalStateException("Layout has " + total + " seats; the limit is " + maxSeats);
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package atomic_seat_booking.service;
 
+import atomic_seat_booking.metrics.BookingMetrics;
+import atomic_seat_booking.metrics.BookingMetrics.SoftHoldCall;
+import atomic_seat_booking.metrics.BookingMetrics.SoftHoldResult;
+import atomic_seat_booking.tracing.SpanKind;
+import atomic_seat_booking.tracing.TraceContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,6 +20,9 @@ public class SoftHoldService {
     @Autowired(required = false)
     private StringRedisTemplate redisTemplate;
 
+    @Autowired
+    private BookingMetrics bookingMetrics;
+
     @Value("${softhold.ttl.seconds:15}")
     private int softHoldTtl;
 
@@ -27,18 +35,25 @@ public class SoftHoldService {
     public boolean createSoftHold(Long seatId, String userId) {
         if (redisTemplate == null) {
             log.warn("Redis not configured. Skipping soft hold check.");
+            bookingMetrics.softHold(SoftHoldCall.CREATE, SoftHoldResult.FALLBACK);
             return true; // Graceful fallback: allow proceeding to hard hold attempt
         }
 
         String key = KEY_PREFIX + seatId;
+        long span = TraceContext.startSpan();
         try {
             // SET key userId NX EX ttl
-            Boolean success = redisTemplate.opsForValue().setIfAbsent(key, userId, Duration.ofSeconds(softHoldTtl));
-            return Boolean.TRUE.equals(success);
+            boolean success = Boolean.TRUE.equals(
+                    redisTemplate.opsForValue().setIfAbsent(key, userId, Duration.ofSeconds(softHoldTtl)));
+            bookingMetrics.softHold(SoftHoldCall.CREATE, success ? SoftHoldResult.HIT : SoftHoldResult.MISS);
+            return success;
         } catch (Exception e) {
             log.error("Redis error during soft hold creation. seatId={}, userId={}, error={}", seatId, userId,
                     e.getMessage());
+            bookingMetrics.softHold(SoftHoldCall.CREATE, SoftHoldResult.FALLBACK);
             return true; // Graceful fallback: don't break the system if Redis is down
+        } finally {
+            TraceContext.endSpan(SpanKind.SOFT_HOLD, span);
         }
     }
 
@@ -46,16 +61,23 @@ public class SoftHoldService {
      * Verifies if a user has a valid soft hold on a seat.
      */
     public boolean hasSoftHold(Long seatId, String userId) {
-        if (redisTemplate == null)
+        if (redisTemplate == null) {
+            bookingMetrics.softHold(SoftHoldCall.CHECK, SoftHoldResult.FALLBACK);
             return true;
+        }
 
         String key = KEY_PREFIX + seatId;
+        long span = TraceContext.startSpan();
         try {
-            String currentHolder = redisTemplate.opsForValue().get(key);
-            return userId.equals(currentHolder);
+            boolean held = userId.equals(redisTemplate.opsForValue().get(key));
+            bookingMetrics.softHold(SoftHoldCall.CHECK, held ? SoftHoldResult.HIT : SoftHoldResult.MISS);
+            return held;
         } catch (Exception e) {
             log.error("Redis error during soft hold verification. seatId={}, userId={}", seatId, userId);
+            bookingMetrics.softHold(SoftHoldCall.CHECK, SoftHoldResult.FALLBACK);
             return true; // Graceful fallback
+        } finally {
+            TraceContext.endSpan(SpanKind.SOFT_HOLD, span);
         }
     }
 
@@ -67,10 +89,13 @@ public class SoftHoldService {
             return;
 
         String key = KEY_PREFIX + seatId;
+        long span = TraceContext.startSpan();
         try {
             redisTemplate.delete(key);
         } catch (Exception e) {
             log.warn("Failed to remove soft hold from Redis. seatId={}", seatId);
+        } finally {
+            TraceContext.endSpan(SpanKind.SOFT_HOLD, span);
         }
     }
 }
@@ -0,0 +1,137 @@
+package atomic_seat_booking.service;
+
+import atomic_seat_booking.contention.ContentionKind;
+import atomic_seat_booking.contention.SeatContentionTracker;
+import atomic_seat_booking.entity.Booking;
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.ledger.SeatLedger;
+import atomic_seat_booking.metrics.BookingMetrics;
+import atomic_seat_booking.payment.PaymentGateway;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator;
+import org.springframework.aop.config.AopConfigUtils;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A child context holding its own hold and confirm services for warm-up traffic. They are the
+ * production classes, so the JIT compiles the code real requests run, but their collaborators
+ * are replaced by name: payments go to a gateway that always approves, rate limits are never
+ * reached, and the outbox, ledger, idempotency table, contention tracker and metrics see nothing.
+ * Everything else, and every aspect except metrics, comes from the application context.
+ */
+final class SyntheticTrafficContext {
+
+    private static final Map<String, Object> PROPERTIES = Map.of(
+            "ratelimit.user.capacity", Integer.MAX_VALUE,
+            "ratelimit.seat.capacity", Integer.MAX_VALUE,
+            "ratelimit.event.capacity", Integer.MAX_VALUE);
+
+    private SyntheticTrafficContext() {
+    }
+
+    static AnnotationConfigApplicationContext open(ApplicationContext parent) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.merge((ConfigurableEnvironment) parent.getEnvironment());
+        environment.getPropertySources().addFirst(new MapPropertySource("synthetic-traffic", PROPERTIES));
+
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setParent(parent);
+        context.setEnvironment(environment);
+        context.setDisplayName("synthetic-traffic");
+        context.registerBean(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME, AnnotationAwareAspectJAutoProxyCreator.class,
+                definition -> {
+                    definition.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+                    definition.getPropertyValues()
+                            .add("proxyTargetClass", true)
+                            .add("includePatterns", List.of("^(?!metricsAspect$).*"));
+                });
+
+        // Same names as the application's beans, so these win wherever the services below autowire them
+        context.registerBean("bookingMetrics", BookingMetrics.class,
+                () -> new BookingMetrics(new SimpleMeterRegistry()));
+        context.registerBean("paymentGateway", PaymentGateway.class, () -> (userId, amount, idempotencyKey) -> {
+        });
+        context.registerBean("paymentService", PaymentService.class);
+        context.registerBean("rateLimiterService", RateLimiterService.class);
+        context.registerBean("outboxService", DiscardingOutboxService.class);
+        context.registerBean("seatLedger", DiscardingSeatLedger.class);
+        context.registerBean("idempotencyService", UnrecordedIdempotencyService.class);
+        context.registerBean("seatContentionTracker", IgnoringContentionTracker.class);
+        context.registerBean("seatHoldService", SeatHoldService.class);
+        context.registerBean("bookingService", BookingService.class);
+        context.refresh();
+        return context;
+    }
+
+    static class DiscardingOutboxService extends OutboxService {
+
+        @Override
+        public void seatHeld(Seat seat) {
+        }
+
+        @Override
+        public void seatReleased(Seat seat, String previousHolder) {
+        }
+
+        @Override
+        public void seatOffered(Seat seat) {
+        }
+
+        @Override
+        public void seatsBooked(List<Seat> seats, List<Booking> bookings) {
+        }
+    }
+
+    static class DiscardingSeatLedger extends SeatLedger {
+
+        @Override
+        public void seatHeld(Seat seat) {
+        }
+
+        @Override
+        public void seatReleased(Seat seat, String previousHolder) {
+        }
+
+        @Override
+        public void seatsBooked(List<Seat> seats, List<Booking> bookings) {
+        }
+    }
+
+    // Every synthetic confirm uses a fresh key, so there is never anything to replay or wait for
+    static class UnrecordedIdempotencyService extends IdempotencyService {
+
+        @Override
+        public Optional<List<Booking>> findReplay(String userId, String key, List<Long> seatIds) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<List<Booking>> claim(String userId, String key, List<Long> seatIds) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void record(String userId, String key, List<Booking> bookings) {
+        }
+    }
+
+    static class IgnoringContentionTracker extends SeatContentionTracker {
+
+        @Override
+        public void record(Seat seat, ContentionKind kind) {
+        }
+
+        @Override
+        public void record(Long seatId, ContentionKind kind) {
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package atomic_seat_booking.service;
+
+import atomic_seat_booking.dto.WaitlistResponse;
+import atomic_seat_booking.dto.WaitlistScope;
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.exception.WaitlistFullException;
+import atomic_seat_booking.ledger.SeatLedger;
+import atomic_seat_booking.repository.SeatRepository;
+import atomic_seat_booking.sharding.ShardRouter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * First-come queues of users waiting for a specific seat or for any seat of an event, kept in
+ * Redis sorted sets scored by join time. When a hold is released the head of the queue is given
+ * the seat as a short hold and notified through a SEAT_OFFERED outbox event, so waiting users
+ * register once instead of polling /hold. A user is offered one seat at a time: while an offer
+ * is outstanding they keep their place in other queues but are passed over.
+ * Falls back to bounded in-memory queues on this node while Redis is unavailable.
+ */
+@Service
+@Slf4j
+public class WaitlistService {
+
+    private static final String OFFER_KEY_PREFIX = "waitlist:offer:";
+
+    @Autowired(required = false)
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private SeatLedger seatLedger;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private SeatPartitionService seatPartitionService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Value("${waitlist.offer.hold.seconds:120}")
+    private long offerHoldSeconds;
+
+    @Value("${waitlist.ttl.hours:24}")
+    private long waitlistTtlHours;
+
+    @Value("${waitlist.local.max-entries:100000}")
+    private int localMaxEntries;
+
+    // Fallback queues: userId -> score, per Redis key
+    private final Map<String, Map<String, Double>> localQueues = new ConcurrentHashMap<>();
+    private final AtomicInteger localEntries = new AtomicInteger();
+
+    // Fallback for the offer markers: userId -> seatId, while Redis is unavailable
+    private Cache<String, Long> localOffers;
+
+    @PostConstruct
+    void initLocalOffers() {
+        localOffers = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(offerHoldSeconds))
+                .maximumSize(localMaxEntries)
+                .build();
+    }
+
+    /**
+     * Adds the user to the queue, keeping their original place if they are already in it.
+     *
+     * @throws IllegalArgumentException if the seat or event does not exist
+     */
+    public WaitlistResponse join(WaitlistScope scope, String target, String userId) {
+        requireExists(scope, target);
+        String key = scope.getKeyPrefix() + target;
+        double score = System.currentTimeMillis();
+        long position;
+        long waiting;
+
+        Optional<long[]> fromRedis = redis(key, zSet -> {
+            zSet.addIfAbsent(key, userId, score);
+            redisTemplate.expire(key, Duration.ofHours(waitlistTtlHours));
+            Long rank = zSet.rank(key, userId);
+            Long size = zSet.zCard(key);
+            return new long[] { rank == null ? 0 : rank, size == null ? 0 : size };
+        });
+        if (fromRedis.isPresent()) {
+            position = fromRedis.get()[0] + 1;
+            waiting = fromRedis.get()[1];
+        } else {
+            Map<String, Double> queue = localQueues.computeIfAbsent(key, k -> new LinkedHashMap<>());
+            synchronized (queue) {
+                if (!queue.containsKey(userId)) {
+                    if (localEntries.incrementAndGet() > localMaxEntries) {
+                        localEntries.decrementAndGet();
+                        log.warn("Local waitlists full, refusing join. key={}, userId={}", key, userId);
+                        throw new WaitlistFullException("Waitlists are full, please retry shortly");
+                    }
+                    queue.put(userId, score);
+                }
+                double own = queue.get(userId);
+                position = queue.values().stream().filter(other -> other < own).count() + 1;
+                waiting = queue.size();
+            }
+        }
+
+        log.info("Joined waitlist. scope={}, target={}, userId={}, position={}", scope, target, userId, position);
+        return WaitlistResponse.builder()
+                .scope(scope)
+                .target(target)
+                .position(position)
+                .waiting(waiting)
+                .build();
+    }
+
+    public void leave(WaitlistScope scope, String target, String userId) {
+        String key = scope.getKeyPrefix() + target;
+        redis(key, zSet -> zSet.remove(key, userId));
+        Map<String, Double> queue = localQueues.get(key);
+        if (queue != null) {
+            synchronized (queue) {
+                if (queue.remove(userId) != null) {
+                    localEntries.decrementAndGet();
+                }
+            }
+        }
+        log.info("Left waitlist. scope={}, target={}, userId={}", scope, target, userId);
+    }
+
+    /**
+     * Holds a just-released seat for the first user waiting on it, or else on its event, and
+     * records the offer in the outbox. Must run in the transaction that released the seat; if it
+     * rolls back, the user is put back at their old place. Users passed over keep their place.
+     *
+     * @param skippedUserId the user whose hold was just released, who is never offered it back
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<String> offerToNext(Seat seat, String skippedUserId, Instant now) {
+        for (String key : new String[] { WaitlistScope.SEAT.getKeyPrefix() + seat.getId(),
+                WaitlistScope.EVENT.getKeyPrefix() + seat.getEventId() }) {
+            List<ZSetOperations.TypedTuple<String>> passedOver = new ArrayList<>();
+            try {
+                Optional<ZSetOperations.TypedTuple<String>> next;
+                while ((next = popFirst(key)).isPresent()) {
+                    String userId = next.get().getValue();
+                    if (userId == null) {
+                        continue;
+                    }
+                    if (userId.equals(skippedUserId) || hasOutstandingOffer(userId)) {
+                        passedOver.add(next.get());
+                        continue;
+                    }
+
+                    seat.hold(userId, now.plusSeconds(offerHoldSeconds));
+                    outboxService.seatOffered(seat);
+                    seatLedger.seatHeld(seat);
+                    settleOfferOnCompletion(key, userId, next.get().getScore(), seat.getId());
+                    log.info("Released seat offered to waitlisted user. seatId={}, eventId={}, userId={}, "
+                            + "holdExpiresAt={}", seat.getId(), seat.getEventId(), userId, seat.getHoldExpiresAt());
+                    return Optional.of(userId);
+                }
+            } finally {
+                passedOver.forEach(entry -> requeue(key, entry.getValue(), entry.getScore()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void requireExists(WaitlistScope scope, String target) {
+        if (scope == WaitlistScope.SEAT) {
+            Long seatId;
+            try {
+                seatId = Long.valueOf(target);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Seat not found with ID: " + target);
+            }
+            if (shardRouter.callOn(shardRouter.shardForSeat(seatId), () -> seatPartitionService.eventIdOf(seatId))
+                    .isEmpty()) {
+                throw new IllegalArgumentException("Seat not found with ID: " + seatId);
+            }
+        } else if (!shardRouter.callOn(shardRouter.shardForEvent(target),
+                () -> seatRepository.existsByEventId(target))) {
+            throw new IllegalArgumentException("Event not found: " + target);
+        }
+    }
+
+    private boolean hasOutstandingOffer(String userId) {
+        return localOffers.getIfPresent(userId) != null
+                || withRedis(OFFER_KEY_PREFIX + userId, redis -> redis.hasKey(OFFER_KEY_PREFIX + userId))
+                        .orElse(false);
+    }
+
+    private Optional<ZSetOperations.TypedTuple<String>> popFirst(String key) {
+        Optional<ZSetOperations.TypedTuple<String>> fromRedis = redis(key, zSet -> zSet.popMin(key));
+        if (fromRedis.isPresent()) {
+            return fromRedis;
+        }
+
+        // Also drains entries that joined locally while Redis was down
+        Map<String, Double> queue = localQueues.get(key);
+        if (queue == null) {
+            return Optional.empty();
+        }
+        synchronized (queue) {
+            return queue.entrySet().stream()
+                    .min(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+                    .map(first -> {
+                        queue.remove(first.getKey());
+                        localEntries.decrementAndGet();
+                        return ZSetOperations.TypedTuple.of(first.getKey(), first.getValue());
+                    });
+        }
+    }
+
+    // Puts a popped user back at their old place; never refused, as the entry was already counted
+    private void requeue(String key, String userId, Double score) {
+        double original = score == null ? System.currentTimeMillis() : score;
+        if (redis(key, zSet -> zSet.add(key, userId, original)).isEmpty()) {
+            Map<String, Double> queue = localQueues.computeIfAbsent(key, k -> new LinkedHashMap<>());
+            synchronized (queue) {
+                if (queue.put(userId, original) == null) {
+                    localEntries.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void settleOfferOnCompletion(String key, String userId, Double score, Long seatId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    String offerKey = OFFER_KEY_PREFIX + userId;
+                    if (withRedis(offerKey, redis -> {
+                        redis.opsForValue().set(offerKey, String.valueOf(seatId), Duration.ofSeconds(offerHoldSeconds));
+                        return true;
+                    }).isEmpty()) {
+                        localOffers.put(userId, seatId);
+                    }
+                    return;
+                }
+                requeue(key, userId, score);
+                log.info("Offer rolled back, user returned to waitlist. key={}, userId={}", key, userId);
+            }
+        });
+    }
+
+    private <T> Optional<T> redis(String key, Function<ZSetOperations<String, String>, T> call) {
+        return withRedis(key, redis -> call.apply(redis.opsForZSet()));
+    }
+
+    private <T> Optional<T> withRedis(String key, Function<StringRedisTemplate, T> call) {
+        if (redisTemplate == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(call.apply(redisTemplate));
+        } catch (Exception e) {
+            log.warn("Redis error on waitlist, using local queue. key={}, error={}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
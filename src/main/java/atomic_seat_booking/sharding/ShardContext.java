@@ -0,0 +1,17 @@
+package atomic_seat_booking.sharding;
+
+public class ShardContext {
+    private static final ThreadLocal<String> currentShard = new ThreadLocal<>();
+
+    public static void setShard(String shard) {
+        currentShard.set(shard);
+    }
+
+    public static String getShard() {
+        return currentShard.get();
+    }
+
+    public static void clear() {
+        currentShard.remove();
+    }
+}
@@ -0,0 +1,16 @@
+package atomic_seat_booking.sharding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the parameter that decides which shard the method's database work runs on: an event id
+ * ({@code String}), a seat id ({@code Long}) or a collection of seat ids, which must all live on
+ * the same shard. Applied outside @Workload and @Transactional, like the workload itself.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+}
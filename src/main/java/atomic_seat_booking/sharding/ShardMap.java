@@ -0,0 +1,114 @@
+package atomic_seat_booking.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The configured Postgres primaries ("shards") and the static part of the event placement.
+ * The first shard is the primary: it also holds users, the event-to-shard directory and any
+ * event created before sharding was configured.
+ * <p>
+ * Each shard owns a slot in [0, {@link #SLOTS}); its identity sequences only hand out ids
+ * congruent to that slot, so a seat id alone names its shard.
+ */
+public class ShardMap {
+
+    public static final int SLOTS = 64;
+
+    public record Shard(String name, int slot, String url, String username, String password) {
+    }
+
+    private final Map<String, Shard> shards = new LinkedHashMap<>();
+    private final Map<Integer, Shard> bySlot = new HashMap<>();
+    private final Map<String, String> pins;
+
+    public ShardMap(List<Shard> shards, Map<String, String> pins) {
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("At least one shard must be configured");
+        }
+        for (Shard shard : shards) {
+            if (shard.slot() < 0 || shard.slot() >= SLOTS) {
+                throw new IllegalStateException("Shard " + shard.name() + " slot must be in [0, " + SLOTS + ")");
+            }
+            if (this.shards.putIfAbsent(shard.name(), shard) != null) {
+                throw new IllegalStateException("Duplicate shard name: " + shard.name());
+            }
+            Shard clash = bySlot.putIfAbsent(shard.slot(), shard);
+            if (clash != null) {
+                throw new IllegalStateException("Shards " + clash.name() + " and " + shard.name() + " share slot "
+                        + shard.slot());
+            }
+        }
+        pins.forEach((eventId, shard) -> {
+            if (!this.shards.containsKey(shard)) {
+                throw new IllegalStateException("Event " + eventId + " is pinned to unknown shard " + shard);
+            }
+        });
+        this.pins = Map.copyOf(pins);
+    }
+
+    public List<Shard> shards() {
+        return List.copyOf(shards.values());
+    }
+
+    public List<String> names() {
+        return List.copyOf(shards.keySet());
+    }
+
+    public Shard primary() {
+        return shards.values().iterator().next();
+    }
+
+    public Shard get(String name) {
+        Shard shard = shards.get(name);
+        if (shard == null) {
+            throw new IllegalStateException("Unknown shard: " + name);
+        }
+        return shard;
+    }
+
+    public Shard forSlot(int slot) {
+        return bySlot.get(slot);
+    }
+
+    /**
+     * Where a new event goes: its pin if it has one, otherwise the shard with the highest
+     * rendezvous hash for the event id. Only consulted once per event; the directory keeps the
+     * answer, so adding a shard later never moves an existing event.
+     */
+    public String placeNewEvent(String eventId) {
+        String pinned = pins.get(eventId);
+        if (pinned != null) {
+            return pinned;
+        }
+        String best = null;
+        long bestScore = Long.MIN_VALUE;
+        for (String name : shards.keySet()) {
+            long score = score(name, eventId);
+            if (best == null || score > bestScore) {
+                best = name;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private static long score(String shard, String eventId) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((shard + '\n' + eventId).getBytes(StandardCharsets.UTF_8));
+            long score = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                score = (score << 8) | (digest[i] & 0xff);
+            }
+            return score;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package atomic_seat_booking.sharding;
+
+import atomic_seat_booking.config.WorkloadClass;
+import atomic_seat_booking.config.WorkloadContext;
+import atomic_seat_booking.config.WorkloadPools;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Resolves events and seats to shards and runs work on a given shard. Event placement lives in
+ * the {@code event_shards} directory on the primary; seat ids carry their shard's slot (see
+ * {@link ShardSchema}), so resolving a seat needs no lookup at all.
+ * <p>
+ * Directory access uses the primary's pools directly rather than the routing DataSource, so it
+ * never joins a transaction that is open on another shard.
+ */
+@Component
+@Slf4j
+public class ShardRouter {
+
+    @Autowired
+    private ShardMap shardMap;
+
+    @Autowired
+    private WorkloadPools workloadPools;
+
+    @Value("${db.shard-directory.cache.max-entries:100000}")
+    private long directoryCacheMaxEntries;
+
+    private JdbcTemplate directory;
+
+    // An event never changes shard, so entries never go stale
+    private Cache<String, String> eventShards;
+
+    private volatile Long legacySeatMaxId;
+
+    private record Routing(String shard, String previous, WorkloadClass permit) {
+    }
+
+    @PostConstruct
+    void init() {
+        directory = new JdbcTemplate(workloadPools.dataSource(shardMap.primary().name(), WorkloadClass.READ));
+        eventShards = Caffeine.newBuilder()
+                .maximumSize(directoryCacheMaxEntries)
+                .build();
+    }
+
+    public List<String> shards() {
+        return shardMap.names();
+    }
+
+    public String primaryShard() {
+        return shardMap.primary().name();
+    }
+
+    /**
+     * The shard holding an event. Events absent from the directory predate sharding (or do not
+     * exist) and resolve to the primary.
+     */
+    public String shardForEvent(String eventId) {
+        if (eventId == null) {
+            return primaryShard();
+        }
+        String cached = eventShards.getIfPresent(eventId);
+        if (cached != null) {
+            return cached;
+        }
+        List<String> found = directory.queryForList("SELECT shard FROM event_shards WHERE event_id = ?",
+                String.class, eventId);
+        if (found.isEmpty()) {
+            return primaryShard(); // Not cached: the event may still be placed elsewhere later
+        }
+        eventShards.put(eventId, found.get(0));
+        return found.get(0);
+    }
+
+    /**
+     * Like {@link #shardForEvent} but places an event that is not in the directory yet. Events
+     * that already have seats on the primary stay there.
+     */
+    public String assignShard(String eventId) {
+        if (eventId == null) {
+            return primaryShard();
+        }
+        String cached = eventShards.getIfPresent(eventId);
+        if (cached != null) {
+            return cached;
+        }
+        Boolean legacy = directory.queryForObject("SELECT EXISTS (SELECT 1 FROM seats WHERE event_id = ?)",
+                Boolean.class, eventId);
+        String placed = Boolean.TRUE.equals(legacy) ? primaryShard() : shardMap.placeNewEvent(eventId);
+        directory.update("INSERT INTO event_shards (event_id, shard) VALUES (?, ?) ON CONFLICT (event_id) DO NOTHING",
+                eventId, placed);
+        String shard = directory.queryForObject("SELECT shard FROM event_shards WHERE event_id = ?", String.class,
+                eventId);
+        eventShards.put(eventId, shard);
+        log.info("Event placed on shard. eventId={}, shard={}", eventId, shard);
+        return shard;
+    }
+
+    /**
+     * The shard that issued a seat id, decoded from the id itself.
+     */
+    public String shardForSeat(Long seatId) {
+        if (seatId == null || seatId <= legacySeatMaxId()) {
+            return primaryShard();
+        }
+        ShardMap.Shard shard = shardMap.forSlot((int) Math.floorMod(seatId, (long) ShardMap.SLOTS));
+        if (shard == null) {
+            throw new IllegalArgumentException("Seat not found: " + seatId);
+        }
+        return shard.name();
+    }
+
+    public String shardForSeats(Collection<Long> seatIds) {
+        String shard = null;
+        for (Long seatId : seatIds) {
+            String seatShard = shardForSeat(seatId);
+            if (shard != null && !shard.equals(seatShard)) {
+                throw new IllegalStateException("Seats belong to events on different shards");
+            }
+            shard = seatShard;
+        }
+        return shard == null ? primaryShard() : shard;
+    }
+
+    /**
+     * Runs {@code work} with the shard as the calling thread's routing target. Must be entered
+     * outside any transaction: one that is already open keeps its connection. Under a workload,
+     * moving to another shard takes a permit from that shard's bulkhead for the duration.
+     */
+    public <T> T callOn(String shard, Supplier<T> work) {
+        Routing routing = enter(shard);
+        try {
+            return work.get();
+        } finally {
+            exit(routing);
+        }
+    }
+
+    Object proceedOn(String shard, ProceedingJoinPoint joinPoint) throws Throwable {
+        Routing routing = enter(shard);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            exit(routing);
+        }
+    }
+
+    public void runOn(String shard, Runnable work) {
+        callOn(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code work} on every shard in turn, primary first.
+     */
+    public void runOnEach(Runnable work) {
+        shards().forEach(shard -> runOn(shard, work));
+    }
+
+    public <T> List<T> collectFromEach(Supplier<? extends Collection<T>> query) {
+        List<T> results = new ArrayList<>();
+        shards().forEach(shard -> results.addAll(callOn(shard, query)));
+        return results;
+    }
+
+    /**
+     * For the rare lookup whose key carries no event: the first shard that answers wins.
+     */
+    public <T> Optional<T> findOnAny(Supplier<Optional<T>> query) {
+        for (String shard : shards()) {
+            Optional<T> found = callOn(shard, query);
+            if (found.isPresent()) {
+                return found;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Routing enter(String shard) {
+        String previous = ShardContext.getShard();
+        WorkloadClass workload = WorkloadContext.getWorkload();
+        // The workload's permit belongs to the shard it was taken on
+        WorkloadClass permit = workload != null && !shard.equals(previous == null ? primaryShard() : previous)
+                ? workload : null;
+        if (permit != null) {
+            workloadPools.acquire(shard, permit);
+        }
+        ShardContext.setShard(shard);
+        return new Routing(shard, previous, permit);
+    }
+
+    private void exit(Routing routing) {
+        if (routing.previous() == null) {
+            ShardContext.clear();
+        } else {
+            ShardContext.setShard(routing.previous());
+        }
+        if (routing.permit() != null) {
+            workloadPools.release(routing.shard(), routing.permit());
+        }
+    }
+
+    private long legacySeatMaxId() {
+        Long cached = legacySeatMaxId;
+        if (cached == null) {
+            List<Long> rows = directory.queryForList("SELECT legacy_seat_max_id FROM shard_identity", Long.class);
+            cached = rows.isEmpty() ? 0L : rows.get(0);
+            legacySeatMaxId = cached;
+        }
+        return cached;
+    }
+}
@@ -0,0 +1,65 @@
+package atomic_seat_booking.sharding;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies {@link ShardKey}. Runs first, ahead of the workload aspect and the transaction
+ * interceptor, so both the bulkhead and the transaction's connection belong to the right shard.
+ * Routing goes through ShardRouter, so a call that changes shard under a running workload takes
+ * a permit on the new shard.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ShardRoutingAspect {
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    private final Map<Method, Integer> keyParameters = new ConcurrentHashMap<>();
+
+    @Around("execution(* atomic_seat_booking..*(.., @atomic_seat_booking.sharding.ShardKey (*), ..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Object key = joinPoint.getArgs()[keyParameters.computeIfAbsent(method, ShardRoutingAspect::keyParameter)];
+        return shardRouter.proceedOn(resolve(key), joinPoint);
+    }
+
+    private String resolve(Object key) {
+        if (key instanceof String eventId) {
+            return shardRouter.shardForEvent(eventId);
+        }
+        if (key instanceof Long seatId) {
+            return shardRouter.shardForSeat(seatId);
+        }
+        if (key instanceof Collection<?> seatIds) {
+            return shardRouter.shardForSeats(seatIds.stream().map(Long.class::cast).toList());
+        }
+        return shardRouter.primaryShard();
+    }
+
+    private static int keyParameter(Method method) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof ShardKey) {
+                    return i;
+                }
+            }
+        }
+        throw new IllegalStateException("No @ShardKey parameter on " + method);
+    }
+}
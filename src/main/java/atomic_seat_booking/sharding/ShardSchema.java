@@ -0,0 +1,91 @@
+package atomic_seat_booking.sharding;
+
+import atomic_seat_booking.config.WorkloadClass;
+import atomic_seat_booking.config.WorkloadPools;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings every shard to the current schema and, once per database, moves its identity
+ * sequences onto the shard's slot: they then step by {@link ShardMap#SLOTS} and only issue ids
+ * congruent to the slot. The primary goes first; later shards start above the primary's
+ * legacy seat ids, so those stay unambiguous.
+ */
+@Slf4j
+public class ShardSchema {
+
+    private static final List<String> SLOTTED_TABLES = List.of("seats", "bookings", "idempotency_keys",
+            "outbox_events");
+
+    private final ShardMap shardMap;
+    private final WorkloadPools workloadPools;
+
+    public ShardSchema(ShardMap shardMap, WorkloadPools workloadPools) {
+        this.shardMap = shardMap;
+        this.workloadPools = workloadPools;
+    }
+
+    public void migrate(Configuration flywayConfiguration) {
+        long legacySeatMaxId = 0;
+        for (ShardMap.Shard shard : shardMap.shards()) {
+            DataSource dataSource = workloadPools.dataSource(shard.name(), WorkloadClass.BACKGROUND);
+            Flyway.configure()
+                    .configuration(flywayConfiguration)
+                    .dataSource(dataSource)
+                    .load()
+                    .migrate();
+            long initialized = initializeIdentity(shard, dataSource, legacySeatMaxId);
+            if (shard.equals(shardMap.primary())) {
+                legacySeatMaxId = initialized;
+            }
+        }
+    }
+
+    private long initializeIdentity(ShardMap.Shard shard, DataSource dataSource, long floor) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        Long legacySeatMaxId = transactionTemplate.execute(status -> {
+            // Serialises nodes starting together; the loser sees the winner's row
+            jdbcTemplate.execute("LOCK TABLE shard_identity IN EXCLUSIVE MODE");
+            List<Map<String, Object>> existing = jdbcTemplate.queryForList(
+                    "SELECT shard, slot, legacy_seat_max_id FROM shard_identity");
+            if (!existing.isEmpty()) {
+                Map<String, Object> row = existing.get(0);
+                if (((Number) row.get("slot")).intValue() != shard.slot()) {
+                    throw new IllegalStateException("Database of shard " + shard.name() + " was initialized as "
+                            + row.get("shard") + " in slot " + row.get("slot") + ", not slot " + shard.slot());
+                }
+                return ((Number) row.get("legacy_seat_max_id")).longValue();
+            }
+
+            long seatMaxId = maxId("seats", jdbcTemplate);
+            for (String table : SLOTTED_TABLES) {
+                long start = (Math.max(maxId(table, jdbcTemplate), floor) / ShardMap.SLOTS + 1) * ShardMap.SLOTS
+                        + shard.slot();
+                String sequence = jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence(?, 'id')",
+                        String.class, table);
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + ShardMap.SLOTS
+                        + " RESTART WITH " + start);
+            }
+            jdbcTemplate.update("INSERT INTO shard_identity (shard, slot, legacy_seat_max_id) VALUES (?, ?, ?)",
+                    shard.name(), shard.slot(), seatMaxId);
+            log.info("Shard identity initialized. shard={}, slot={}, legacySeatMaxId={}", shard.name(), shard.slot(),
+                    seatMaxId);
+            return seatMaxId;
+        });
+        return legacySeatMaxId == null ? 0 : legacySeatMaxId;
+    }
+
+    private static long maxId(String table, JdbcTemplate jdbcTemplate) {
+        Long max = jdbcTemplate.queryForObject("SELECT coalesce(max(id), 0) FROM " + table, Long.class);
+        return max == null ? 0 : max;
+    }
+}
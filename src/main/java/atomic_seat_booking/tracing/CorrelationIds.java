@@ -0,0 +1,39 @@
+package atomic_seat_booking.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered request ids without SecureRandom: epoch millis and a 20-bit sequence in 16 hex
+ * digits, unique per node through a CAS on one counter, then a random per-process node tag,
+ * e.g. 0192f3c1a2b40003-7f3a. Ids from one node sort in the order they were issued.
+ */
+public final class CorrelationIds {
+
+    private static final int SEQUENCE_BITS = 20;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final AtomicLong last = new AtomicLong();
+    private static final char[] nodeTag = new char[4];
+
+    static {
+        int tag = ThreadLocalRandom.current().nextInt(0x10000);
+        for (int i = 3; i >= 0; i--, tag >>>= 4) {
+            nodeTag[i] = HEX[tag & 0xf];
+        }
+    }
+
+    private CorrelationIds() {
+    }
+
+    public static String next() {
+        long floor = System.currentTimeMillis() << SEQUENCE_BITS;
+        long id = last.accumulateAndGet(floor, (previous, time) -> Math.max(previous + 1, time));
+        char[] chars = new char[21];
+        for (int i = 15; i >= 0; i--, id >>>= 4) {
+            chars[i] = HEX[(int) (id & 0xf)];
+        }
+        chars[16] = '-';
+        System.arraycopy(nodeTag, 0, chars, 17, 4);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,172 @@
+package atomic_seat_booking.tracing;
+
+import atomic_seat_booking.dto.TraceResponse;
+import ch.qos.logback.classic.LoggerContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.ref.WeakReference;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the last traces of every live thread in a ring of its own, so recording never contends,
+ * plus a shared ring of slow requests that survives the per-thread rings wrapping. A ring is
+ * dropped once its thread has died, so threads that come and go don't pile up rings. Slow
+ * requests are also logged with their spans. Decides per request whether the hot-path INFO
+ * lines are logged (tracing.log.sample-rate).
+ */
+@Component
+@Slf4j
+public class FlightRecorder {
+
+    @Value("${tracing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tracing.ring.size:256}")
+    private int ringSize;
+
+    @Value("${tracing.slow.ring.size:256}")
+    private int slowRingSize;
+
+    @Value("${tracing.slow.threshold.millis:500}")
+    private long slowThresholdMillis;
+
+    // 1.0 logs every request's hot-path INFO lines, 0.01 one request in a hundred
+    @Value("${tracing.log.sample-rate:1.0}")
+    private double logSampleRate;
+
+    @Value("${tracing.log.hot-path-loggers:}")
+    private String[] hotPathLoggers;
+
+    // The owner is held weakly so a dead thread's ring is not what keeps it reachable
+    private record OwnedRing(WeakReference<Thread> owner, TraceRing ring) {
+
+        boolean ownerAlive() {
+            Thread thread = owner.get();
+            return thread != null && thread.isAlive();
+        }
+    }
+
+    private final Queue<OwnedRing> rings = new ConcurrentLinkedQueue<>();
+
+    private final ThreadLocal<TraceRing> threadRing = ThreadLocal.withInitial(() -> {
+        pruneDeadRings();
+        TraceRing ring = new TraceRing(ringSize);
+        rings.add(new OwnedRing(new WeakReference<>(Thread.currentThread()), ring));
+        return ring;
+    });
+
+    private TraceRing slowRing;
+
+    private HotPathLogSampler logSampler;
+
+    @PostConstruct
+    void init() {
+        slowRing = new TraceRing(slowRingSize);
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext && logSampleRate < 1.0) {
+            logSampler = new HotPathLogSampler(Set.of(hotPathLoggers));
+            logSampler.start();
+            loggerContext.addTurboFilter(logSampler);
+            log.info("Hot-path log sampling enabled. sampleRate={}, loggers={}", logSampleRate, hotPathLoggers.length);
+        }
+    }
+
+    @PreDestroy
+    void removeLogSampler() {
+        if (logSampler != null && LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext) {
+            loggerContext.getTurboFilterList().remove(logSampler);
+        }
+    }
+
+    /**
+     * Starts tracing the calling thread's work. Returns null (and traces nothing) when disabled.
+     */
+    public RequestTrace start(String correlationId, String name) {
+        if (!enabled) {
+            return null;
+        }
+        boolean logSampled = logSampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < logSampleRate;
+        RequestTrace trace = new RequestTrace(correlationId, name, logSampled);
+        TraceContext.set(trace);
+        return trace;
+    }
+
+    /**
+     * @param status the HTTP status, or 0 for background work
+     */
+    public void finish(RequestTrace trace, int status) {
+        if (trace == null) {
+            return;
+        }
+        TraceContext.clear();
+        trace.finish(status);
+        threadRing.get().add(trace);
+        if (trace.getTotalNanos() >= slowThresholdMillis * 1_000_000) {
+            slowRing.add(trace);
+            log.warn("Slow request. correlationId={}, request={}, status={}, {}", trace.getCorrelationId(),
+                    trace.getName(), status, trace.describe());
+        }
+    }
+
+    /**
+     * This node's most recent traces taking at least minMillis, newest first.
+     */
+    public List<TraceResponse> recent(long minMillis, int limit) {
+        long minNanos = minMillis * 1_000_000;
+        pruneDeadRings();
+        return toResponses(rings.stream().flatMap(owned -> owned.ring().snapshot().stream())
+                .filter(trace -> trace.getTotalNanos() >= minNanos), limit);
+    }
+
+    /**
+     * The most recent requests over tracing.slow.threshold.millis, newest first.
+     */
+    public List<TraceResponse> slow(int limit) {
+        return toResponses(slowRing.snapshot().stream(), limit);
+    }
+
+    private void pruneDeadRings() {
+        rings.removeIf(owned -> !owned.ownerAlive());
+    }
+
+    private static List<TraceResponse> toResponses(Stream<RequestTrace> traces, int limit) {
+        return traces.sorted(Comparator.comparingLong(RequestTrace::getStartedAtMillis).reversed())
+                .limit(limit)
+                .map(FlightRecorder::toResponse)
+                .toList();
+    }
+
+    private static TraceResponse toResponse(RequestTrace trace) {
+        List<TraceResponse.Span> spans = new ArrayList<>();
+        for (SpanKind kind : SpanKind.values()) {
+            if (trace.getSpanCount(kind) > 0) {
+                spans.add(TraceResponse.Span.builder()
+                        .kind(kind)
+                        .millis(trace.getSpanNanos(kind) / 1_000_000.0)
+                        .count(trace.getSpanCount(kind))
+                        .build());
+            }
+        }
+        return TraceResponse.builder()
+                .correlationId(trace.getCorrelationId())
+                .request(trace.getName())
+                .thread(trace.getThreadName())
+                .status(trace.getStatus())
+                .startedAt(Instant.ofEpochMilli(trace.getStartedAtMillis()))
+                .totalMillis(trace.getTotalNanos() / 1_000_000.0)
+                .spans(spans)
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package atomic_seat_booking.tracing;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Set;
+
+/**
+ * Drops INFO and below from the hot-path loggers for requests that were not sampled for
+ * logging. Runs before the message is formatted, so a dropped line costs a set lookup. WARN and
+ * ERROR always pass, and so does anything logged outside a traced request.
+ */
+class HotPathLogSampler extends TurboFilter {
+
+    private final Set<String> loggers;
+
+    HotPathLogSampler(Set<String> loggers) {
+        this.loggers = loggers;
+        setName("hot-path-log-sampler");
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+            Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.WARN) || !loggers.contains(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        RequestTrace trace = TraceContext.get();
+        return trace != null && !trace.isLogSampled() ? FilterReply.DENY : FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,100 @@
+package atomic_seat_booking.tracing;
+
+/**
+ * The spans of one request. Written only by the thread serving the request; once finished it
+ * is published to the flight recorder and never changes again.
+ */
+public final class RequestTrace {
+
+    private final String correlationId;
+    private final String name;
+    private final String threadName;
+    private final long startedAtMillis;
+    private final long startNanos;
+    private final boolean logSampled;
+    private final long[] spanNanos = new long[SpanKind.values().length];
+    private final int[] spanCounts = new int[SpanKind.values().length];
+    private long commitStartNanos;
+    private long totalNanos;
+    private int status;
+
+    RequestTrace(String correlationId, String name, boolean logSampled) {
+        this.correlationId = correlationId;
+        this.name = name;
+        this.threadName = Thread.currentThread().getName();
+        this.startedAtMillis = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+        this.logSampled = logSampled;
+    }
+
+    void addSpan(SpanKind kind, long nanos) {
+        spanNanos[kind.ordinal()] += nanos;
+        spanCounts[kind.ordinal()]++;
+    }
+
+    void commitStarted() {
+        commitStartNanos = System.nanoTime();
+    }
+
+    void commitFinished() {
+        if (commitStartNanos != 0) {
+            addSpan(SpanKind.COMMIT, System.nanoTime() - commitStartNanos);
+            commitStartNanos = 0;
+        }
+    }
+
+    void finish(int status) {
+        this.status = status;
+        this.totalNanos = System.nanoTime() - startNanos;
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    /** "GET /api/seats/1/hold" for HTTP requests, a task name for background work. */
+    public String getName() {
+        return name;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public boolean isLogSampled() {
+        return logSampled;
+    }
+
+    public long getSpanNanos(SpanKind kind) {
+        return spanNanos[kind.ordinal()];
+    }
+
+    public int getSpanCount(SpanKind kind) {
+        return spanCounts[kind.ordinal()];
+    }
+
+    /** e.g. "total=812ms AUTH=1.2ms/1 LOCK_WAIT=640.0ms/1 PAYMENT=150.3ms/1". */
+    public String describe() {
+        StringBuilder description = new StringBuilder("total=").append(totalNanos / 1_000_000).append("ms");
+        for (SpanKind kind : SpanKind.values()) {
+            if (spanCounts[kind.ordinal()] > 0) {
+                description.append(' ').append(kind).append('=')
+                        .append(Math.round(spanNanos[kind.ordinal()] / 100_000.0) / 10.0).append("ms/")
+                        .append(spanCounts[kind.ordinal()]);
+            }
+        }
+        return description.toString();
+    }
+}
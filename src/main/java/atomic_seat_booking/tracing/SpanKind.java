@@ -0,0 +1,14 @@
+package atomic_seat_booking.tracing;
+
+/**
+ * The stages of a request whose time is traced. A stage entered several times (a checkout's
+ * rate limits, say) accumulates into one span.
+ */
+public enum SpanKind {
+    AUTH,
+    RATE_LIMIT,
+    SOFT_HOLD,
+    LOCK_WAIT,
+    PAYMENT,
+    COMMIT
+}
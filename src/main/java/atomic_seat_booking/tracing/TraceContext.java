@@ -0,0 +1,45 @@
+package atomic_seat_booking.tracing;
+
+/**
+ * The calling thread's current trace. Span methods are no-ops while none is active, so code
+ * can be traced unconditionally; the cost of a span is two clock reads and a ThreadLocal lookup.
+ */
+public class TraceContext {
+    private static final ThreadLocal<RequestTrace> current = new ThreadLocal<>();
+
+    /**
+     * @return a start time to hand to {@link #endSpan}, or 0 when no trace is active
+     */
+    public static long startSpan() {
+        return current.get() == null ? 0 : System.nanoTime();
+    }
+
+    public static void endSpan(SpanKind kind, long start) {
+        RequestTrace trace = current.get();
+        if (trace != null && start != 0) {
+            trace.addSpan(kind, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Adds a span the caller has already timed.
+     */
+    public static void addSpan(SpanKind kind, long nanos) {
+        RequestTrace trace = current.get();
+        if (trace != null) {
+            trace.addSpan(kind, nanos);
+        }
+    }
+
+    public static RequestTrace get() {
+        return current.get();
+    }
+
+    static void set(RequestTrace trace) {
+        current.set(trace);
+    }
+
+    public static void clear() {
+        current.remove();
+    }
+}
@@ -0,0 +1,42 @@
+package atomic_seat_booking.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring of finished traces that overwrites its oldest entry. Appends are lock-free
+ * (one increment and one ordered store); readers copy whatever is in the slots, which is
+ * always a whole trace since finished traces never change.
+ */
+class TraceRing {
+
+    private final AtomicReferenceArray<RequestTrace> slots;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+
+    /**
+     * @param size rounded up to a power of two
+     */
+    TraceRing(int size) {
+        int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    void add(RequestTrace trace) {
+        slots.lazySet((int) (next.getAndIncrement() & mask), trace);
+    }
+
+    List<RequestTrace> snapshot() {
+        List<RequestTrace> traces = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            RequestTrace trace = slots.get(i);
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+}
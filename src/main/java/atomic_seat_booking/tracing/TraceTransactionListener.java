@@ -0,0 +1,29 @@
+package atomic_seat_booking.tracing;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+/**
+ * Times commits (the flush and the database commit) as the COMMIT span. Spring Boot registers
+ * every TransactionExecutionListener bean with the transaction manager.
+ */
+@Component
+public class TraceTransactionListener implements TransactionExecutionListener {
+
+    @Override
+    public void beforeCommit(TransactionExecution transaction) {
+        RequestTrace trace = TraceContext.get();
+        if (trace != null) {
+            trace.commitStarted();
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        RequestTrace trace = TraceContext.get();
+        if (trace != null) {
+            trace.commitFinished();
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package db.migration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Converts the V1 schema, as Hibernate created it before migrations, to the layout the
+ * application and the later migrations expect:
+ * <ul>
+ * <li>{@code seats} becomes list-partitioned by {@code event_id}, one partition per existing event.</li>
+ * <li>{@code bookings} gains {@code event_id}, copied from its seat, and is partitioned alongside.
+ * Bookings whose seat no longer exists cannot be placed and are kept in {@code bookings_unplaced}.</li>
+ * <li>{@code idempotency_keys} becomes range-partitioned by {@code created_day}, and its Jackson
+ * JSON payloads are re-encoded in version 1 of the binary payload layout.</li>
+ * <li>{@code outbox_events} is created unless Hibernate already did.</li>
+ * </ul>
+ * Partition naming and the payload encoder are private copies of the application's as they were
+ * when this migration was written, so later changes to the application cannot change what it
+ * does. Tables already in the new layout are left alone. Every table is rewritten once, so run
+ * it in a maintenance window on large databases.
+ */
+@Slf4j
+public class V2__Partition_tables_and_binary_idempotency_payloads extends BaseJavaMigration {
+
+    private static final String SEATS = "seats";
+    private static final String BOOKINGS = "bookings";
+    private static final String IDEMPOTENCY_KEYS = "idempotency_keys";
+    private static final int MAX_EVENT_SLUG = 24;
+    private static final byte PAYLOAD_VERSION = 1;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        if (!isPartitioned(jdbcTemplate, SEATS)) {
+            convertSeats(jdbcTemplate);
+        }
+        if (!isPartitioned(jdbcTemplate, BOOKINGS)) {
+            convertBookings(jdbcTemplate);
+        }
+        if (!isPartitioned(jdbcTemplate, IDEMPOTENCY_KEYS)) {
+            convertIdempotencyKeys(jdbcTemplate);
+        }
+        createOutbox(jdbcTemplate);
+    }
+
+    private void convertSeats(JdbcTemplate jdbcTemplate) {
+        log.info("Converting {} to a list-partitioned table by event_id", SEATS);
+        renameToLegacy(jdbcTemplate, SEATS);
+        jdbcTemplate.execute("CREATE TABLE " + SEATS + " ("
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY, "
+                + "event_id VARCHAR(255) NOT NULL, "
+                + "seat_number VARCHAR(255) NOT NULL, "
+                + "status VARCHAR(255) NOT NULL, "
+                + "held_by_user_id VARCHAR(255), "
+                + "hold_expires_at TIMESTAMP(6) WITH TIME ZONE, "
+                + "PRIMARY KEY (id, event_id), "
+                + "CONSTRAINT uk_seat_event_number UNIQUE (event_id, seat_number), "
+                + "CONSTRAINT seats_status_check CHECK (status IN ('AVAILABLE', 'HELD', 'BOOKED'))"
+                + ") PARTITION BY LIST (event_id)");
+        jdbcTemplate.execute("CREATE TABLE " + SEATS + "_default PARTITION OF " + SEATS + " DEFAULT");
+
+        for (String eventId : jdbcTemplate.queryForList(
+                "SELECT DISTINCT event_id FROM " + SEATS + "_legacy", String.class)) {
+            createEventPartition(jdbcTemplate, SEATS, eventId);
+        }
+        int copied = jdbcTemplate.update("INSERT INTO " + SEATS
+                + " (id, event_id, seat_number, status, held_by_user_id, hold_expires_at) "
+                + "SELECT id, event_id, seat_number, status, held_by_user_id, hold_expires_at FROM "
+                + SEATS + "_legacy");
+        resetIdentity(jdbcTemplate, SEATS);
+        jdbcTemplate.execute("DROP TABLE " + SEATS + "_legacy");
+        log.info("Converted {}. rows={}", SEATS, copied);
+    }
+
+    private void convertBookings(JdbcTemplate jdbcTemplate) {
+        log.info("Converting {} to a list-partitioned table by event_id", BOOKINGS);
+        renameToLegacy(jdbcTemplate, BOOKINGS);
+        jdbcTemplate.execute("CREATE TABLE " + BOOKINGS + " ("
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY, "
+                + "event_id VARCHAR(255) NOT NULL, "
+                + "seat_id BIGINT NOT NULL, "
+                + "user_id VARCHAR(255) NOT NULL, "
+                + "booked_at TIMESTAMP(6) WITH TIME ZONE NOT NULL, "
+                + "PRIMARY KEY (id, event_id), "
+                + "CONSTRAINT uk_booking_event_seat UNIQUE (event_id, seat_id)"
+                + ") PARTITION BY LIST (event_id)");
+        jdbcTemplate.execute("CREATE TABLE " + BOOKINGS + "_default PARTITION OF " + BOOKINGS + " DEFAULT");
+
+        for (String eventId : jdbcTemplate.queryForList("SELECT DISTINCT event_id FROM " + SEATS, String.class)) {
+            createEventPartition(jdbcTemplate, BOOKINGS, eventId);
+        }
+        int copied = jdbcTemplate.update("INSERT INTO " + BOOKINGS + " (id, event_id, seat_id, user_id, booked_at) "
+                + "SELECT b.id, s.event_id, b.seat_id, b.user_id, b.booked_at FROM " + BOOKINGS + "_legacy b "
+                + "JOIN " + SEATS + " s ON s.id = b.seat_id");
+        resetIdentity(jdbcTemplate, BOOKINGS);
+
+        jdbcTemplate.update("DELETE FROM " + BOOKINGS + "_legacy b USING " + SEATS + " s WHERE s.id = b.seat_id");
+        int unplaced = countRows(jdbcTemplate, BOOKINGS + "_legacy");
+        if (unplaced == 0) {
+            jdbcTemplate.execute("DROP TABLE " + BOOKINGS + "_legacy");
+        } else {
+            jdbcTemplate.execute("ALTER TABLE " + BOOKINGS + "_legacy RENAME TO " + BOOKINGS + "_unplaced");
+            log.warn("Bookings without a seat kept aside. table={}_unplaced, count={}", BOOKINGS, unplaced);
+        }
+        log.info("Converted {}. rows={}", BOOKINGS, copied);
+    }
+
+    /**
+     * Every day that has keys gets its partition; IdempotencyRetentionService drops the ones
+     * outside the retention window on startup. Payloads that cannot be parsed lose their key,
+     * which only means a retry with it is treated as new.
+     */
+    private void convertIdempotencyKeys(JdbcTemplate jdbcTemplate) {
+        log.info("Converting {} to a daily range-partitioned table by created_day", IDEMPOTENCY_KEYS);
+        renameToLegacy(jdbcTemplate, IDEMPOTENCY_KEYS);
+        jdbcTemplate.execute("CREATE TABLE " + IDEMPOTENCY_KEYS + " ("
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY, "
+                + "user_id VARCHAR(255) NOT NULL, "
+                + "key VARCHAR(255) NOT NULL, "
+                + "response_payload BYTEA, "
+                + "created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL, "
+                + "created_day DATE NOT NULL, "
+                + "PRIMARY KEY (id, created_day), "
+                + "CONSTRAINT uk_user_idempotency_key UNIQUE (user_id, key, created_day)"
+                + ") PARTITION BY RANGE (created_day)");
+
+        for (LocalDate day : jdbcTemplate.queryForList("SELECT DISTINCT (created_at AT TIME ZONE 'UTC')::date FROM "
+                + IDEMPOTENCY_KEYS + "_legacy", LocalDate.class)) {
+            jdbcTemplate.execute("CREATE TABLE " + dayPartitionName(day) + " PARTITION OF "
+                    + IDEMPOTENCY_KEYS + " FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+        }
+
+        boolean textPayloads = "text".equals(jdbcTemplate.queryForObject(
+                "SELECT data_type FROM information_schema.columns WHERE table_schema = current_schema() "
+                        + "AND table_name = ? AND column_name = 'response_payload'",
+                String.class, IDEMPOTENCY_KEYS + "_legacy"));
+        int copied = 0;
+        int dropped = 0;
+        for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT id, user_id, key, response_payload, "
+                + "created_at, (created_at AT TIME ZONE 'UTC')::date AS created_day FROM "
+                + IDEMPOTENCY_KEYS + "_legacy ORDER BY id")) {
+            Object payload = row.get("response_payload");
+            byte[] encoded = textPayloads && payload != null
+                    ? encodeJson((String) payload, row.get("id"))
+                    : (byte[]) payload;
+            if (payload != null && encoded == null) {
+                dropped++;
+                continue;
+            }
+            jdbcTemplate.update("INSERT INTO " + IDEMPOTENCY_KEYS
+                    + " (id, user_id, key, response_payload, created_at, created_day) VALUES (?, ?, ?, ?, ?, ?)",
+                    row.get("id"), row.get("user_id"), row.get("key"), encoded, row.get("created_at"),
+                    row.get("created_day"));
+            copied++;
+        }
+        resetIdentity(jdbcTemplate, IDEMPOTENCY_KEYS);
+        jdbcTemplate.execute("DROP TABLE " + IDEMPOTENCY_KEYS + "_legacy");
+        if (dropped > 0) {
+            log.warn("Dropped idempotency keys with unreadable payloads. count={}", dropped);
+        }
+        log.info("Converted {}. rows={}", IDEMPOTENCY_KEYS, copied);
+    }
+
+    // The JSON is the serialised Booking entity: id, seatId, userId and bookedAt
+    private byte[] encodeJson(String json, Object keyId) {
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            JsonNode bookedAt = node.get("bookedAt");
+            return encodePayload(node.get("id").asLong(), node.get("seatId").asLong(), node.get("userId").asText(),
+                    bookedAt.isNumber() ? epochSeconds(bookedAt.decimalValue()) : Instant.parse(bookedAt.asText()));
+        } catch (Exception e) {
+            log.warn("Unreadable idempotency payload. id={}, error={}", keyId, e.getMessage());
+            return null;
+        }
+    }
+
+    // Version 1 layout holding one booking: version(1) | count(2) | id(8) | seatId(8)
+    // | bookedAt seconds(8) | bookedAt nanos(4) | userId length(2) | userId UTF-8
+    private static byte[] encodePayload(long id, long seatId, String userId, Instant bookedAt) {
+        byte[] user = userId.getBytes(StandardCharsets.UTF_8);
+        if (user.length > 0xFFFF) {
+            throw new IllegalArgumentException("userId too long to encode: " + user.length + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 2 + 8 + 8 + 8 + 4 + 2 + user.length);
+        buffer.put(PAYLOAD_VERSION);
+        buffer.putShort((short) 1);
+        buffer.putLong(id);
+        buffer.putLong(seatId);
+        buffer.putLong(bookedAt.getEpochSecond());
+        buffer.putInt(bookedAt.getNano());
+        buffer.putShort((short) user.length);
+        buffer.put(user);
+        return buffer.array();
+    }
+
+    // Jackson writes Instants as decimal epoch seconds when WRITE_DATES_AS_TIMESTAMPS is on
+    private static Instant epochSeconds(BigDecimal value) {
+        long seconds = value.longValue();
+        int nanos = value.subtract(BigDecimal.valueOf(seconds)).movePointRight(9).intValue();
+        return Instant.ofEpochSecond(seconds, nanos);
+    }
+
+    private void createOutbox(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS outbox_events ("
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY, "
+                + "type VARCHAR(255) NOT NULL CHECK (type IN ('SEAT_HELD', 'SEAT_RELEASED', 'SEAT_BOOKED')), "
+                + "seat_id BIGINT NOT NULL, "
+                + "event_id VARCHAR(255) NOT NULL, "
+                + "user_id VARCHAR(255), "
+                + "booking_id BIGINT, "
+                + "occurred_at TIMESTAMP(6) WITH TIME ZONE NOT NULL, "
+                + "PRIMARY KEY (id))");
+        // Supports the per-seat head-of-queue check in OutboxEventRepository.lockNextBatch
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_outbox_seat_id ON outbox_events (seat_id, id)");
+    }
+
+    private static String dayPartitionName(LocalDate day) {
+        return IDEMPOTENCY_KEYS + "_p" + day.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    // Readable slug of the event id plus a hash, unique and within the 63-byte identifier limit
+    private static String eventPartitionName(String table, String eventId) {
+        String slug = eventId.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "_");
+        if (slug.length() > MAX_EVENT_SLUG) {
+            slug = slug.substring(0, MAX_EVENT_SLUG);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(eventId.getBytes(StandardCharsets.UTF_8));
+            return table + "_ev_" + slug + "_" + HexFormat.of().formatHex(digest, 0, 4);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static boolean isPartitioned(JdbcTemplate jdbcTemplate, String table) {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)", String.class, table);
+        return !kinds.isEmpty() && "p".equals(kinds.get(0));
+    }
+
+    private static void createEventPartition(JdbcTemplate jdbcTemplate, String table, String eventId) {
+        jdbcTemplate.execute("CREATE TABLE " + eventPartitionName(table, eventId) + " PARTITION OF "
+                + table + " FOR VALUES IN ('" + eventId.replace("'", "''") + "')");
+    }
+
+    // Index names are schema-wide, so the legacy table's keys must go before the new table reuses
+    // them; its checks go too, so the new table's keep the names later migrations refer to
+    private static void renameToLegacy(JdbcTemplate jdbcTemplate, String table) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " RENAME TO " + table + "_legacy");
+        for (String constraint : jdbcTemplate.queryForList(
+                "SELECT conname::text FROM pg_constraint WHERE conrelid = to_regclass(?) "
+                        + "AND contype IN ('p', 'u', 'c')",
+                String.class, table + "_legacy")) {
+            jdbcTemplate.execute("ALTER TABLE " + table + "_legacy DROP CONSTRAINT " + constraint);
+        }
+    }
+
+    private static void resetIdentity(JdbcTemplate jdbcTemplate, String table) {
+        jdbcTemplate.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), "
+                + "COALESCE((SELECT MAX(id) FROM " + table + "), 0) + 1, false)");
+    }
+
+    private static int countRows(JdbcTemplate jdbcTemplate, String table) {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Integer.class);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,43 @@
+-- Schema as created by Hibernate ddl-auto before the schema was managed by migrations.
+-- Databases that predate Flyway have exactly this shape and are baselined at this version;
+-- V2 converts them, and new databases, to the partitioned layout.
+
+CREATE TABLE users (
+    id         VARCHAR(255) NOT NULL,
+    name       VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE seats (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    event_id        VARCHAR(255) NOT NULL,
+    seat_number     VARCHAR(255) NOT NULL,
+    status          VARCHAR(255) NOT NULL CHECK (status IN ('AVAILABLE', 'HELD', 'BOOKED')),
+    held_by_user_id VARCHAR(255),
+    hold_expires_at TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_seats_seat_number UNIQUE (seat_number)
+);
+
+CREATE TABLE bookings (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    seat_id   BIGINT NOT NULL,
+    user_id   VARCHAR(255) NOT NULL,
+    booked_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_bookings_seat_id UNIQUE (seat_id)
+);
+
+-- response_payload holds the confirmed Booking as Jackson JSON
+CREATE TABLE idempotency_keys (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id          VARCHAR(255) NOT NULL,
+    key              VARCHAR(255) NOT NULL,
+    response_payload TEXT,
+    created_at       TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_user_idempotency_key UNIQUE (user_id, key)
+);
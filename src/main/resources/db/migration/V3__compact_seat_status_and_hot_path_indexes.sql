@@ -0,0 +1,21 @@
+-- Seat status becomes a 2-byte code (see SeatStatus.getCode); values must never be renumbered.
+-- Rewrites seats once, so run it in a maintenance window on large databases.
+ALTER TABLE seats DROP CONSTRAINT IF EXISTS seats_status_check;
+ALTER TABLE seats ALTER COLUMN status TYPE SMALLINT USING CASE status
+    WHEN 'AVAILABLE' THEN 0
+    WHEN 'HELD' THEN 1
+    WHEN 'BOOKED' THEN 2
+END;
+ALTER TABLE seats ADD CONSTRAINT seats_status_check CHECK (status BETWEEN 0 AND 2);
+
+-- findByEventIdAndStatus, seat map availability counts
+CREATE INDEX idx_seats_event_status ON seats (event_id, status);
+
+-- Expired-hold sweeps only ever look at HELD seats, a small fraction of the table
+CREATE INDEX idx_seats_held_expiry ON seats (hold_expires_at) WHERE status = 1;
+
+-- findBySeatNumber has no event filter, so it needs its own index across partitions
+CREATE INDEX idx_seats_seat_number ON seats (seat_number);
+
+-- findBySeatId / existsBySeatId are answered by index-only scans
+CREATE INDEX idx_bookings_seat_covering ON bookings (seat_id) INCLUDE (id, event_id, user_id, booked_at);
@@ -0,0 +1,20 @@
+-- Which shard owns each event. Only the primary shard's copy is read; events missing from it
+-- predate sharding and live on the primary.
+CREATE TABLE event_shards (
+    event_id    VARCHAR(255) NOT NULL,
+    shard       VARCHAR(64)  NOT NULL,
+    assigned_at TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    CONSTRAINT event_shards_pkey PRIMARY KEY (event_id)
+);
+
+-- Written once per database by ShardSchema when it moves the identity sequences onto the
+-- shard's slot. Seat ids up to legacy_seat_max_id were issued before that and are not slotted.
+CREATE TABLE shard_identity (
+    id                 SMALLINT    NOT NULL DEFAULT 1,
+    shard              VARCHAR(64) NOT NULL,
+    slot               SMALLINT    NOT NULL,
+    legacy_seat_max_id BIGINT      NOT NULL,
+    initialized_at     TIMESTAMPTZ NOT NULL DEFAULT now(),
+    CONSTRAINT shard_identity_pkey PRIMARY KEY (id),
+    CONSTRAINT shard_identity_single_row CHECK (id = 1)
+);
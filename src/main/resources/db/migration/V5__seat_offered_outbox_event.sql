@@ -0,0 +1,4 @@
+-- SEAT_OFFERED: a released seat was held on behalf of the next waitlisted user, who is notified
+ALTER TABLE outbox_events DROP CONSTRAINT IF EXISTS outbox_events_type_check;
+ALTER TABLE outbox_events ADD CONSTRAINT outbox_events_type_check
+    CHECK (type IN ('SEAT_HELD', 'SEAT_RELEASED', 'SEAT_BOOKED', 'SEAT_OFFERED'));
@@ -0,0 +1,9 @@
+-- When each event goes on sale; every node warms itself up shortly before. Read on the primary only.
+CREATE TABLE on_sale_schedules (
+    event_id   VARCHAR(255) NOT NULL,
+    on_sale_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT on_sale_schedules_pkey PRIMARY KEY (event_id)
+);
+
+CREATE INDEX idx_on_sale_schedules_on_sale_at ON on_sale_schedules (on_sale_at);
@@ -0,0 +1,58 @@
+-- Append-only history of every seat transition, list-partitioned by event like seats and
+-- bookings. A seat's entries are written under its row lock, so their sequence order is the
+-- order its transitions happened in.
+CREATE TABLE seat_events (
+    sequence        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    event_id        VARCHAR(255) NOT NULL,
+    seat_id         BIGINT NOT NULL,
+    type            VARCHAR(16)  NOT NULL CHECK (type IN ('HELD', 'RELEASED', 'BOOKED')),
+    user_id         VARCHAR(255),
+    hold_expires_at TIMESTAMP(6) WITH TIME ZONE,
+    booking_id      BIGINT,
+    recorded_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (sequence, event_id)
+) PARTITION BY LIST (event_id);
+
+CREATE TABLE seat_events_default PARTITION OF seat_events DEFAULT;
+
+-- Serves a seat's history and time-travel reads
+CREATE INDEX idx_seat_events_seat ON seat_events (event_id, seat_id, sequence);
+
+-- Events that already have their own seat partition get a ledger partition alongside it
+DO $$
+DECLARE
+    p RECORD;
+BEGIN
+    FOR p IN SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bound
+             FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+             WHERE i.inhparent = 'seats'::regclass AND c.relname LIKE 'seats\_ev\_%'
+    LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF seat_events %s', 'seat_events' || substr(p.relname, 6),
+                p.bound);
+    END LOOP;
+END $$;
+
+-- Per-event snapshots: the last ledger entry of every seat as of through_sequence. Replays
+-- start from the newest one and read only the entries after it.
+CREATE TABLE seat_ledger_snapshots (
+    event_id         VARCHAR(255) NOT NULL,
+    through_sequence BIGINT       NOT NULL,
+    seats            INTEGER      NOT NULL,
+    taken_at         TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT seat_ledger_snapshots_pkey PRIMARY KEY (event_id, through_sequence)
+);
+
+CREATE TABLE seat_ledger_snapshot_seats (
+    event_id         VARCHAR(255) NOT NULL,
+    through_sequence BIGINT       NOT NULL,
+    seat_id          BIGINT       NOT NULL,
+    sequence         BIGINT       NOT NULL,
+    type             VARCHAR(16)  NOT NULL,
+    user_id          VARCHAR(255),
+    hold_expires_at  TIMESTAMP(6) WITH TIME ZONE,
+    booking_id       BIGINT,
+    recorded_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT seat_ledger_snapshot_seats_pkey PRIMARY KEY (event_id, through_sequence, seat_id),
+    CONSTRAINT fk_snapshot_seats_snapshot FOREIGN KEY (event_id, through_sequence)
+        REFERENCES seat_ledger_snapshots (event_id, through_sequence) ON DELETE CASCADE
+);
@@ -0,0 +1,3 @@
+-- Operational endpoints require ADMIN; grant it with UPDATE users SET role = 'ADMIN' WHERE id = ...
+ALTER TABLE users ADD COLUMN role VARCHAR(16) NOT NULL DEFAULT 'USER';
+ALTER TABLE users ADD CONSTRAINT users_role_check CHECK (role IN ('USER', 'ADMIN'));
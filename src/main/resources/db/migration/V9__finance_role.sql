@@ -0,0 +1,3 @@
+-- FINANCE: may download settlement exports, but not use the operational endpoints
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_role_check;
+ALTER TABLE users ADD CONSTRAINT users_role_check CHECK (role IN ('USER', 'ADMIN', 'FINANCE'));
@@ -0,0 +1,117 @@
+package atomic_seat_booking;
+
+import atomic_seat_booking.entity.User;
+import atomic_seat_booking.entity.UserRole;
+import atomic_seat_booking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Operational endpoints must reject authenticated users without the required role before doing
+ * any work, and let admins through.
+ * The context is used by this class only, so it is closed afterwards to hand its connections back.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext
+public class AccessControlIntegrationTest {
+
+    private static final String EVENT_ID = "access-event";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(new User("user-1", "Alice", "alice@test.com"));
+        userRepository.save(new User("admin-1", "Admin", "admin@test.com", UserRole.ADMIN));
+        userRepository.save(new User("finance-1", "Finance", "finance@test.com", UserRole.FINANCE));
+    }
+
+    @Test
+    void testAdminEndpointsRequireAdminRole() throws Exception {
+        List<MockHttpServletRequestBuilder> adminRequests = List.of(
+                post("/api/admin/events/{eventId}/archive", EVENT_ID),
+                put("/api/admin/events/{eventId}/on-sale", EVENT_ID)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"onSaleAt\":\"2030-01-01T00:00:00Z\"}"),
+                post("/api/admin/events/{eventId}/warmup", EVENT_ID),
+                get("/api/admin/events/{eventId}/warmup", EVENT_ID),
+                get("/api/admin/events/{eventId}/hot-seats", EVENT_ID),
+                get("/api/admin/pools"),
+                get("/api/admin/traces"),
+                get("/api/admin/traces/slow"),
+                get("/api/admin/seats/{seatId}/history", 1),
+                post("/api/admin/events/{eventId}/ledger/snapshot", EVENT_ID));
+
+        for (MockHttpServletRequestBuilder request : adminRequests) {
+            mockMvc.perform(request.header("X-User-Id", "user-1")).andExpect(status().isForbidden());
+        }
+        mockMvc.perform(get("/api/admin/pools").header("X-User-Id", "finance-1")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/admin/pools")).andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/api/admin/pools").header("X-User-Id", "admin-1")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/admin/traces").header("X-User-Id", "admin-1")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/admin/events/{eventId}/hot-seats", EVENT_ID).header("X-User-Id", "admin-1"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testAdminListLimitsMustBePositive() throws Exception {
+        for (String limit : List.of("0", "-1")) {
+            mockMvc.perform(get("/api/admin/events/{eventId}/hot-seats", EVENT_ID).param("limit", limit)
+                    .header("X-User-Id", "admin-1")).andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/admin/traces").param("limit", limit).header("X-User-Id", "admin-1"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/admin/traces/slow").param("limit", limit).header("X-User-Id", "admin-1"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    void testBookingExportRequiresAdminOrFinanceRole() throws Exception {
+        mockMvc.perform(get("/api/events/{eventId}/bookings/export", EVENT_ID).header("X-User-Id", "user-1"))
+                .andExpect(status().isForbidden());
+        for (String userId : List.of("finance-1", "admin-1")) {
+            // The body streams asynchronously, so wait for it to finish and hand its connection back
+            MvcResult export = mockMvc.perform(get("/api/events/{eventId}/bookings/export", EVENT_ID)
+                    .header("X-User-Id", userId)).andExpect(request().asyncStarted()).andReturn();
+            mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void testSeedingRequiresAdminRole() throws Exception {
+        String layout = "{\"eventId\":\"seed-" + UUID.randomUUID() + "\",\"sections\":[{\"name\":\"A\",\"rows\":1,"
+                + "\"seatsPerRow\":2}]}";
+
+        mockMvc.perform(post("/api/seats/seed").contentType(MediaType.APPLICATION_JSON).content(layout))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/seats/seed").contentType(MediaType.APPLICATION_JSON).content(layout)
+                .header("X-User-Id", "user-1")).andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/seats/seed").contentType(MediaType.APPLICATION_JSON).content(layout)
+                .header("X-User-Id", "admin-1")).andExpect(status().isCreated());
+    }
+}
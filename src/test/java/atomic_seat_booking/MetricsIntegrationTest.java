@@ -0,0 +1,145 @@
+package atomic_seat_booking;
+
+import atomic_seat_booking.config.UserContext;
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.entity.User;
+import atomic_seat_booking.exception.RateLimitExceededException;
+import atomic_seat_booking.exception.SeatAlreadyHeldException;
+import atomic_seat_booking.repository.SeatRepository;
+import atomic_seat_booking.repository.UserRepository;
+import atomic_seat_booking.service.BookingService;
+import atomic_seat_booking.service.PaymentService;
+import atomic_seat_booking.service.SeatHoldService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doNothing;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs a small booking flow and checks the hot-path meters move and are scraped by Prometheus.
+ * The user rate limit is lowered to 3 so the flow's fourth call from user-1 is rejected.
+ * The context is used by this class only, so it is closed afterwards to hand its connections back.
+ */
+@SpringBootTest(properties = { "ratelimit.user.capacity=3", "ratelimit.user.refill=3" })
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+@DirtiesContext
+public class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoSpyBean
+    private PaymentService paymentService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(new User("metrics-user-1", "Metrics One", "metrics-user-1@test.com"));
+        userRepository.save(new User("metrics-user-2", "Metrics Two", "metrics-user-2@test.com"));
+        doNothing().when(paymentService).processPayment(anyString(), anyLong(), anyString());
+    }
+
+    @Test
+    void testBookingFlowIsVisibleInPrometheusScrape() throws Exception {
+        Long seatId = newSeat();
+        Long otherSeatId = newSeat();
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        try {
+            UserContext.setUserId("metrics-user-1");
+            seatHoldService.holdSeat(seatId);
+
+            UserContext.setUserId("metrics-user-2");
+            assertThrows(SeatAlreadyHeldException.class, () -> seatHoldService.holdSeat(seatId));
+
+            UserContext.setUserId("metrics-user-1");
+            bookingService.confirmSeat(seatId, idempotencyKey);
+            bookingService.confirmSeat(seatId, idempotencyKey); // replayed from the local cache
+            assertThrows(RateLimitExceededException.class, () -> seatHoldService.holdSeat(otherSeatId));
+        } finally {
+            UserContext.clear();
+        }
+        // The confirms above stub the blocking call; the real charge path records its latency
+        paymentService.processPaymentAsync("metrics-user-1", 100L, UUID.randomUUID().toString())
+                .handle((ignored, error) -> null).join();
+
+        assertThat(outcomeCount("hold", "success")).isEqualTo(1);
+        assertThat(outcomeCount("hold", "SeatAlreadyHeldException")).isEqualTo(1);
+        assertThat(outcomeCount("hold", "RateLimitExceededException")).isEqualTo(1);
+        assertThat(outcomeCount("confirm", "success")).isEqualTo(2);
+        // Lock waits: both holds that got past the rate limit and the first confirm; the replay never locks
+        assertThat(meterRegistry.get("seat.lock.wait").tag("query", "single").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("ratelimit.rejections").tag("dimension", "user").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("idempotency.lookups").tags("tier", "local", "result", "hit").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("idempotency.lookups").tags("tier", "table", "result", "miss").counter()
+                .count()).isEqualTo(1);
+        assertThat(meterRegistry.get("softhold.requests").counters())
+                .anySatisfy(counter -> assertThat(counter.count()).isPositive());
+        assertThat(meterRegistry.get("payment.latency").timers())
+                .anySatisfy(timer -> assertThat(timer.count()).isEqualTo(1));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(scrape)
+                .contains("booking_operations_seconds_count{")
+                .contains("outcome=\"SeatAlreadyHeldException\"")
+                .contains("seat_lock_wait_seconds_max{")
+                .contains("seat_lock_timeouts_total{")
+                .contains("payment_latency_seconds_bucket{")
+                .contains("ratelimit_rejections_total{")
+                .contains("idempotency_lookups_total{")
+                .contains("softhold_requests_total{")
+                .contains("hikaricp_connections_pending{")
+                .contains("pool=\"db-main-hold\"")
+                .contains("db_bulkhead_in_flight{")
+                .contains("db_bulkhead_rejections_total{");
+    }
+
+    private double outcomeCount(String operation, String outcome) {
+        return meterRegistry.get("booking.operations").tags("operation", operation, "outcome", outcome).timer()
+                .count();
+    }
+
+    private Long newSeat() {
+        Seat seat = new Seat();
+        seat.setEventId("metrics-event");
+        seat.setSeatNumber("M1-" + UUID.randomUUID().toString().substring(0, 8));
+        return seatRepository.save(seat).getId();
+    }
+}
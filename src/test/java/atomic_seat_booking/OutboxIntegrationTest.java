@@ -0,0 +1,128 @@
+package atomic_seat_booking;
+
+import atomic_seat_booking.config.UserContext;
+import atomic_seat_booking.entity.OutboxEventType;
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.entity.User;
+import atomic_seat_booking.outbox.SeatEventMessage;
+import atomic_seat_booking.repository.OutboxEventRepository;
+import atomic_seat_booking.repository.SeatRepository;
+import atomic_seat_booking.repository.UserRepository;
+import atomic_seat_booking.service.BookingService;
+import atomic_seat_booking.service.OutboxRelayService;
+import atomic_seat_booking.service.PaymentService;
+import atomic_seat_booking.service.SeatHoldService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class OutboxIntegrationTest {
+
+    @TestConfiguration
+    static class CapturingListenerConfig {
+        @Bean
+        CapturingListener capturingListener() {
+            return new CapturingListener();
+        }
+    }
+
+    static class CapturingListener {
+        final List<SeatEventMessage> received = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void onSeatEvent(SeatEventMessage message) {
+            received.add(message);
+        }
+    }
+
+    @Autowired
+    private CapturingListener listener;
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelayService outboxRelayService;
+
+    @MockitoSpyBean
+    private PaymentService paymentService;
+
+    private Long testSeatId;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(new User("user-1", "Alice", "alice@test.com"));
+        doNothing().when(paymentService).processPayment(anyString(), anyLong(), anyString());
+
+        Seat seat = new Seat();
+        seat.setEventId("event-1");
+        seat.setSeatNumber("E1-" + UUID.randomUUID().toString().substring(0, 8));
+        testSeatId = seatRepository.save(seat).getId();
+        listener.received.clear();
+    }
+
+    @Test
+    void testHoldAndBookingEventsAreRelayedInOrder() {
+        UserContext.setUserId("user-1");
+        seatHoldService.holdSeat(testSeatId);
+        bookingService.confirmSeat(testSeatId, UUID.randomUUID().toString());
+        UserContext.clear();
+
+        // Only one event per seat is eligible per batch; a single relay() call drains both in order
+        outboxRelayService.relay();
+        assertThat(seatEventTypes()).containsExactly(OutboxEventType.SEAT_HELD, OutboxEventType.SEAT_BOOKED);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void testRolledBackBookingPublishesNothing() {
+        UserContext.setUserId("user-1");
+        seatHoldService.holdSeat(testSeatId);
+        doThrow(new RuntimeException("SIMULATED_CRASH"))
+                .when(paymentService).processPayment(anyString(), anyLong(), anyString());
+        assertThrows(RuntimeException.class,
+                () -> bookingService.confirmSeat(testSeatId, UUID.randomUUID().toString()));
+        UserContext.clear();
+
+        outboxRelayService.relay();
+        assertThat(seatEventTypes()).containsExactly(OutboxEventType.SEAT_HELD);
+    }
+
+    private List<OutboxEventType> seatEventTypes() {
+        return listener.received.stream()
+                .filter(m -> m.seatId().equals(testSeatId))
+                .map(SeatEventMessage::type)
+                .toList();
+    }
+}
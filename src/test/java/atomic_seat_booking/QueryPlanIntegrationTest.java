@@ -0,0 +1,120 @@
+package atomic_seat_booking;
+
+import atomic_seat_booking.dto.SeedEventRequest;
+import atomic_seat_booking.entity.SeatStatus;
+import atomic_seat_booking.repository.BookingRepository;
+import atomic_seat_booking.repository.SeatRepository;
+import atomic_seat_booking.service.SeatSeedingService;
+import atomic_seat_booking.sharding.ShardMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fails when a hot query stops being served by the index the migrations create for it,
+ * e.g. after a migration drops or changes an index or a query's shape drifts.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class QueryPlanIntegrationTest {
+
+    private static final String EVENT_ID = "plan-event";
+
+    // Other (empty) partitions may legitimately be seq-scanned; only the seeded one matters
+    private static final String EVENT_SEQ_SCAN = "Seq Scan on seats_ev_plan_event";
+
+    // Seat ids step by the slot count, so the n-th seeded seat is firstSeatId + n * ID_STEP
+    private static final long ID_STEP = ShardMap.SLOTS;
+
+    @Autowired
+    private SeatSeedingService seatSeedingService;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long firstSeatId;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        seatRepository.deleteAll();
+
+        SeedEventRequest.Section section = new SeedEventRequest.Section();
+        section.setName("Q");
+        section.setRows(100);
+        section.setSeatsPerRow(50);
+        SeedEventRequest request = new SeedEventRequest();
+        request.setEventId(EVENT_ID);
+        request.setSections(List.of(section));
+        seatSeedingService.seedEvent(request);
+
+        // A realistic mix: a few holds, a few hundred bookings, the rest available
+        firstSeatId = jdbcTemplate.queryForObject("SELECT min(id) FROM seats WHERE event_id = ?", Long.class,
+                EVENT_ID);
+        jdbcTemplate.update("UPDATE seats SET status = ?, held_by_user_id = 'user-1', "
+                + "hold_expires_at = now() + interval '10 minutes' WHERE event_id = ? AND id < ?",
+                SeatStatus.HELD.getCode(), EVENT_ID, firstSeatId + 20 * ID_STEP);
+        jdbcTemplate.update("UPDATE seats SET status = ? WHERE event_id = ? AND id >= ? AND id < ?",
+                SeatStatus.BOOKED.getCode(), EVENT_ID, firstSeatId + 20 * ID_STEP, firstSeatId + 320 * ID_STEP);
+        jdbcTemplate.update("INSERT INTO bookings (event_id, seat_id, user_id, booked_at) "
+                + "SELECT event_id, id, 'user-1', now() FROM seats WHERE event_id = ? AND status = ?",
+                EVENT_ID, SeatStatus.BOOKED.getCode());
+        jdbcTemplate.execute("VACUUM ANALYZE seats");
+        jdbcTemplate.execute("VACUUM ANALYZE bookings");
+    }
+
+    @Test
+    void testSeatsOfEventByStatusUseEventStatusIndex() {
+        assertThat(plan("SELECT * FROM seats WHERE event_id = ? AND status = ?", EVENT_ID,
+                SeatStatus.BOOKED.getCode()))
+                .contains("event_id_status_idx")
+                .doesNotContain(EVENT_SEQ_SCAN);
+    }
+
+    @Test
+    void testExpiredHoldSweepUsesPartialIndex() {
+        assertThat(plan("SELECT id FROM seats WHERE status = ? AND hold_expires_at < now()",
+                SeatStatus.HELD.getCode()))
+                .contains("hold_expires_at_idx")
+                .doesNotContain(EVENT_SEQ_SCAN);
+    }
+
+    @Test
+    void testSeatNumberLookupUsesIndex() {
+        assertThat(plan("SELECT * FROM seats WHERE seat_number = ?", "Q50-25"))
+                .contains("seat_number_idx")
+                .doesNotContain(EVENT_SEQ_SCAN);
+    }
+
+    @Test
+    void testBookingBySeatIsIndexOnly() {
+        assertThat(plan("SELECT id, event_id, seat_id, user_id, booked_at FROM bookings WHERE seat_id = ?",
+                firstSeatId + 100 * ID_STEP))
+                .containsPattern("Index Only Scan using bookings_ev_plan_event_\\w+_seat_id_id_event_id_\\w*idx");
+    }
+
+    @Test
+    void testLockedSeatLookupPrunesToEventPartition() {
+        assertThat(plan("SELECT * FROM seats WHERE id = ? AND event_id = ? FOR UPDATE", firstSeatId, EVENT_ID))
+                .contains("seats_ev_plan_event_")
+                .doesNotContain("seats_default")
+                .doesNotContain(EVENT_SEQ_SCAN);
+    }
+
+    private String plan(String sql, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+    }
+}
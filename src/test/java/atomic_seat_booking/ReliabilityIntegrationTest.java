@@ -1,17 +1,30 @@
 package atomic_seat_booking;
 
 import atomic_seat_booking.config.UserContext;
+import atomic_seat_booking.config.WorkloadClass;
+import atomic_seat_booking.config.WorkloadContext;
+import atomic_seat_booking.config.WorkloadPools;
+import atomic_seat_booking.dto.PoolStatsResponse;
+import atomic_seat_booking.dto.BookingRequestResponse;
+import atomic_seat_booking.dto.BookingRequestStatus;
 import atomic_seat_booking.entity.Booking;
+import atomic_seat_booking.entity.IdempotencyKey;
 import atomic_seat_booking.entity.Seat;
 import atomic_seat_booking.entity.SeatStatus;
 import atomic_seat_booking.entity.User;
+import atomic_seat_booking.exception.IdempotencyConflictException;
 import atomic_seat_booking.exception.SeatHoldExpiredException;
 import atomic_seat_booking.exception.UnauthorizedSeatAccessException;
+import atomic_seat_booking.exception.WorkloadSaturatedException;
 import atomic_seat_booking.repository.BookingRepository;
 import atomic_seat_booking.repository.IdempotencyKeyRepository;
 import atomic_seat_booking.repository.SeatRepository;
 import atomic_seat_booking.repository.UserRepository;
+import atomic_seat_booking.service.BookingRequestService;
 import atomic_seat_booking.service.BookingService;
+import atomic_seat_booking.service.IdempotencyPayloadCodec;
+import atomic_seat_booking.service.IdempotencyRetentionService;
+import atomic_seat_booking.service.IdempotencyService;
 import atomic_seat_booking.service.PaymentService;
 import atomic_seat_booking.service.SeatHoldService;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,7 +36,12 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -32,8 +50,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -57,6 +78,18 @@ public class ReliabilityIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private BookingRequestService bookingRequestService;
+
+    @Autowired
+    private IdempotencyRetentionService retentionService;
+
+    @Autowired
+    private WorkloadPools workloadPools;
+
     @MockitoSpyBean
     private PaymentService paymentService;
 
@@ -159,6 +192,48 @@ public class ReliabilityIntegrationTest {
         UserContext.clear();
     }
 
+    @Test
+    void testIdempotencyReplayServedFromCacheWithoutTable() {
+        String userId = "user-1";
+        UserContext.setUserId(userId);
+        seatHoldService.holdSeat(testSeatId);
+
+        String key = UUID.randomUUID().toString();
+        Booking firstBooking = bookingService.confirmSeat(testSeatId, key);
+
+        // Drop the durable record; the replay must now come from the cache tier
+        idempotencyKeyRepository.deleteAll();
+
+        Booking replay = idempotencyService.findCachedReplay(userId, key, testSeatId).orElseThrow();
+        assertThat(replay.getId()).isEqualTo(firstBooking.getId());
+        assertThat(replay.getBookedAt()).isEqualTo(firstBooking.getBookedAt());
+        assertThrows(IdempotencyConflictException.class,
+                () -> idempotencyService.findCachedReplay(userId, key, testSeatId + 1));
+        UserContext.clear();
+    }
+
+    @Test
+    void testExpiredIdempotencyKeyIsIgnored() {
+        String userId = "user-1";
+        String key = UUID.randomUUID().toString();
+
+        // A stale record for another seat, created before the retention cutoff
+        Booking stale = new Booking(999L, "event-1", testSeatId + 1000, userId, Instant.now());
+        Instant beforeCutoff = LocalDate.ofInstant(retentionService.retentionCutoff(), ZoneOffset.UTC)
+                .atStartOfDay(ZoneOffset.UTC).toInstant();
+        idempotencyKeyRepository.save(
+                new IdempotencyKey(userId, key, IdempotencyPayloadCodec.encode(stale), beforeCutoff));
+
+        UserContext.setUserId(userId);
+        seatHoldService.holdSeat(testSeatId);
+
+        // Would be an IdempotencyConflictException if the expired record were still honoured
+        Booking booking = bookingService.confirmSeat(testSeatId, key);
+        assertThat(booking.getSeatId()).isEqualTo(testSeatId);
+        assertThat(idempotencyKeyRepository.count()).isEqualTo(2);
+        UserContext.clear();
+    }
+
     @Test
     void testConcurrentConfirmsWithDifferentKeys() throws InterruptedException {
         int threadCount = 5;
@@ -198,6 +273,222 @@ public class ReliabilityIntegrationTest {
         UserContext.clear();
     }
 
+    @Test
+    void testConcurrentDuplicateKeysCoalesceIntoOnePayment() throws InterruptedException {
+        int threadCount = 5;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(1);
+        Set<Long> bookingIds = ConcurrentHashMap.newKeySet();
+        AtomicInteger failureCount = new AtomicInteger(0);
+
+        String userId = "user-1";
+        UserContext.setUserId(userId);
+        seatHoldService.holdSeat(testSeatId);
+
+        // Slow payment so every duplicate arrives while the first request is in flight
+        doAnswer(invocation -> {
+            Thread.sleep(500);
+            return null;
+        }).when(paymentService).processPayment(anyString(), anyLong(), anyString());
+
+        String key = UUID.randomUUID().toString();
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                UserContext.setUserId(userId);
+                try {
+                    latch.await();
+                    Booking booking = idempotencyService.executeOnce(userId, key, testSeatId,
+                            () -> bookingService.confirmSeat(testSeatId, key));
+                    bookingIds.add(booking.getId());
+                } catch (Exception e) {
+                    failureCount.incrementAndGet();
+                } finally {
+                    UserContext.clear();
+                }
+            });
+        }
+
+        latch.countDown();
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(failureCount.get()).isZero();
+        assertThat(bookingIds).hasSize(1);
+        verify(paymentService, times(1)).processPayment(anyString(), anyLong(), eq(key));
+        assertThat(bookingRepository.count()).isEqualTo(1);
+        UserContext.clear();
+    }
+
+    @Test
+    void testConcurrentDuplicateKeysWithoutCoalescingBookAndChargeOnce() throws InterruptedException {
+        // Calls the service directly, as two nodes without Redis would, so neither the local
+        // in-flight map nor the Redis lease dedups them; only the database can
+        int threadCount = 2;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(1);
+        Set<Long> bookingIds = ConcurrentHashMap.newKeySet();
+        AtomicInteger failureCount = new AtomicInteger(0);
+
+        String userId = "user-1";
+        UserContext.setUserId(userId);
+        seatHoldService.holdSeat(testSeatId);
+
+        doAnswer(invocation -> {
+            Thread.sleep(500);
+            return null;
+        }).when(paymentService).processPayment(anyString(), anyLong(), anyString());
+
+        String key = UUID.randomUUID().toString();
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                UserContext.setUserId(userId);
+                try {
+                    latch.await();
+                    bookingIds.add(bookingService.confirmSeat(testSeatId, key).getId());
+                } catch (Exception e) {
+                    failureCount.incrementAndGet();
+                } finally {
+                    UserContext.clear();
+                }
+            });
+        }
+
+        latch.countDown();
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+        // The second waits for the first to commit and replays its booking
+        assertThat(failureCount.get()).isZero();
+        assertThat(bookingIds).hasSize(1);
+        verify(paymentService, times(1)).processPayment(anyString(), anyLong(), eq(key));
+        assertThat(bookingRepository.count()).isEqualTo(1);
+        assertThat(idempotencyKeyRepository.count()).isEqualTo(1);
+        UserContext.clear();
+    }
+
+    @Test
+    void testCheckoutBooksCartWithSinglePayment() {
+        String userId = "user-1";
+        UserContext.setUserId(userId);
+
+        List<Long> seatIds = new ArrayList<>();
+        seatIds.add(testSeatId);
+        for (int i = 0; i < 2; i++) {
+            Seat seat = new Seat();
+            seat.setEventId("event-1");
+            seat.setSeatNumber("C" + i + "-" + UUID.randomUUID().toString().substring(0, 8));
+            seatIds.add(seatRepository.save(seat).getId());
+        }
+        seatIds.forEach(seatHoldService::holdSeat);
+
+        String key = UUID.randomUUID().toString();
+        List<Booking> bookings = bookingService.checkout(seatIds, key);
+        assertThat(bookings).extracting(Booking::getSeatId).containsExactlyInAnyOrderElementsOf(seatIds);
+        verify(paymentService, times(1)).processPayment(userId, 300L, key);
+
+        // Replay with the same cart returns the same bookings without charging again
+        List<Booking> replay = bookingService.checkout(seatIds, key);
+        assertThat(replay).extracting(Booking::getId)
+                .containsExactlyInAnyOrderElementsOf(bookings.stream().map(Booking::getId).toList());
+        verify(paymentService, times(1)).processPayment(anyString(), anyLong(), anyString());
+        assertThat(seatRepository.findAllById(seatIds)).allMatch(seat -> seat.getStatus() == SeatStatus.BOOKED);
+        UserContext.clear();
+    }
+
+    @Test
+    void testConfirmRunsOnConfirmPoolBehindItsBulkhead() {
+        UserContext.setUserId("user-1");
+        seatHoldService.holdSeat(testSeatId);
+
+        // While payment blocks, the confirm's connection is checked out of the confirm pool only
+        List<WorkloadClass> workloads = new ArrayList<>();
+        List<PoolStatsResponse> statsDuringPayment = new ArrayList<>();
+        doAnswer(invocation -> {
+            workloads.add(WorkloadContext.getWorkload());
+            statsDuringPayment.addAll(workloadPools.stats());
+            return null;
+        }).when(paymentService).processPayment(anyString(), anyLong(), anyString());
+        bookingService.confirmSeat(testSeatId, UUID.randomUUID().toString());
+
+        assertThat(workloads).containsExactly(WorkloadClass.CONFIRM);
+        assertThat(statsDuringPayment).filteredOn(stats -> stats.getWorkload() == WorkloadClass.CONFIRM)
+                .singleElement().satisfies(stats -> {
+                    assertThat(stats.getActiveConnections()).isEqualTo(1);
+                    assertThat(stats.getInFlightCalls()).isEqualTo(1);
+                });
+        assertThat(WorkloadContext.getWorkload()).isNull();
+
+        // Once the confirm bulkhead is full, further confirms are rejected without touching the pool
+        PoolStatsResponse confirmStats = workloadPools.stats().stream()
+                .filter(stats -> stats.getWorkload() == WorkloadClass.CONFIRM).findFirst().orElseThrow();
+        int capacity = confirmStats.getMaxInFlightCalls();
+        String shard = null;
+        for (int i = 0; i < capacity; i++) {
+            shard = workloadPools.acquire(WorkloadClass.CONFIRM);
+        }
+        try {
+            assertThrows(WorkloadSaturatedException.class,
+                    () -> bookingService.confirmSeat(testSeatId, UUID.randomUUID().toString()));
+            assertThat(seatRepository.findById(testSeatId)).isPresent(); // Reads are unaffected
+        } finally {
+            for (int i = 0; i < capacity; i++) {
+                workloadPools.release(shard, WorkloadClass.CONFIRM);
+            }
+            UserContext.clear();
+        }
+    }
+
+    @Test
+    void testCheckoutRollsBackWholeCartOnInvalidHold() {
+        UserContext.setUserId("user-1");
+        seatHoldService.holdSeat(testSeatId);
+
+        // Second seat is never held by user-1
+        Seat unheld = new Seat();
+        unheld.setEventId("event-1");
+        unheld.setSeatNumber("D1-" + UUID.randomUUID().toString().substring(0, 8));
+        unheld = seatRepository.save(unheld);
+
+        List<Long> seatIds = List.of(testSeatId, unheld.getId());
+        assertThrows(IllegalStateException.class,
+                () -> bookingService.checkout(seatIds, UUID.randomUUID().toString()));
+
+        verify(paymentService, times(0)).processPayment(anyString(), anyLong(), anyString());
+        assertThat(seatRepository.findById(testSeatId).orElseThrow().getStatus()).isEqualTo(SeatStatus.HELD);
+        assertThat(bookingRepository.count()).isEqualTo(0);
+        UserContext.clear();
+    }
+
+    @Test
+    void testAsyncConfirmCompletesInBackground() throws InterruptedException {
+        UserContext.setUserId("user-1");
+        seatHoldService.holdSeat(testSeatId);
+
+        String key = UUID.randomUUID().toString();
+        BookingRequestResponse accepted = bookingRequestService.submit(testSeatId, key);
+        assertThat(accepted.getStatus()).isIn(BookingRequestStatus.PENDING, BookingRequestStatus.CONFIRMED);
+
+        BookingRequestResponse status = accepted;
+        long deadline = System.currentTimeMillis() + 5000;
+        while (status.getStatus() == BookingRequestStatus.PENDING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            status = bookingRequestService.status(key).orElseThrow();
+        }
+
+        assertThat(status.getStatus()).isEqualTo(BookingRequestStatus.CONFIRMED);
+        assertThat(bookingRepository.findBySeatId(testSeatId).orElseThrow().getId()).isEqualTo(status.getBookingId());
+        UserContext.clear();
+    }
+
+    @Test
+    void testAsyncConfirmRejectsInvalidHoldUpFront() {
+        UserContext.setUserId("user-2");
+        assertThrows(IllegalStateException.class,
+                () -> bookingRequestService.submit(testSeatId, UUID.randomUUID().toString()));
+        assertThat(bookingRepository.count()).isEqualTo(0);
+        UserContext.clear();
+    }
+
     @Test
     void testUserBCannotConfirmUserASeat() {
         // User A holds the seat
@@ -0,0 +1,112 @@
+package atomic_seat_booking;
+
+import atomic_seat_booking.entity.Booking;
+import atomic_seat_booking.service.IdempotencyPayloadCodec;
+import atomic_seat_booking.service.IdempotencyRetentionService;
+import atomic_seat_booking.service.SeatPartitionService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migrates a dump of the schema Hibernate created before Flyway, baselined at V1 as production
+ * databases are, and checks the data comes through the conversion intact.
+ */
+public class SchemaMigrationIntegrationTest {
+
+    private final String schema = "pre_flyway_" + UUID.randomUUID().toString().substring(0, 8);
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Properties properties = new Properties();
+        try (InputStream in = new ClassPathResource("application-test.properties").getInputStream()) {
+            properties.load(in);
+        }
+        String url = properties.getProperty("spring.datasource.url");
+        dataSource = new DriverManagerDataSource(url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema,
+                properties.getProperty("spring.datasource.username"),
+                properties.getProperty("spring.datasource.password"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE SCHEMA " + schema);
+        new ResourceDatabasePopulator(new ClassPathResource("db/pre_flyway_dump.sql")).execute(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+    }
+
+    @Test
+    void testPreFlywayDatabaseIsConvertedOnBaseline() {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(schema)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        assertThat(jdbcTemplate.queryForList("SELECT version FROM flyway_schema_history WHERE success "
+                + "ORDER BY installed_rank", String.class)).containsExactly("1", "2", "3", "4", "5", "6", "7", "8", "9");
+
+        // Seats are partitioned per event, status is the compact code and ids continue after the legacy ones
+        assertThat(partitionsOf("seats")).contains("seats_default",
+                SeatPartitionService.partitionName("seats", "concert-1"),
+                SeatPartitionService.partitionName("seats", "o'brien night"));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM "
+                + SeatPartitionService.partitionName("seats", "concert-1"), Integer.class)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList("SELECT status FROM seats ORDER BY id", Integer.class))
+                .containsExactly(2, 1, 0, 2);
+        assertThat(jdbcTemplate.queryForObject("INSERT INTO seats (event_id, seat_number, status) "
+                + "VALUES ('concert-1', 'A4', 0) RETURNING id", Long.class)).isGreaterThan(4L);
+
+        // Bookings take their seat's event; the one whose seat is gone is kept aside
+        assertThat(jdbcTemplate.queryForList("SELECT event_id FROM bookings ORDER BY id", String.class))
+                .containsExactly("concert-1", "o'brien night");
+        assertThat(partitionsOf("bookings")).contains(SeatPartitionService.partitionName("bookings", "concert-1"));
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM bookings_unplaced", Long.class)).containsExactly(3L);
+
+        // Keys land in their UTC day's partition with binary payloads; unreadable ones are dropped
+        assertThat(partitionsOf("idempotency_keys")).containsExactlyInAnyOrder(
+                IdempotencyRetentionService.partitionName(LocalDate.parse("2026-01-02")),
+                IdempotencyRetentionService.partitionName(LocalDate.parse("2026-01-03")));
+        assertThat(jdbcTemplate.queryForList("SELECT key FROM idempotency_keys ORDER BY id", String.class))
+                .containsExactly("key-1", "key-2");
+        Booking first = IdempotencyPayloadCodec.decode(jdbcTemplate.queryForObject(
+                "SELECT response_payload FROM idempotency_keys WHERE key = 'key-1'", byte[].class));
+        assertThat(first.getId()).isEqualTo(1L);
+        assertThat(first.getSeatId()).isEqualTo(1L);
+        assertThat(first.getUserId()).isEqualTo("user-1");
+        assertThat(first.getBookedAt()).isEqualTo(Instant.parse("2026-01-02T10:00:00.123456Z"));
+        Booking second = IdempotencyPayloadCodec.decode(jdbcTemplate.queryForObject(
+                "SELECT response_payload FROM idempotency_keys WHERE key = 'key-2'", byte[].class));
+        assertThat(second.getBookedAt()).isEqualTo(Instant.parse("2026-01-02T11:00:00Z"));
+
+        assertThat(partitionsOf("seat_events"))
+                .contains(SeatPartitionService.partitionName("seat_events", "concert-1"));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM outbox_events", Integer.class)).isZero();
+    }
+
+    private List<String> partitionsOf(String table) {
+        return jdbcTemplate.queryForList("SELECT c.relname::text FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?)", String.class, table);
+    }
+}
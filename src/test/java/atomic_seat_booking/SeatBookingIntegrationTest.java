@@ -1,20 +1,55 @@
 package atomic_seat_booking;
 
 import atomic_seat_booking.config.UserContext;
+import atomic_seat_booking.contention.ContentionKind;
+import atomic_seat_booking.contention.SeatContentionTracker;
+import atomic_seat_booking.dto.ExportFormat;
+import atomic_seat_booking.dto.HotSeatsResponse;
+import atomic_seat_booking.dto.LedgerSnapshotResponse;
+import atomic_seat_booking.dto.SeatHistoryResponse;
+import atomic_seat_booking.dto.SeatMapResponse;
+import atomic_seat_booking.dto.SeedEventRequest;
+import atomic_seat_booking.dto.TraceResponse;
+import atomic_seat_booking.dto.WaitlistResponse;
+import atomic_seat_booking.dto.WaitlistScope;
+import atomic_seat_booking.dto.WarmupState;
+import atomic_seat_booking.dto.WarmupStatusResponse;
+import atomic_seat_booking.entity.Booking;
 import atomic_seat_booking.entity.Seat;
 import atomic_seat_booking.entity.SeatStatus;
 import atomic_seat_booking.entity.User;
+import atomic_seat_booking.exception.SeatAlreadyHeldException;
 import atomic_seat_booking.exception.SeatHoldExpiredException;
+import atomic_seat_booking.ledger.LedgerEntry;
+import atomic_seat_booking.ledger.LedgerEntryType;
+import atomic_seat_booking.ledger.SeatLedgerService;
 import atomic_seat_booking.repository.SeatRepository;
 import atomic_seat_booking.repository.UserRepository;
+import atomic_seat_booking.seatmap.SeatMapService;
+import atomic_seat_booking.service.BookingExportService;
 import atomic_seat_booking.service.BookingService;
+import atomic_seat_booking.service.HoldExpiryService;
+import atomic_seat_booking.service.PreSaleWarmupService;
 import atomic_seat_booking.service.SeatHoldService;
+import atomic_seat_booking.service.SeatPartitionService;
+import atomic_seat_booking.service.SeatSeedingService;
+import atomic_seat_booking.service.WaitlistService;
+import atomic_seat_booking.tracing.CorrelationIds;
+import atomic_seat_booking.tracing.FlightRecorder;
+import atomic_seat_booking.tracing.RequestTrace;
+import atomic_seat_booking.tracing.SpanKind;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -22,6 +57,7 @@ import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -42,6 +78,42 @@ public class SeatBookingIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private SeatSeedingService seatSeedingService;
+
+    @Autowired
+    private SeatPartitionService seatPartitionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private HoldExpiryService holdExpiryService;
+
+    @Autowired
+    private PreSaleWarmupService preSaleWarmupService;
+
+    @Autowired
+    private SeatContentionTracker contentionTracker;
+
+    @Autowired
+    private FlightRecorder flightRecorder;
+
+    @Autowired
+    private SeatLedgerService seatLedgerService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SeatMapService seatMapService;
+
     private Long testSeatId;
 
     @BeforeEach
@@ -127,4 +199,424 @@ public class SeatBookingIntegrationTest {
         assertThat(afterFailedBooking.getStatus()).isEqualTo(SeatStatus.HELD); // Remains HELD (until released)
         UserContext.clear();
     }
+
+    @Test
+    void testReleasedSeatIsOfferedToNextWaitlistedUser() {
+        UserContext.setUserId("user-1");
+        seatHoldService.holdSeat(testSeatId);
+        UserContext.clear();
+
+        WaitlistResponse second = waitlistService.join(WaitlistScope.SEAT, String.valueOf(testSeatId), "user-2");
+        waitlistService.join(WaitlistScope.SEAT, String.valueOf(testSeatId), "user-2"); // Keeps its place
+        WaitlistResponse third = waitlistService.join(WaitlistScope.EVENT, "event-1", "user-3");
+        assertThat(second.getPosition()).isEqualTo(1);
+        assertThat(third.getPosition()).isEqualTo(1);
+
+        // The sweeper releases the expired hold and hands the seat straight to the seat's waitlist
+        jdbcTemplate.update("UPDATE seats SET hold_expires_at = now() - interval '1 minute' WHERE id = ?",
+                testSeatId);
+        assertThat(holdExpiryService.releaseExpiredHolds()).isPositive();
+
+        Seat offered = seatRepository.findById(testSeatId).orElseThrow();
+        assertThat(offered.getStatus()).isEqualTo(SeatStatus.HELD);
+        assertThat(offered.getHeldByUserId()).isEqualTo("user-2");
+        assertThat(offered.getHoldExpiresAt()).isBefore(Instant.now().plus(5, ChronoUnit.MINUTES));
+        assertThat(jdbcTemplate.queryForObject("SELECT user_id FROM outbox_events WHERE seat_id = ? "
+                + "AND type = 'SEAT_OFFERED' ORDER BY id DESC LIMIT 1", String.class, testSeatId))
+                .isEqualTo("user-2");
+
+        // Once that offer lapses, a /hold by anyone else finds the event's waitlist ahead of them
+        jdbcTemplate.update("UPDATE seats SET hold_expires_at = now() - interval '1 minute' WHERE id = ?",
+                testSeatId);
+        UserContext.setUserId("user-1");
+        try {
+            assertThrows(SeatAlreadyHeldException.class, () -> seatHoldService.holdSeat(testSeatId));
+        } finally {
+            UserContext.clear();
+        }
+        assertThat(seatRepository.findById(testSeatId).orElseThrow().getHeldByUserId()).isEqualTo("user-3");
+    }
+
+    @Test
+    void testWaitlistKeepsPassedOverUsersInPlace() {
+        String eventId = "waitlist-" + UUID.randomUUID().toString().substring(0, 8);
+        Long first = newSeat(eventId);
+        Long second = newSeat(eventId);
+        assertThrows(IllegalArgumentException.class,
+                () -> waitlistService.join(WaitlistScope.SEAT, String.valueOf(second + 1_000_000), "user-6"));
+        assertThrows(IllegalArgumentException.class,
+                () -> waitlistService.join(WaitlistScope.EVENT, "missing-" + eventId, "user-6"));
+
+        UserContext.setUserId("user-1");
+        seatHoldService.holdSeat(first);
+        UserContext.setUserId("user-4");
+        seatHoldService.holdSeat(second);
+        UserContext.clear();
+        waitlistService.join(WaitlistScope.EVENT, eventId, "user-1");
+        waitlistService.join(WaitlistScope.EVENT, eventId, "user-5");
+        waitlistService.join(WaitlistScope.EVENT, eventId, "user-7");
+        waitlistService.join(WaitlistScope.SEAT, String.valueOf(second), "user-5");
+        waitlistService.join(WaitlistScope.SEAT, String.valueOf(second), "user-6");
+
+        // The lapsed holder is not offered their own seat back, but stays first in the event's queue
+        jdbcTemplate.update("UPDATE seats SET hold_expires_at = now() - interval '1 minute' WHERE id = ?", first);
+        holdExpiryService.releaseExpiredHolds();
+        assertThat(seatRepository.findById(first).orElseThrow().getHeldByUserId()).isEqualTo("user-5");
+        assertThat(waitlistService.join(WaitlistScope.EVENT, eventId, "user-1").getPosition()).isEqualTo(1);
+
+        // user-5's offer is outstanding, so the next seat goes to user-6 while user-5 keeps their place
+        jdbcTemplate.update("UPDATE seats SET hold_expires_at = now() - interval '1 minute' WHERE id = ?", second);
+        holdExpiryService.releaseExpiredHolds();
+        assertThat(seatRepository.findById(second).orElseThrow().getHeldByUserId()).isEqualTo("user-6");
+        assertThat(waitlistService.join(WaitlistScope.SEAT, String.valueOf(second), "user-5").getPosition())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void testLostHoldsAreReportedAsHotSeats() {
+        UserContext.setUserId("user-1");
+        try {
+            seatHoldService.holdSeat(testSeatId);
+            UserContext.setUserId("user-2");
+            for (int i = 0; i < 3; i++) {
+                SeatAlreadyHeldException lost = assertThrows(SeatAlreadyHeldException.class,
+                        () -> seatHoldService.holdSeat(testSeatId));
+                // An expected outcome: no stack trace is captured for it
+                assertThat(lost.getStackTrace()).isEmpty();
+            }
+        } finally {
+            UserContext.clear();
+        }
+
+        HotSeatsResponse hotSeats = contentionTracker.hotSeats("event-1", 10);
+        assertThat(hotSeats.getTotalConflicts()).isGreaterThanOrEqualTo(3);
+        assertThat(hotSeats.getSeats()).filteredOn(seat -> seat.getSeatId().equals(testSeatId))
+                .singleElement()
+                .satisfies(seat -> {
+                    assertThat(seat.getConflicts()).isGreaterThanOrEqualTo(3);
+                    assertThat(seat.getByKind()).containsEntry(ContentionKind.HELD, 3L);
+                });
+    }
+
+    @Test
+    void testTracedHoldRecordsItsSpans() {
+        String correlationId = CorrelationIds.next();
+        RequestTrace trace = flightRecorder.start(correlationId, "POST /api/seats/" + testSeatId + "/hold");
+        UserContext.setUserId("user-1");
+        try {
+            seatHoldService.holdSeat(testSeatId);
+        } finally {
+            UserContext.clear();
+            flightRecorder.finish(trace, 200);
+        }
+
+        assertThat(flightRecorder.recent(0, 1000)).filteredOn(t -> t.getCorrelationId().equals(correlationId))
+                .singleElement()
+                .satisfies(t -> {
+                    assertThat(t.getStatus()).isEqualTo(200);
+                    assertThat(t.getSpans()).extracting(TraceResponse.Span::getKind)
+                            .contains(SpanKind.RATE_LIMIT, SpanKind.LOCK_WAIT, SpanKind.COMMIT);
+                    assertThat(t.getTotalMillis()).isGreaterThanOrEqualTo(
+                            t.getSpans().stream().mapToDouble(TraceResponse.Span::getMillis).max().orElseThrow());
+                });
+    }
+
+    @Test
+    void testTracesOfDeadThreadsAreDropped() throws InterruptedException {
+        String correlationId = CorrelationIds.next();
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch exit = new CountDownLatch(1);
+        Thread worker = new Thread(() -> {
+            flightRecorder.finish(flightRecorder.start(correlationId, "short-lived"), 0);
+            recorded.countDown();
+            try {
+                exit.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        worker.start();
+        recorded.await();
+        assertThat(flightRecorder.recent(0, 1000)).extracting(TraceResponse::getCorrelationId)
+                .contains(correlationId);
+
+        exit.countDown();
+        worker.join();
+        assertThat(flightRecorder.recent(0, 1000)).extracting(TraceResponse::getCorrelationId)
+                .doesNotContain(correlationId);
+    }
+
+    @Test
+    void testSeatLedgerSupportsTimeTravelAndReplaysFromSnapshots() {
+        String eventId = "ledger-" + UUID.randomUUID().toString().substring(0, 8);
+        Long booked = newSeat(eventId);
+        Long held = newSeat(eventId);
+        Long rolledBack = newSeat(eventId);
+        Instant beforeAnything = Instant.now();
+
+        UserContext.setUserId("user-1");
+        try {
+            seatHoldService.holdSeat(booked);
+            Instant whileHeld = Instant.now();
+            // The sweep releases the lapsed hold; the seat is held again and then confirmed
+            jdbcTemplate.update("UPDATE seats SET hold_expires_at = now() - interval '1 minute' WHERE id = ?",
+                    booked);
+            assertThat(holdExpiryService.releaseExpiredHolds()).isPositive();
+            seatHoldService.holdSeat(booked);
+            Booking booking = bookingService.confirmSeat(booked, UUID.randomUUID().toString());
+            seatHoldService.holdSeat(held);
+            // A transition that rolls back leaves nothing in the ledger
+            transactionTemplate.executeWithoutResult(status -> {
+                seatHoldService.holdSeat(rolledBack);
+                status.setRollbackOnly();
+            });
+
+            SeatHistoryResponse history = seatLedgerService.history(booked, null).orElseThrow();
+            assertThat(history.getEntries()).extracting(SeatHistoryResponse.Entry::getType).containsExactly(
+                    LedgerEntryType.HELD, LedgerEntryType.RELEASED, LedgerEntryType.HELD, LedgerEntryType.BOOKED);
+            assertThat(history.getStatus()).isEqualTo(SeatStatus.BOOKED);
+            assertThat(history.getBookingId()).isEqualTo(booking.getId());
+
+            SeatHistoryResponse thenHeld = seatLedgerService.history(booked, whileHeld).orElseThrow();
+            assertThat(thenHeld.getStatus()).isEqualTo(SeatStatus.HELD);
+            assertThat(thenHeld.getUserId()).isEqualTo("user-1");
+            assertThat(seatLedgerService.history(booked, beforeAnything).orElseThrow().getStatus())
+                    .isEqualTo(SeatStatus.AVAILABLE);
+            assertThat(seatLedgerService.history(rolledBack, null).orElseThrow().getEntries()).isEmpty();
+        } finally {
+            UserContext.clear();
+        }
+
+        LedgerSnapshotResponse first = seatLedgerService.snapshot(eventId).orElseThrow();
+        assertThat(first.getSeats()).isEqualTo(2);
+        UserContext.setUserId("user-1");
+        try {
+            seatHoldService.holdSeat(rolledBack);
+        } finally {
+            UserContext.clear();
+        }
+
+        // The projection replays the tail after the snapshot and matches the seat rows
+        List<LedgerEntry> projected = seatLedgerService.project(eventId);
+        assertThat(projected).extracting(LedgerEntry::seatId).containsExactly(booked, held, rolledBack);
+        for (LedgerEntry entry : projected) {
+            assertThat(entry.type().getStatus())
+                    .isEqualTo(seatRepository.findById(entry.seatId()).orElseThrow().getStatus());
+        }
+        LedgerSnapshotResponse second = seatLedgerService.snapshot(eventId).orElseThrow();
+        assertThat(second.getSeats()).isEqualTo(3);
+        assertThat(second.getThroughSequence()).isGreaterThan(first.getThroughSequence());
+        assertThat(seatLedgerService.snapshot(eventId)).isEmpty();
+        assertThat(seatLedgerService.project(eventId)).isEqualTo(projected);
+    }
+
+    @Test
+    void testSeatMapCatchesUpFromTheLedgerAcrossRestarts() {
+        String eventId = "seatmap-" + UUID.randomUUID().toString().substring(0, 8);
+        Long first = newSeat(eventId);
+        Long second = newSeat(eventId);
+        assertThat(seatMapService.seatMap(eventId + "-missing")).isEmpty();
+
+        SeatMapResponse built = seatMapService.seatMap(eventId).orElseThrow();
+        assertThat(built.getSeats()).extracting(SeatMapResponse.Seat::getSeatId).containsExactly(first, second);
+        assertThat(built.getSeats()).extracting(SeatMapResponse.Seat::getStatus).containsOnly(SeatStatus.AVAILABLE);
+
+        UserContext.setUserId("user-1");
+        try {
+            seatHoldService.holdSeat(first);
+            SeatMapResponse held = seatMapService.seatMap(eventId).orElseThrow();
+            assertThat(held.getSeats().get(0).getStatus()).isEqualTo(SeatStatus.HELD);
+            assertThat(held.getSeats().get(0).getHoldExpiresAt()).isNotNull();
+
+            // A restarted node maps its file again and replays only what changed while it was down
+            seatMapService.closeAll();
+            seatHoldService.holdSeat(second);
+            seatMapService.openExisting();
+            SeatMapResponse reopened = seatMapService.seatMap(eventId).orElseThrow();
+            assertThat(reopened.getBuiltAt()).isEqualTo(built.getBuiltAt());
+            assertThat(reopened.getSeats()).extracting(SeatMapResponse.Seat::getStatus)
+                    .containsExactly(SeatStatus.HELD, SeatStatus.HELD);
+
+            // A seat added while the map is live shows up in the ledger first and forces a rebuild
+            Long third = newSeat(eventId);
+            seatHoldService.holdSeat(third);
+            assertThat(seatMapService.seatMap(eventId).orElseThrow().getSeats())
+                    .extracting(SeatMapResponse.Seat::getSeatId).containsExactly(first, second, third);
+
+            // One added while the node is down fails validation, and the map is rebuilt from the rows
+            seatMapService.closeAll();
+            Long fourth = newSeat(eventId);
+            seatMapService.openExisting();
+            SeatMapResponse rebuilt = seatMapService.seatMap(eventId).orElseThrow();
+            assertThat(rebuilt.getSeats()).extracting(SeatMapResponse.Seat::getSeatId)
+                    .containsExactly(first, second, third, fourth);
+            assertThat(rebuilt.getSeats()).extracting(SeatMapResponse.Seat::getStatus).containsExactly(
+                    SeatStatus.HELD, SeatStatus.HELD, SeatStatus.HELD, SeatStatus.AVAILABLE);
+
+            // One added while the map is live but never held has no ledger entry; the seat count check finds it
+            Long fifth = newSeat(eventId);
+            assertThat(seatMapService.seatMap(eventId).orElseThrow().getSeats())
+                    .extracting(SeatMapResponse.Seat::getSeatId).containsExactly(first, second, third, fourth, fifth);
+        } finally {
+            UserContext.clear();
+        }
+    }
+
+    @Test
+    void testNodeIsNotReadyUntilOnSaleWarmupCompletes() {
+        String eventId = "warmup-event";
+        jdbcTemplate.update("DELETE FROM bookings WHERE event_id = ?", eventId);
+        SeedEventRequest.Section section = new SeedEventRequest.Section();
+        section.setName("A");
+        section.setRows(2);
+        section.setSeatsPerRow(5);
+        SeedEventRequest layout = new SeedEventRequest();
+        layout.setEventId(eventId);
+        layout.setSections(List.of(section));
+        seatSeedingService.seedEvent(layout);
+
+        preSaleWarmupService.schedule(eventId, Instant.now().plus(1, ChronoUnit.MINUTES));
+        assertThat(preSaleWarmupService.eventsNotReady()).contains(eventId);
+
+        WarmupStatusResponse status = preSaleWarmupService.warmUp(eventId);
+        assertThat(status.getState()).isEqualTo(WarmupState.READY);
+        assertThat(status.getSeatsPreloaded()).isEqualTo(10);
+        assertThat(preSaleWarmupService.eventsNotReady()).doesNotContain(eventId);
+
+        // Synthetic traffic leaves no scratch event, outbox events, ledger entries or idempotency keys behind
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM seats WHERE event_id LIKE 'warmup-scratch-%'",
+                Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM event_shards "
+                + "WHERE event_id LIKE 'warmup-scratch-%'", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM outbox_events "
+                + "WHERE event_id LIKE 'warmup-scratch-%'", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM seat_events "
+                + "WHERE event_id LIKE 'warmup-scratch-%'", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM idempotency_keys WHERE user_id = ?",
+                Long.class, "warmup-synthetic")).isZero();
+        jdbcTemplate.update("DELETE FROM on_sale_schedules WHERE event_id = ?", eventId);
+    }
+
+    @Test
+    void testSeedEventCreatesLayoutOnce() {
+        SeedEventRequest.Section floor = new SeedEventRequest.Section();
+        floor.setName("F");
+        floor.setRows(40);
+        floor.setSeatsPerRow(50);
+        SeedEventRequest.Section balcony = new SeedEventRequest.Section();
+        balcony.setName("B,\"C\""); // Needs CSV quoting
+        balcony.setRows(2);
+        balcony.setSeatsPerRow(5);
+
+        SeedEventRequest request = new SeedEventRequest();
+        request.setEventId("seed-event");
+        request.setSections(List.of(floor, balcony));
+
+        long created = seatSeedingService.seedEvent(request);
+
+        assertThat(created).isEqualTo(2010);
+        List<Seat> seats = seatRepository.findByEventId("seed-event");
+        assertThat(seats).hasSize(2010);
+        assertThat(seats).allMatch(s -> s.getStatus() == SeatStatus.AVAILABLE);
+        assertThat(seats).extracting(Seat::getSeatNumber).contains("F1-01", "F40-50", "B,\"C\"2-05");
+
+        // A second seed of the same event is rejected rather than duplicated
+        assertThrows(IllegalStateException.class, () -> seatSeedingService.seedEvent(request));
+        assertThat(seatRepository.findByEventId("seed-event")).hasSize(2010);
+
+        // "F1" row 1 would number its seats like "F" row 11, so names ending in a digit are refused
+        SeedEventRequest.Section ambiguous = new SeedEventRequest.Section();
+        ambiguous.setName("F1");
+        ambiguous.setRows(1);
+        ambiguous.setSeatsPerRow(1);
+        request.setEventId("seed-event-ambiguous");
+        request.setSections(List.of(floor, ambiguous));
+        assertThrows(IllegalStateException.class, () -> seatSeedingService.seedEvent(request));
+        assertThat(seatRepository.findByEventId("seed-event-ambiguous")).isEmpty();
+    }
+
+    @Test
+    void testSeededEventGetsOwnPartitionAndCanBeArchived() {
+        String eventId = "part-" + UUID.randomUUID().toString().substring(0, 8);
+        SeedEventRequest.Section section = new SeedEventRequest.Section();
+        section.setName("P");
+        section.setRows(1);
+        section.setSeatsPerRow(3);
+        SeedEventRequest request = new SeedEventRequest();
+        request.setEventId(eventId);
+        request.setSections(List.of(section));
+        seatSeedingService.seedEvent(request);
+
+        // Hold and confirm run against the event's partition only
+        Seat seat = seatRepository.findByEventId(eventId).get(0);
+        UserContext.setUserId("user-1");
+        seatHoldService.holdSeat(seat.getId());
+        // Refused while a seat is held; the check runs under the partition lock taken for the detach
+        assertThrows(IllegalStateException.class, () -> seatPartitionService.archiveEvent(eventId));
+        bookingService.confirmSeat(seat.getId(), UUID.randomUUID().toString());
+        UserContext.clear();
+
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM seats WHERE id = ? AND event_id = ?", String.class, seat.getId(), eventId));
+        assertThat(plan).contains("seats_ev_part_").doesNotContain("seats_default");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM bookings WHERE event_id = ?", Integer.class, eventId)).isEqualTo(1);
+
+        seatPartitionService.archiveEvent(eventId);
+
+        assertThat(seatRepository.findByEventId(eventId)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_tables WHERE schemaname = 'archive' AND tablename LIKE 'seats_ev_part_%'",
+                Integer.class)).isGreaterThanOrEqualTo(1);
+        // The event's ledger goes with it
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM seat_events WHERE event_id = ?",
+                Integer.class, eventId)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_tables WHERE schemaname = 'archive' AND tablename LIKE 'seat_events_ev_part_%'",
+                Integer.class)).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void testBookingExportStreamsNdjsonAndGzippedCsv() throws IOException {
+        String eventId = "export-" + UUID.randomUUID().toString().substring(0, 8);
+        SeedEventRequest.Section section = new SeedEventRequest.Section();
+        section.setName("E");
+        section.setRows(10);
+        section.setSeatsPerRow(30);
+        SeedEventRequest request = new SeedEventRequest();
+        request.setEventId(eventId);
+        request.setSections(List.of(section));
+        seatSeedingService.seedEvent(request);
+
+        jdbcTemplate.update("UPDATE seats SET status = 2 WHERE event_id = ? AND seat_number LIKE 'E1-%'", eventId);
+        jdbcTemplate.update("INSERT INTO bookings (event_id, seat_id, user_id, booked_at) "
+                + "SELECT event_id, id, 'user-1', now() FROM seats WHERE event_id = ? AND status = 2", eventId);
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        long rows = bookingExportService.export(eventId, ExportFormat.NDJSON, false, ndjson);
+        String[] lines = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+
+        assertThat(rows).isEqualTo(30);
+        assertThat(lines).hasSize(30);
+        assertThat(lines[0]).contains("\"seatNumber\":\"E1-").contains("\"seatStatus\":\"BOOKED\"")
+                .contains("\"userId\":\"user-1\"");
+
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        bookingExportService.export(eventId, ExportFormat.CSV, true, gzipped);
+        String csv;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.toByteArray()))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        String[] csvLines = csv.split("\n");
+        assertThat(csvLines).hasSize(31);
+        assertThat(csvLines[0]).isEqualTo("booking_id,seat_id,seat_number,seat_status,user_id,booked_at");
+    }
+
+    private Long newSeat(String eventId) {
+        Seat seat = new Seat();
+        seat.setEventId(eventId);
+        seat.setSeatNumber("L1-" + UUID.randomUUID().toString().substring(0, 8));
+        return seatRepository.save(seat).getId();
+    }
 }
@@ -0,0 +1,292 @@
+package atomic_seat_booking;
+
+import atomic_seat_booking.config.UserContext;
+import atomic_seat_booking.config.WorkloadClass;
+import atomic_seat_booking.config.WorkloadContext;
+import atomic_seat_booking.config.WorkloadPools;
+import atomic_seat_booking.dto.SeedEventRequest;
+import atomic_seat_booking.entity.Booking;
+import atomic_seat_booking.entity.IdempotencyKey;
+import atomic_seat_booking.entity.User;
+import atomic_seat_booking.exception.WorkloadSaturatedException;
+import atomic_seat_booking.outbox.SeatEventMessage;
+import atomic_seat_booking.repository.IdempotencyKeyRepository;
+import atomic_seat_booking.repository.UserRepository;
+import atomic_seat_booking.service.BookingService;
+import atomic_seat_booking.service.IdempotencyPayloadCodec;
+import atomic_seat_booking.service.OutboxRelayService;
+import atomic_seat_booking.service.PaymentService;
+import atomic_seat_booking.service.SeatHoldService;
+import atomic_seat_booking.service.SeatSeedingService;
+import atomic_seat_booking.sharding.ShardContext;
+import atomic_seat_booking.sharding.ShardMap;
+import atomic_seat_booking.sharding.ShardRouter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doNothing;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against two Postgres primaries ("main" and "east", see application-sharded.properties).
+ * Both events' data must stay entirely on their own shard, reads over HTTP must reach both, and
+ * work moved to a shard must hold a permit from that shard's bulkhead.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({ "test", "sharded" })
+public class ShardingIntegrationTest {
+
+    private static final String MAIN_URL = "jdbc:postgresql://localhost:5432/seat_booking";
+    private static final String EAST_URL = System.getenv().getOrDefault("SHARD_EAST_URL",
+            "jdbc:postgresql://localhost:5432/seat_booking_east");
+    private static final String DB_USER = "postgres";
+    private static final String DB_PASS = "4443";
+
+    private static final String MAIN_EVENT = "shard-main-event";
+    private static final String EAST_EVENT = "shard-east-event";
+
+    @TestConfiguration
+    static class CapturingListenerConfig {
+        @Bean
+        CapturingListener capturingListener() {
+            return new CapturingListener();
+        }
+    }
+
+    static class CapturingListener {
+        final List<SeatEventMessage> received = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void onSeatEvent(SeatEventMessage message) {
+            received.add(message);
+        }
+    }
+
+    @Autowired
+    private CapturingListener listener;
+
+    @Autowired
+    private SeatSeedingService seatSeedingService;
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private OutboxRelayService outboxRelayService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private WorkloadPools workloadPools;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoSpyBean
+    private PaymentService paymentService;
+
+    private final JdbcTemplate mainDb = new JdbcTemplate(new DriverManagerDataSource(MAIN_URL, DB_USER, DB_PASS));
+    private final JdbcTemplate eastDb = new JdbcTemplate(new DriverManagerDataSource(EAST_URL, DB_USER, DB_PASS));
+
+    // Flyway creates the schema, but the second database itself must exist before the context starts
+    @BeforeAll
+    static void createEastDatabase() throws SQLException {
+        String database = EAST_URL.substring(EAST_URL.lastIndexOf('/') + 1);
+        String serverUrl = EAST_URL.substring(0, EAST_URL.lastIndexOf('/') + 1) + "postgres";
+        try (Connection connection = DriverManager.getConnection(serverUrl, DB_USER, DB_PASS);
+                ResultSet exists = connection.createStatement()
+                        .executeQuery("SELECT 1 FROM pg_database WHERE datname = '" + database + "'")) {
+            if (!exists.next()) {
+                connection.createStatement().execute("CREATE DATABASE " + database);
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(new User("user-1", "Alice", "alice@test.com"));
+        doNothing().when(paymentService).processPayment(anyString(), anyLong(), anyString());
+        listener.received.clear();
+
+        for (JdbcTemplate db : List.of(mainDb, eastDb)) {
+            db.update("DELETE FROM bookings WHERE event_id IN (?, ?)", MAIN_EVENT, EAST_EVENT);
+            db.update("DELETE FROM seats WHERE event_id IN (?, ?)", MAIN_EVENT, EAST_EVENT);
+        }
+        seatSeedingService.seedEvent(layout(MAIN_EVENT));
+        seatSeedingService.seedEvent(layout(EAST_EVENT));
+    }
+
+    @Test
+    void testEventDataStaysOnItsShard() {
+        assertThat(shardRouter.shardForEvent(MAIN_EVENT)).isEqualTo("main");
+        assertThat(shardRouter.shardForEvent(EAST_EVENT)).isEqualTo("east");
+        assertThat(mainDb.queryForObject("SELECT count(*) FROM seats WHERE event_id = ?", Long.class, EAST_EVENT))
+                .isZero();
+        assertThat(eastDb.queryForObject("SELECT count(*) FROM seats WHERE event_id = ?", Long.class, EAST_EVENT))
+                .isEqualTo(20);
+
+        // Every id the east shard issues names its slot, so routing a seat needs no lookup
+        List<Long> eastSeatIds = eastDb.queryForList("SELECT id FROM seats WHERE event_id = ? ORDER BY id",
+                Long.class, EAST_EVENT);
+        assertThat(eastSeatIds).allSatisfy(id -> {
+            assertThat(id % ShardMap.SLOTS).isEqualTo(1);
+            assertThat(shardRouter.shardForSeat(id)).isEqualTo("east");
+        });
+
+        UserContext.setUserId("user-1");
+        try {
+            Long seatId = eastSeatIds.get(0);
+            seatHoldService.holdSeat(seatId);
+            String idempotencyKey = UUID.randomUUID().toString();
+            Booking booking = bookingService.confirmSeat(seatId, idempotencyKey);
+
+            assertThat(booking.getId() % ShardMap.SLOTS).isEqualTo(1);
+            assertThat(eastDb.queryForObject("SELECT count(*) FROM bookings WHERE seat_id = ?", Long.class, seatId))
+                    .isEqualTo(1);
+            assertThat(eastDb.queryForObject("SELECT count(*) FROM idempotency_keys WHERE key = ?", Long.class,
+                    idempotencyKey)).isEqualTo(1);
+            assertThat(mainDb.queryForObject("SELECT count(*) FROM bookings WHERE seat_id = ?", Long.class, seatId))
+                    .isZero();
+
+            // The east shard's outbox is drained by the same relay as the primary's
+            outboxRelayService.relay();
+            assertThat(listener.received).extracting(SeatEventMessage::seatId).contains(seatId);
+            assertThat(eastDb.queryForObject("SELECT count(*) FROM outbox_events", Long.class)).isZero();
+
+            // A cart spanning both shards is refused: every operation stays on one primary
+            Long mainSeatId = mainDb.queryForObject("SELECT min(id) FROM seats WHERE event_id = ?", Long.class,
+                    MAIN_EVENT);
+            assertThrows(IllegalStateException.class,
+                    () -> bookingService.checkout(List.of(mainSeatId, eastSeatIds.get(1)), UUID.randomUUID()
+                            .toString()));
+        } finally {
+            UserContext.clear();
+        }
+    }
+
+    @Test
+    void testHttpReadsReachEveryShard() throws Exception {
+        List<Long> mainSeatIds = mainDb.queryForList("SELECT id FROM seats WHERE event_id = ?", Long.class,
+                MAIN_EVENT);
+        List<Long> eastSeatIds = eastDb.queryForList("SELECT id FROM seats WHERE event_id = ?", Long.class,
+                EAST_EVENT);
+
+        // The user lookup in the auth interceptor reads the primary first; later reads must still switch shards
+        MvcResult seats = mockMvc.perform(get("/api/seats").header("X-User-Id", "user-1"))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<Map<String, Object>> listed = objectMapper.readValue(seats.getResponse().getContentAsString(),
+                new TypeReference<>() {
+                });
+        List<Long> listedIds = listed.stream().map(seat -> ((Number) seat.get("id")).longValue()).toList();
+        assertThat(listedIds).doesNotHaveDuplicates().containsAll(mainSeatIds).containsAll(eastSeatIds);
+
+        // A key another node recorded on the east shard is found when its status is polled here
+        Booking booking = new Booking();
+        booking.setId(1L);
+        booking.setEventId(EAST_EVENT);
+        booking.setSeatId(eastSeatIds.get(0));
+        booking.setUserId("user-1");
+        booking.setBookedAt(Instant.now());
+        String key = UUID.randomUUID().toString();
+        shardRouter.runOn("east", () -> idempotencyKeyRepository.save(
+                new IdempotencyKey("user-1", key, IdempotencyPayloadCodec.encode(List.of(booking)), Instant.now())));
+
+        mockMvc.perform(get("/api/bookings/requests/{requestId}", key).header("X-User-Id", "user-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CONFIRMED"))
+                .andExpect(jsonPath("$.seatId").value(eastSeatIds.get(0)));
+    }
+
+    @Test
+    void testMovingShardUnderAWorkloadTakesAPermitOnTheNewShard() {
+        WorkloadContext.setWorkload(WorkloadClass.CONFIRM);
+        try {
+            // Staying on the primary uses the permit the workload already holds
+            assertThat(shardRouter.callOn("main", () -> confirmCallsInFlight("east"))).isZero();
+            assertThat(shardRouter.callOn("east", () -> confirmCallsInFlight("east"))).isEqualTo(1);
+            assertThat(confirmCallsInFlight("east")).isZero();
+
+            // A full bulkhead on the target shard rejects the move
+            int capacity = workloadPools.stats().stream()
+                    .filter(stats -> stats.getShard().equals("east") && stats.getWorkload() == WorkloadClass.CONFIRM)
+                    .findFirst().orElseThrow().getMaxInFlightCalls();
+            for (int i = 0; i < capacity; i++) {
+                workloadPools.acquire("east", WorkloadClass.CONFIRM);
+            }
+            try {
+                assertThrows(WorkloadSaturatedException.class, () -> shardRouter.runOn("east", () -> {
+                }));
+                assertThat(ShardContext.getShard()).isNull();
+            } finally {
+                for (int i = 0; i < capacity; i++) {
+                    workloadPools.release("east", WorkloadClass.CONFIRM);
+                }
+            }
+        } finally {
+            WorkloadContext.clear();
+        }
+    }
+
+    private int confirmCallsInFlight(String shard) {
+        return workloadPools.stats().stream()
+                .filter(stats -> stats.getShard().equals(shard) && stats.getWorkload() == WorkloadClass.CONFIRM)
+                .findFirst().orElseThrow().getInFlightCalls();
+    }
+
+    private static SeedEventRequest layout(String eventId) {
+        SeedEventRequest.Section section = new SeedEventRequest.Section();
+        section.setName("S");
+        section.setRows(2);
+        section.setSeatsPerRow(10);
+        SeedEventRequest request = new SeedEventRequest();
+        request.setEventId(eventId);
+        request.setSections(List.of(section));
+        return request;
+    }
+}
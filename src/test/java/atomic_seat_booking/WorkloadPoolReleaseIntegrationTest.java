@@ -0,0 +1,100 @@
+package atomic_seat_booking;
+
+import atomic_seat_booking.config.WorkloadClass;
+import atomic_seat_booking.config.WorkloadPools;
+import atomic_seat_booking.dto.PoolStatsResponse;
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.entity.User;
+import atomic_seat_booking.repository.SeatRepository;
+import atomic_seat_booking.repository.UserRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A workload's connection must go back to its pool together with its bulkhead permit as soon as
+ * the annotated call returns, not when the HTTP request ends. Pool usage is sampled after the
+ * controller returns, while the request is still open.
+ * The context is used by this class only, so it is closed afterwards to hand its connections back.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext
+public class WorkloadPoolReleaseIntegrationTest {
+
+    private static final List<PoolStatsResponse> statsAfterHandler = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class PoolSamplingConfig implements WebMvcConfigurer {
+
+        @Autowired
+        private WorkloadPools workloadPools;
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(new HandlerInterceptor() {
+                @Override
+                public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                        ModelAndView modelAndView) {
+                    statsAfterHandler.addAll(workloadPools.stats());
+                }
+            });
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(new User("pool-user-1", "Pool One", "pool-user-1@test.com"));
+        statsAfterHandler.clear();
+    }
+
+    @Test
+    void testHoldHandsItsConnectionBackBeforeTheRequestEnds() throws Exception {
+        Seat seat = new Seat();
+        seat.setEventId("pool-event");
+        seat.setSeatNumber("P1-" + UUID.randomUUID().toString().substring(0, 8));
+        Long seatId = seatRepository.save(seat).getId();
+
+        mockMvc.perform(post("/api/seats/{seatId}/hold", seatId).header("X-User-Id", "pool-user-1"))
+                .andExpect(status().isOk());
+
+        // Background jobs run on their own pool and may be mid-run; every request-facing pool must be idle
+        assertThat(statsAfterHandler)
+                .filteredOn(stats -> stats.getWorkload() != WorkloadClass.BACKGROUND)
+                .isNotEmpty()
+                .allSatisfy(stats -> {
+                    assertThat(stats.getActiveConnections()).as("%s in use", stats.getWorkload()).isZero();
+                    assertThat(stats.getInFlightCalls()).as("%s in flight", stats.getWorkload()).isZero();
+                });
+    }
+}
@@ -0,0 +1,61 @@
+package atomic_seat_booking.contention;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HotSeatWindowTest {
+
+    private static final long WINDOW_MILLIS = 60_000;
+
+    @Test
+    void testHeavyHittersStandOutFromBackgroundConflicts() {
+        // Deliberately small: 10,000 distinct seats against a 256-wide sketch and a top-32. Each
+        // 10 s slice sees ~11,500 conflicts, so seats above ~360 per slice are guaranteed a place
+        HotSeatWindow window = new HotSeatWindow(WINDOW_MILLIS, 6, 4, 256, 32);
+        Random random = new Random(42);
+        long now = 1_000_000;
+        for (int i = 0; i < 20_000; i++) {
+            window.record(100_000 + random.nextInt(10_000), ContentionKind.HELD, now + i);
+            if (i % 10 == 0) {
+                window.record(7, ContentionKind.LOCK_TIMEOUT, now + i);
+            }
+            if (i % 20 == 0) {
+                window.record(9, ContentionKind.SOFT_HOLD, now + i);
+            }
+        }
+
+        HotSeatWindow.Snapshot snapshot = window.snapshot(now + 20_000, 3);
+        assertThat(snapshot.totalConflicts()).isEqualTo(20_000 + 2_000 + 1_000);
+        assertThat(snapshot.seats()).hasSize(3);
+        assertThat(snapshot.seats().get(0).seatId()).isEqualTo(7);
+        assertThat(snapshot.seats().get(1).seatId()).isEqualTo(9);
+        // The sketch never undercounts, and with this load overcounts by a few hundred at most
+        assertThat(snapshot.seats().get(0).conflicts()).isBetween(2_000L, 2_500L);
+        assertThat(snapshot.seats().get(0).byKind()).containsOnlyKeys(ContentionKind.LOCK_TIMEOUT);
+    }
+
+    @Test
+    void testConflictsAgeOutOfTheWindow() {
+        HotSeatWindow window = new HotSeatWindow(WINDOW_MILLIS, 6, 4, 1024, 16);
+        for (int i = 0; i < 50; i++) {
+            window.record(1, ContentionKind.BOOKED, 0);
+        }
+        window.record(2, ContentionKind.HELD, 30_000);
+
+        HotSeatWindow.Snapshot halfway = window.snapshot(30_000, 10);
+        assertThat(halfway.seats()).extracting(HotSeatWindow.HotSeat::seatId).containsExactly(1L, 2L);
+
+        // The first slice slides out after one window; the later conflict is still counted
+        HotSeatWindow.Snapshot later = window.snapshot(WINDOW_MILLIS + 15_000, 10);
+        assertThat(later.totalConflicts()).isEqualTo(1);
+        assertThat(later.seats()).extracting(HotSeatWindow.HotSeat::seatId).containsExactly(2L);
+
+        // A slice is reused in place once its epoch has passed
+        window.record(3, ContentionKind.HELD, 2 * WINDOW_MILLIS + 1);
+        assertThat(window.snapshot(2 * WINDOW_MILLIS + 1, 10).seats())
+                .extracting(HotSeatWindow.HotSeat::seatId).containsExactly(3L);
+    }
+}
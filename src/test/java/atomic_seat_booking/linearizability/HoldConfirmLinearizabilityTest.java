@@ -0,0 +1,313 @@
+package atomic_seat_booking.linearizability;
+
+import atomic_seat_booking.config.UserContext;
+import atomic_seat_booking.dto.SeedEventRequest;
+import atomic_seat_booking.entity.Booking;
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.entity.SeatStatus;
+import atomic_seat_booking.exception.SeatAlreadyBookedException;
+import atomic_seat_booking.exception.SeatAlreadyHeldException;
+import atomic_seat_booking.exception.SeatHoldExpiredException;
+import atomic_seat_booking.exception.UnauthorizedSeatAccessException;
+import atomic_seat_booking.linearizability.SeatOperation.Outcome;
+import atomic_seat_booking.linearizability.SeatOperation.Type;
+import atomic_seat_booking.service.BookingService;
+import atomic_seat_booking.service.HoldExpiryService;
+import atomic_seat_booking.service.PaymentService;
+import atomic_seat_booking.service.SeatHoldService;
+import atomic_seat_booking.service.SeatSeedingService;
+import atomic_seat_booking.service.SoftHoldService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Thousands of concurrent holds, confirms and expiry sweeps over many seats, with randomized
+ * timing, per-thread clock skew, time jumps that expire holds, and injected payment failures.
+ * Every call and its response is recorded and each seat's history must be linearizable against
+ * {@link SeatModel}, ending in the state left in the database.
+ * The Redis soft hold is stubbed out: it only adds early rejections the seat model doesn't describe.
+ */
+@SpringBootTest(properties = {
+        "ratelimit.user.capacity=100000000", "ratelimit.user.refill=100000000",
+        "ratelimit.seat.capacity=100000000", "ratelimit.seat.refill=100000000",
+        "ratelimit.event.capacity=100000000", "ratelimit.event.refill=100000000",
+        "spring.jpa.show-sql=false", "logging.level.atomic_seat_booking=OFF" })
+@ActiveProfiles("test")
+public class HoldConfirmLinearizabilityTest {
+
+    private static final String EVENT_ID = "linearizability-event";
+    private static final int ROWS = 16;
+    private static final int SEATS_PER_ROW = 25;
+    private static final int USERS = 6;
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 200;
+    private static final long MAX_SKEW_MILLIS = 90_000;
+    // Share of calls that are holds; the rest are confirms
+    private static final double HOLD_SHARE = 0.85;
+    private static final double PAYMENT_FAILURE_RATE = 0.15;
+
+    @TestConfiguration
+    static class SkewedClockConfig {
+        @Bean
+        @Primary
+        SkewedClock skewedClock() {
+            return new SkewedClock();
+        }
+    }
+
+    static class InjectedPaymentFailure extends RuntimeException {
+        InjectedPaymentFailure() {
+            super("INJECTED_PAYMENT_FAILURE", null, false, false);
+        }
+    }
+
+    @Autowired
+    private SkewedClock clock;
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private HoldExpiryService holdExpiryService;
+
+    @Autowired
+    private SeatSeedingService seatSeedingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private SoftHoldService softHoldService;
+
+    @MockitoSpyBean
+    private PaymentService paymentService;
+
+    private final Queue<Recorded> history = new ConcurrentLinkedQueue<>();
+
+    // seatId is null for sweeps, which touch every seat
+    private record Recorded(Long seatId, SeatOperation operation) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(softHoldService.createSoftHold(anyLong(), anyString())).thenReturn(true);
+        doAnswer(invocation -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Thread.sleep(random.nextInt(3));
+            if (random.nextDouble() < PAYMENT_FAILURE_RATE) {
+                throw new InjectedPaymentFailure();
+            }
+            return null;
+        }).when(paymentService).processPayment(anyString(), anyLong(), anyString());
+
+        jdbcTemplate.update("DELETE FROM bookings WHERE event_id = ?", EVENT_ID);
+        jdbcTemplate.update("DELETE FROM seats WHERE event_id = ?", EVENT_ID);
+        SeedEventRequest.Section section = new SeedEventRequest.Section();
+        section.setName("L");
+        section.setRows(ROWS);
+        section.setSeatsPerRow(SEATS_PER_ROW);
+        SeedEventRequest layout = new SeedEventRequest();
+        layout.setEventId(EVENT_ID);
+        layout.setSections(List.of(section));
+        seatSeedingService.seedEvent(layout);
+    }
+
+    // Thousands of unrelayed outbox rows would hold up tests that relay their own events
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM outbox_events WHERE event_id = ?", EVENT_ID);
+        jdbcTemplate.update("DELETE FROM bookings WHERE event_id = ?", EVENT_ID);
+        jdbcTemplate.update("DELETE FROM seats WHERE event_id = ?", EVENT_ID);
+    }
+
+    @Test
+    void testHoldConfirmHistoriesAreLinearizable() throws Exception {
+        List<Long> seatIds = jdbcTemplate.queryForList("SELECT id FROM seats WHERE event_id = ? ORDER BY id",
+                Long.class, EVENT_ID);
+
+        ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(workers.submit(() -> runWorker(seatIds)));
+        }
+        workers.shutdown();
+
+        // Meanwhile: jump time forward so holds expire, and sweep expired holds
+        clock.setThreadSkew(ThreadLocalRandom.current().nextLong(-MAX_SKEW_MILLIS, MAX_SKEW_MILLIS));
+        while (!workers.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+            clock.advance(ThreadLocalRandom.current().nextLong(120_000, 300_000));
+            record(null, Type.SWEEP, null, () -> {
+                holdExpiryService.releaseExpiredHolds();
+                return null;
+            });
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        Map<Outcome, Integer> holds = new EnumMap<>(Outcome.class);
+        Map<Outcome, Integer> confirms = new EnumMap<>(Outcome.class);
+        List<SeatOperation> sweeps = new ArrayList<>();
+        for (Recorded recorded : history) {
+            switch (recorded.operation().type()) {
+                case HOLD -> holds.merge(recorded.operation().outcome(), 1, Integer::sum);
+                case CONFIRM -> confirms.merge(recorded.operation().outcome(), 1, Integer::sum);
+                case SWEEP -> sweeps.add(recorded.operation());
+            }
+        }
+        System.out.printf("%d operations: holds %s, confirms %s, sweeps %d%n", history.size(), holds, confirms,
+                sweeps.size());
+
+        List<String> violations = new ArrayList<>();
+        for (Long seatId : seatIds) {
+            List<SeatOperation> seatHistory = new ArrayList<>(sweeps);
+            history.stream()
+                    .filter(recorded -> seatId.equals(recorded.seatId()))
+                    .forEach(recorded -> seatHistory.add(recorded.operation()));
+            LinearizabilityChecker.check(seatHistory, finalState(seatId))
+                    .ifPresent(violation -> violations.add("Seat " + seatId + ": " + violation));
+
+            long bookings = jdbcTemplate.queryForObject("SELECT count(*) FROM bookings WHERE event_id = ? "
+                    + "AND seat_id = ?", Long.class, EVENT_ID, seatId);
+            assertThat(bookings).as("bookings of seat %d", seatId).isLessThanOrEqualTo(1);
+        }
+        assertThat(violations).isEmpty();
+
+        // The run must have exercised the paths the model distinguishes (an expired hold is usually
+        // swept before its holder comes back, so HOLD_EXPIRED is too rare to require)
+        assertThat(holds).containsKeys(Outcome.OK, Outcome.ALREADY_HELD, Outcome.ALREADY_BOOKED);
+        assertThat(confirms).containsKeys(Outcome.OK, Outcome.PAYMENT_FAILED, Outcome.UNAUTHORIZED,
+                Outcome.NOT_HELD);
+    }
+
+    private void runWorker(List<Long> seatIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        clock.setThreadSkew(random.nextLong(-MAX_SKEW_MILLIS, MAX_SKEW_MILLIS));
+        // Holds this worker won and will come back to (the others are abandoned), so most confirms
+        // come from the holder, some of them after the hold expired
+        List<Recorded> won = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+            boolean hold = won.isEmpty() || random.nextDouble() < HOLD_SHARE;
+            Recorded own = hold || random.nextDouble() < 0.2 ? null : won.remove(random.nextInt(won.size()));
+            Long seatId = own != null ? own.seatId() : seatIds.get(random.nextInt(seatIds.size()));
+            String userId = own != null ? own.operation().userId() : "user-" + random.nextInt(USERS);
+            UserContext.setUserId(userId);
+            try {
+                if (hold) {
+                    Recorded recorded = record(seatId, Type.HOLD, userId, () -> seatHoldService.holdSeat(seatId));
+                    if (recorded.operation().outcome() == Outcome.OK && random.nextBoolean()) {
+                        won.add(recorded);
+                    }
+                } else {
+                    record(seatId, Type.CONFIRM, userId,
+                            () -> bookingService.confirmSeat(seatId, UUID.randomUUID().toString()));
+                }
+            } finally {
+                UserContext.clear();
+            }
+            sleepUpTo(random, 2);
+        }
+    }
+
+    private Recorded record(Long seatId, Type type, String userId, Supplier<Object> call) {
+        Instant earliest = clock.instant();
+        long invoked = System.nanoTime();
+        Object result = null;
+        Outcome outcome;
+        try {
+            result = call.get();
+            outcome = Outcome.OK;
+        } catch (RuntimeException e) {
+            outcome = classify(e);
+        }
+        long returned = System.nanoTime();
+        Instant latest = clock.instant();
+
+        Instant at = null;
+        Instant holdExpiresAt = null;
+        if (result instanceof Seat seat) {
+            holdExpiresAt = seat.getHoldExpiresAt();
+            at = holdExpiresAt.minus(SeatModel.HOLD_DURATION);
+        } else if (result instanceof Booking booking) {
+            at = booking.getBookedAt();
+        }
+        Recorded recorded = new Recorded(seatId, new SeatOperation(type, userId, outcome, invoked, returned, earliest,
+                latest, at, holdExpiresAt));
+        history.add(recorded);
+        return recorded;
+    }
+
+    private static Outcome classify(RuntimeException e) {
+        if (e instanceof SeatAlreadyHeldException) {
+            return Outcome.ALREADY_HELD;
+        }
+        if (e instanceof SeatAlreadyBookedException) {
+            return Outcome.ALREADY_BOOKED;
+        }
+        if (e instanceof UnauthorizedSeatAccessException) {
+            return Outcome.UNAUTHORIZED;
+        }
+        if (e instanceof SeatHoldExpiredException) {
+            return Outcome.HOLD_EXPIRED;
+        }
+        if (e instanceof InjectedPaymentFailure) {
+            return Outcome.PAYMENT_FAILED;
+        }
+        if (e instanceof IllegalStateException && String.valueOf(e.getMessage()).startsWith("Seat must be HELD")) {
+            return Outcome.NOT_HELD;
+        }
+        return Outcome.FAILED;
+    }
+
+    private SeatModel finalState(Long seatId) {
+        return jdbcTemplate.queryForObject("SELECT status, held_by_user_id, hold_expires_at FROM seats "
+                + "WHERE event_id = ? AND id = ?", (rs, rowNum) -> {
+                    Timestamp expiresAt = rs.getTimestamp("hold_expires_at");
+                    return new SeatModel(SeatStatus.fromCode(rs.getShort("status")),
+                            rs.getString("held_by_user_id"), expiresAt == null ? null : expiresAt.toInstant());
+                }, EVENT_ID, seatId);
+    }
+
+    private static void sleepUpTo(ThreadLocalRandom random, int millis) {
+        try {
+            Thread.sleep(random.nextInt(millis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
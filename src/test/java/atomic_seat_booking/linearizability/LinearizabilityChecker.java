@@ -0,0 +1,79 @@
+package atomic_seat_booking.linearizability;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Decides whether one seat's history is linearizable: whether its operations can be put in a
+ * single order that respects real time (an operation that returned before another was invoked
+ * comes first) and in which every recorded outcome is allowed by {@link SeatModel}, ending in the
+ * seat's state as read from the database. Depth-first search over the operations that may go next,
+ * remembering (linearized set, model state) pairs already explored, after Wing and Gong / Lowe.
+ * Seats are independent, so each is checked on its own.
+ */
+final class LinearizabilityChecker {
+
+    private final List<SeatOperation> history;
+    private final SeatModel finalState;
+    private final Set<Visited> visited = new HashSet<>();
+    private int deepest;
+
+    private record Visited(BitSet linearized, SeatModel state) {
+    }
+
+    private LinearizabilityChecker(List<SeatOperation> history, SeatModel finalState) {
+        this.history = history;
+        this.finalState = finalState;
+    }
+
+    /**
+     * @return empty if the history is linearizable, otherwise a description of how far the search got
+     */
+    static Optional<String> check(List<SeatOperation> history, SeatModel finalState) {
+        LinearizabilityChecker checker = new LinearizabilityChecker(history, finalState);
+        if (checker.search(new BitSet(history.size()), SeatModel.AVAILABLE)) {
+            return Optional.empty();
+        }
+        return Optional.of("No linearization of " + history.size() + " operations ending in " + finalState
+                + "; at most " + checker.deepest + " could be ordered. History: " + history);
+    }
+
+    private boolean search(BitSet linearized, SeatModel state) {
+        int done = linearized.cardinality();
+        deepest = Math.max(deepest, done);
+        if (done == history.size()) {
+            return state.sameAs(finalState);
+        }
+        if (!visited.add(new Visited((BitSet) linearized.clone(), state))) {
+            return false;
+        }
+
+        for (int i = linearized.nextClearBit(0); i < history.size(); i = linearized.nextClearBit(i + 1)) {
+            SeatOperation candidate = history.get(i);
+            if (!mayGoNext(candidate, linearized)) {
+                continue;
+            }
+            linearized.set(i);
+            for (SeatModel next : state.apply(candidate)) {
+                if (search(linearized, next)) {
+                    return true;
+                }
+            }
+            linearized.clear(i);
+        }
+        return false;
+    }
+
+    // No pending operation may have returned before this one was invoked
+    private boolean mayGoNext(SeatOperation candidate, BitSet linearized) {
+        for (int j = linearized.nextClearBit(0); j < history.size(); j = linearized.nextClearBit(j + 1)) {
+            if (history.get(j).precedes(candidate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
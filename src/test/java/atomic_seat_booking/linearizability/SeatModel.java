@@ -0,0 +1,124 @@
+package atomic_seat_booking.linearizability;
+
+import atomic_seat_booking.entity.SeatStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sequential specification of one seat, mirroring the Seat state machine as driven by
+ * SeatHoldService, BookingService and HoldExpiryService. An operation only reveals a window for
+ * the clock reading it acted on, so where that window straddles a hold's expiry both readings are
+ * allowed, and {@link #apply} may return more than one successor state (or none, if the recorded
+ * outcome is impossible from this state).
+ */
+record SeatModel(SeatStatus status, String holder, Instant holdExpiresAt) {
+
+    static final Duration HOLD_DURATION = Duration.ofMinutes(15);
+
+    static final SeatModel AVAILABLE = new SeatModel(SeatStatus.AVAILABLE, null, null);
+
+    List<SeatModel> apply(SeatOperation op) {
+        List<SeatModel> next = new ArrayList<>(2);
+        switch (op.type()) {
+            case HOLD -> applyHold(op, next);
+            case CONFIRM -> applyConfirm(op, next);
+            case SWEEP -> {
+                next.add(this);
+                if (status == SeatStatus.HELD && expiredAtSomePoint(op)) {
+                    next.add(AVAILABLE);
+                }
+            }
+        }
+        return next;
+    }
+
+    private void applyHold(SeatOperation op, List<SeatModel> next) {
+        switch (op.outcome()) {
+            case OK -> {
+                Instant now = op.at();
+                boolean free = status == SeatStatus.AVAILABLE
+                        || (status == SeatStatus.HELD && now.isAfter(holdExpiresAt));
+                if (free && within(op, now)) {
+                    // Later readers get the expiry back from a microsecond column, rounded by the driver
+                    next.add(new SeatModel(SeatStatus.HELD, op.userId(),
+                            op.holdExpiresAt().plusNanos(500).truncatedTo(ChronoUnit.MICROS)));
+                }
+            }
+            case ALREADY_HELD -> {
+                if (status == SeatStatus.HELD && unexpiredAtSomePoint(op)) {
+                    next.add(this);
+                }
+            }
+            case ALREADY_BOOKED -> {
+                if (status == SeatStatus.BOOKED) {
+                    next.add(this);
+                }
+            }
+            case FAILED -> next.add(this);
+            default -> {
+            }
+        }
+    }
+
+    private void applyConfirm(SeatOperation op, List<SeatModel> next) {
+        boolean heldByCaller = status == SeatStatus.HELD && op.userId().equals(holder);
+        switch (op.outcome()) {
+            case OK -> {
+                if (heldByCaller && within(op, op.at()) && !op.at().isAfter(holdExpiresAt)) {
+                    next.add(new SeatModel(SeatStatus.BOOKED, holder, null));
+                }
+            }
+            case PAYMENT_FAILED -> {
+                // Payment is only attempted once the hold has been validated
+                if (heldByCaller && unexpiredAtSomePoint(op)) {
+                    next.add(this);
+                }
+            }
+            case HOLD_EXPIRED -> {
+                if (heldByCaller && expiredAtSomePoint(op)) {
+                    next.add(this);
+                }
+            }
+            case NOT_HELD -> {
+                if (status == SeatStatus.AVAILABLE) {
+                    next.add(this);
+                }
+            }
+            case ALREADY_BOOKED -> {
+                if (status == SeatStatus.BOOKED) {
+                    next.add(this);
+                }
+            }
+            case UNAUTHORIZED -> {
+                if (status == SeatStatus.HELD && !op.userId().equals(holder)) {
+                    next.add(this);
+                }
+            }
+            case FAILED -> next.add(this);
+            default -> {
+            }
+        }
+    }
+
+    private boolean expiredAtSomePoint(SeatOperation op) {
+        return op.latest().isAfter(holdExpiresAt);
+    }
+
+    private boolean unexpiredAtSomePoint(SeatOperation op) {
+        return !op.earliest().isAfter(holdExpiresAt);
+    }
+
+    private static boolean within(SeatOperation op, Instant now) {
+        return now != null && !now.isBefore(op.earliest()) && !now.isAfter(op.latest());
+    }
+
+    boolean sameAs(SeatModel other) {
+        return status == other.status && Objects.equals(holder, other.holder)
+                && Objects.equals(holdExpiresAt, other.holdExpiresAt);
+    }
+}
@@ -0,0 +1,53 @@
+package atomic_seat_booking.linearizability;
+
+import java.time.Instant;
+
+/**
+ * One completed call in a recorded history, as seen by the caller.
+ *
+ * @param invokedNanos  System.nanoTime() just before the call, for real-time order
+ * @param returnedNanos System.nanoTime() just after it returned or threw
+ * @param earliest      the caller's clock before the call; the service read its "now" no earlier
+ * @param latest        the caller's clock after the call; the service read its "now" no later
+ * @param at            the exact "now" the service used, when the response reveals it
+ *                      (hold expiry minus the hold duration, or a booking's bookedAt)
+ * @param holdExpiresAt the hold expiry returned by a successful hold
+ */
+record SeatOperation(
+        Type type,
+        String userId,
+        Outcome outcome,
+        long invokedNanos,
+        long returnedNanos,
+        Instant earliest,
+        Instant latest,
+        Instant at,
+        Instant holdExpiresAt) {
+
+    enum Type {
+        HOLD, CONFIRM, SWEEP
+    }
+
+    enum Outcome {
+        OK,
+        ALREADY_HELD,
+        ALREADY_BOOKED,
+        NOT_HELD,
+        UNAUTHORIZED,
+        HOLD_EXPIRED,
+        PAYMENT_FAILED,
+        // Any other failure (lock or pool timeout...): the transaction rolled back, so no effect
+        FAILED
+    }
+
+    boolean precedes(SeatOperation other) {
+        return returnedNanos < other.invokedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return type + "(" + (userId == null ? "" : userId) + ")=" + outcome
+                + (holdExpiresAt == null ? "" : " until " + holdExpiresAt)
+                + " clock[" + earliest + ", " + latest + "]";
+    }
+}
@@ -0,0 +1,40 @@
+package atomic_seat_booking.linearizability;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * System time plus a shared offset that only moves forward (to expire holds without waiting)
+ * plus a fixed per-thread skew, so each worker thread behaves like a node with its own clock.
+ */
+final class SkewedClock extends Clock {
+
+    private final AtomicLong offsetMillis = new AtomicLong();
+    private final ThreadLocal<Long> skewMillis = ThreadLocal.withInitial(() -> 0L);
+
+    void advance(long millis) {
+        offsetMillis.addAndGet(millis);
+    }
+
+    void setThreadSkew(long millis) {
+        skewMillis.set(millis);
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.now().plusMillis(offsetMillis.get() + skewMillis.get());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,80 @@
+package atomic_seat_booking.loadsim;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Outcome of one simulated on-sale: client-side latency and status mix per endpoint, plus the
+ * integrity checks run against the database afterwards. Written as JSON so runs can be compared.
+ */
+@Data
+@Builder
+public class LoadReport {
+
+    private LoadScenario scenario;
+    private String startedAt;
+    private long durationMillis;
+    private long requests;
+    private double requestsPerSecond;
+    private long confirmedBookings;
+    private double bookingsPerSecond;
+    // Share of all responses that were 409 Conflict / 429 Too Many Requests
+    private double conflictRatio;
+    private double throttledRatio;
+    private Map<String, EndpointStats> endpoints;
+
+    // Integrity, filled in from the database after the run
+    private long bookingsInDatabase;
+    private long seatsBookedInDatabase;
+    private long doubleBookedSeats;
+    private long seatsConfirmedToSeveralUsers;
+    private long bookedSeatsWithoutBooking;
+
+    @Data
+    @Builder
+    public static class EndpointStats {
+        private long requests;
+        private double p50Millis;
+        private double p99Millis;
+        private double p999Millis;
+        private double maxMillis;
+        // HTTP status -> responses; -1 counts timeouts and connection errors
+        private Map<Integer, Long> statusCounts;
+    }
+
+    public boolean hasDoubleBookings() {
+        return doubleBookedSeats > 0 || seatsConfirmedToSeveralUsers > 0 || bookedSeatsWithoutBooking > 0;
+    }
+
+    public Path writeTo(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(scenario.name() + "-" + startedAt.replace(':', '-') + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+        return file;
+    }
+
+    public String summary() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%nOn-sale '%s': %d users, %d seats, %d threads, zipf %.2f%n", scenario.name(),
+                scenario.users(), scenario.seats(), scenario.concurrency(), scenario.zipfExponent()));
+        out.append(String.format("%d requests in %d ms (%.1f req/s), %d bookings (%.1f/s), 409 %.1f%%, 429 %.1f%%%n",
+                requests, durationMillis, requestsPerSecond, confirmedBookings, bookingsPerSecond,
+                conflictRatio * 100, throttledRatio * 100));
+        out.append(String.format("%-8s %8s %9s %9s %9s %9s  %s%n", "endpoint", "requests", "p50 ms", "p99 ms",
+                "p99.9 ms", "max ms", "statuses"));
+        endpoints.forEach((endpoint, stats) -> out.append(String.format("%-8s %8d %9.2f %9.2f %9.2f %9.2f  %s%n",
+                endpoint, stats.getRequests(), stats.getP50Millis(), stats.getP99Millis(), stats.getP999Millis(),
+                stats.getMaxMillis(), stats.getStatusCounts())));
+        out.append(String.format("Integrity: %d bookings, %d seats BOOKED, %d double-booked, %d confirmed to "
+                + "several users, %d BOOKED without a booking%n", bookingsInDatabase, seatsBookedInDatabase,
+                doubleBookedSeats, seatsConfirmedToSeveralUsers, bookedSeatsWithoutBooking));
+        return out.toString();
+    }
+}
@@ -0,0 +1,71 @@
+package atomic_seat_booking.loadsim;
+
+import lombok.Builder;
+
+/**
+ * One on-sale to replay. Every field can be overridden with a {@code -Dloadsim.<name>} system
+ * property; with the same seed, each user picks the same seats in the same order on every run.
+ *
+ * @param users            shoppers, each trying to end up with one booked seat
+ * @param seats            seats on sale
+ * @param concurrency      users active at once (client threads)
+ * @param zipfExponent     skew of seat popularity; 0 is uniform, around 1 is a typical front-rows rush
+ * @param confirmRatio     share of successful holds that go on to /confirm; the rest abandon the hold
+ * @param holdRetries      further /hold attempts after a 409 or 429
+ * @param retrySameSeat    retry the seat that was taken (true) or move on to the next pick (false)
+ * @param retryBackoffMillis base backoff between retries, doubled per attempt, with full jitter
+ * @param confirmRetries   further /confirm attempts, with the same idempotency key, after a 5xx
+ * @param targetUrl        hold/confirm against another deployment of the seat API, e.g. the reactive
+ *                         module on http://localhost:8081; empty drives the app started by the test
+ * @param paymentGatewayPort fixed port for the stub payment gateway, so a deployment given by
+ *                         targetUrl can be pointed at it; 0 picks a free port
+ */
+@Builder
+public record LoadScenario(
+        String name,
+        int users,
+        int seats,
+        int concurrency,
+        double zipfExponent,
+        double confirmRatio,
+        int holdRetries,
+        boolean retrySameSeat,
+        long retryBackoffMillis,
+        int confirmRetries,
+        long requestTimeoutMillis,
+        long seed,
+        long paymentLatencyMedianMillis,
+        long paymentLatencyP99Millis,
+        double paymentErrorRate,
+        double paymentDeclineRate,
+        String targetUrl,
+        int paymentGatewayPort) {
+
+    public static LoadScenario fromSystemProperties() {
+        return LoadScenario.builder()
+                .name(System.getProperty("loadsim.name", "on-sale"))
+                .users(Integer.getInteger("loadsim.users", 1000))
+                .seats(Integer.getInteger("loadsim.seats", 500))
+                .concurrency(Integer.getInteger("loadsim.concurrency", 64))
+                .zipfExponent(doubleProperty("loadsim.zipfExponent", 1.0))
+                .confirmRatio(doubleProperty("loadsim.confirmRatio", 0.8))
+                .holdRetries(Integer.getInteger("loadsim.holdRetries", 3))
+                .retrySameSeat(Boolean.parseBoolean(System.getProperty("loadsim.retrySameSeat", "false")))
+                .retryBackoffMillis(Long.getLong("loadsim.retryBackoffMillis", 50))
+                .confirmRetries(Integer.getInteger("loadsim.confirmRetries", 2))
+                .requestTimeoutMillis(Long.getLong("loadsim.requestTimeoutMillis", 10_000))
+                .seed(Long.getLong("loadsim.seed", 42))
+                .paymentLatencyMedianMillis(Long.getLong("loadsim.paymentLatencyMedianMillis", 40))
+                .paymentLatencyP99Millis(Long.getLong("loadsim.paymentLatencyP99Millis", 400))
+                .paymentErrorRate(doubleProperty("loadsim.paymentErrorRate", 0.02))
+                .paymentDeclineRate(doubleProperty("loadsim.paymentDeclineRate", 0.02))
+                .targetUrl(System.getProperty("loadsim.targetUrl", ""))
+                .paymentGatewayPort(Integer.getInteger("loadsim.paymentGatewayPort", 0))
+                .build();
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,194 @@
+package atomic_seat_booking.loadsim;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays a {@link LoadScenario} over HTTP. Each user picks seats by Zipf popularity, calls
+ * {@code /hold}, retries after a 409 or 429 with jittered exponential backoff, and then either
+ * abandons the hold or calls {@code /confirm}, retrying 5xx responses with the same idempotency key.
+ */
+public class LoadSimulator {
+
+    static final String HOLD = "hold";
+    static final String CONFIRM = "confirm";
+
+    // Timeouts and connection failures are counted under this pseudo-status
+    private static final int NO_RESPONSE = -1;
+
+    private final LoadScenario scenario;
+    private final String baseUrl;
+    private final List<Long> seatIds;
+    private final ZipfSampler sampler;
+    private final HttpClient httpClient;
+
+    private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, LongAdder>> statuses = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> confirmedTo = new ConcurrentHashMap<>();
+
+    /**
+     * @param seatIds the event's seats, most popular first
+     */
+    public LoadSimulator(LoadScenario scenario, String baseUrl, List<Long> seatIds) {
+        this.scenario = scenario;
+        this.baseUrl = baseUrl;
+        this.seatIds = seatIds;
+        this.sampler = new ZipfSampler(seatIds.size(), scenario.zipfExponent());
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(scenario.requestTimeoutMillis()))
+                .build();
+    }
+
+    public LoadReport run() throws InterruptedException {
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        ExecutorService users = Executors.newFixedThreadPool(scenario.concurrency());
+        for (int i = 0; i < scenario.users(); i++) {
+            int userIndex = i;
+            users.execute(() -> shop(userIndex));
+        }
+        users.shutdown();
+        if (!users.awaitTermination(30, TimeUnit.MINUTES)) {
+            users.shutdownNow();
+            throw new IllegalStateException("Load simulation did not finish within 30 minutes");
+        }
+        long durationMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        Map<String, LoadReport.EndpointStats> endpoints = new TreeMap<>();
+        long requests = 0;
+        long conflicts = 0;
+        long throttled = 0;
+        for (Map.Entry<String, Histogram> entry : latencies.entrySet()) {
+            Histogram histogram = entry.getValue();
+            Map<Integer, Long> counts = new TreeMap<>();
+            statuses.get(entry.getKey()).forEach((status, count) -> counts.put(status, count.sum()));
+            endpoints.put(entry.getKey(), LoadReport.EndpointStats.builder()
+                    .requests(histogram.getTotalCount())
+                    .p50Millis(histogram.getValueAtPercentile(50) / 1000.0)
+                    .p99Millis(histogram.getValueAtPercentile(99) / 1000.0)
+                    .p999Millis(histogram.getValueAtPercentile(99.9) / 1000.0)
+                    .maxMillis(histogram.getMaxValue() / 1000.0)
+                    .statusCounts(counts)
+                    .build());
+            requests += histogram.getTotalCount();
+            conflicts += counts.getOrDefault(409, 0L);
+            throttled += counts.getOrDefault(429, 0L);
+        }
+        long confirmed = confirmedTo.values().stream().mapToLong(Set::size).sum();
+
+        return LoadReport.builder()
+                .scenario(scenario)
+                .startedAt(startedAt.toString())
+                .durationMillis(durationMillis)
+                .requests(requests)
+                .requestsPerSecond(requests * 1000.0 / durationMillis)
+                .confirmedBookings(confirmed)
+                .bookingsPerSecond(confirmed * 1000.0 / durationMillis)
+                .conflictRatio(requests == 0 ? 0 : (double) conflicts / requests)
+                .throttledRatio(requests == 0 ? 0 : (double) throttled / requests)
+                .endpoints(endpoints)
+                .seatsConfirmedToSeveralUsers(confirmedTo.values().stream().filter(holders -> holders.size() > 1).count())
+                .build();
+    }
+
+    static String userId(int userIndex) {
+        return "loadsim-user-" + userIndex;
+    }
+
+    private void shop(int userIndex) {
+        String userId = userId(userIndex);
+        Random random = new Random(scenario.seed() * 31 + userIndex);
+        int pick = sampler.next(random);
+        for (int attempt = 0; attempt <= scenario.holdRetries(); attempt++) {
+            if (attempt > 0) {
+                backoff(attempt, random);
+                if (!scenario.retrySameSeat()) {
+                    pick = sampler.next(random);
+                }
+            }
+            Long seatId = seatIds.get(pick);
+            int status = post(HOLD, "/api/seats/" + seatId + "/hold", userId, null);
+            if (status == 200) {
+                if (random.nextDouble() < scenario.confirmRatio()) {
+                    confirm(userId, seatId, random);
+                }
+                return;
+            }
+            if (status != 409 && status != 429 && status != NO_RESPONSE && status < 500) {
+                return;
+            }
+        }
+    }
+
+    private void confirm(String userId, Long seatId, Random random) {
+        String idempotencyKey = UUID.randomUUID().toString();
+        for (int attempt = 0; attempt <= scenario.confirmRetries(); attempt++) {
+            if (attempt > 0) {
+                backoff(attempt, random);
+            }
+            int status = post(CONFIRM, "/api/seats/" + seatId + "/confirm", userId, idempotencyKey);
+            if (status == 200) {
+                confirmedTo.computeIfAbsent(seatId, id -> ConcurrentHashMap.newKeySet()).add(userId);
+                return;
+            }
+            if (status != NO_RESPONSE && status < 500) {
+                return;
+            }
+        }
+    }
+
+    private int post(String endpoint, String path, String userId, String idempotencyKey) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofMillis(scenario.requestTimeoutMillis()))
+                .header("X-User-Id", userId)
+                .POST(HttpRequest.BodyPublishers.noBody());
+        if (idempotencyKey != null) {
+            request.header("X-Idempotency-Key", idempotencyKey);
+        }
+
+        long start = System.nanoTime();
+        int status;
+        try {
+            status = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = NO_RESPONSE;
+        } catch (Exception e) {
+            status = NO_RESPONSE;
+        }
+        long micros = Math.max(1, (System.nanoTime() - start) / 1_000);
+
+        latencies.computeIfAbsent(endpoint, e -> new ConcurrentHistogram(3)).recordValue(micros);
+        statuses.computeIfAbsent(endpoint, e -> new ConcurrentHashMap<>())
+                .computeIfAbsent(status, s -> new LongAdder())
+                .increment();
+        return status;
+    }
+
+    private void backoff(int attempt, Random random) {
+        long ceiling = scenario.retryBackoffMillis() << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(1 + (long) (random.nextDouble() * ceiling));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package atomic_seat_booking.loadsim;
+
+import atomic_seat_booking.entity.SeatStatus;
+import atomic_seat_booking.payment.PaymentGatewayStubServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Simulated on-sale against the real HTTP endpoints of an app started on a random port, with
+ * local Postgres and Redis and {@link PaymentGatewayStubServer} in place of the payment provider.
+ * Excluded from the default build; run with
+ * {@code ./mvnw test -Pload-simulation -Dloadsim.users=5000 -Dloadsim.seats=1000}
+ * (see {@link LoadScenario} for every setting). The report is printed and written to target/loadsim.
+ * With {@code -Dloadsim.targetUrl} the same on-sale is replayed against another deployment of the
+ * seat API, such as the reactive module, for a side-by-side comparison.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({ "test", "loadsim" })
+public class OnSaleLoadSimulationTest {
+
+    private static final LoadScenario SCENARIO = LoadScenario.fromSystemProperties();
+
+    // Seeds the event; seeding is an admin operation
+    private static final String ADMIN_USER = "loadsim-admin";
+
+    private static PaymentGatewayStubServer paymentGateway;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void paymentGateway(DynamicPropertyRegistry registry) throws IOException {
+        paymentGateway = new PaymentGatewayStubServer(SCENARIO.paymentGatewayPort(),
+                PaymentGatewayStubServer.Profile.builder()
+                        .latencyMedianMillis(SCENARIO.paymentLatencyMedianMillis())
+                        .latencyP99Millis(SCENARIO.paymentLatencyP99Millis())
+                        .errorRate(SCENARIO.paymentErrorRate())
+                        .declineRate(SCENARIO.paymentDeclineRate())
+                        .build()).start();
+        registry.add("payment.gateway.url", paymentGateway::baseUrl);
+    }
+
+    @AfterAll
+    static void stopPaymentGateway() {
+        paymentGateway.close();
+    }
+
+    @Test
+    void simulateOnSale() throws Exception {
+        String eventId = "loadsim-" + SCENARIO.name();
+        createUsers();
+        List<Long> seatIds = seedEvent(eventId);
+
+        // Seeding and the integrity checks always go through this app; only hold/confirm follow targetUrl
+        String baseUrl = SCENARIO.targetUrl().isEmpty() ? "http://localhost:" + port : SCENARIO.targetUrl();
+        LoadReport report = new LoadSimulator(SCENARIO, baseUrl, seatIds).run();
+
+        report.setBookingsInDatabase(count("SELECT count(*) FROM bookings WHERE event_id = ?", eventId));
+        report.setSeatsBookedInDatabase(count("SELECT count(*) FROM seats WHERE event_id = ? AND status = ?",
+                eventId, SeatStatus.BOOKED.getCode()));
+        report.setDoubleBookedSeats(count("SELECT count(*) FROM (SELECT seat_id FROM bookings WHERE event_id = ? "
+                + "GROUP BY seat_id HAVING count(*) > 1) d", eventId));
+        report.setBookedSeatsWithoutBooking(count("SELECT count(*) FROM seats s WHERE s.event_id = ? "
+                + "AND s.status = ? AND NOT EXISTS (SELECT 1 FROM bookings b WHERE b.event_id = s.event_id "
+                + "AND b.seat_id = s.id)", eventId, SeatStatus.BOOKED.getCode()));
+
+        Path file = report.writeTo(Path.of("target", "loadsim"));
+        System.out.println(report.summary() + "Report written to " + file);
+
+        assertThat(report.hasDoubleBookings()).as("double bookings").isFalse();
+        assertThat(report.getSeatsBookedInDatabase()).isEqualTo(report.getBookingsInDatabase());
+        assertThat(report.getConfirmedBookings()).isPositive()
+                .isLessThanOrEqualTo(report.getBookingsInDatabase());
+    }
+
+    private List<Long> seedEvent(String eventId) {
+        jdbcTemplate.update("DELETE FROM bookings WHERE event_id = ?", eventId);
+        jdbcTemplate.update("DELETE FROM seats WHERE event_id = ?", eventId);
+
+        int seatsPerRow = Math.min(50, SCENARIO.seats());
+        int rows = (SCENARIO.seats() + seatsPerRow - 1) / seatsPerRow;
+        Map<String, Object> layout = Map.of("eventId", eventId, "sections",
+                List.of(Map.of("name", "A", "rows", rows, "seatsPerRow", seatsPerRow)));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-User-Id", ADMIN_USER);
+        HttpStatus status = HttpStatus.valueOf(new RestTemplate()
+                .postForEntity("http://localhost:" + port + "/api/seats/seed", new HttpEntity<>(layout, headers),
+                        String.class)
+                .getStatusCode().value());
+        assertThat(status).isEqualTo(HttpStatus.CREATED);
+
+        // Seeded front row first, which is also the popularity order
+        return jdbcTemplate.queryForList("SELECT id FROM seats WHERE event_id = ? ORDER BY id", Long.class,
+                eventId);
+    }
+
+    private void createUsers() {
+        List<Object[]> users = IntStream.range(0, SCENARIO.users())
+                .mapToObj(LoadSimulator::userId)
+                .map(id -> new Object[] { id, id, id + "@loadsim.test" })
+                .toList();
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email, created_at) VALUES (?, ?, ?, now()) "
+                + "ON CONFLICT (id) DO NOTHING", users);
+        jdbcTemplate.update("INSERT INTO users (id, name, email, created_at, role) "
+                + "VALUES (?, ?, ?, now(), 'ADMIN') ON CONFLICT (id) DO UPDATE SET role = 'ADMIN'",
+                ADMIN_USER, ADMIN_USER, ADMIN_USER + "@loadsim.test");
+    }
+
+    private long count(String sql, Object... args) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, args);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,31 @@
+package atomic_seat_booking.loadsim;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws ranks in [0, n) with probability proportional to 1 / (rank + 1)^exponent, so rank 0 is
+ * the most popular seat.
+ */
+final class ZipfSampler {
+
+    private final double[] cumulative;
+
+    ZipfSampler(int n, double exponent) {
+        cumulative = new double[n];
+        double total = 0;
+        for (int rank = 0; rank < n; rank++) {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= total;
+        }
+    }
+
+    int next(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,144 @@
+package atomic_seat_booking.payment;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for the payment provider, for tuning {@link ResilientPaymentClient} without the
+ * real gateway. Serves {@code POST /charges} with log-normally distributed latency and
+ * configurable error (503), decline (402) and hang rates. Outcomes are remembered per
+ * Idempotency-Key, so retries and hedged duplicates see the same answer as the first call.
+ * <p>
+ * Test tooling: started by ResilientPaymentClientTest and the load simulation. {@link #main}
+ * runs it on its own from the test classpath, configured with {@code -Dstub.*} properties.
+ */
+@Slf4j
+public class PaymentGatewayStubServer implements AutoCloseable {
+
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    @Builder
+    public record Profile(
+            long latencyMedianMillis,
+            long latencyP99Millis,
+            double errorRate,
+            double declineRate,
+            double hangRate,
+            long hangMillis) {
+    }
+
+    private final HttpServer server;
+    private final Profile profile;
+    private final Map<String, Integer> outcomes = new ConcurrentHashMap<>();
+
+    public PaymentGatewayStubServer(int port, Profile profile) throws IOException {
+        this.profile = profile;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.server.createContext("/charges", this::handleCharge);
+        this.server.setExecutor(Executors.newCachedThreadPool());
+    }
+
+    public PaymentGatewayStubServer start() {
+        server.start();
+        log.info("Payment gateway stub listening. port={}, profile={}", port(), profile);
+        return this;
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + port();
+    }
+
+    /**
+     * Number of distinct idempotency keys that reached the gateway.
+     */
+    public int distinctCharges() {
+        return outcomes.size();
+    }
+
+    private void handleCharge(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "method not allowed");
+                return;
+            }
+            exchange.getRequestBody().readAllBytes();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            sleep(random.nextDouble() < profile.hangRate() ? profile.hangMillis() : sampleLatency(random));
+
+            String key = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+            int status = key == null ? 400 : outcomes.computeIfAbsent(key, k -> drawOutcome(random));
+            if (status == 503) {
+                outcomes.remove(key, 503); // Transient: a retry may succeed
+            }
+            respond(exchange, status, status == 200 ? "{\"status\":\"charged\"}" : "{\"status\":\"failed\"}");
+        }
+    }
+
+    private int drawOutcome(ThreadLocalRandom random) {
+        double roll = random.nextDouble();
+        if (roll < profile.errorRate()) {
+            return 503;
+        }
+        return roll < profile.errorRate() + profile.declineRate() ? 402 : 200;
+    }
+
+    private long sampleLatency(ThreadLocalRandom random) {
+        if (profile.latencyMedianMillis() <= 0) {
+            return 0;
+        }
+        double mu = Math.log(profile.latencyMedianMillis());
+        double sigma = Math.max(0, Math.log((double) profile.latencyP99Millis() / profile.latencyMedianMillis()) / Z_99);
+        return Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Profile profile = Profile.builder()
+                .latencyMedianMillis(Long.getLong("stub.latency.median.ms", 80))
+                .latencyP99Millis(Long.getLong("stub.latency.p99.ms", 1000))
+                .errorRate(Double.parseDouble(System.getProperty("stub.error.rate", "0.05")))
+                .declineRate(Double.parseDouble(System.getProperty("stub.decline.rate", "0.02")))
+                .hangRate(Double.parseDouble(System.getProperty("stub.hang.rate", "0.01")))
+                .hangMillis(Long.getLong("stub.hang.ms", 30000))
+                .build();
+        new PaymentGatewayStubServer(Integer.getInteger("stub.port", 8099), profile).start();
+    }
+}
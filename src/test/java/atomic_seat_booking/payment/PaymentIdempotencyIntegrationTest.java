@@ -0,0 +1,51 @@
+package atomic_seat_booking.payment;
+
+import atomic_seat_booking.service.PaymentService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Idempotency keys are chosen by clients and only unique per user, so two users sending the same
+ * key must still be charged separately at the gateway, while one user's retry is not.
+ * The context is used by this class only, so it is closed afterwards to hand its connections back.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+public class PaymentIdempotencyIntegrationTest {
+
+    private static PaymentGatewayStubServer paymentGateway;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @DynamicPropertySource
+    static void paymentGateway(DynamicPropertyRegistry registry) throws IOException {
+        paymentGateway = new PaymentGatewayStubServer(0, PaymentGatewayStubServer.Profile.builder().build()).start();
+        registry.add("payment.gateway.url", paymentGateway::baseUrl);
+    }
+
+    @AfterAll
+    static void stopPaymentGateway() {
+        paymentGateway.close();
+    }
+
+    @Test
+    void testUsersSharingAKeyAreChargedSeparately() {
+        paymentService.processPayment("user-1", 100L, "shared-key");
+        paymentService.processPayment("user-2", 100L, "shared-key");
+        paymentService.processPayment("user-1", 100L, "shared-key");
+
+        assertThat(paymentGateway.distinctCharges()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,172 @@
+package atomic_seat_booking.payment;
+
+import atomic_seat_booking.exception.PaymentDeclinedException;
+import atomic_seat_booking.exception.PaymentUnavailableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ResilientPaymentClientTest {
+
+    private static ResilientPaymentClient.Settings.SettingsBuilder settings() {
+        return ResilientPaymentClient.Settings.builder()
+                .deadlineMillis(2000)
+                .attemptTimeoutMillis(1000)
+                .maxAttempts(3)
+                .backoffMillis(10)
+                .bulkheadThreads(4)
+                .bulkheadQueue(4)
+                .hedgeEnabled(false)
+                .hedgeMinDelayMillis(50)
+                .circuitFailureThreshold(100)
+                .circuitOpenMillis(1000);
+    }
+
+    @Test
+    void testTransientFailuresAreRetriedWithSameKey() throws Exception {
+        List<String> keys = new CopyOnWriteArrayList<>();
+        PaymentGateway gateway = (userId, amount, key) -> {
+            keys.add(key);
+            if (keys.size() < 3) {
+                throw new RuntimeException("transient");
+            }
+        };
+
+        try (ResilientPaymentClient client = new ResilientPaymentClient(gateway, settings().build())) {
+            client.charge("user-1", 100, "key-1").get();
+        }
+        assertThat(keys).containsExactly("key-1", "key-1", "key-1");
+    }
+
+    @Test
+    void testDeclineIsNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+        PaymentGateway gateway = (userId, amount, key) -> {
+            calls.incrementAndGet();
+            throw new PaymentDeclinedException("insufficient funds");
+        };
+
+        try (ResilientPaymentClient client = new ResilientPaymentClient(gateway, settings().build())) {
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> client.charge("user-1", 100, "key-1").get());
+            assertThat(e.getCause()).isInstanceOf(PaymentDeclinedException.class);
+        }
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testDeadlineBoundsSlowGateway() {
+        PaymentGateway gateway = (userId, amount, key) -> sleep(5000);
+
+        try (ResilientPaymentClient client = new ResilientPaymentClient(gateway,
+                settings().deadlineMillis(300).attemptTimeoutMillis(200).build())) {
+            long start = System.currentTimeMillis();
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> client.charge("user-1", 100, "key-1").get());
+            assertThat(e.getCause()).isInstanceOf(PaymentUnavailableException.class);
+            assertThat(System.currentTimeMillis() - start).isLessThan(1000);
+        }
+    }
+
+    @Test
+    void testTimedOutCallReleasesBulkheadThread() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        PaymentGateway gateway = (userId, amount, key) -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(5000); // Hung call, only cut short by the interrupt
+            }
+        };
+
+        try (ResilientPaymentClient client = new ResilientPaymentClient(gateway, settings()
+                .maxAttempts(1).attemptTimeoutMillis(100).bulkheadThreads(1).bulkheadQueue(1).build())) {
+            assertThrows(ExecutionException.class, () -> client.charge("user-1", 100, "key-1").get());
+
+            long start = System.currentTimeMillis();
+            client.charge("user-1", 100, "key-2").get();
+            assertThat(System.currentTimeMillis() - start).isLessThan(1000);
+        }
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testHedgedCallWinsOverSlowPrimary() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        PaymentGateway gateway = (userId, amount, key) -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(1500); // Slow primary
+            }
+        };
+
+        try (ResilientPaymentClient client = new ResilientPaymentClient(gateway,
+                settings().hedgeEnabled(true).attemptTimeoutMillis(2000).build())) {
+            long start = System.currentTimeMillis();
+            client.charge("user-1", 100, "key-1").get();
+            assertThat(System.currentTimeMillis() - start).isLessThan(1000);
+        }
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testCircuitOpensAfterConsecutiveFailures() {
+        AtomicInteger calls = new AtomicInteger();
+        PaymentGateway gateway = (userId, amount, key) -> {
+            calls.incrementAndGet();
+            throw new RuntimeException("down");
+        };
+
+        try (ResilientPaymentClient client = new ResilientPaymentClient(gateway,
+                settings().maxAttempts(1).circuitFailureThreshold(3).build())) {
+            for (int i = 0; i < 3; i++) {
+                assertThrows(ExecutionException.class, () -> client.charge("user-1", 100, "key").get());
+            }
+            assertThat(client.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> client.charge("user-1", 100, "key").get());
+            assertThat(e.getCause()).hasMessageContaining("circuit is open");
+        }
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void testStubGatewayOutcomesOverHttp() throws Exception {
+        PaymentGatewayStubServer.Profile healthy = PaymentGatewayStubServer.Profile.builder()
+                .latencyMedianMillis(5).latencyP99Millis(20).build();
+        PaymentGatewayStubServer.Profile declining = PaymentGatewayStubServer.Profile.builder()
+                .declineRate(1.0).build();
+
+        try (PaymentGatewayStubServer stub = new PaymentGatewayStubServer(0, healthy).start();
+                ResilientPaymentClient client = new ResilientPaymentClient(
+                        new HttpPaymentGateway(stub.baseUrl(), Duration.ofSeconds(1), new ObjectMapper()),
+                        settings().build())) {
+            client.charge("user-1", 100, "key-1").get();
+            client.charge("user-1", 100, "key-1").get();
+            assertThat(stub.distinctCharges()).isEqualTo(1);
+        }
+
+        try (PaymentGatewayStubServer stub = new PaymentGatewayStubServer(0, declining).start();
+                ResilientPaymentClient client = new ResilientPaymentClient(
+                        new HttpPaymentGateway(stub.baseUrl(), Duration.ofSeconds(1), new ObjectMapper()),
+                        settings().build())) {
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> client.charge("user-1", 100, "key-2").get());
+            assertThat(e.getCause()).isInstanceOf(PaymentDeclinedException.class);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package atomic_seat_booking.seatmap;
+
+import atomic_seat_booking.entity.Seat;
+import atomic_seat_booking.entity.SeatStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SeatMapFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecordsSurviveReopeningAndReplaysAreIdempotent() throws Exception {
+        Path path = directory.resolve("event.seatmap");
+        Instant expires = Instant.ofEpochMilli(1_700_000_000_000L);
+        List<Seat> seats = List.of(seat(30, "C-10"), seat(10, "A1"), seat(20, "Ω-2"));
+
+        try (SeatMapFile file = SeatMapFile.create(path, "évent-1", 5, seats)) {
+            assertThat(file.eventId()).isEqualTo("évent-1");
+            assertThat(file.seatCount()).isEqualTo(3);
+            assertThat(file.watermark()).isEqualTo(5);
+            assertThat(file.seats()).extracting(SeatMapFile.SeatState::seatId).containsExactly(10L, 20L, 30L);
+
+            assertThat(file.apply(20, 7, SeatStatus.HELD, expires)).isEqualTo(SeatMapFile.Applied.UPDATED);
+            assertThat(file.apply(20, 7, SeatStatus.AVAILABLE, null)).isEqualTo(SeatMapFile.Applied.ALREADY_APPLIED);
+            assertThat(file.apply(20, 6, SeatStatus.BOOKED, null)).isEqualTo(SeatMapFile.Applied.ALREADY_APPLIED);
+            assertThat(file.apply(30, 8, SeatStatus.BOOKED, null)).isEqualTo(SeatMapFile.Applied.UPDATED);
+            assertThat(file.apply(15, 9, SeatStatus.HELD, expires)).isEqualTo(SeatMapFile.Applied.UNKNOWN_SEAT);
+            file.advanceWatermark(8);
+        }
+
+        try (SeatMapFile file = SeatMapFile.open(path)) {
+            assertThat(file.watermark()).isEqualTo(8);
+            assertThat(file.seats()).containsExactly(
+                    new SeatMapFile.SeatState(10, "A1", SeatStatus.AVAILABLE, null),
+                    new SeatMapFile.SeatState(20, "Ω-2", SeatStatus.HELD, expires),
+                    new SeatMapFile.SeatState(30, "C-10", SeatStatus.BOOKED, null));
+        }
+        assertThat(directory.resolve("event.seatmap.tmp")).doesNotExist();
+    }
+
+    @Test
+    void testTruncatedOrForeignFilesAreRejected() throws Exception {
+        Path path = directory.resolve("event.seatmap");
+        SeatMapFile.create(path, "event-1", 0, List.of(seat(1, "A1"), seat(2, "A2"))).close();
+
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThatThrownBy(() -> SeatMapFile.open(path)).hasMessageContaining("does not match its header");
+
+        Files.write(path, new byte[64]);
+        assertThatThrownBy(() -> SeatMapFile.open(path)).hasMessageContaining("Not a seat map");
+    }
+
+    private static Seat seat(long id, String seatNumber) {
+        Seat seat = new Seat();
+        seat.setId(id);
+        seat.setEventId("event-1");
+        seat.setSeatNumber(seatNumber);
+        return seat;
+    }
+}
@@ -0,0 +1,29 @@
+package atomic_seat_booking.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CorrelationIdsTest {
+
+    @Test
+    void testIdsFromOneThreadSortInIssueOrder() {
+        List<String> ids = IntStream.range(0, 10_000).mapToObj(i -> CorrelationIds.next()).toList();
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(ids.get(0)).matches("[0-9a-f]{16}-[0-9a-f]{4}");
+    }
+
+    @Test
+    void testConcurrentIdsAreUnique() {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 200_000).parallel().forEach(i -> ids.add(CorrelationIds.next()));
+
+        assertThat(ids).hasSize(200_000);
+    }
+}
@@ -0,0 +1,36 @@
+-- Tables as Hibernate ddl-auto=update created them before the schema was migrated by Flyway,
+-- with a little data in every shape the conversion has to handle.
+
+create table bookings (booked_at timestamp(6) with time zone not null, id bigint generated by default as identity, seat_id bigint not null, user_id varchar(255) not null, primary key (id));
+create table idempotency_keys (created_at timestamp(6) with time zone not null, id bigint generated by default as identity, key varchar(255) not null, response_payload TEXT, user_id varchar(255) not null, primary key (id));
+create table seats (hold_expires_at timestamp(6) with time zone, id bigint generated by default as identity, event_id varchar(255) not null, held_by_user_id varchar(255), seat_number varchar(255) not null, status varchar(255) not null check (status in ('AVAILABLE','HELD','BOOKED')), primary key (id));
+create table users (created_at timestamp(6) with time zone not null, email varchar(255) not null, id varchar(255) not null, name varchar(255) not null, primary key (id));
+alter table if exists bookings drop constraint if exists UKaxe2i0m0r1ftg9tsxe3e5e5rf;
+alter table if exists bookings add constraint UKaxe2i0m0r1ftg9tsxe3e5e5rf unique (seat_id);
+alter table if exists idempotency_keys drop constraint if exists uk_user_idempotency_key;
+alter table if exists idempotency_keys add constraint uk_user_idempotency_key unique (user_id, key);
+alter table if exists seats drop constraint if exists UKq8dx6pmqmp5sbxf5gmab1x6hm;
+alter table if exists seats add constraint UKq8dx6pmqmp5sbxf5gmab1x6hm unique (seat_number);
+alter table if exists users drop constraint if exists UK6dotkott2kjsp8vw4d0m25fb7;
+alter table if exists users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+insert into users (id, name, email, created_at) values
+    ('user-1', 'User One', 'one@example.com', '2026-01-01 10:00:00+00'),
+    ('user-2', 'User Two', 'two@example.com', '2026-01-01 10:00:00+00');
+
+insert into seats (id, event_id, seat_number, status, held_by_user_id, hold_expires_at) values
+    (1, 'concert-1', 'A1', 'BOOKED', 'user-1', null),
+    (2, 'concert-1', 'A2', 'HELD', 'user-2', '2026-01-02 10:05:00+00'),
+    (3, 'concert-1', 'A3', 'AVAILABLE', null, null),
+    (4, 'o''brien night', 'B1', 'BOOKED', 'user-2', null);
+
+-- Booking 3's seat was deleted, so it belongs to no event
+insert into bookings (id, seat_id, user_id, booked_at) values
+    (1, 1, 'user-1', '2026-01-02 10:00:00.123456+00'),
+    (2, 4, 'user-2', '2026-01-02 11:00:00+00'),
+    (3, 99, 'user-1', '2026-01-01 09:00:00+00');
+
+insert into idempotency_keys (id, user_id, key, response_payload, created_at) values
+    (1, 'user-1', 'key-1', '{"id":1,"seatId":1,"userId":"user-1","bookedAt":"2026-01-02T10:00:00.123456Z"}', '2026-01-02 10:00:01+00'),
+    (2, 'user-2', 'key-2', '{"id":2,"seatId":4,"userId":"user-2","bookedAt":1767351600.000000000}', '2026-01-02 23:59:59+00'),
+    (3, 'user-1', 'key-3', 'not json', '2026-01-03 08:00:00+00');